@@ -5,12 +5,14 @@ plugins {
 dependencies {
   nmcpAggregation(project(":sava-core"))
   nmcpAggregation(project(":sava-rpc"))
+  nmcpAggregation(project(":sava-borsh-processor"))
 }
 
 tasks.register("publishToGitHubPackages") {
   group = "publishing"
   dependsOn(
     ":sava-core:publishMavenJavaPublicationToSavaGithubPackagesRepository",
-    ":sava-rpc:publishMavenJavaPublicationToSavaGithubPackagesRepository"
+    ":sava-rpc:publishMavenJavaPublicationToSavaGithubPackagesRepository",
+    ":sava-borsh-processor:publishMavenJavaPublicationToSavaGithubPackagesRepository"
   )
 }
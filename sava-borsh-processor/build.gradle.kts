@@ -0,0 +1,6 @@
+testModuleInfo {
+  requires("java.compiler")
+  requires("software.sava.core")
+  requires("org.junit.jupiter.api")
+  runtimeOnly("org.junit.jupiter.engine")
+}
@@ -0,0 +1,7 @@
+module software.sava.borsh.processor {
+  requires java.compiler;
+
+  exports software.sava.borsh.processor;
+
+  provides javax.annotation.processing.Processor with software.sava.borsh.processor.BorshFlyweightProcessor;
+}
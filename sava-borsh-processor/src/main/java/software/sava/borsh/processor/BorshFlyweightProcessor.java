@@ -0,0 +1,231 @@
+package software.sava.borsh.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import static software.sava.borsh.processor.BorshFlyweightProcessor.FLYWEIGHT;
+
+/// Generates flyweight accessors and encoders for records annotated with `software.sava.core.borsh.BorshFlyweight`,
+/// and Rust enum codecs for annotated sealed interfaces.
+@SupportedAnnotationTypes(FLYWEIGHT)
+public final class BorshFlyweightProcessor extends AbstractProcessor {
+
+  static final String FLYWEIGHT = "software.sava.core.borsh.BorshFlyweight";
+  static final String FIXED_LENGTH = "software.sava.core.borsh.BorshFixedLength";
+  static final String PUBLIC_KEY = "software.sava.core.accounts.PublicKey";
+
+  private static final Set<String> RESERVED_NAMES = Set.of("data", "offset", "read", "write", "wrap", "l");
+  private static final Set<String> OBJECT_METHOD_NAMES = Set.of("equals", "getClass", "hashCode", "toString");
+
+  private final Map<String, List<Field>> layouts = new HashMap<>();
+  private final Set<String> inProgress = new HashSet<>();
+  private final Set<String> generated = new HashSet<>();
+
+  private static final class InvalidLayoutException extends RuntimeException {
+
+    private final transient Element element;
+
+    private InvalidLayoutException(final Element element, final String message) {
+      super(message);
+      this.element = element;
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    for (final var annotation : annotations) {
+      for (final var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        try {
+          if (element.getKind() == ElementKind.RECORD) {
+            generateFlyweight((TypeElement) element);
+          } else if (element.getKind() == ElementKind.INTERFACE && element.getModifiers().contains(Modifier.SEALED)) {
+            generateEnumCodec((TypeElement) element);
+          } else {
+            throw new InvalidLayoutException(element, "@BorshFlyweight requires a record or a sealed interface.");
+          }
+        } catch (final InvalidLayoutException ex) {
+          processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.element);
+        }
+      }
+    }
+    return true;
+  }
+
+  private static String packageName(final TypeElement type) {
+    Element element = type;
+    while (element.getKind() != ElementKind.PACKAGE) {
+      element = element.getEnclosingElement();
+    }
+    return ((PackageElement) element).getQualifiedName().toString();
+  }
+
+  // Nested types are prefixed by their enclosing types, e.g. Outer.Inner becomes Outer_Inner.
+  private static String generatedName(final TypeElement type, final String suffix) {
+    final var name = new StringBuilder(type.getSimpleName());
+    for (var enclosing = type.getEnclosingElement(); enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+    }
+    return name.append(suffix).toString();
+  }
+
+  static String flyweightName(final TypeElement type) {
+    return generatedName(type, "Flyweight");
+  }
+
+  static String qualifiedFlyweightName(final TypeElement type) {
+    final var packageName = packageName(type);
+    return packageName.isEmpty() ? flyweightName(type) : packageName + '.' + flyweightName(type);
+  }
+
+  private static int fixedLength(final Element component) {
+    for (final var annotation : component.getAnnotationMirrors()) {
+      final var annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (annotationType.getQualifiedName().contentEquals(FIXED_LENGTH)) {
+        for (final var entry : annotation.getElementValues().entrySet()) {
+          if (entry.getKey().getSimpleName().contentEquals("value")) {
+            return (Integer) entry.getValue().getValue();
+          }
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static FieldKind primitiveKind(final TypeKind typeKind) {
+    return switch (typeKind) {
+      case BOOLEAN -> FieldKind.BOOL;
+      case BYTE -> FieldKind.I8;
+      case SHORT -> FieldKind.I16;
+      case INT -> FieldKind.I32;
+      case LONG -> FieldKind.I64;
+      case FLOAT -> FieldKind.F32;
+      case DOUBLE -> FieldKind.F64;
+      default -> null;
+    };
+  }
+
+  private Field field(final RecordComponentElement component, final int offset) {
+    final var name = component.getSimpleName().toString();
+    if (RESERVED_NAMES.contains(name)) {
+      throw new InvalidLayoutException(component, "Component name '" + name + "' is reserved by the generated flyweight.");
+    } else if (OBJECT_METHOD_NAMES.contains(name)) {
+      throw new InvalidLayoutException(component, "Component name '" + name + "' collides with a java.lang.Object method.");
+    }
+    final TypeMirror type = component.asType();
+    final var primitive = primitiveKind(type.getKind());
+    if (primitive != null) {
+      return new Field(name, primitive, offset, primitive.length, null);
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      final int length = fixedLength(component);
+      if (length < 0 || !type.toString().equals("byte[]")) {
+        throw new InvalidLayoutException(component, "Only byte[] components annotated with @BorshFixedLength are supported.");
+      }
+      return new Field(name, FieldKind.BYTES, offset, length, null);
+    } else if (type.getKind() == TypeKind.DECLARED) {
+      final var element = (TypeElement) ((DeclaredType) type).asElement();
+      if (element.getQualifiedName().contentEquals(PUBLIC_KEY)) {
+        return new Field(name, FieldKind.PUBLIC_KEY, offset, FieldKind.PUBLIC_KEY.length, null);
+      } else if (element.getKind() == ElementKind.ENUM) {
+        final long numConstants = element.getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.ENUM_CONSTANT)
+            .count();
+        if (numConstants > 256) {
+          throw new InvalidLayoutException(component, "Enum " + element.getQualifiedName() + " has " + numConstants
+              + " constants, a one byte ordinal supports at most 256.");
+        }
+        return new Field(name, FieldKind.ENUM, offset, FieldKind.ENUM.length, element);
+      } else if (element.getKind() == ElementKind.RECORD) {
+        generateFlyweight(element);
+        return new Field(name, FieldKind.STRUCT, offset, length(layout(element)), element);
+      }
+    }
+    throw new InvalidLayoutException(component, "Unsupported fixed size component type " + type + '.');
+  }
+
+  private List<Field> layout(final TypeElement record) {
+    final var key = record.getQualifiedName().toString();
+    final var layout = layouts.get(key);
+    if (layout != null) {
+      return layout;
+    } else if (!inProgress.add(key)) {
+      throw new InvalidLayoutException(record, "Recursive record layouts do not have a fixed size.");
+    }
+    final var fields = new ArrayList<Field>();
+    try {
+      int offset = 0;
+      for (final var component : record.getRecordComponents()) {
+        final var field = field(component, offset);
+        fields.add(field);
+        offset += field.length();
+      }
+    } finally {
+      inProgress.remove(key);
+    }
+    final var fixed = List.copyOf(fields);
+    layouts.put(key, fixed);
+    return fixed;
+  }
+
+  private static int length(final List<Field> layout) {
+    if (layout.isEmpty()) {
+      return 0;
+    }
+    final var last = layout.getLast();
+    return last.offset() + last.length();
+  }
+
+  private void writeSource(final String qualifiedName, final TypeElement origin, final String source) {
+    try (final var writer = processingEnv.getFiler().createSourceFile(qualifiedName, origin).openWriter()) {
+      writer.write(source);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void generateFlyweight(final TypeElement record) {
+    final var layout = layout(record);
+    final var qualifiedName = qualifiedFlyweightName(record);
+    if (generated.add(qualifiedName)) {
+      final var source = new FlyweightSource(packageName(record), flyweightName(record), record, layout, length(layout));
+      writeSource(qualifiedName, record, source.generate());
+    }
+  }
+
+  private void generateEnumCodec(final TypeElement sealedInterface) {
+    final var permitted = sealedInterface.getPermittedSubclasses();
+    if (permitted.isEmpty() || permitted.size() > 256) {
+      throw new InvalidLayoutException(sealedInterface, "A Rust enum must have between 1 and 256 variants.");
+    }
+    final var variants = new ArrayList<TypeElement>(permitted.size());
+    for (final var variantType : permitted) {
+      final var variant = (TypeElement) ((DeclaredType) variantType).asElement();
+      if (variant.getKind() != ElementKind.RECORD) {
+        throw new InvalidLayoutException(variant, "Rust enum variants must be records.");
+      }
+      generateFlyweight(variant);
+      variants.add(variant);
+    }
+    final var name = generatedName(sealedInterface, "Borsh");
+    final var packageName = packageName(sealedInterface);
+    final var qualifiedName = packageName.isEmpty() ? name : packageName + '.' + name;
+    if (generated.add(qualifiedName)) {
+      final var source = new EnumCodecSource(packageName, name, sealedInterface, variants);
+      writeSource(qualifiedName, sealedInterface, source.generate());
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package software.sava.borsh.processor;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+import static software.sava.borsh.processor.BorshFlyweightProcessor.qualifiedFlyweightName;
+
+final class EnumCodecSource {
+
+  private final String packageName;
+  private final String className;
+  private final String interfaceName;
+  private final List<TypeElement> variants;
+  private final StringBuilder src;
+
+  EnumCodecSource(final String packageName,
+                  final String className,
+                  final TypeElement sealedInterface,
+                  final List<TypeElement> variants) {
+    this.packageName = packageName;
+    this.className = className;
+    this.interfaceName = sealedInterface.getQualifiedName().toString();
+    this.variants = variants;
+    this.src = new StringBuilder(2_048);
+  }
+
+  private void line(final String line) {
+    if (!line.isEmpty()) {
+      src.append("  ");
+    }
+    src.append(line).append('\n');
+  }
+
+  private void readSwitch(final String ordinal, final String readArgs) {
+    line("  final int ordinal = " + ordinal + ";");
+    line("  return switch (ordinal) {");
+    for (int i = 0; i < variants.size(); ++i) {
+      line("    case " + i + " -> " + qualifiedFlyweightName(variants.get(i)) + ".read(" + readArgs + ");");
+    }
+    line("    default -> throw new IllegalArgumentException(\"Invalid " + interfaceName + " ordinal \" + ordinal);");
+    line("  };");
+  }
+
+  String generate() {
+    if (!packageName.isEmpty()) {
+      src.append("package ").append(packageName).append(";\n\n");
+    }
+    src.append("""
+        import java.lang.foreign.MemorySegment;
+        import java.lang.foreign.ValueLayout;
+
+        """);
+    src.append("// Generated by ").append(BorshFlyweightProcessor.class.getName()).append(" from ")
+        .append(interfaceName).append(", do not edit.\n");
+    src.append("public final class ").append(className).append(" {\n\n");
+
+    line("private " + className + "() {");
+    line("}");
+    line("");
+    line("public static int ordinal(final " + interfaceName + " value) {");
+    for (int i = 0; i < variants.size(); ++i) {
+      line("  if (value instanceof " + variants.get(i).getQualifiedName() + ") {");
+      line("    return " + i + ";");
+      line("  }");
+    }
+    line("  throw new IllegalArgumentException(\"Unknown " + interfaceName + " variant \" + value.getClass());");
+    line("}");
+    line("");
+    line("public static int ordinal(final byte[] data, final int offset) {");
+    line("  return data[offset] & 0xFF;");
+    line("}");
+    line("");
+    line("public static " + interfaceName + " read(final byte[] data, final int offset) {");
+    readSwitch("data[offset] & 0xFF", "data, offset + 1");
+    line("}");
+    line("");
+    line("public static " + interfaceName + " read(final MemorySegment segment, final long offset) {");
+    readSwitch("segment.get(ValueLayout.JAVA_BYTE, offset) & 0xFF", "segment, offset + 1");
+    line("}");
+    line("");
+    line("public static int l(final " + interfaceName + " value) {");
+    line("  return 1 + switch (ordinal(value)) {");
+    for (int i = 0; i < variants.size(); ++i) {
+      line("    case " + i + " -> " + qualifiedFlyweightName(variants.get(i)) + ".BYTES;");
+    }
+    line("    default -> throw new IllegalStateException();");
+    line("  };");
+    line("}");
+    line("");
+    line("public static int write(final " + interfaceName + " value, final byte[] data, final int offset) {");
+    line("  data[offset] = (byte) ordinal(value);");
+    for (final var variant : variants) {
+      line("  if (value instanceof " + variant.getQualifiedName() + " variant) {");
+      line("    return 1 + " + qualifiedFlyweightName(variant) + ".write(variant, data, offset + 1);");
+      line("  }");
+    }
+    line("  throw new IllegalStateException();");
+    line("}");
+    line("");
+    line("public static byte[] write(final " + interfaceName + " value) {");
+    line("  final byte[] data = new byte[l(value)];");
+    line("  write(value, data, 0);");
+    line("  return data;");
+    line("}");
+    src.append("}\n");
+    return src.toString();
+  }
+}
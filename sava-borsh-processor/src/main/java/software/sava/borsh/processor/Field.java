@@ -0,0 +1,31 @@
+package software.sava.borsh.processor;
+
+import javax.lang.model.element.TypeElement;
+
+/// @param type the enum or record type for [FieldKind#ENUM] and [FieldKind#STRUCT] fields, otherwise `null`.
+record Field(String name,
+             FieldKind kind,
+             int offset,
+             int length,
+             TypeElement type) {
+
+  String constantPrefix() {
+    final var constant = new StringBuilder(name.length() + 8);
+    for (int i = 0; i < name.length(); ++i) {
+      final char c = name.charAt(i);
+      if (Character.isUpperCase(c) && i > 0) {
+        constant.append('_');
+      }
+      constant.append(Character.toUpperCase(c));
+    }
+    return constant.toString();
+  }
+
+  String offsetConstant() {
+    return constantPrefix() + "_OFFSET";
+  }
+
+  String javaType() {
+    return type == null ? kind.javaType : type.getQualifiedName().toString();
+  }
+}
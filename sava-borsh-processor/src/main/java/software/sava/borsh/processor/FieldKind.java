@@ -0,0 +1,24 @@
+package software.sava.borsh.processor;
+
+enum FieldKind {
+
+  BOOL(1, "boolean"),
+  I8(1, "byte"),
+  I16(2, "short"),
+  I32(4, "int"),
+  I64(8, "long"),
+  F32(4, "float"),
+  F64(8, "double"),
+  PUBLIC_KEY(32, "PublicKey"),
+  BYTES(-1, "byte[]"),
+  ENUM(1, null),
+  STRUCT(-1, null);
+
+  final int length;
+  final String javaType;
+
+  FieldKind(final int length, final String javaType) {
+    this.length = length;
+    this.javaType = javaType;
+  }
+}
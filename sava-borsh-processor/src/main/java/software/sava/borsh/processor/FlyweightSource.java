@@ -0,0 +1,239 @@
+package software.sava.borsh.processor;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+import static software.sava.borsh.processor.BorshFlyweightProcessor.qualifiedFlyweightName;
+
+final class FlyweightSource {
+
+  private final String packageName;
+  private final String className;
+  private final String recordName;
+  private final List<Field> layout;
+  private final int length;
+  private final StringBuilder src;
+
+  FlyweightSource(final String packageName,
+                  final String className,
+                  final TypeElement record,
+                  final List<Field> layout,
+                  final int length) {
+    this.packageName = packageName;
+    this.className = className;
+    this.recordName = record.getQualifiedName().toString();
+    this.layout = layout;
+    this.length = length;
+    this.src = new StringBuilder(4_096);
+  }
+
+  private void line(final String line) {
+    if (!line.isEmpty()) {
+      src.append("  ");
+    }
+    src.append(line).append('\n');
+  }
+
+  private static String valuesConstant(final Field field) {
+    return field.constantPrefix() + "_VALUES";
+  }
+
+  private static String lengthConstant(final Field field) {
+    return field.constantPrefix() + "_LENGTH";
+  }
+
+  private static String accessorType(final Field field) {
+    return field.kind() == FieldKind.STRUCT ? qualifiedFlyweightName(field.type()) : field.javaType();
+  }
+
+  private static String readBytes(final Field field, final String o) {
+    return switch (field.kind()) {
+      case BOOL -> "data[" + o + "] != 0";
+      case I8 -> "data[" + o + "]";
+      case I16 -> "ByteUtil.getInt16LE(data, " + o + ")";
+      case I32 -> "ByteUtil.getInt32LE(data, " + o + ")";
+      case I64 -> "ByteUtil.getInt64LE(data, " + o + ")";
+      case F32 -> "ByteUtil.getFloat32LE(data, " + o + ")";
+      case F64 -> "ByteUtil.getFloat64LE(data, " + o + ")";
+      case PUBLIC_KEY -> "PublicKey.readPubKey(data, " + o + ")";
+      case BYTES -> "Arrays.copyOfRange(data, " + o + ", " + o + " + " + lengthConstant(field) + ")";
+      case ENUM -> valuesConstant(field) + "[data[" + o + "] & 0xFF]";
+      case STRUCT -> qualifiedFlyweightName(field.type()) + ".wrap(data, " + o + ")";
+    };
+  }
+
+  private static String readSegment(final Field field, final String o) {
+    return switch (field.kind()) {
+      case BOOL -> "segment.get(ValueLayout.JAVA_BYTE, " + o + ") != 0";
+      case I8 -> "segment.get(ValueLayout.JAVA_BYTE, " + o + ")";
+      case I16 -> "segment.get(INT16, " + o + ")";
+      case I32 -> "segment.get(INT32, " + o + ")";
+      case I64 -> "segment.get(INT64, " + o + ")";
+      case F32 -> "segment.get(FLOAT32, " + o + ")";
+      case F64 -> "segment.get(FLOAT64, " + o + ")";
+      case PUBLIC_KEY ->
+          "PublicKey.createPubKey(segment.asSlice(" + o + ", PublicKey.PUBLIC_KEY_LENGTH).toArray(ValueLayout.JAVA_BYTE))";
+      case BYTES -> "segment.asSlice(" + o + ", " + lengthConstant(field) + ").toArray(ValueLayout.JAVA_BYTE)";
+      case ENUM -> valuesConstant(field) + "[segment.get(ValueLayout.JAVA_BYTE, " + o + ") & 0xFF]";
+      case STRUCT -> qualifiedFlyweightName(field.type()) + ".read(segment, " + o + ")";
+    };
+  }
+
+  private static String write(final Field field, final String v, final String o) {
+    return switch (field.kind()) {
+      case BOOL -> "data[" + o + "] = (byte) (" + v + " ? 1 : 0);";
+      case I8 -> "data[" + o + "] = " + v + ";";
+      case I16 -> "ByteUtil.putInt16LE(data, " + o + ", " + v + ");";
+      case I32 -> "ByteUtil.putInt32LE(data, " + o + ", " + v + ");";
+      case I64 -> "ByteUtil.putInt64LE(data, " + o + ", " + v + ");";
+      case F32 -> "ByteUtil.putFloat32LE(data, " + o + ", " + v + ");";
+      case F64 -> "ByteUtil.putFloat64LE(data, " + o + ", " + v + ");";
+      case PUBLIC_KEY -> v + ".write(data, " + o + ");";
+      case BYTES -> "System.arraycopy(" + v + ", 0, data, " + o + ", " + lengthConstant(field) + ");";
+      case ENUM -> "data[" + o + "] = (byte) " + v + ".ordinal();";
+      case STRUCT -> qualifiedFlyweightName(field.type()) + ".write(" + v + ", data, " + o + ");";
+    };
+  }
+
+  private String constructorArgs(final String perField) {
+    final var args = new StringBuilder();
+    for (final var field : layout) {
+      if (!args.isEmpty()) {
+        args.append(", ");
+      }
+      args.append(perField.replace("$", field.name()));
+      if (field.kind() == FieldKind.STRUCT && !perField.contains("segment")) {
+        args.append(".read()");
+      }
+    }
+    return args.toString();
+  }
+
+  String generate() {
+    if (!packageName.isEmpty()) {
+      src.append("package ").append(packageName).append(";\n\n");
+    }
+    src.append("""
+        import software.sava.core.accounts.PublicKey;
+        import software.sava.core.borsh.Borsh;
+        import software.sava.core.encoding.ByteUtil;
+
+        import java.lang.foreign.MemorySegment;
+        import java.lang.foreign.ValueLayout;
+        import java.util.Arrays;
+        import java.util.Objects;
+
+        import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+        """);
+    src.append("// Generated by ").append(BorshFlyweightProcessor.class.getName()).append(" from ")
+        .append(recordName).append(", do not edit.\n");
+    src.append("@SuppressWarnings(\"unused\")\n");
+    src.append("public final class ").append(className).append(" implements Borsh {\n\n");
+
+    line("public static final int BYTES = " + length + ";");
+    line("");
+    for (final var field : layout) {
+      line("public static final int " + field.offsetConstant() + " = " + field.offset() + ";");
+      if (field.kind() == FieldKind.BYTES) {
+        line("public static final int " + lengthConstant(field) + " = " + field.length() + ";");
+      }
+    }
+    line("");
+    line("private static final ValueLayout.OfShort INT16 = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(LITTLE_ENDIAN);");
+    line("private static final ValueLayout.OfInt INT32 = ValueLayout.JAVA_INT_UNALIGNED.withOrder(LITTLE_ENDIAN);");
+    line("private static final ValueLayout.OfLong INT64 = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(LITTLE_ENDIAN);");
+    line("private static final ValueLayout.OfFloat FLOAT32 = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(LITTLE_ENDIAN);");
+    line("private static final ValueLayout.OfDouble FLOAT64 = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(LITTLE_ENDIAN);");
+    for (final var field : layout) {
+      if (field.kind() == FieldKind.ENUM) {
+        line("private static final " + field.javaType() + "[] " + valuesConstant(field) + " = " + field.javaType() + ".values();");
+      }
+    }
+    line("");
+    line("private final byte[] data;");
+    line("private final int offset;");
+    line("");
+    line("private " + className + "(final byte[] data, final int offset) {");
+    line("  this.data = data;");
+    line("  this.offset = offset;");
+    line("}");
+    line("");
+    line("public static " + className + " wrap(final byte[] data, final int offset) {");
+    line("  Objects.checkFromIndexSize(offset, BYTES, data.length);");
+    line("  return new " + className + "(data, offset);");
+    line("}");
+    line("");
+    line("public static " + className + " wrap(final byte[] data) {");
+    line("  return wrap(data, 0);");
+    line("}");
+    line("");
+    line("public byte[] data() {");
+    line("  return data;");
+    line("}");
+    line("");
+    line("public int offset() {");
+    line("  return offset;");
+    line("}");
+
+    for (final var field : layout) {
+      line("");
+      line("public " + accessorType(field) + " " + field.name() + "() {");
+      line("  return " + readBytes(field, "offset + " + field.offsetConstant()) + ";");
+      line("}");
+    }
+    for (final var field : layout) {
+      line("");
+      line("public static " + field.javaType() + " " + field.name() + "(final MemorySegment segment, final long offset) {");
+      line("  return " + readSegment(field, "offset + " + field.offsetConstant()) + ";");
+      line("}");
+    }
+
+    line("");
+    line("public " + recordName + " read() {");
+    line("  return new " + recordName + "(" + constructorArgs("$()") + ");");
+    line("}");
+    line("");
+    line("public static " + recordName + " read(final byte[] data, final int offset) {");
+    line("  return wrap(data, offset).read();");
+    line("}");
+    line("");
+    line("public static " + recordName + " read(final MemorySegment segment, final long offset) {");
+    line("  Objects.checkFromIndexSize(offset, BYTES, segment.byteSize());");
+    line("  return new " + recordName + "(" + constructorArgs("$(segment, offset)") + ");");
+    line("}");
+
+    line("");
+    line("public static int write(final " + recordName + " value, final byte[] data, final int offset) {");
+    for (final var field : layout) {
+      final var v = "value." + field.name() + "()";
+      if (field.kind() == FieldKind.BYTES) {
+        line("  if (" + v + ".length != " + lengthConstant(field) + ") {");
+        line("    throw new IllegalArgumentException(\"" + field.name() + " must be \" + " + lengthConstant(field) + " + \" bytes.\");");
+        line("  }");
+      }
+      line("  " + write(field, v, "offset + " + field.offsetConstant()));
+    }
+    line("  return BYTES;");
+    line("}");
+    line("");
+    line("public static byte[] write(final " + recordName + " value) {");
+    line("  final byte[] data = new byte[BYTES];");
+    line("  write(value, data, 0);");
+    line("  return data;");
+    line("}");
+    line("");
+    line("@Override");
+    line("public int l() {");
+    line("  return BYTES;");
+    line("}");
+    line("");
+    line("@Override");
+    line("public int write(final byte[] data, final int offset) {");
+    line("  System.arraycopy(this.data, this.offset, data, offset, BYTES);");
+    line("  return BYTES;");
+    line("}");
+    src.append("}\n");
+    return src.toString();
+  }
+}
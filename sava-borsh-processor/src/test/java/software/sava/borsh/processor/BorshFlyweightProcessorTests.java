@@ -0,0 +1,334 @@
+package software.sava.borsh.processor;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.borsh.Borsh;
+import software.sava.core.encoding.ByteUtil;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class BorshFlyweightProcessorTests {
+
+  private static final String POSITION = """
+      package sample;
+
+      import software.sava.core.accounts.PublicKey;
+      import software.sava.core.borsh.BorshFixedLength;
+      import software.sava.core.borsh.BorshFlyweight;
+
+      @BorshFlyweight
+      public record Position(boolean open,
+                             byte side,
+                             short leverage,
+                             int market,
+                             long size,
+                             float fee,
+                             double price,
+                             PublicKey owner,
+                             @BorshFixedLength(8) byte[] tag,
+                             Direction direction,
+                             Range range) {
+
+        public enum Direction {
+          LONG,
+          SHORT
+        }
+
+        public record Range(long low, long high) {
+        }
+      }
+      """;
+
+  private static final String INSTRUCTION = """
+      package sample;
+
+      import software.sava.core.accounts.PublicKey;
+      import software.sava.core.borsh.BorshFlyweight;
+
+      @BorshFlyweight
+      public sealed interface Instruction permits Instruction.Deposit, Instruction.Withdraw {
+
+        record Deposit(long amount) implements Instruction {
+        }
+
+        record Withdraw(PublicKey to, long amount) implements Instruction {
+        }
+      }
+      """;
+
+  private record Source(String className, String code) {
+
+    JavaFileObject fileObject() {
+      final var uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+      return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+          return code;
+        }
+      };
+    }
+  }
+
+  private record Compilation(boolean success, List<String> errors, ClassLoader classLoader) {
+
+    Class<?> load(final String className) throws ClassNotFoundException {
+      return Class.forName(className, true, classLoader);
+    }
+
+    boolean hasError(final String fragment) {
+      return errors.stream().anyMatch(error -> error.contains(fragment));
+    }
+  }
+
+  private static Compilation compile(final Source... sources) throws IOException, URISyntaxException {
+    final var compiler = ToolProvider.getSystemJavaCompiler();
+    final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+    final var classes = Files.createTempDirectory("borsh-processor-classes");
+    final var generated = Files.createTempDirectory("borsh-processor-sources");
+    final var core = Path.of(PublicKey.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (final var fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+      final var task = compiler.getTask(
+          null,
+          fileManager,
+          diagnostics,
+          List.of("-classpath", core.toString(), "-d", classes.toString(), "-s", generated.toString()),
+          null,
+          Arrays.stream(sources).map(Source::fileObject).toList()
+      );
+      task.setProcessors(List.of(new BorshFlyweightProcessor()));
+      final boolean success = task.call();
+      final var errors = diagnostics.getDiagnostics().stream()
+          .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+          .map(diagnostic -> diagnostic.getMessage(null))
+          .toList();
+      final var classLoader = new URLClassLoader(
+          new URL[]{classes.toUri().toURL()},
+          BorshFlyweightProcessorTests.class.getClassLoader()
+      );
+      return new Compilation(success, errors, classLoader);
+    }
+  }
+
+  private static Object invoke(final Class<?> type,
+                               final String method,
+                               final Class<?>[] parameterTypes,
+                               final Object... args) throws ReflectiveOperationException {
+    try {
+      return type.getMethod(method, parameterTypes).invoke(null, args);
+    } catch (final InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  private static Object newRecord(final Class<?> recordClass, final Object... args) throws ReflectiveOperationException {
+    final var parameterTypes = Arrays.stream(recordClass.getRecordComponents())
+        .map(RecordComponent::getType)
+        .toArray(Class<?>[]::new);
+    return recordClass.getDeclaredConstructor(parameterTypes).newInstance(args);
+  }
+
+  @Test
+  void roundTripRecord() throws Exception {
+    final var compilation = compile(new Source("sample.Position", POSITION));
+    assertTrue(compilation.success(), () -> String.join("\n", compilation.errors()));
+
+    final var positionClass = compilation.load("sample.Position");
+    final var directionClass = compilation.load("sample.Position$Direction");
+    final var rangeClass = compilation.load("sample.Position$Range");
+    final var flyweightClass = compilation.load("sample.PositionFlyweight");
+
+    final var owner = PublicKey.fromBase58Encoded("So11111111111111111111111111111111111111112");
+    final byte[] tag = {1, 2, 3, 4, 5, 6, 7, 8};
+    final var direction = directionClass.getEnumConstants()[1];
+    final var range = newRecord(rangeClass, -7L, Long.MAX_VALUE);
+    final var position = newRecord(positionClass,
+        true, (byte) -3, (short) 1_000, 42, 123_456_789_012L, 0.25f, -1.5, owner, tag, direction, range
+    );
+
+    final byte[] expected = new byte[85];
+    int i = Borsh.write(true, expected, 0);
+    expected[i++] = -3;
+    ByteUtil.putInt16LE(expected, i, (short) 1_000);
+    i += Short.BYTES;
+    ByteUtil.putInt32LE(expected, i, 42);
+    i += Integer.BYTES;
+    ByteUtil.putInt64LE(expected, i, 123_456_789_012L);
+    i += Long.BYTES;
+    ByteUtil.putFloat32LE(expected, i, 0.25f);
+    i += Float.BYTES;
+    ByteUtil.putFloat64LE(expected, i, -1.5);
+    i += Double.BYTES;
+    i += owner.write(expected, i);
+    i += Borsh.writeArray(tag, expected, i);
+    expected[i++] = 1;
+    ByteUtil.putInt64LE(expected, i, -7L);
+    i += Long.BYTES;
+    ByteUtil.putInt64LE(expected, i, Long.MAX_VALUE);
+    i += Long.BYTES;
+    assertEquals(expected.length, i);
+    assertEquals(expected.length, flyweightClass.getField("BYTES").getInt(null));
+
+    final byte[] written = (byte[]) invoke(flyweightClass, "write", new Class<?>[]{positionClass}, position);
+    assertArrayEquals(expected, written);
+
+    final byte[] shifted = new byte[3 + expected.length];
+    System.arraycopy(expected, 0, shifted, 3, expected.length);
+    final var flyweight = invoke(flyweightClass, "wrap", new Class<?>[]{byte[].class, int.class}, shifted, 3);
+    assertEquals(123_456_789_012L, flyweightClass.getMethod("size").invoke(flyweight));
+    assertEquals(owner, flyweightClass.getMethod("owner").invoke(flyweight));
+    assertEquals(direction, flyweightClass.getMethod("direction").invoke(flyweight));
+    assertArrayEquals(tag, (byte[]) flyweightClass.getMethod("tag").invoke(flyweight));
+    assertEquals(expected.length, flyweightClass.getMethod("l").invoke(flyweight));
+
+    final var read = flyweightClass.getMethod("read").invoke(flyweight);
+    assertEquals(range, positionClass.getMethod("range").invoke(read));
+    assertArrayEquals(expected, (byte[]) invoke(flyweightClass, "write", new Class<?>[]{positionClass}, read));
+
+    final var segmentRead = invoke(flyweightClass, "read",
+        new Class<?>[]{MemorySegment.class, long.class}, MemorySegment.ofArray(shifted), 3L
+    );
+    assertArrayEquals(expected, (byte[]) invoke(flyweightClass, "write", new Class<?>[]{positionClass}, segmentRead));
+
+    final byte[] copy = new byte[expected.length];
+    flyweightClass.getMethod("write", byte[].class, int.class).invoke(flyweight, copy, 0);
+    assertArrayEquals(expected, copy);
+
+    final var wrongTag = newRecord(positionClass,
+        true, (byte) -3, (short) 1_000, 42, 123_456_789_012L, 0.25f, -1.5, owner, new byte[7], direction, range
+    );
+    assertThrows(IllegalArgumentException.class,
+        () -> invoke(flyweightClass, "write", new Class<?>[]{positionClass}, wrongTag)
+    );
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> invoke(flyweightClass, "wrap", new Class<?>[]{byte[].class, int.class}, expected, 1)
+    );
+  }
+
+  @Test
+  void roundTripSealedInterface() throws Exception {
+    final var compilation = compile(new Source("sample.Instruction", INSTRUCTION));
+    assertTrue(compilation.success(), () -> String.join("\n", compilation.errors()));
+
+    final var instructionClass = compilation.load("sample.Instruction");
+    final var depositClass = compilation.load("sample.Instruction$Deposit");
+    final var withdrawClass = compilation.load("sample.Instruction$Withdraw");
+    final var codecClass = compilation.load("sample.InstructionBorsh");
+
+    final var deposit = newRecord(depositClass, 1_000L);
+    final byte[] expectedDeposit = new byte[1 + Long.BYTES];
+    ByteUtil.putInt64LE(expectedDeposit, 1, 1_000L);
+
+    final var to = PublicKey.fromBase58Encoded("11111111111111111111111111111111");
+    final var withdraw = newRecord(withdrawClass, to, -1L);
+    final byte[] expectedWithdraw = new byte[1 + PublicKey.PUBLIC_KEY_LENGTH + Long.BYTES];
+    expectedWithdraw[0] = 1;
+    to.write(expectedWithdraw, 1);
+    ByteUtil.putInt64LE(expectedWithdraw, 1 + PublicKey.PUBLIC_KEY_LENGTH, -1L);
+
+    final var writeParams = new Class<?>[]{instructionClass};
+    final var readParams = new Class<?>[]{byte[].class, int.class};
+    assertArrayEquals(expectedDeposit, (byte[]) invoke(codecClass, "write", writeParams, deposit));
+    assertArrayEquals(expectedWithdraw, (byte[]) invoke(codecClass, "write", writeParams, withdraw));
+    assertEquals(expectedWithdraw.length, invoke(codecClass, "l", writeParams, withdraw));
+
+    assertEquals(deposit, invoke(codecClass, "read", readParams, expectedDeposit, 0));
+    assertEquals(withdraw, invoke(codecClass, "read", readParams, expectedWithdraw, 0));
+    assertEquals(withdraw, invoke(codecClass, "read",
+        new Class<?>[]{MemorySegment.class, long.class}, MemorySegment.ofArray(expectedWithdraw), 0L
+    ));
+
+    final byte[] invalid = expectedDeposit.clone();
+    invalid[0] = 2;
+    assertThrows(IllegalArgumentException.class, () -> invoke(codecClass, "read", readParams, invalid, 0));
+  }
+
+  @Test
+  void rejectEnumsWithTooManyConstants() throws Exception {
+    final var constants = IntStream.rangeClosed(0, 256)
+        .mapToObj(i -> "  C" + i)
+        .collect(Collectors.joining(",\n"));
+    final var compilation = compile(
+        new Source("sample.Wide", "package sample;\n\npublic enum Wide {\n" + constants + "\n}\n"),
+        new Source("sample.Holder", """
+            package sample;
+
+            @software.sava.core.borsh.BorshFlyweight
+            public record Holder(Wide wide) {
+            }
+            """)
+    );
+    assertFalse(compilation.success());
+    assertTrue(compilation.hasError("has 257 constants"), () -> String.join("\n", compilation.errors()));
+  }
+
+  @Test
+  void rejectObjectMethodComponentNames() throws Exception {
+    for (final var name : List.of("equals", "getClass", "hashCode", "toString")) {
+      final var compilation = compile(new Source("sample.Named", """
+          package sample;
+
+          @software.sava.core.borsh.BorshFlyweight
+          public record Named(long %s) {
+          }
+          """.formatted(name)));
+      assertFalse(compilation.success(), name);
+    }
+    final var compilation = compile(new Source("sample.Named", """
+        package sample;
+
+        @software.sava.core.borsh.BorshFlyweight
+        public record Named(long equals) {
+        }
+        """));
+    assertTrue(compilation.hasError("'equals' collides with a java.lang.Object method"),
+        () -> String.join("\n", compilation.errors())
+    );
+  }
+
+  @Test
+  void reportFailedLayoutsOnEveryUse() throws Exception {
+    final var compilation = compile(new Source("sample.Outer", """
+        package sample;
+
+        import software.sava.core.borsh.BorshFlyweight;
+
+        public final class Outer {
+
+          public record Inner(String name) {
+          }
+
+          @BorshFlyweight
+          public record First(Inner inner) {
+          }
+
+          @BorshFlyweight
+          public record Second(Inner inner) {
+          }
+        }
+        """));
+    assertFalse(compilation.success());
+    assertEquals(2, compilation.errors().stream().filter(error -> error.contains("Unsupported fixed size")).count(),
+        () -> String.join("\n", compilation.errors())
+    );
+    assertFalse(compilation.hasError("Recursive"), () -> String.join("\n", compilation.errors()));
+  }
+}
@@ -0,0 +1,108 @@
+package software.sava.core.accounts;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+final class CachingPDAEngine implements PDAEngine {
+
+  private final int maxCached;
+  private final ConcurrentHashMap<Key, ProgramDerivedAddress> cache;
+  private final ConcurrentLinkedQueue<PDADeriver> derivers;
+
+  private record Key(byte[] bytes, int hash) {
+
+    private Key(final byte[] bytes) {
+      this(bytes, Arrays.hashCode(bytes));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Key key && Arrays.equals(bytes, key.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  CachingPDAEngine(final int maxCached) {
+    this.maxCached = maxCached;
+    this.cache = maxCached > 0 ? new ConcurrentHashMap<>(maxCached) : null;
+    this.derivers = new ConcurrentLinkedQueue<>();
+  }
+
+  private ProgramDerivedAddress find(final PDADeriver deriver,
+                                     final List<byte[]> seeds,
+                                     final PublicKey programId) {
+    if (cache == null) {
+      return deriver.find(seeds, programId);
+    }
+    deriver.prepare(seeds, programId);
+    final var key = new Key(deriver.key());
+    final var cached = cache.get(key);
+    if (cached != null) {
+      return cached.seeds() == seeds
+          ? cached
+          : ProgramDerivedAddress.createPDA(seeds, cached.publicKey(), cached.nonce());
+    }
+    final var pda = deriver.find(seeds);
+    if (cache.size() >= maxCached) {
+      // Evict an arbitrary entry rather than track recency.
+      final var iterator = cache.keySet().iterator();
+      if (iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+    cache.put(key, pda);
+    return pda;
+  }
+
+  @Override
+  public ProgramDerivedAddress findProgramAddress(final List<byte[]> seeds, final PublicKey programId) {
+    var deriver = derivers.poll();
+    if (deriver == null) {
+      deriver = new PDADeriver();
+    }
+    try {
+      return find(deriver, seeds, programId);
+    } finally {
+      derivers.offer(deriver);
+    }
+  }
+
+  @Override
+  public ProgramDerivedAddress[] findProgramAddresses(final List<? extends List<byte[]>> seeds,
+                                                      final PublicKey programId,
+                                                      final ForkJoinPool pool) {
+    final int numAddresses = seeds.size();
+    final var addresses = new ProgramDerivedAddress[numAddresses];
+    final int numGroups = Math.max(1, Math.min(numAddresses >> 4, pool.getParallelism() << 2));
+    pool.submit(() -> IntStream.range(0, numGroups).parallel().forEach(group -> {
+      final int from = (int) ((long) numAddresses * group / numGroups);
+      final int to = (int) ((long) numAddresses * (group + 1) / numGroups);
+      final var deriver = new PDADeriver();
+      for (int i = from; i < to; ++i) {
+        addresses[i] = find(deriver, seeds.get(i), programId);
+      }
+    })).join();
+    return addresses;
+  }
+
+  @Override
+  public int numCached() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  @Override
+  public void clearCache() {
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+}
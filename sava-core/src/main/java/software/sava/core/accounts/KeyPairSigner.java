@@ -43,7 +43,7 @@ final class KeyPairSigner implements Signer {
     this.signature = signature;
   }
 
-  private static Signature createSignature(final PrivateKey privateKey) {
+  static Signature createSignature(final PrivateKey privateKey) {
     try {
       final var signature = Signature.getInstance(ED25519.getName(), SUN_EC_PROVIDER);
       signature.initSign(privateKey);
@@ -0,0 +1,73 @@
+package software.sava.core.accounts;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+// Zero initialized backing storage for the public key collections, either a long[] or an off-heap segment.
+interface LongStorage extends AutoCloseable {
+
+  LongFunction<LongStorage> ON_HEAP = length -> new Heap(new long[Math.toIntExact(length)]);
+
+  LongFunction<LongStorage> OFF_HEAP = length -> {
+    final var arena = Arena.ofShared();
+    return new OffHeap(arena, arena.allocate(length * Long.BYTES, Long.BYTES));
+  };
+
+  long get(final long index);
+
+  void set(final long index, final long value);
+
+  void clear();
+
+  @Override
+  void close();
+
+  record Heap(long[] array) implements LongStorage {
+
+    @Override
+    public long get(final long index) {
+      return array[(int) index];
+    }
+
+    @Override
+    public void set(final long index, final long value) {
+      array[(int) index] = value;
+    }
+
+    @Override
+    public void clear() {
+      Arrays.fill(array, 0);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  record OffHeap(Arena arena, MemorySegment segment) implements LongStorage {
+
+    @Override
+    public long get(final long index) {
+      return segment.getAtIndex(JAVA_LONG, index);
+    }
+
+    @Override
+    public void set(final long index, final long value) {
+      segment.setAtIndex(JAVA_LONG, index, value);
+    }
+
+    @Override
+    public void clear() {
+      segment.fill((byte) 0);
+    }
+
+    @Override
+    public void close() {
+      arena.close();
+    }
+  }
+}
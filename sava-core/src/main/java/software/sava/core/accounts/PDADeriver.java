@@ -0,0 +1,72 @@
+package software.sava.core.accounts;
+
+import software.sava.core.crypto.Hash;
+import software.sava.core.crypto.ed25519.OffCurveCheck;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+import static software.sava.core.accounts.PublicKey.*;
+import static software.sava.core.accounts.PublicKeyBytes.PDA_BYTES;
+
+// Scratch state for deriving program addresses, not thread safe.
+final class PDADeriver {
+
+  static final int MAX_BUFFER_LENGTH = (MAX_SEEDS * MAX_SEED_LENGTH) + 1 + PUBLIC_KEY_LENGTH + PDA_BYTES.length;
+
+  private final MessageDigest sha256;
+  private final OffCurveCheck offCurveCheck;
+  private final byte[] buffer;
+  private final byte[] hash;
+  private int seedsLength;
+  private int length;
+
+  PDADeriver() {
+    this.sha256 = Hash.sha256Digest();
+    this.offCurveCheck = new OffCurveCheck();
+    this.buffer = new byte[MAX_BUFFER_LENGTH];
+    this.hash = new byte[PUBLIC_KEY_LENGTH];
+  }
+
+  /// Writes the hash input for `seeds` and `programId`, leaving a single byte for the bump.
+  void prepare(final List<byte[]> seeds, final PublicKey programId) {
+    this.seedsLength = PublicKeyBytes.seedsLength(seeds);
+    this.length = PublicKeyBytes.writeBuffer(seeds, 1, programId, buffer);
+  }
+
+  /// @return the seeds and program id of the prepared input, which is everything the derived address depends on.
+  byte[] key() {
+    final byte[] key = new byte[seedsLength + PUBLIC_KEY_LENGTH];
+    System.arraycopy(buffer, 0, key, 0, seedsLength);
+    System.arraycopy(buffer, seedsLength + 1, key, seedsLength, PUBLIC_KEY_LENGTH);
+    return key;
+  }
+
+  private boolean hashIsOffCurve(final int nonce) {
+    buffer[seedsLength] = (byte) nonce;
+    sha256.update(buffer, 0, length);
+    try {
+      sha256.digest(hash, 0, PUBLIC_KEY_LENGTH);
+    } catch (final DigestException e) {
+      throw new IllegalStateException(e);
+    }
+    return offCurveCheck.isNotOnCurve(hash, 0);
+  }
+
+  /// @return the derived address for the prepared input.
+  ProgramDerivedAddress find(final List<byte[]> seeds) {
+    for (int nonce = 255; nonce >= 0; --nonce) {
+      if (hashIsOffCurve(nonce)) {
+        return ProgramDerivedAddress.createPDA(seeds, PublicKey.createPubKey(Arrays.copyOf(hash, PUBLIC_KEY_LENGTH)), nonce);
+      }
+    }
+    throw new RuntimeException("Unable to find a viable program derived address nonce");
+  }
+
+  ProgramDerivedAddress find(final List<byte[]> seeds, final PublicKey programId) {
+    prepare(seeds, programId);
+    return find(seeds);
+  }
+}
@@ -0,0 +1,39 @@
+package software.sava.core.accounts;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/// Derives program addresses re-using hashing and curve check scratch space across bump attempts, and optionally
+/// caches results by program id and seeds.
+///
+/// Instances are thread safe.
+public interface PDAEngine {
+
+  /// @param maxCached approximate maximum number of cached addresses, `0` disables caching.
+  static PDAEngine createEngine(final int maxCached) {
+    return new CachingPDAEngine(maxCached);
+  }
+
+  static PDAEngine createEngine() {
+    return createEngine(0);
+  }
+
+  ProgramDerivedAddress findProgramAddress(final List<byte[]> seeds, final PublicKey programId);
+
+  /// Derives an address for each seed list across `pool`, for example the associated token account of every
+  /// wallet and mint pair.
+  ///
+  /// @return the derived addresses indexed as `seeds`.
+  ProgramDerivedAddress[] findProgramAddresses(final List<? extends List<byte[]>> seeds,
+                                               final PublicKey programId,
+                                               final ForkJoinPool pool);
+
+  default ProgramDerivedAddress[] findProgramAddresses(final List<? extends List<byte[]>> seeds,
+                                                      final PublicKey programId) {
+    return findProgramAddresses(seeds, programId, ForkJoinPool.commonPool());
+  }
+
+  int numCached();
+
+  void clearCache();
+}
@@ -0,0 +1,84 @@
+package software.sava.core.accounts;
+
+import software.sava.core.tx.Transaction;
+
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static software.sava.core.accounts.KeyPairSigner.createSignature;
+
+/**
+ * Leases a {@link Signature} per sign operation from a bounded pool, so a single instance may be shared across threads.
+ * Signatures are created on demand if the pool is empty and discarded if it is full.
+ */
+final class PooledSigner implements Signer {
+
+  private final PublicKey publicKey;
+  private final PrivateKey privateKey;
+  private final ArrayBlockingQueue<Signature> pool;
+
+  PooledSigner(final PublicKey publicKey, final PrivateKey privateKey, final int maxPooled) {
+    this.publicKey = publicKey;
+    this.privateKey = privateKey;
+    this.pool = new ArrayBlockingQueue<>(maxPooled);
+    this.pool.offer(createSignature(privateKey));
+  }
+
+  private Signature acquire() {
+    final var signature = pool.poll();
+    return signature == null ? createSignature(privateKey) : signature;
+  }
+
+  @Override
+  public PublicKey publicKey() {
+    return publicKey;
+  }
+
+  @Override
+  public PrivateKey privateKey() {
+    return privateKey;
+  }
+
+  @Override
+  public Signer createDedicatedSigner() {
+    return new KeyPairSigner(publicKey, privateKey);
+  }
+
+  @Override
+  public Signer createThreadSafeSigner() {
+    return this;
+  }
+
+  @Override
+  public int sign(final byte[] message, final int msgOffset, final int msgLen, final int outPos) {
+    final var signature = acquire();
+    try {
+      signature.update(message, msgOffset, msgLen);
+      signature.sign(message, outPos, Transaction.SIGNATURE_LENGTH);
+      pool.offer(signature);
+      return outPos + Transaction.SIGNATURE_LENGTH;
+    } catch (final SignatureException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  @Override
+  public byte[] sign(final byte[] message, final int msgOffset, final int msgLen) {
+    final var signature = acquire();
+    try {
+      signature.update(message, msgOffset, msgLen);
+      final byte[] sig = signature.sign();
+      pool.offer(signature);
+      return sig;
+    } catch (final SignatureException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  @Override
+  public byte[] sign(final byte[] message) {
+    return sign(message, 0, message.length);
+  }
+}
@@ -0,0 +1,56 @@
+package software.sava.core.accounts;
+
+import software.sava.core.crypto.ed25519.Ed25519ExpandedKey;
+
+import java.security.PrivateKey;
+
+/**
+ * Signs with a cached {@link Ed25519ExpandedKey}, holds no mutable state and therefore may be shared across threads.
+ */
+final class PrecomputedSigner implements Signer {
+
+  private final PublicKey publicKey;
+  private final PrivateKey privateKey;
+  private final Ed25519ExpandedKey expandedKey;
+
+  PrecomputedSigner(final PublicKey publicKey, final PrivateKey privateKey, final Ed25519ExpandedKey expandedKey) {
+    this.publicKey = publicKey;
+    this.privateKey = privateKey;
+    this.expandedKey = expandedKey;
+  }
+
+  @Override
+  public PublicKey publicKey() {
+    return publicKey;
+  }
+
+  @Override
+  public PrivateKey privateKey() {
+    return privateKey;
+  }
+
+  @Override
+  public Signer createDedicatedSigner() {
+    return this;
+  }
+
+  @Override
+  public Signer createThreadSafeSigner() {
+    return this;
+  }
+
+  @Override
+  public int sign(final byte[] message, final int msgOffset, final int msgLen, final int outPos) {
+    return expandedKey.sign(message, msgOffset, msgLen, message, outPos);
+  }
+
+  @Override
+  public byte[] sign(final byte[] message, final int msgOffset, final int msgLen) {
+    return expandedKey.sign(message, msgOffset, msgLen);
+  }
+
+  @Override
+  public byte[] sign(final byte[] message) {
+    return expandedKey.sign(message);
+  }
+}
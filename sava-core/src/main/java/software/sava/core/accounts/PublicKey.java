@@ -4,6 +4,7 @@ import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
 import software.sava.core.crypto.Hash;
 import software.sava.core.crypto.ed25519.Ed25519Util;
+import software.sava.core.crypto.ed25519.OffCurveCheck;
 import software.sava.core.encoding.Base58;
 import software.sava.core.encoding.ByteUtil;
 
@@ -21,7 +22,6 @@ import java.util.Base64;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
-import static software.sava.core.accounts.PublicKeyBytes.PDA_BYTES;
 import static software.sava.core.crypto.Hash.sha256Digest;
 import static software.sava.core.crypto.SunCrypto.ED_25519_KEY_FACTORY;
 
@@ -202,17 +202,7 @@ public interface PublicKey extends Comparable<PublicKey> {
   }
 
   static ProgramDerivedAddress findProgramAddress(final List<byte[]> seeds, final PublicKey programId) {
-    final byte[] buffer = PublicKeyBytes.createBuffer(seeds, true, programId);
-    final int nonceOffset = buffer.length - (1 + PublicKey.PUBLIC_KEY_LENGTH + PDA_BYTES.length);
-    final var sha256 = Hash.sha256Digest();
-    for (int nonce = 255; nonce >= 0; --nonce) {
-      buffer[nonceOffset] = (byte) nonce;
-      final byte[] hash = sha256.digest(buffer);
-      if (Ed25519Util.isNotOnCurve(hash)) {
-        return ProgramDerivedAddress.createPDA(seeds, PublicKey.createPubKey(hash), nonce);
-      }
-    }
-    throw new RuntimeException("Unable to find a viable program derived address nonce");
+    return new PDADeriver().find(seeds, programId);
   }
 
   static AccountWithSeed createOffCurveAccountWithAsciiSeed(final PublicKey base,
@@ -232,10 +222,11 @@ public interface PublicKey extends Comparable<PublicKey> {
 
     final int nonceOffset = PUBLIC_KEY_LENGTH + baseSeedBytes.length;
     final var sha256 = Hash.sha256Digest();
+    final var offCurveCheck = new OffCurveCheck();
     for (int nonce = 127; nonce >= 0; --nonce) {
       buffer[nonceOffset] = (byte) nonce;
       final byte[] hash = sha256.digest(buffer);
-      if (Ed25519Util.isNotOnCurve(hash)) {
+      if (offCurveCheck.isNotOnCurve(hash)) {
         final byte[] bumpSeedBytes = Arrays.copyOfRange(
             buffer,
             PUBLIC_KEY_LENGTH,
@@ -276,6 +267,11 @@ public interface PublicKey extends Comparable<PublicKey> {
     return PUBLIC_KEY_LENGTH;
   }
 
+  /// Compares against the 32 bytes at `offset` without reading them into a new [PublicKey].
+  default boolean matches(final byte[] data, final int offset) {
+    return Arrays.equals(toByteArray(), 0, PUBLIC_KEY_LENGTH, data, offset, offset + PUBLIC_KEY_LENGTH);
+  }
+
   default boolean verifySignature(final byte[] msg,
                                   final int msgOffset,
                                   final int msgLength,
@@ -18,16 +18,14 @@ final class PublicKeyBytes implements PublicKey {
     this.publicKey = publicKey;
   }
 
-  static byte[] createBuffer(final List<byte[]> seeds,
-                             final boolean nonce,
-                             final PublicKey programId) {
+  static int seedsLength(final List<byte[]> seeds) {
     if (seeds.size() > PublicKey.MAX_SEEDS) {
       throw new IllegalArgumentException(String.format(
           "Maximum number of seeds [%d] exceeded. Given [%d].",
           PublicKey.MAX_SEEDS, seeds.size()
       ));
     }
-    int bufLength = nonce ? 1 : 0;
+    int seedsLength = 0;
     for (final var seed : seeds) {
       final int len = seed.length;
       if (len > MAX_SEED_LENGTH) {
@@ -36,21 +34,35 @@ final class PublicKeyBytes implements PublicKey {
             new String(seed), MAX_SEED_LENGTH
         ));
       }
-      bufLength += len;
+      seedsLength += len;
     }
+    return seedsLength;
+  }
 
-    final byte[] buffer = new byte[bufLength + PUBLIC_KEY_LENGTH + PDA_BYTES.length];
-
+  /// Writes the seeds, followed by `nonceLength` bytes reserved for the bump, the program id and the PDA marker.
+  ///
+  /// @return the total number of bytes written.
+  static int writeBuffer(final List<byte[]> seeds,
+                         final int nonceLength,
+                         final PublicKey programId,
+                         final byte[] buffer) {
     int from = 0;
     for (final byte[] seed : seeds) {
       System.arraycopy(seed, 0, buffer, from, seed.length);
       from += seed.length;
     }
-    from = bufLength;
+    from += nonceLength;
     from += programId.write(buffer, from);
-
     System.arraycopy(PDA_BYTES, 0, buffer, from, PDA_BYTES.length);
+    return from + PDA_BYTES.length;
+  }
 
+  static byte[] createBuffer(final List<byte[]> seeds,
+                             final boolean nonce,
+                             final PublicKey programId) {
+    final int nonceLength = nonce ? 1 : 0;
+    final byte[] buffer = new byte[seedsLength(seeds) + nonceLength + PUBLIC_KEY_LENGTH + PDA_BYTES.length];
+    writeBuffer(seeds, nonceLength, programId, buffer);
     return buffer;
   }
 
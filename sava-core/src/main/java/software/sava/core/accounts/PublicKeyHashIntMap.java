@@ -0,0 +1,96 @@
+package software.sava.core.accounts;
+
+import java.util.function.LongFunction;
+import java.util.function.ObjIntConsumer;
+
+final class PublicKeyHashIntMap extends PublicKeyTable implements PublicKeyIntMap {
+
+  private final int noEntryValue;
+
+  PublicKeyHashIntMap(final LongFunction<LongStorage> allocator, final int expectedSize, final int noEntryValue) {
+    super(allocator, KEY_WORDS + 1, expectedSize);
+    this.noEntryValue = noEntryValue;
+  }
+
+  private int value(final int slot) {
+    return (int) table.get(((long) slot * stride) + KEY_WORDS);
+  }
+
+  private void value(final int slot, final int value) {
+    table.set(((long) slot * stride) + KEY_WORDS, value);
+  }
+
+  @Override
+  public int noEntryValue() {
+    return noEntryValue;
+  }
+
+  @Override
+  public int put(final PublicKey key, final int value) {
+    final int slot = find(key);
+    if (slot < 0) {
+      value(insert(slot, key), value);
+      return noEntryValue;
+    } else {
+      final int previous = value(slot);
+      value(slot, value);
+      return previous;
+    }
+  }
+
+  @Override
+  public int get(final PublicKey key) {
+    return getOrDefault(key, noEntryValue);
+  }
+
+  @Override
+  public int get(final byte[] data, final int offset) {
+    final int slot = find(data, offset);
+    return slot < 0 ? noEntryValue : value(slot);
+  }
+
+  @Override
+  public int getOrDefault(final PublicKey key, final int defaultValue) {
+    final int slot = find(key);
+    return slot < 0 ? defaultValue : value(slot);
+  }
+
+  @Override
+  public boolean containsKey(final PublicKey key) {
+    return find(key) >= 0;
+  }
+
+  @Override
+  public int addTo(final PublicKey key, final int delta) {
+    final int slot = find(key);
+    if (slot < 0) {
+      value(insert(slot, key), delta);
+      return delta;
+    } else {
+      final int value = value(slot) + delta;
+      value(slot, value);
+      return value;
+    }
+  }
+
+  @Override
+  public int remove(final PublicKey key) {
+    final int slot = find(key);
+    if (slot < 0) {
+      return noEntryValue;
+    } else {
+      final int previous = value(slot);
+      remove(slot);
+      return previous;
+    }
+  }
+
+  @Override
+  public void forEach(final ObjIntConsumer<PublicKey> consumer) {
+    for (int slot = 0; slot <= capacity; ++slot) {
+      if (occupied(slot)) {
+        consumer.accept(keyAt(slot), value(slot));
+      }
+    }
+  }
+}
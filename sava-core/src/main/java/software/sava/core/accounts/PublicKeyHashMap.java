@@ -0,0 +1,139 @@
+package software.sava.core.accounts;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+final class PublicKeyHashMap<V> extends PublicKeyTable implements PublicKeyMap<V> {
+
+  private Object[] values;
+  private Object[] oldValues;
+
+  PublicKeyHashMap(final LongFunction<LongStorage> allocator, final int expectedSize) {
+    super(allocator, KEY_WORDS, expectedSize);
+    this.values = new Object[capacity + 1];
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(final int slot) {
+    return (V) values[slot];
+  }
+
+  @Override
+  public V put(final PublicKey key, final V value) {
+    Objects.requireNonNull(value);
+    final int slot = find(key);
+    if (slot < 0) {
+      // Insertion may grow the values array.
+      final int newSlot = insert(slot, key);
+      values[newSlot] = value;
+      return null;
+    } else {
+      final var previous = value(slot);
+      values[slot] = value;
+      return previous;
+    }
+  }
+
+  @Override
+  public V putIfAbsent(final PublicKey key, final V value) {
+    Objects.requireNonNull(value);
+    final int slot = find(key);
+    if (slot < 0) {
+      // Insertion may grow the values array.
+      final int newSlot = insert(slot, key);
+      values[newSlot] = value;
+      return null;
+    } else {
+      return value(slot);
+    }
+  }
+
+  @Override
+  public V get(final PublicKey key) {
+    final int slot = find(key);
+    return slot < 0 ? null : value(slot);
+  }
+
+  @Override
+  public V get(final byte[] data, final int offset) {
+    final int slot = find(data, offset);
+    return slot < 0 ? null : value(slot);
+  }
+
+  @Override
+  public boolean containsKey(final PublicKey key) {
+    return find(key) >= 0;
+  }
+
+  @Override
+  public V computeIfAbsent(final PublicKey key, final Function<PublicKey, ? extends V> mappingFunction) {
+    final int slot = find(key);
+    if (slot >= 0) {
+      return value(slot);
+    }
+    final V value = mappingFunction.apply(key);
+    if (value != null) {
+      // The mapping function must not modify this map.
+      final int newSlot = insert(slot, key);
+      values[newSlot] = value;
+    }
+    return value;
+  }
+
+  @Override
+  public V remove(final PublicKey key) {
+    final int slot = find(key);
+    if (slot < 0) {
+      return null;
+    } else {
+      final var previous = value(slot);
+      remove(slot);
+      return previous;
+    }
+  }
+
+  @Override
+  public void forEach(final BiConsumer<PublicKey, ? super V> consumer) {
+    for (int slot = 0; slot <= capacity; ++slot) {
+      final var value = value(slot);
+      if (value != null) {
+        consumer.accept(keyAt(slot), value);
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    Arrays.fill(values, null);
+  }
+
+  @Override
+  void clearValue(final int slot) {
+    values[slot] = null;
+  }
+
+  @Override
+  void moveValue(final int from, final int to) {
+    values[to] = values[from];
+  }
+
+  @Override
+  void beginRehash(final int newCapacity) {
+    oldValues = values;
+    values = new Object[newCapacity + 1];
+  }
+
+  @Override
+  void relocateValue(final int oldSlot, final int newSlot) {
+    values[newSlot] = oldValues[oldSlot];
+  }
+
+  @Override
+  void endRehash() {
+    oldValues = null;
+  }
+}
@@ -0,0 +1,52 @@
+package software.sava.core.accounts;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+final class PublicKeyHashSet extends PublicKeyTable implements PublicKeySet {
+
+  PublicKeyHashSet(final LongFunction<LongStorage> allocator, final int expectedSize) {
+    super(allocator, KEY_WORDS, expectedSize);
+  }
+
+  @Override
+  public boolean add(final PublicKey key) {
+    final int slot = find(key);
+    if (slot < 0) {
+      insert(slot, key);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean contains(final PublicKey key) {
+    return find(key) >= 0;
+  }
+
+  @Override
+  public boolean contains(final byte[] data, final int offset) {
+    return find(data, offset) >= 0;
+  }
+
+  @Override
+  public boolean remove(final PublicKey key) {
+    final int slot = find(key);
+    if (slot < 0) {
+      return false;
+    } else {
+      remove(slot);
+      return true;
+    }
+  }
+
+  @Override
+  public void forEach(final Consumer<PublicKey> consumer) {
+    for (int slot = 0; slot <= capacity; ++slot) {
+      if (occupied(slot)) {
+        consumer.accept(keyAt(slot));
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package software.sava.core.accounts;
+
+import java.util.function.ObjIntConsumer;
+
+/// An open addressing map from [PublicKey] to `int`, storing each key inline as four longs next to its value.
+///
+/// Instances are not thread safe.  Off-heap maps must be closed to release their memory.
+public interface PublicKeyIntMap extends AutoCloseable {
+
+  /// @param noEntryValue returned by [#get] and [#put] when a key is absent.
+  static PublicKeyIntMap createMap(final int expectedSize, final int noEntryValue) {
+    return new PublicKeyHashIntMap(LongStorage.ON_HEAP, expectedSize, noEntryValue);
+  }
+
+  static PublicKeyIntMap createMap(final int expectedSize) {
+    return createMap(expectedSize, -1);
+  }
+
+  static PublicKeyIntMap createOffHeapMap(final int expectedSize, final int noEntryValue) {
+    return new PublicKeyHashIntMap(LongStorage.OFF_HEAP, expectedSize, noEntryValue);
+  }
+
+  static PublicKeyIntMap createOffHeapMap(final int expectedSize) {
+    return createOffHeapMap(expectedSize, -1);
+  }
+
+  int noEntryValue();
+
+  /// @return the previous value, or [#noEntryValue()].
+  int put(final PublicKey key, final int value);
+
+  /// @return the value, or [#noEntryValue()].
+  int get(final PublicKey key);
+
+  /// Reads the 32 byte key at `offset` without creating a [PublicKey].
+  int get(final byte[] data, final int offset);
+
+  int getOrDefault(final PublicKey key, final int defaultValue);
+
+  boolean containsKey(final PublicKey key);
+
+  /// Adds `delta` to the current value, or to `0` if absent.
+  ///
+  /// @return the new value.
+  int addTo(final PublicKey key, final int delta);
+
+  /// @return the removed value, or [#noEntryValue()].
+  int remove(final PublicKey key);
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  void clear();
+
+  /// Keys are materialized on each call.
+  void forEach(final ObjIntConsumer<PublicKey> consumer);
+
+  @Override
+  void close();
+}
@@ -0,0 +1,55 @@
+package software.sava.core.accounts;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/// An open addressing map from [PublicKey] to `V`, storing each key inline as four longs with values in a parallel
+/// array.
+///
+/// Instances are not thread safe and do not accept `null` values.  Off-heap maps keep only their keys off-heap and
+/// must be closed to release that memory.
+public interface PublicKeyMap<V> extends AutoCloseable {
+
+  static <V> PublicKeyMap<V> createMap(final int expectedSize) {
+    return new PublicKeyHashMap<>(LongStorage.ON_HEAP, expectedSize);
+  }
+
+  static <V> PublicKeyMap<V> createOffHeapMap(final int expectedSize) {
+    return new PublicKeyHashMap<>(LongStorage.OFF_HEAP, expectedSize);
+  }
+
+  /// @return the previous value, or `null`.
+  V put(final PublicKey key, final V value);
+
+  V putIfAbsent(final PublicKey key, final V value);
+
+  V get(final PublicKey key);
+
+  /// Reads the 32 byte key at `offset` without creating a [PublicKey].
+  V get(final byte[] data, final int offset);
+
+  default V getOrDefault(final PublicKey key, final V defaultValue) {
+    final var value = get(key);
+    return value == null ? defaultValue : value;
+  }
+
+  boolean containsKey(final PublicKey key);
+
+  V computeIfAbsent(final PublicKey key, final Function<PublicKey, ? extends V> mappingFunction);
+
+  V remove(final PublicKey key);
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  void clear();
+
+  /// Keys are materialized on each call.
+  void forEach(final BiConsumer<PublicKey, ? super V> consumer);
+
+  @Override
+  void close();
+}
@@ -0,0 +1,42 @@
+package software.sava.core.accounts;
+
+import java.util.function.Consumer;
+
+/// An open addressing set storing each key inline as four longs, avoiding a node, key object and byte array per
+/// entry.
+///
+/// Instances are not thread safe.  Off-heap sets must be closed to release their memory.
+public interface PublicKeySet extends AutoCloseable {
+
+  static PublicKeySet createSet(final int expectedSize) {
+    return new PublicKeyHashSet(LongStorage.ON_HEAP, expectedSize);
+  }
+
+  static PublicKeySet createOffHeapSet(final int expectedSize) {
+    return new PublicKeyHashSet(LongStorage.OFF_HEAP, expectedSize);
+  }
+
+  /// @return false if the key was already present.
+  boolean add(final PublicKey key);
+
+  boolean contains(final PublicKey key);
+
+  /// Checks the 32 byte key at `offset` without creating a [PublicKey], for example directly from account data.
+  boolean contains(final byte[] data, final int offset);
+
+  boolean remove(final PublicKey key);
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  void clear();
+
+  /// Keys are materialized on each call.
+  void forEach(final Consumer<PublicKey> consumer);
+
+  @Override
+  void close();
+}
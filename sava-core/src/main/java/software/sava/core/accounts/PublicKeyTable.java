@@ -0,0 +1,226 @@
+package software.sava.core.accounts;
+
+import java.util.function.LongFunction;
+
+import static software.sava.core.encoding.ByteUtil.getInt64LE;
+import static software.sava.core.encoding.ByteUtil.putInt64LE;
+
+/// Linear probing table storing each key inline as four little endian longs, followed by `stride - 4` value words.
+///
+/// An all zero slot is empty, so the all zero key, the system program, lives in a dedicated slot at `capacity`.
+/// Removal shifts later entries of the probe run back rather than leaving tombstones.
+abstract class PublicKeyTable implements AutoCloseable {
+
+  static final int KEY_WORDS = PublicKey.PUBLIC_KEY_LENGTH / Long.BYTES;
+  private static final int MIN_CAPACITY = 16;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final LongFunction<LongStorage> allocator;
+  final int stride;
+  LongStorage table;
+  int capacity;
+  private int mask;
+  private int maxFill;
+  int size;
+  private boolean hasZeroKey;
+
+  PublicKeyTable(final LongFunction<LongStorage> allocator, final int stride, final int expectedSize) {
+    this.allocator = allocator;
+    this.stride = stride;
+    final long minCapacity = Math.max(MIN_CAPACITY, ((long) Math.max(0, expectedSize) << 2) / 3 + 1);
+    if (minCapacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Expected size is too large: " + expectedSize);
+    }
+    setCapacity(Integer.highestOneBit((int) minCapacity - 1) << 1);
+    this.table = allocator.apply(slots(capacity));
+  }
+
+  private void setCapacity(final int capacity) {
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.maxFill = (int) (((long) capacity * 3) >> 2);
+  }
+
+  private long slots(final int capacity) {
+    return ((long) capacity + 1) * stride;
+  }
+
+  static int hash(final long k0, final long k1, final long k2, final long k3) {
+    // Keys are already uniformly random, folding every word keeps structured program ids apart.
+    return (int) (((k0 ^ k1 ^ k2 ^ k3) * 0x9E3779B97F4A7C15L) >>> 32);
+  }
+
+  /// @return the slot holding the key, or the bitwise complement of the empty slot where it belongs.
+  final int find(final long k0, final long k1, final long k2, final long k3) {
+    if ((k0 | k1 | k2 | k3) == 0) {
+      return hasZeroKey ? capacity : ~capacity;
+    }
+    final var table = this.table;
+    for (int slot = hash(k0, k1, k2, k3) & mask; ; slot = (slot + 1) & mask) {
+      final long i = (long) slot * stride;
+      final long w0 = table.get(i);
+      final long w1 = table.get(i + 1);
+      final long w2 = table.get(i + 2);
+      final long w3 = table.get(i + 3);
+      if (w0 == k0 && w1 == k1 && w2 == k2 && w3 == k3) {
+        return slot;
+      } else if ((w0 | w1 | w2 | w3) == 0) {
+        return ~slot;
+      }
+    }
+  }
+
+  final int find(final byte[] data, final int offset) {
+    return find(getInt64LE(data, offset), getInt64LE(data, offset + 8), getInt64LE(data, offset + 16), getInt64LE(data, offset + 24));
+  }
+
+  final int find(final PublicKey key) {
+    return find(key.toByteArray(), 0);
+  }
+
+  /// Writes the key into the empty slot returned by [#find], growing the table first if needed.
+  ///
+  /// @return the slot now holding the key.
+  final int insert(final int emptySlot, final long k0, final long k1, final long k2, final long k3) {
+    int slot = ~emptySlot;
+    if (slot == capacity) {
+      hasZeroKey = true;
+      ++size;
+      return slot;
+    } else if (size >= maxFill) {
+      rehash();
+      slot = ~find(k0, k1, k2, k3);
+    }
+    final long i = (long) slot * stride;
+    table.set(i, k0);
+    table.set(i + 1, k1);
+    table.set(i + 2, k2);
+    table.set(i + 3, k3);
+    ++size;
+    return slot;
+  }
+
+  final int insert(final int emptySlot, final PublicKey key) {
+    final byte[] bytes = key.toByteArray();
+    return insert(emptySlot, getInt64LE(bytes, 0), getInt64LE(bytes, 8), getInt64LE(bytes, 16), getInt64LE(bytes, 24));
+  }
+
+  final boolean occupied(final int slot) {
+    if (slot == capacity) {
+      return hasZeroKey;
+    }
+    final long i = (long) slot * stride;
+    return (table.get(i) | table.get(i + 1) | table.get(i + 2) | table.get(i + 3)) != 0;
+  }
+
+  final PublicKey keyAt(final int slot) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    final long i = (long) slot * stride;
+    for (int w = 0; w < KEY_WORDS; ++w) {
+      putInt64LE(key, w << 3, table.get(i + w));
+    }
+    return PublicKey.createPubKey(key);
+  }
+
+  private void clearSlot(final int slot) {
+    final long from = (long) slot * stride;
+    for (long i = from, to = from + stride; i < to; ++i) {
+      table.set(i, 0);
+    }
+    clearValue(slot);
+  }
+
+  final void remove(final int slot) {
+    --size;
+    if (slot == capacity) {
+      hasZeroKey = false;
+      clearSlot(slot);
+      return;
+    }
+    int gap = slot;
+    for (int next = (slot + 1) & mask; occupied(next); next = (next + 1) & mask) {
+      final long i = (long) next * stride;
+      final int ideal = hash(table.get(i), table.get(i + 1), table.get(i + 2), table.get(i + 3)) & mask;
+      // Shift back unless the entry's ideal slot lies cyclically after the gap.
+      if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+        final long to = (long) gap * stride;
+        for (int w = 0; w < stride; ++w) {
+          table.set(to + w, table.get(i + w));
+        }
+        moveValue(next, gap);
+        gap = next;
+      }
+    }
+    clearSlot(gap);
+  }
+
+  private void rehash() {
+    final int oldCapacity = capacity;
+    if (oldCapacity == MAX_CAPACITY) {
+      throw new IllegalStateException("Public key table is full.");
+    }
+    final var oldTable = table;
+    final int newCapacity = oldCapacity << 1;
+    final var newTable = allocator.apply(slots(newCapacity));
+    beginRehash(newCapacity);
+    setCapacity(newCapacity);
+    this.table = newTable;
+    for (int oldSlot = 0; oldSlot <= oldCapacity; ++oldSlot) {
+      final long i = (long) oldSlot * stride;
+      final long k0 = oldTable.get(i);
+      final long k1 = oldTable.get(i + 1);
+      final long k2 = oldTable.get(i + 2);
+      final long k3 = oldTable.get(i + 3);
+      final int newSlot;
+      if (oldSlot == oldCapacity) {
+        if (!hasZeroKey) {
+          break;
+        }
+        newSlot = newCapacity;
+      } else if ((k0 | k1 | k2 | k3) == 0) {
+        continue;
+      } else {
+        newSlot = ~find(k0, k1, k2, k3);
+      }
+      final long to = (long) newSlot * stride;
+      for (int w = 0; w < stride; ++w) {
+        newTable.set(to + w, oldTable.get(i + w));
+      }
+      relocateValue(oldSlot, newSlot);
+    }
+    endRehash();
+    oldTable.close();
+  }
+
+  // Hooks for values stored outside the table.
+
+  void clearValue(final int slot) {
+  }
+
+  void moveValue(final int from, final int to) {
+  }
+
+  void beginRehash(final int newCapacity) {
+  }
+
+  void relocateValue(final int oldSlot, final int newSlot) {
+  }
+
+  void endRehash() {
+  }
+
+  public final int size() {
+    return size;
+  }
+
+  public void clear() {
+    table.clear();
+    size = 0;
+    hasZeroKey = false;
+  }
+
+  @Override
+  public final void close() {
+    table.close();
+  }
+}
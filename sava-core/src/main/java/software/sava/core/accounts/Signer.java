@@ -1,6 +1,7 @@
 package software.sava.core.accounts;
 
 import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import software.sava.core.crypto.ed25519.Ed25519ExpandedKey;
 import software.sava.core.crypto.ed25519.Ed25519Util;
 import software.sava.core.encoding.Base58;
 
@@ -84,6 +85,27 @@ public interface Signer {
     );
   }
 
+  /**
+   * Creates a thread-safe signer which caches the expanded private key and signs using fixed-base comb tables.
+   */
+  static Signer createPrecomputedSigner(final byte[] privateKey) {
+    final var expandedKey = Ed25519ExpandedKey.expand(privateKey);
+    return new PrecomputedSigner(
+        new PublicKeyBytes(expandedKey.publicKey()),
+        KeyPairSigner.generatePrivateKey(Arrays.copyOfRange(privateKey, 0, Signer.KEY_LENGTH)),
+        expandedKey
+    );
+  }
+
+  /**
+   * Creates a signer from an expanded key, the 32 byte scalar followed by the 32 byte nonce prefix, such as those
+   * produced by incremental vanity searches.  Expanded keys have no seed, so {@link #privateKey()} returns null.
+   */
+  static Signer createFromExpandedKey(final byte[] expandedKey) {
+    final var key = Ed25519ExpandedKey.fromExpandedKey(expandedKey);
+    return new PrecomputedSigner(new PublicKeyBytes(key.publicKey()), null, key);
+  }
+
   static Signer createFromKeyPair(final PublicKey publicKey, final PrivateKey privateKey) {
     return new KeyPairSigner(publicKey, privateKey);
   }
@@ -94,6 +116,13 @@ public interface Signer {
 
   Signer createDedicatedSigner();
 
+  /**
+   * @return a signer which may be shared across any number of threads, backed by a bounded pool of signature engines.
+   */
+  default Signer createThreadSafeSigner() {
+    return new PooledSigner(publicKey(), privateKey(), Runtime.getRuntime().availableProcessors() << 1);
+  }
+
   int sign(final byte[] message,
            final int msgOffset,
            final int msgLen,
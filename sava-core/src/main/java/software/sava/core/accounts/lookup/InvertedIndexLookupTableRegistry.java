@@ -0,0 +1,184 @@
+package software.sava.core.accounts.lookup;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.meta.AccountMeta;
+import software.sava.core.tx.Instruction;
+import software.sava.core.tx.Transaction;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class InvertedIndexLookupTableRegistry implements LookupTableRegistry {
+
+  // Table address plus the compact lengths of its write and read indexes.
+  private static final int TABLE_COST = Transaction.BASE_LOOKUP_TABLE_LEN;
+  // A static account key is replaced by a one byte index.
+  private static final int ACCOUNT_SAVINGS = PublicKey.PUBLIC_KEY_LENGTH - 1;
+  private static final AddressLookupTable[] NO_TABLES = new AddressLookupTable[0];
+
+  private final ConcurrentHashMap<PublicKey, AddressLookupTable> tables;
+  private final ConcurrentHashMap<PublicKey, AddressLookupTable[]> tablesByAccount;
+  private final ReentrantLock lock;
+
+  private static final class Candidate {
+
+    private final AddressLookupTable table;
+    private final long[] accounts;
+
+    private Candidate(final AddressLookupTable table, final int numWords) {
+      this.table = table;
+      this.accounts = new long[numWords];
+    }
+  }
+
+  InvertedIndexLookupTableRegistry(final int expectedNumTables) {
+    this.tables = new ConcurrentHashMap<>(expectedNumTables);
+    this.tablesByAccount = new ConcurrentHashMap<>(expectedNumTables << 4);
+    this.lock = new ReentrantLock();
+  }
+
+  private void index(final AddressLookupTable table) {
+    final var entry = new AddressLookupTable[]{table};
+    for (final var account : table.uniqueAccounts()) {
+      tablesByAccount.merge(account, entry, (present, add) -> {
+        final var merged = Arrays.copyOf(present, present.length + 1);
+        merged[present.length] = table;
+        return merged;
+      });
+    }
+  }
+
+  private void unIndex(final AddressLookupTable table) {
+    for (final var account : table.uniqueAccounts()) {
+      tablesByAccount.computeIfPresent(account, (key, present) -> {
+        for (int i = 0; i < present.length; ++i) {
+          if (present[i] == table) {
+            if (present.length == 1) {
+              return null;
+            }
+            final var remaining = new AddressLookupTable[present.length - 1];
+            System.arraycopy(present, 0, remaining, 0, i);
+            System.arraycopy(present, i + 1, remaining, i, remaining.length - i);
+            return remaining;
+          }
+        }
+        return present;
+      });
+    }
+  }
+
+  @Override
+  public boolean addTable(final AddressLookupTable table) {
+    final boolean active = table.isActive();
+    lock.lock();
+    try {
+      final var previous = active
+          ? tables.put(table.address(), table)
+          : tables.remove(table.address());
+      if (previous != null) {
+        unIndex(previous);
+      }
+      if (active) {
+        index(table);
+      }
+      return active;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public AddressLookupTable removeTable(final PublicKey address) {
+    lock.lock();
+    try {
+      final var previous = tables.remove(address);
+      if (previous != null) {
+        unIndex(previous);
+      }
+      return previous;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public AddressLookupTable table(final PublicKey address) {
+    return tables.get(address);
+  }
+
+  @Override
+  public int numTables() {
+    return tables.size();
+  }
+
+  @Override
+  public AddressLookupTable[] selectTables(final AccountMeta feePayer, final List<Instruction> instructions) {
+    final var accounts = HashMap.<PublicKey, AccountMeta>newHashMap(Transaction.MAX_ACCOUNTS);
+    if (feePayer != null) {
+      accounts.put(feePayer.publicKey(), feePayer);
+    }
+    for (final var instruction : instructions) {
+      for (final var meta : instruction.accounts()) {
+        accounts.merge(meta.publicKey(), meta, Transaction.MERGE_ACCOUNT_META);
+      }
+      final var programMeta = instruction.programId();
+      accounts.merge(programMeta.publicKey(), programMeta, Transaction.MERGE_ACCOUNT_META);
+    }
+
+    final int numWords = (accounts.size() + 63) >>> 6;
+    final var candidatesByTable = new IdentityHashMap<AddressLookupTable, Candidate>();
+    final var candidates = new ArrayList<Candidate>();
+    int bit = 0;
+    for (final var meta : accounts.values()) {
+      if (meta.signer() || meta.invoked()) {
+        continue;
+      }
+      final var accountTables = tablesByAccount.get(meta.publicKey());
+      if (accountTables != null) {
+        final int word = bit >>> 6;
+        final long mask = 1L << bit;
+        for (final var table : accountTables) {
+          var candidate = candidatesByTable.get(table);
+          if (candidate == null) {
+            candidate = new Candidate(table, numWords);
+            candidatesByTable.put(table, candidate);
+            candidates.add(candidate);
+          }
+          candidate.accounts[word] |= mask;
+        }
+        ++bit;
+      }
+    }
+    if (candidates.isEmpty()) {
+      return NO_TABLES;
+    }
+
+    // Greedy weighted set cover, each round takes the table covering the most remaining accounts.
+    final long[] covered = new long[numWords];
+    final var selected = new ArrayList<AddressLookupTable>();
+    for (; ; ) {
+      Candidate best = null;
+      int bestCount = 0;
+      for (final var candidate : candidates) {
+        int count = 0;
+        for (int w = 0; w < numWords; ++w) {
+          count += Long.bitCount(candidate.accounts[w] & ~covered[w]);
+        }
+        if (count > bestCount) {
+          best = candidate;
+          bestCount = count;
+        }
+      }
+      if (best == null || bestCount * ACCOUNT_SAVINGS <= TABLE_COST) {
+        break;
+      }
+      selected.add(best.table);
+      for (int w = 0; w < numWords; ++w) {
+        covered[w] |= best.accounts[w];
+      }
+      candidates.remove(best);
+    }
+    return selected.toArray(NO_TABLES);
+  }
+}
@@ -0,0 +1,56 @@
+package software.sava.core.accounts.lookup;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.meta.AccountMeta;
+import software.sava.core.accounts.meta.LookupTableAccountMeta;
+import software.sava.core.tx.Instruction;
+import software.sava.core.tx.Transaction;
+
+import java.util.List;
+
+/// Indexes many lookup tables by the accounts they contain, so the tables which best compress a transaction can be
+/// selected without scanning every table.
+///
+/// Tables may be added, replaced and removed concurrently with selection.
+public interface LookupTableRegistry {
+
+  static LookupTableRegistry createRegistry(final int expectedNumTables) {
+    return new InvertedIndexLookupTableRegistry(expectedNumTables);
+  }
+
+  static LookupTableRegistry createRegistry() {
+    return createRegistry(1_024);
+  }
+
+  /// Adds or replaces a table by its address, for example after it has been extended.
+  ///
+  /// @return false if the table is not active, in which case any previous version is removed.
+  boolean addTable(final AddressLookupTable table);
+
+  AddressLookupTable removeTable(final PublicKey address);
+
+  AddressLookupTable table(final PublicKey address);
+
+  int numTables();
+
+  /// Greedily selects tables which reduce the serialized transaction size the most, a table is only used if the
+  /// accounts it covers save more than its own 34 byte reference costs.
+  ///
+  /// Only accounts which are neither signers nor invoked programs may be loaded from a table.
+  ///
+  /// @return the selected tables in the order they should be passed to [Transaction#createTx], may be empty.
+  AddressLookupTable[] selectTables(final AccountMeta feePayer, final List<Instruction> instructions);
+
+  default LookupTableAccountMeta[] selectTableMetas(final AccountMeta feePayer, final List<Instruction> instructions) {
+    return LookupTableAccountMeta.createMetas(selectTables(feePayer, instructions));
+  }
+
+  /// @return a versioned transaction using the selected tables, or a legacy transaction if no table helps.
+  default Transaction createTx(final AccountMeta feePayer, final List<Instruction> instructions) {
+    return Transaction.createTx(feePayer, instructions, selectTableMetas(feePayer, instructions));
+  }
+
+  default Transaction createTx(final PublicKey feePayer, final List<Instruction> instructions) {
+    return createTx(feePayer == null ? null : AccountMeta.createFeePayer(feePayer), instructions);
+  }
+}
@@ -18,6 +18,14 @@ public record Mint(PublicKey address,
 
   public static final int BYTES = 82;
 
+  public static final int MINT_AUTHORITY_OPTION_OFFSET = 0;
+  public static final int MINT_AUTHORITY_OFFSET = MINT_AUTHORITY_OPTION_OFFSET + Integer.BYTES;
+  public static final int SUPPLY_OFFSET = MINT_AUTHORITY_OFFSET + PUBLIC_KEY_LENGTH;
+  public static final int DECIMALS_OFFSET = SUPPLY_OFFSET + Long.BYTES;
+  public static final int INITIALIZED_OFFSET = DECIMALS_OFFSET + 1;
+  public static final int FREEZE_AUTHORITY_OPTION_OFFSET = INITIALIZED_OFFSET + 1;
+  public static final int FREEZE_AUTHORITY_OFFSET = FREEZE_AUTHORITY_OPTION_OFFSET + Integer.BYTES;
+
   public static final BiFunction<PublicKey, byte[], Mint> FACTORY = Mint::read;
 
   public static Mint read(final PublicKey address, final byte[] data) {
@@ -0,0 +1,82 @@
+package software.sava.core.accounts.token;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.encoding.ByteUtil;
+
+import java.util.Arrays;
+
+import static software.sava.core.accounts.token.Mint.*;
+
+/// A re-usable flyweight over SPL mint data, including the base layout of Token-2022 mints.
+///
+/// Instances are not thread safe.
+public final class MintView {
+
+  private byte[] data;
+  private int offset;
+
+  public static MintView wrapData(final byte[] data) {
+    return new MintView().wrap(data, 0);
+  }
+
+  /// Points this view at another mint.
+  public MintView wrap(final byte[] data, final int offset) {
+    this.data = data;
+    this.offset = offset;
+    return this;
+  }
+
+  public MintView wrap(final byte[] data) {
+    return wrap(data, 0);
+  }
+
+  public byte[] data() {
+    return data;
+  }
+
+  public int offset() {
+    return offset;
+  }
+
+  public boolean hasMintAuthority() {
+    return ByteUtil.getInt32LE(data, offset + MINT_AUTHORITY_OPTION_OFFSET) == 1;
+  }
+
+  /// @return the mint authority, or `null` if none is set.
+  public PublicKey mintAuthority() {
+    return hasMintAuthority() ? PublicKey.readPubKey(data, offset + MINT_AUTHORITY_OFFSET) : null;
+  }
+
+  public boolean mintAuthorityEquals(final PublicKey mintAuthority) {
+    return hasMintAuthority() && mintAuthority.matches(data, offset + MINT_AUTHORITY_OFFSET);
+  }
+
+  public long supply() {
+    return ByteUtil.getInt64LE(data, offset + SUPPLY_OFFSET);
+  }
+
+  public int decimals() {
+    return data[offset + DECIMALS_OFFSET] & 0xFF;
+  }
+
+  public boolean initialized() {
+    return data[offset + INITIALIZED_OFFSET] == 1;
+  }
+
+  public boolean hasFreezeAuthority() {
+    return ByteUtil.getInt32LE(data, offset + FREEZE_AUTHORITY_OPTION_OFFSET) == 1;
+  }
+
+  /// @return the freeze authority, or `null` if none is set.
+  public PublicKey freezeAuthority() {
+    return hasFreezeAuthority() ? PublicKey.readPubKey(data, offset + FREEZE_AUTHORITY_OFFSET) : null;
+  }
+
+  public boolean freezeAuthorityEquals(final PublicKey freezeAuthority) {
+    return hasFreezeAuthority() && freezeAuthority.matches(data, offset + FREEZE_AUTHORITY_OFFSET);
+  }
+
+  public Mint read(final PublicKey address) {
+    return Mint.read(address, offset == 0 ? data : Arrays.copyOfRange(data, offset, offset + BYTES));
+  }
+}
@@ -13,10 +13,46 @@ public record Token2022(Mint mint,
                         AccountType accountType,
                         Map<ExtensionType, TokenExtension> extensions) implements Serializable {
 
-  private static final int PADDING_AFTER_MINT = 83;
+  static final int PADDING_AFTER_MINT = 83;
 
   public static final BiFunction<PublicKey, byte[], Token2022> FACTORY = Token2022::read;
 
+  static TokenExtension parseExtension(final ExtensionType type,
+                                       final byte[] data,
+                                       final int from,
+                                       final int to) {
+    return switch (type) {
+      case Uninitialized -> Uninitialized.INSTANCE;
+      case TransferFeeConfig -> TransferFeeConfig.read(data, from);
+      case TransferFeeAmount -> TransferFeeAmount.read(data, from);
+      case MintCloseAuthority -> MintCloseAuthority.read(data, from);
+      case ConfidentialTransferMint -> ConfidentialTransferMint.read(data, from);
+      case ConfidentialTransferAccount -> ConfidentialTransferAccount.read(data, from);
+      case DefaultAccountState -> DefaultAccountState.read(data, from);
+      case ImmutableOwner -> ImmutableOwner.INSTANCE;
+      case MemoTransfer -> MemoTransfer.read(data, from);
+      case NonTransferable -> NonTransferable.INSTANCE;
+      case InterestBearingConfig -> InterestBearingConfig.read(data, from);
+      case CpiGuard -> CpiGuard.read(data, from);
+      case PermanentDelegate -> PermanentDelegate.read(data, from);
+      case NonTransferableAccount -> NonTransferableAccount.INSTANCE;
+      case TransferHook -> TransferHook.read(data, from);
+      case TransferHookAccount -> TransferHookAccount.read(data, from);
+      case ConfidentialTransferFeeConfig -> ConfidentialTransferFeeConfig.read(data, from, to);
+      case ConfidentialTransferFeeAmount -> ConfidentialTransferFeeAmount.read(data, from, to);
+      case MetadataPointer -> MetadataPointer.read(data, from);
+      case TokenMetadata -> TokenMetadata.read(data, from);
+      case GroupPointer -> GroupPointer.read(data, from);
+      case TokenGroup -> TokenGroup.INSTANCE;
+      case GroupMemberPointer -> GroupMemberPointer.read(data, from);
+      case TokenGroupMember -> TokenGroupMember.INSTANCE;
+      case ConfidentialMintBurn -> ConfidentialMintBurn.read(data, from);
+      case ScaledUiAmount -> ScaledUiAmountConfig.read(data, from);
+      case Pausable -> PausableConfig.read(data, from);
+      case PausableAccount -> PausableAccount.INSTANCE;
+    };
+  }
+
   static Map<ExtensionType, TokenExtension> parseExtensions(final byte[] data, final int offset) {
     final var extensions = new EnumMap<ExtensionType, TokenExtension>(ExtensionType.class);
     final var extensionTypes = ExtensionType.values();
@@ -26,36 +62,7 @@ public record Token2022(Mint mint,
       int length = ByteUtil.getInt16LE(data, i);
       i += Short.BYTES;
       final var type = extensionTypes[extensionType];
-      final var extensionData = switch (type) {
-        case Uninitialized -> Uninitialized.INSTANCE;
-        case TransferFeeConfig -> TransferFeeConfig.read(data, i);
-        case TransferFeeAmount -> TransferFeeAmount.read(data, i);
-        case MintCloseAuthority -> MintCloseAuthority.read(data, i);
-        case ConfidentialTransferMint -> ConfidentialTransferMint.read(data, i);
-        case ConfidentialTransferAccount -> ConfidentialTransferAccount.read(data, i);
-        case DefaultAccountState -> DefaultAccountState.read(data, i);
-        case ImmutableOwner -> ImmutableOwner.INSTANCE;
-        case MemoTransfer -> MemoTransfer.read(data, i);
-        case NonTransferable -> NonTransferable.INSTANCE;
-        case InterestBearingConfig -> InterestBearingConfig.read(data, i);
-        case CpiGuard -> CpiGuard.read(data, i);
-        case PermanentDelegate -> PermanentDelegate.read(data, i);
-        case NonTransferableAccount -> NonTransferableAccount.INSTANCE;
-        case TransferHook -> TransferHook.read(data, i);
-        case TransferHookAccount -> TransferHookAccount.read(data, i);
-        case ConfidentialTransferFeeConfig -> ConfidentialTransferFeeConfig.read(data, i, i + length);
-        case ConfidentialTransferFeeAmount -> ConfidentialTransferFeeAmount.read(data, i, i + length);
-        case MetadataPointer -> MetadataPointer.read(data, i);
-        case TokenMetadata -> TokenMetadata.read(data, i);
-        case GroupPointer -> GroupPointer.read(data, i);
-        case TokenGroup -> TokenGroup.INSTANCE;
-        case GroupMemberPointer -> GroupMemberPointer.read(data, i);
-        case TokenGroupMember -> TokenGroupMember.INSTANCE;
-        case ConfidentialMintBurn -> ConfidentialMintBurn.read(data, i);
-        case ScaledUiAmount -> ScaledUiAmountConfig.read(data, i);
-        case Pausable -> PausableConfig.read(data, i);
-        case PausableAccount -> PausableAccount.INSTANCE;
-      };
+      final var extensionData = parseExtension(type, data, i, i + length);
       if (extensionData != null) {
         extensions.put(type, extensionData);
       }
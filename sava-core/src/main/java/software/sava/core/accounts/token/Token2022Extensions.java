@@ -0,0 +1,158 @@
+package software.sava.core.accounts.token;
+
+import software.sava.core.accounts.token.extensions.AccountType;
+import software.sava.core.accounts.token.extensions.ExtensionType;
+import software.sava.core.accounts.token.extensions.TokenExtension;
+import software.sava.core.encoding.ByteUtil;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static software.sava.core.accounts.token.Token2022.PADDING_AFTER_MINT;
+
+/// A lazy view over the extension TLV region of a Token-2022 mint or token account.
+///
+/// Indexing walks the type and length headers once, each extension is only decoded the first time it is requested.
+/// Instances are not thread safe.
+public final class Token2022Extensions {
+
+  /// Both mints, after their padding, and token accounts store the account type at the same offset.
+  public static final int ACCOUNT_TYPE_OFFSET = Mint.BYTES + PADDING_AFTER_MINT;
+  public static final int EXTENSIONS_OFFSET = ACCOUNT_TYPE_OFFSET + 1;
+
+  private static final ExtensionType[] EXTENSION_TYPES = ExtensionType.values();
+  private static final int TLV_HEADER_LENGTH = Short.BYTES << 1;
+
+  private final byte[] data;
+  private final int offset;
+  // Value offset and length of each present extension, indexed by ordinal.
+  private final int[] offsets;
+  private final int[] lengths;
+  private final TokenExtension[] decoded;
+  private final int numExtensions;
+
+  private Token2022Extensions(final byte[] data, final int offset) {
+    this.data = data;
+    this.offset = offset;
+    this.offsets = new int[EXTENSION_TYPES.length];
+    this.lengths = new int[EXTENSION_TYPES.length];
+    this.decoded = new TokenExtension[EXTENSION_TYPES.length];
+    Arrays.fill(offsets, -1);
+    int numExtensions = 0;
+    for (int i = offset; i + TLV_HEADER_LENGTH <= data.length; ) {
+      final int ordinal = ByteUtil.getInt16LE(data, i) & 0xFFFF;
+      final int length = ByteUtil.getInt16LE(data, i + Short.BYTES) & 0xFFFF;
+      i += TLV_HEADER_LENGTH;
+      if (ordinal < offsets.length && offsets[ordinal] < 0) {
+        offsets[ordinal] = i;
+        lengths[ordinal] = length;
+        ++numExtensions;
+      }
+      i += length;
+    }
+    this.numExtensions = numExtensions;
+  }
+
+  /// @param data the full mint or token account data.
+  public static Token2022Extensions index(final byte[] data) {
+    return index(data, EXTENSIONS_OFFSET);
+  }
+
+  public static Token2022Extensions index(final byte[] data, final int offset) {
+    return new Token2022Extensions(data, offset);
+  }
+
+  /// Scans the TLV headers without allocating.
+  ///
+  /// @return the offset of the extension's value, or `-1` if absent.
+  public static int findExtension(final byte[] data, final int offset, final ExtensionType type) {
+    final int ordinal = type.ordinal();
+    for (int i = offset; i + TLV_HEADER_LENGTH <= data.length; ) {
+      final int length = ByteUtil.getInt16LE(data, i + Short.BYTES) & 0xFFFF;
+      if ((ByteUtil.getInt16LE(data, i) & 0xFFFF) == ordinal) {
+        return i + TLV_HEADER_LENGTH;
+      }
+      i += TLV_HEADER_LENGTH + length;
+    }
+    return -1;
+  }
+
+  public static int findExtension(final byte[] data, final ExtensionType type) {
+    return data == null || data.length <= EXTENSIONS_OFFSET ? -1 : findExtension(data, EXTENSIONS_OFFSET, type);
+  }
+
+  public static boolean hasExtension(final byte[] data, final ExtensionType type) {
+    return findExtension(data, type) >= 0;
+  }
+
+  /// Filters accounts by the presence of an extension without decoding any account or extension.
+  public static <A> List<A> withExtension(final Collection<A> accounts,
+                                          final Function<A, byte[]> accountData,
+                                          final ExtensionType type) {
+    final var matches = new ArrayList<A>();
+    for (final var account : accounts) {
+      if (hasExtension(accountData.apply(account), type)) {
+        matches.add(account);
+      }
+    }
+    return matches;
+  }
+
+  public byte[] data() {
+    return data;
+  }
+
+  public AccountType accountType() {
+    return Token2022.parseAccountType(data, offset - 1);
+  }
+
+  public int numExtensions() {
+    return numExtensions;
+  }
+
+  public boolean has(final ExtensionType type) {
+    return offsets[type.ordinal()] >= 0;
+  }
+
+  /// @return the offset of the extension's value within [#data()], or `-1` if absent.
+  public int offset(final ExtensionType type) {
+    return offsets[type.ordinal()];
+  }
+
+  /// @return the length of the extension's value, or `0` if absent.
+  public int length(final ExtensionType type) {
+    return lengths[type.ordinal()];
+  }
+
+  /// @return the decoded extension, or `null` if absent.
+  public TokenExtension get(final ExtensionType type) {
+    final int ordinal = type.ordinal();
+    final int from = offsets[ordinal];
+    if (from < 0) {
+      return null;
+    }
+    var extension = decoded[ordinal];
+    if (extension == null) {
+      extension = Token2022.parseExtension(type, data, from, from + lengths[ordinal]);
+      decoded[ordinal] = extension;
+    }
+    return extension;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <E extends TokenExtension> E extension(final ExtensionType type) {
+    return (E) get(type);
+  }
+
+  /// Decodes every present extension.
+  public Map<ExtensionType, TokenExtension> toMap() {
+    final var extensions = new EnumMap<ExtensionType, TokenExtension>(ExtensionType.class);
+    for (final var type : EXTENSION_TYPES) {
+      final var extension = get(type);
+      if (extension != null) {
+        extensions.put(type, extension);
+      }
+    }
+    return extensions;
+  }
+}
@@ -0,0 +1,108 @@
+package software.sava.core.accounts.token;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.encoding.ByteUtil;
+
+import static software.sava.core.accounts.token.TokenAccount.*;
+
+/// A re-usable flyweight over SPL token account data, including the base layout of Token-2022 accounts.
+///
+/// Fields are read on demand and keys can be compared in place, so scanning many accounts only allocates for the
+/// values actually materialized.  Instances are not thread safe.
+public final class TokenAccountView {
+
+  private static final AccountState[] ACCOUNT_STATES = AccountState.values();
+
+  private byte[] data;
+  private int offset;
+
+  public static TokenAccountView wrapData(final byte[] data) {
+    return new TokenAccountView().wrap(data, 0);
+  }
+
+  /// Points this view at another account.
+  public TokenAccountView wrap(final byte[] data, final int offset) {
+    this.data = data;
+    this.offset = offset;
+    return this;
+  }
+
+  public TokenAccountView wrap(final byte[] data) {
+    return wrap(data, 0);
+  }
+
+  public byte[] data() {
+    return data;
+  }
+
+  public int offset() {
+    return offset;
+  }
+
+  public PublicKey mint() {
+    return PublicKey.readPubKey(data, offset + MINT_OFFSET);
+  }
+
+  public boolean mintEquals(final PublicKey mint) {
+    return mint.matches(data, offset + MINT_OFFSET);
+  }
+
+  public PublicKey owner() {
+    return PublicKey.readPubKey(data, offset + OWNER_OFFSET);
+  }
+
+  public boolean ownerEquals(final PublicKey owner) {
+    return owner.matches(data, offset + OWNER_OFFSET);
+  }
+
+  public long amount() {
+    return ByteUtil.getInt64LE(data, offset + AMOUNT_OFFSET);
+  }
+
+  public boolean hasDelegate() {
+    return ByteUtil.getInt32LE(data, offset + DELEGATE_OPTION_OFFSET) == 1;
+  }
+
+  /// @return the delegate, or `null` if none is set.
+  public PublicKey delegate() {
+    return hasDelegate() ? PublicKey.readPubKey(data, offset + DELEGATE_OFFSET) : null;
+  }
+
+  public boolean delegateEquals(final PublicKey delegate) {
+    return hasDelegate() && delegate.matches(data, offset + DELEGATE_OFFSET);
+  }
+
+  public AccountState state() {
+    return ACCOUNT_STATES[data[offset + STATE_OFFSET]];
+  }
+
+  public boolean isNative() {
+    return ByteUtil.getInt32LE(data, offset + IS_NATIVE_OPTION_OFFSET) == 1;
+  }
+
+  /// @return the rent exempt reserve of a native account, otherwise `0`.
+  public long nativeReserve() {
+    return isNative() ? ByteUtil.getInt64LE(data, offset + IS_NATIVE_OFFSET) : 0;
+  }
+
+  public long delegatedAmount() {
+    return ByteUtil.getInt64LE(data, offset + DELEGATED_AMOUNT_OFFSET);
+  }
+
+  public boolean hasCloseAuthority() {
+    return ByteUtil.getInt32LE(data, offset + CLOSE_AUTHORITY_OPTION_OFFSET) == 1;
+  }
+
+  /// @return the close authority, or `null` if none is set.
+  public PublicKey closeAuthority() {
+    return hasCloseAuthority() ? PublicKey.readPubKey(data, offset + CLOSE_AUTHORITY_OFFSET) : null;
+  }
+
+  public boolean closeAuthorityEquals(final PublicKey closeAuthority) {
+    return hasCloseAuthority() && closeAuthority.matches(data, offset + CLOSE_AUTHORITY_OFFSET);
+  }
+
+  public TokenAccount read(final PublicKey address) {
+    return TokenAccount.read(address, data, offset);
+  }
+}
@@ -0,0 +1,94 @@
+package software.sava.core.accounts.vanity;
+
+import software.sava.core.encoding.Base58;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * A Base58 prefix of a 43 or 44 character public key is a contiguous range of key values.  Each range is reduced to
+ * the high 64 bits of the key, so most keys can be rejected with a binary search instead of a full Base58 encoding.
+ * <p>
+ * The filter may report false positives, never false negatives, keys with a leading zero byte always pass.
+ */
+final class Base58PrefixFilter {
+
+  private static final BigInteger BASE = BigInteger.valueOf(58);
+  private static final BigInteger MIN_KEY = BigInteger.ONE.shiftLeft(248);
+  private static final BigInteger MAX_KEY = BigInteger.ONE.shiftLeft(256);
+  private static final int HIGH_BITS_SHIFT = 256 - Long.SIZE;
+
+  // Bounds are stored with the sign bit flipped so that unsigned values compare as signed longs.
+  private final long[] from;
+  private final long[] to;
+
+  private Base58PrefixFilter(final long[] from, final long[] to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  static Base58PrefixFilter create(final int length, final long[] masks) {
+    final var ranges = new ArrayList<long[]>(masks.length << 1);
+    final char[] prefix = new char[length];
+    for (final long mask : masks) {
+      for (int i = 0, shift = (length - 1) * Byte.SIZE; i < length; ++i, shift -= Byte.SIZE) {
+        prefix[i] = (char) ((mask >>> shift) & 0xFF);
+      }
+      final var value = new BigInteger(1, Base58.decode(prefix));
+      for (int encodedLength = 43; encodedLength <= 44; ++encodedLength) {
+        final var scale = BASE.pow(encodedLength - length);
+        final var lo = value.multiply(scale).max(BASE.pow(encodedLength - 1)).max(MIN_KEY);
+        final var hi = value.add(BigInteger.ONE).multiply(scale).min(BASE.pow(encodedLength)).min(MAX_KEY);
+        if (lo.compareTo(hi) < 0) {
+          ranges.add(new long[]{
+              lo.shiftRight(HIGH_BITS_SHIFT).longValue() ^ Long.MIN_VALUE,
+              hi.subtract(BigInteger.ONE).shiftRight(HIGH_BITS_SHIFT).longValue() ^ Long.MIN_VALUE
+          });
+        }
+      }
+    }
+    ranges.sort(Comparator.comparingLong(range -> range[0]));
+
+    final var merged = new ArrayList<long[]>(ranges.size());
+    for (final var range : ranges) {
+      if (!merged.isEmpty()) {
+        final var last = merged.getLast();
+        if (range[0] <= last[1] || range[0] == last[1] + 1) {
+          last[1] = Math.max(last[1], range[1]);
+          continue;
+        }
+      }
+      merged.add(range);
+    }
+    final long[] from = new long[merged.size()];
+    final long[] to = new long[from.length];
+    for (int i = 0; i < from.length; ++i) {
+      final var range = merged.get(i);
+      from[i] = range[0];
+      to[i] = range[1];
+    }
+    return new Base58PrefixFilter(from, to);
+  }
+
+  boolean mayMatch(final byte[] publicKey, final int offset) {
+    if (publicKey[offset] == 0) {
+      return true;
+    }
+    long high = 0;
+    for (int i = offset, end = offset + Long.BYTES; i < end; ++i) {
+      high = (high << Byte.SIZE) | (publicKey[i] & 0xFF);
+    }
+    high ^= Long.MIN_VALUE;
+    int lo = 0, hi = from.length - 1;
+    while (lo <= hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (from[mid] <= high) {
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return hi >= 0 && high <= to[hi];
+  }
+}
@@ -3,6 +3,8 @@ package software.sava.core.accounts.vanity;
 import software.sava.core.accounts.PublicKey;
 import software.sava.core.accounts.Signer;
 import software.sava.core.crypto.Hash;
+import software.sava.core.crypto.ed25519.Ed25519ExpandedKey;
+import software.sava.core.crypto.ed25519.Ed25519KeyWalk;
 import software.sava.core.encoding.Base58;
 
 import java.io.IOException;
@@ -12,23 +14,28 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongBinaryOperator;
 
-import static software.sava.core.crypto.ed25519.Ed25519Util.generatePublicKey;
+import static software.sava.core.crypto.ed25519.Ed25519Util.generatePublicKeys;
 
 abstract class BaseMaskWorker implements AddressWorker {
 
   static final LongBinaryOperator SUM = Long::sum;
+  // Public keys are derived in batches to share a single field inversion.
+  private static final int BATCH_SIZE = 256;
 
   private final Path keyPath;
   private final SecureRandom secureRandom;
   private final PrivateKeyEncoding privateKeyEncoding;
   private final boolean sigVerify;
+  private final boolean incremental;
   private final Subsequence beginsWith;
+  private final Base58PrefixFilter beginsWithFilter;
   private final long find;
   private final AtomicInteger found;
   protected final AtomicLong searched;
@@ -38,13 +45,18 @@ abstract class BaseMaskWorker implements AddressWorker {
   private final byte[] privateKey;
   private final byte[] publicKey;
   protected final char[] encoded;
-  private final byte[] mutableKeyPair;
   protected final byte[] mutablePublicKey;
+  private final byte[] privateKeys;
+  private final byte[] publicKeys;
+  private int batchIndex;
+  private Ed25519KeyWalk walk;
+  private long batchPosition;
 
   protected BaseMaskWorker(final Path keyPath,
                            final SecureRandom secureRandom,
                            final PrivateKeyEncoding privateKeyEncoding,
                            final boolean sigVerify,
+                           final boolean incremental,
                            final Subsequence beginsWith,
                            final long find,
                            final AtomicInteger found,
@@ -55,7 +67,11 @@ abstract class BaseMaskWorker implements AddressWorker {
     this.secureRandom = secureRandom;
     this.privateKeyEncoding = privateKeyEncoding;
     this.sigVerify = sigVerify;
+    this.incremental = incremental;
     this.beginsWith = beginsWith;
+    this.beginsWithFilter = beginsWith instanceof SubsequenceRecord subsequence
+        ? Base58PrefixFilter.create(subsequence.length(), subsequence.masks())
+        : null;
     this.find = find;
     this.found = found;
     this.searched = searched;
@@ -64,8 +80,10 @@ abstract class BaseMaskWorker implements AddressWorker {
     this.privateKey = new byte[32];
     this.publicKey = new byte[32];
     this.encoded = new char[64];
-    this.mutableKeyPair = new byte[64];
     this.mutablePublicKey = new byte[32];
+    this.privateKeys = incremental ? null : new byte[BATCH_SIZE << 5];
+    this.publicKeys = new byte[BATCH_SIZE << 5];
+    this.batchIndex = BATCH_SIZE;
   }
 
   @Override
@@ -104,33 +122,59 @@ abstract class BaseMaskWorker implements AddressWorker {
     if (beginsWith == null || beginsWith.contains(encoded, keyStart)) {
       final long end = System.currentTimeMillis();
 
-      final byte[] keyPair = new byte[64];
-      System.arraycopy(privateKey, 0, keyPair, 0, 32);
-      System.arraycopy(publicKey, 0, keyPair, 32, 32);
-
+      final byte[] keyPair;
+      final byte[] expandedKey;
       final PublicKey publicKey;
-      if (sigVerify) {
-        final var signer = Signer.createFromKeyPair(keyPair);
-        final var sig = signer.sign(VERIFY_MSG);
+      if (incremental) {
+        keyPair = null;
+        expandedKey = new byte[Ed25519ExpandedKey.EXPANDED_KEY_LENGTH];
+        secureRandom.nextBytes(expandedKey);
+        final byte[] scalar = walk.scalar(batchPosition + batchIndex - 1);
+        System.arraycopy(scalar, 0, expandedKey, 0, 32);
+        // Every key along a walk is derivable from any other, never continue past a kept key.
+        walk = null;
+        batchIndex = BATCH_SIZE;
+
+        final var signer = Signer.createFromExpandedKey(expandedKey);
         publicKey = signer.publicKey();
-        if (!publicKey.verifySignature(VERIFY_MSG, sig)) {
-          throw new IllegalStateException(
-              "Invalid signature for key pair " + Base64.getEncoder().encodeToString(keyPair)
-          );
+        if (!Arrays.equals(this.publicKey, publicKey.toByteArray())) {
+          throw new IllegalStateException("Expanded key does not derive public key " + publicKey);
         }
-        final var javaPublicKey = publicKey.toJavaPublicKey();
-        if (!PublicKey.verifySignature(javaPublicKey, VERIFY_MSG, sig)) {
-          throw new IllegalStateException(
-              "Failed to verify signature using a Java PublicKey for key pair "
-                  + Base64.getEncoder().encodeToString(keyPair)
-          );
+        if (sigVerify) {
+          final var sig = signer.sign(VERIFY_MSG);
+          if (!publicKey.verifySignature(VERIFY_MSG, sig)) {
+            throw new IllegalStateException("Invalid signature for expanded key of " + publicKey);
+          }
         }
       } else {
-        Signer.validateKeyPair(keyPair);
-        publicKey = PublicKey.readPubKey(keyPair, 32);
+        expandedKey = null;
+        keyPair = new byte[64];
+        System.arraycopy(privateKey, 0, keyPair, 0, 32);
+        System.arraycopy(this.publicKey, 0, keyPair, 32, 32);
+
+        if (sigVerify) {
+          final var signer = Signer.createFromKeyPair(keyPair);
+          final var sig = signer.sign(VERIFY_MSG);
+          publicKey = signer.publicKey();
+          if (!publicKey.verifySignature(VERIFY_MSG, sig)) {
+            throw new IllegalStateException(
+                "Invalid signature for key pair " + Base64.getEncoder().encodeToString(keyPair)
+            );
+          }
+          final var javaPublicKey = publicKey.toJavaPublicKey();
+          if (!PublicKey.verifySignature(javaPublicKey, VERIFY_MSG, sig)) {
+            throw new IllegalStateException(
+                "Failed to verify signature using a Java PublicKey for key pair "
+                    + Base64.getEncoder().encodeToString(keyPair)
+            );
+          }
+        } else {
+          Signer.validateKeyPair(keyPair);
+          publicKey = PublicKey.readPubKey(keyPair, 32);
+        }
       }
 
-      final var result = new Result(publicKey, keyPair, end - timeStart);
+      final var result = new Result(publicKey, keyPair, expandedKey, end - timeStart);
 
       if (keyPath != null) {
         try {
@@ -152,6 +196,9 @@ abstract class BaseMaskWorker implements AddressWorker {
             case base64KeyPair -> '"' + Base64.getEncoder().encodeToString(keyPair) + '"';
             case base58PrivateKey -> '"' + Base58.encode(privateKey) + '"';
             case base58KeyPair -> '"' + Base58.encode(keyPair) + '"';
+            case base64ExpandedKey -> '"' + Base64.getEncoder().encodeToString(expandedKey == null
+                ? Ed25519ExpandedKey.expand(privateKey).toExpandedKey()
+                : expandedKey) + '"';
           };
           Files.writeString(
               keyPath.resolve(publicKey.toBase58() + ".json"),
@@ -182,9 +229,32 @@ abstract class BaseMaskWorker implements AddressWorker {
   }
 
   protected final void generateKeyPair() {
-    secureRandom.nextBytes(privateKey);
-    generatePublicKey(digest, privateKey, 0, publicKey, 0, mutablePublicKey, mutableKeyPair);
-    System.arraycopy(publicKey, 0, mutablePublicKey, 0, 32);
+    if (batchIndex == BATCH_SIZE) {
+      if (incremental) {
+        if (walk == null) {
+          walk = Ed25519KeyWalk.start(secureRandom);
+        }
+        batchPosition = walk.position();
+        walk.nextPublicKeys(BATCH_SIZE, publicKeys);
+      } else {
+        secureRandom.nextBytes(privateKeys);
+        generatePublicKeys(digest, privateKeys, BATCH_SIZE, publicKeys);
+      }
+      batchIndex = 0;
+    }
+    final int offset = batchIndex++ << 5;
+    if (!incremental) {
+      System.arraycopy(privateKeys, offset, privateKey, 0, 32);
+    }
+    System.arraycopy(publicKeys, offset, publicKey, 0, 32);
+    System.arraycopy(publicKeys, offset, mutablePublicKey, 0, 32);
+  }
+
+  /**
+   * @return false if the Base58 encoding of the current public key cannot begin with the configured prefix.
+   */
+  protected final boolean mayBeginWith() {
+    return beginsWithFilter == null || beginsWithFilter.mayMatch(publicKey, 0);
   }
 
   protected final boolean foundLimitOrInterrupted() {
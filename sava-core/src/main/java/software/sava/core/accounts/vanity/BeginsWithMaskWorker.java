@@ -14,13 +14,14 @@ final class BeginsWithMaskWorker extends BaseMaskWorker {
                        final SecureRandom secureRandom,
                        final PrivateKeyEncoding privateKeyEncoding,
                        final boolean sigVerify,
+                       final boolean incremental,
                        final Subsequence beginsWith,
                        final long find,
                        final AtomicInteger found,
                        final AtomicLong searched,
                        final Queue<Result> results,
                        final int checkFound) {
-    super(keyPath, secureRandom, privateKeyEncoding, sigVerify, beginsWith, find, found, searched, results, checkFound);
+    super(keyPath, secureRandom, privateKeyEncoding, sigVerify, incremental, beginsWith, find, found, searched, results, checkFound);
   }
 
   @Override
@@ -29,16 +30,20 @@ final class BeginsWithMaskWorker extends BaseMaskWorker {
     for (int i = 0, keyStart; ; ) {
       generateKeyPair();
 
-      keyStart = Base58.mutableEncode(mutablePublicKey, encoded);
-      if (queueResult(start, keyStart)) {
-        searched.getAndAccumulate(i, SUM);
-        if (foundHitLimitOrInterrupted()) {
-          return;
-        } else {
-          i = 0;
-          start = System.currentTimeMillis();
+      if (mayBeginWith()) {
+        keyStart = Base58.mutableEncode(mutablePublicKey, encoded);
+        if (queueResult(start, keyStart)) {
+          searched.getAndAccumulate(i, SUM);
+          if (foundHitLimitOrInterrupted()) {
+            return;
+          } else {
+            i = 0;
+            start = System.currentTimeMillis();
+            continue;
+          }
         }
-      } else if (++i == checkFound) {
+      }
+      if (++i == checkFound) {
         if (foundLimitOrInterrupted()) {
           return;
         } else {
@@ -16,6 +16,7 @@ final class MaskWorker extends BaseMaskWorker {
              final SecureRandom secureRandom,
              final PrivateKeyEncoding privateKeyEncoding,
              final boolean sigVerify,
+             final boolean incremental,
              final Subsequence beginsWith,
              final Subsequence endsWith,
              final long find,
@@ -23,7 +24,7 @@ final class MaskWorker extends BaseMaskWorker {
              final AtomicLong searched,
              final Queue<Result> results,
              final int checkFound) {
-    super(keyPath, secureRandom, privateKeyEncoding, sigVerify, beginsWith, find, found, searched, results, checkFound);
+    super(keyPath, secureRandom, privateKeyEncoding, sigVerify, incremental, beginsWith, find, found, searched, results, checkFound);
     this.endsWith = endsWith;
   }
 
@@ -37,27 +38,29 @@ final class MaskWorker extends BaseMaskWorker {
     for (int i = 0, keyStart, shortKeyStart; ; ) {
       generateKeyPair();
 
-      fastEncodeOffsets = Base58.beginMutableEncode(mutablePublicKey, endLength, shortEncoded);
-      shortKeyStart = (int) fastEncodeOffsets;
-      if (endsWith.contains(shortEncoded, shortStart)) {
-        final int shortEncodedLen = shortEncoded.length - shortKeyStart;
-        final int encodedStart = encoded.length - shortEncodedLen;
+      if (mayBeginWith()) {
+        fastEncodeOffsets = Base58.beginMutableEncode(mutablePublicKey, endLength, shortEncoded);
+        shortKeyStart = (int) fastEncodeOffsets;
+        if (endsWith.contains(shortEncoded, shortStart)) {
+          final int shortEncodedLen = shortEncoded.length - shortKeyStart;
+          final int encodedStart = encoded.length - shortEncodedLen;
 
-        keyStart = Base58.continueMutableEncode(
-            mutablePublicKey,
-            (int) (fastEncodeOffsets >>> 48),
-            (int) (fastEncodeOffsets >>> 32) & 0xFFFF,
-            encodedStart,
-            encoded
-        );
-        if (queueResult(start, keyStart)) {
-          searched.getAndAccumulate(i, SUM);
-          if (foundHitLimitOrInterrupted()) {
-            return;
-          } else {
-            i = 0;
-            start = System.currentTimeMillis();
-            continue;
+          keyStart = Base58.continueMutableEncode(
+              mutablePublicKey,
+              (int) (fastEncodeOffsets >>> 48),
+              (int) (fastEncodeOffsets >>> 32) & 0xFFFF,
+              encodedStart,
+              encoded
+          );
+          if (queueResult(start, keyStart)) {
+            searched.getAndAccumulate(i, SUM);
+            if (foundHitLimitOrInterrupted()) {
+              return;
+            } else {
+              i = 0;
+              start = System.currentTimeMillis();
+              continue;
+            }
           }
         }
       }
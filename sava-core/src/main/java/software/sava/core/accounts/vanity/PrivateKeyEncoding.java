@@ -6,5 +6,9 @@ public enum PrivateKeyEncoding {
   base64PrivateKey,
   base64KeyPair,
   base58PrivateKey,
-  base58KeyPair;
+  base58KeyPair,
+  /**
+   * The 32 byte scalar followed by the 32 byte nonce prefix, the only encoding available to incremental searches.
+   */
+  base64ExpandedKey;
 }
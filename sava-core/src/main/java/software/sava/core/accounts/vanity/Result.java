@@ -2,6 +2,13 @@ package software.sava.core.accounts.vanity;
 
 import software.sava.core.accounts.PublicKey;
 
-public record Result(PublicKey publicKey, byte[] keyPair, long durationMillis) {
+/**
+ * @param keyPair     the seed followed by the public key, null for keys found by an incremental search.
+ * @param expandedKey the scalar followed by the nonce prefix, only present for keys found by an incremental search.
+ */
+public record Result(PublicKey publicKey, byte[] keyPair, byte[] expandedKey, long durationMillis) {
 
+  public Result(final PublicKey publicKey, final byte[] keyPair, final long durationMillis) {
+    this(publicKey, keyPair, null, durationMillis);
+  }
 }
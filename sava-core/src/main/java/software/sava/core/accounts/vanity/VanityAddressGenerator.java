@@ -10,10 +10,15 @@ import java.util.concurrent.atomic.AtomicLong;
 
 public interface VanityAddressGenerator {
 
+  /**
+   * @param incremental walk the curve from a random scalar by repeated point addition instead of deriving each key from
+   *                    a random seed.  Found keys are expanded keys, see {@link PrivateKeyEncoding#base64ExpandedKey}.
+   */
   static VanityAddressGenerator createGenerator(final Path keyPath,
                                                 final SecureRandomFactory secureRandomFactory,
                                                 final PrivateKeyEncoding privateKeyEncoding,
                                                 final boolean sigVerify,
+                                                final boolean incremental,
                                                 final ExecutorService executor,
                                                 final int numThreads,
                                                 final Subsequence beginsWith,
@@ -22,6 +27,8 @@ public interface VanityAddressGenerator {
                                                 final int checkFound) {
     if (findKeys > Integer.MAX_VALUE) {
       throw new IllegalArgumentException("Max find keys is " + Integer.MAX_VALUE);
+    } else if (incremental && privateKeyEncoding != PrivateKeyEncoding.base64ExpandedKey) {
+      throw new IllegalArgumentException("Incremental searches only produce expanded keys, use " + PrivateKeyEncoding.base64ExpandedKey);
     } else {
       try {
         final var found = new AtomicInteger(0);
@@ -35,6 +42,7 @@ public interface VanityAddressGenerator {
               secureRandom,
               privateKeyEncoding,
               sigVerify,
+              incremental,
               beginsWith,
               findKeys,
               found,
@@ -47,6 +55,7 @@ public interface VanityAddressGenerator {
               secureRandom,
               privateKeyEncoding,
               sigVerify,
+              incremental,
               beginsWith,
               endsWith,
               findKeys,
@@ -64,6 +73,31 @@ public interface VanityAddressGenerator {
     }
   }
 
+  static VanityAddressGenerator createGenerator(final Path keyPath,
+                                                final SecureRandomFactory secureRandomFactory,
+                                                final PrivateKeyEncoding privateKeyEncoding,
+                                                final boolean sigVerify,
+                                                final ExecutorService executor,
+                                                final int numThreads,
+                                                final Subsequence beginsWith,
+                                                final Subsequence endsWith,
+                                                final long findKeys,
+                                                final int checkFound) {
+    return createGenerator(
+        keyPath,
+        secureRandomFactory,
+        privateKeyEncoding,
+        sigVerify,
+        false,
+        executor,
+        numThreads,
+        beginsWith,
+        endsWith,
+        findKeys,
+        checkFound
+    );
+  }
+
   static VanityAddressGenerator createGenerator(final Path keyPath,
                                                 final PrivateKeyEncoding privateKeyEncoding,
                                                 final boolean sigVerify,
@@ -0,0 +1,14 @@
+package software.sava.core.borsh;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/// The serialized length of a fixed size `byte[]` record component of a [BorshFlyweight].
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface BorshFixedLength {
+
+  int value();
+}
@@ -0,0 +1,22 @@
+package software.sava.core.borsh;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/// Generates a `<Name>Flyweight` for a fixed size record, read by the `software.sava.borsh.processor` module.
+///
+/// The flyweight wraps a `byte[]` and reads each component on demand at its computed offset, static readers do the
+/// same for a `MemorySegment`.  It also encodes records of the annotated type and implements [Borsh] by copying its
+/// backing bytes.
+///
+/// Supported components are primitives, [software.sava.core.accounts.PublicKey], `byte[]` annotated with
+/// [BorshFixedLength], Java enums encoded as a one byte ordinal, and other fixed size records.
+///
+/// On a sealed interface whose permitted subclasses are records, a `<Name>Borsh` codec is generated which reads and
+/// writes the variants as a Rust enum: a one byte ordinal, in `permits` order, followed by the variant's fields.
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BorshFlyweight {
+}
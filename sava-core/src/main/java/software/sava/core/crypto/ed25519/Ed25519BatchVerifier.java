@@ -0,0 +1,321 @@
+package software.sava.core.crypto.ed25519;
+
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import software.sava.core.crypto.Hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Verifies many Ed25519 signatures at once by checking a single random linear combination of their verification
+ * equations with a multi-scalar multiplication:
+ * <p>
+ * [8](-(Σ z<sub>i</sub>S<sub>i</sub>)B + Σ z<sub>i</sub>R<sub>i</sub> + Σ (z<sub>i</sub>k<sub>i</sub>)A<sub>i</sub>) == 0
+ * <p>
+ * where each z<sub>i</sub> is an independent random 128-bit scalar, so a batch containing an invalid signature passes
+ * with probability at most 2<sup>-128</sup>.  The check is cofactored, a batch only reports which signatures are
+ * invalid if it is re-verified one by one.
+ * <p>
+ * Like Solana's {@code verify_strict}, a public key or R of small order is rejected when added.
+ * {@link #verifySignature} applies the same rules to a single signature, so a signature verifies alike alone or in any
+ * batch.  Both checks are cofactored, as is Bouncy Castle's, where {@code verify_strict} is not: a point mixing a small
+ * order component into a prime order one, which only the key holder can produce, may pass here and fail on-chain.
+ * Ruling those out costs about as much as verifying the signature on its own.
+ * <p>
+ * Entries are added from a single thread, {@link #verify(ForkJoinPool)} splits large batches into independently
+ * randomized sub-batches.  Small batches, including a single signature, are checked with a plain double and add
+ * instead of the bucket method.
+ */
+public final class Ed25519BatchVerifier {
+
+  private static final int SCALAR_BITS = 253;
+  private static final int RANDOM_SCALAR_BYTES = 16;
+  // Below this many points the bucket method costs more than a plain double and add.
+  private static final int MIN_BUCKET_POINTS = 16;
+  private static final int MIN_PARALLEL_CHUNK = 64;
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  // L - 1, multiplying by it negates a scalar mod L.
+  private static final byte[] L_MINUS_ONE = new byte[]{
+      (byte) 0xec, (byte) 0xd3, (byte) 0xf5, (byte) 0x5c, (byte) 0x1a, (byte) 0x63, (byte) 0x12, (byte) 0x58,
+      (byte) 0xd6, (byte) 0x9c, (byte) 0xf7, (byte) 0xa2, (byte) 0xde, (byte) 0xf9, (byte) 0xde, (byte) 0x14,
+      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x10
+  };
+  private static final byte[] ZERO_SCALAR = new byte[32];
+
+  private final MessageDigest sha512;
+  private final ArrayList<Entry> entries;
+  private boolean malformed;
+
+  private record Entry(ExtendedPoint r,
+                       ExtendedPoint a,
+                       byte[] s,
+                       byte[] k) {
+  }
+
+  public Ed25519BatchVerifier(final int expectedSize) {
+    this.sha512 = Hash.sha512Digest();
+    this.entries = new ArrayList<>(expectedSize);
+  }
+
+  public Ed25519BatchVerifier() {
+    this(64);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public void clear() {
+    entries.clear();
+    malformed = false;
+  }
+
+  /**
+   * Decodes the signature and public key and hashes the message in place, nothing is retained by reference.
+   *
+   * @return false if the public key or signature is not canonically encoded, or the public key or R is of small order,
+   * in which case the batch will not verify.
+   */
+  public boolean add(final byte[] publicKey,
+                     final int publicKeyOffset,
+                     final byte[] message,
+                     final int msgOffset,
+                     final int msgLength,
+                     final byte[] signature,
+                     final int signatureOffset) {
+    final var r = ExtendedPoint.create();
+    final var a = ExtendedPoint.create();
+    if (!isCanonicalScalar(signature, signatureOffset + 32)
+        || !ExtendedPoint.decode(signature, signatureOffset, r)
+        || !ExtendedPoint.decode(publicKey, publicKeyOffset, a)
+        || hasSmallOrder(r)
+        || hasSmallOrder(a)) {
+      malformed = true;
+      return false;
+    }
+    final byte[] hash = new byte[64];
+    try {
+      sha512.update(signature, signatureOffset, 32);
+      sha512.update(publicKey, publicKeyOffset, 32);
+      sha512.update(message, msgOffset, msgLength);
+      sha512.digest(hash, 0, 64);
+    } catch (final DigestException e) {
+      throw new IllegalStateException(e);
+    }
+    final byte[] k = new byte[32];
+    Scalar25519.reduce(hash, k, 0);
+    final byte[] s = new byte[32];
+    System.arraycopy(signature, signatureOffset + 32, s, 0, 32);
+
+    entries.add(new Entry(r, a, s, k));
+    return true;
+  }
+
+  public boolean add(final byte[] publicKey, final byte[] message, final byte[] signature) {
+    return add(publicKey, 0, message, 0, message.length, signature, 0);
+  }
+
+  /**
+   * Verifies a single signature by the same rules as a batch, unlike {@link Ed25519#verify} an R of small order is
+   * rejected.
+   */
+  public static boolean verifySignature(final byte[] publicKey,
+                                        final int publicKeyOffset,
+                                        final byte[] message,
+                                        final int msgOffset,
+                                        final int msgLength,
+                                        final byte[] signature,
+                                        final int signatureOffset) {
+    final var r = ExtendedPoint.create();
+    return ExtendedPoint.decode(signature, signatureOffset, r)
+        && !hasSmallOrder(r)
+        && Ed25519.verify(signature, signatureOffset, publicKey, publicKeyOffset, message, msgOffset, msgLength);
+  }
+
+  /**
+   * @return true if every signature added is valid, or the batch is empty.
+   */
+  public boolean verify() {
+    return !malformed && verify(0, entries.size());
+  }
+
+  /**
+   * Splits the batch into sub-batches of at least 64 signatures, each verified as its own task in {@code pool}.
+   */
+  public boolean verify(final ForkJoinPool pool) {
+    if (malformed) {
+      return false;
+    }
+    final int size = entries.size();
+    final int numChunks = Math.min(pool.getParallelism(), size / MIN_PARALLEL_CHUNK);
+    if (numChunks < 2) {
+      return verify(0, size);
+    }
+    return pool.submit(() -> IntStream.range(0, numChunks).parallel().allMatch(chunk -> verify(
+        (int) ((long) size * chunk / numChunks),
+        (int) ((long) size * (chunk + 1) / numChunks)
+    ))).join();
+  }
+
+  private boolean verify(final int from, final int to) {
+    final int n = to - from;
+    if (n == 0) {
+      return true;
+    }
+
+    final int numPoints = 1 + (n << 1);
+    final var points = new ExtendedPoint[numPoints];
+    final var scalars = new byte[numPoints][];
+    points[0] = ExtendedPoint.base();
+
+    final byte[] z = new byte[32];
+    byte[] sSum = ZERO_SCALAR;
+    for (int i = 0, p = 1; i < n; ++i) {
+      final var entry = entries.get(from + i);
+      RANDOM.nextBytes(z);
+      Arrays.fill(z, RANDOM_SCALAR_BYTES, 32, (byte) 0);
+
+      final byte[] nextSum = new byte[32];
+      Scalar25519.mulAdd(z, 0, entry.s, 0, sSum, 0, nextSum, 0);
+      sSum = nextSum;
+
+      points[p] = entry.r;
+      scalars[p++] = z.clone();
+      final byte[] zk = new byte[32];
+      Scalar25519.mulAdd(z, 0, entry.k, 0, ZERO_SCALAR, 0, zk, 0);
+      points[p] = entry.a;
+      scalars[p++] = zk;
+    }
+    final byte[] negSum = new byte[32];
+    Scalar25519.mulAdd(L_MINUS_ONE, 0, sSum, 0, ZERO_SCALAR, 0, negSum, 0);
+    scalars[0] = negSum;
+
+    final var result = numPoints < MIN_BUCKET_POINTS
+        ? doubleAndAdd(points, scalars)
+        : multiScalarMult(points, scalars);
+    final var tmp = ExtendedPoint.Temp.create();
+    ExtendedPoint.twice(result, tmp);
+    ExtendedPoint.twice(result, tmp);
+    ExtendedPoint.twice(result, tmp);
+    return ExtendedPoint.isNeutral(result);
+  }
+
+  private static int windowSize(final int numPoints) {
+    int best = 1;
+    long bestCost = Long.MAX_VALUE;
+    for (int w = 1; w <= 12; ++w) {
+      final long cost = (long) ((SCALAR_BITS + w - 1) / w) * (numPoints + (2L << w));
+      if (cost < bestCost) {
+        bestCost = cost;
+        best = w;
+      }
+    }
+    return best;
+  }
+
+  // Windows of up to 12 bits starting anywhere within a byte may span three bytes.
+  private static int digit(final byte[] scalar, final int bit, final int mask) {
+    final int i = bit >>> 3;
+    int v = scalar[i] & 0xff;
+    if (i + 1 < 32) {
+      v |= (scalar[i + 1] & 0xff) << 8;
+      if (i + 2 < 32) {
+        v |= (scalar[i + 2] & 0xff) << 16;
+      }
+    }
+    return (v >>> (bit & 7)) & mask;
+  }
+
+  private static ExtendedPoint doubleAndAdd(final ExtendedPoint[] points, final byte[][] scalars) {
+    final var tmp = ExtendedPoint.Temp.create();
+    final var result = ExtendedPoint.create();
+    ExtendedPoint.setNeutral(result);
+    for (int bit = SCALAR_BITS - 1; bit >= 0; --bit) {
+      ExtendedPoint.twice(result, tmp);
+      final int i = bit >>> 3;
+      final int mask = 1 << (bit & 7);
+      for (int p = 0; p < points.length; ++p) {
+        if ((scalars[p][i] & mask) != 0) {
+          ExtendedPoint.add(result, points[p], result, tmp);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Pippenger's bucket method, each window sums the points into buckets by digit then folds the buckets with a
+   * running sum.
+   */
+  private static ExtendedPoint multiScalarMult(final ExtendedPoint[] points, final byte[][] scalars) {
+    final int w = windowSize(points.length);
+    final int mask = (1 << w) - 1;
+    final var buckets = new ExtendedPoint[mask + 1];
+    for (int b = 1; b <= mask; ++b) {
+      buckets[b] = ExtendedPoint.create();
+    }
+    final boolean[] occupied = new boolean[mask + 1];
+    final var tmp = ExtendedPoint.Temp.create();
+    final var result = ExtendedPoint.create();
+    ExtendedPoint.setNeutral(result);
+    final var running = ExtendedPoint.create();
+    final var windowSum = ExtendedPoint.create();
+
+    for (int bit = ((SCALAR_BITS - 1) / w) * w; bit >= 0; bit -= w) {
+      for (int i = 0; i < w; ++i) {
+        ExtendedPoint.twice(result, tmp);
+      }
+      Arrays.fill(occupied, false);
+      for (int i = 0; i < points.length; ++i) {
+        final int d = digit(scalars[i], bit, mask);
+        if (d != 0) {
+          if (occupied[d]) {
+            ExtendedPoint.add(buckets[d], points[i], buckets[d], tmp);
+          } else {
+            ExtendedPoint.copy(points[i], buckets[d]);
+            occupied[d] = true;
+          }
+        }
+      }
+      ExtendedPoint.setNeutral(running);
+      ExtendedPoint.setNeutral(windowSum);
+      for (int b = mask; b > 0; --b) {
+        if (occupied[b]) {
+          ExtendedPoint.add(running, buckets[b], running, tmp);
+        }
+        ExtendedPoint.add(windowSum, running, windowSum, tmp);
+      }
+      ExtendedPoint.add(result, windowSum, result, tmp);
+    }
+    return result;
+  }
+
+  private static boolean hasSmallOrder(final ExtendedPoint p) {
+    final var q = ExtendedPoint.create();
+    ExtendedPoint.copy(p, q);
+    final var tmp = ExtendedPoint.Temp.create();
+    ExtendedPoint.twice(q, tmp);
+    ExtendedPoint.twice(q, tmp);
+    ExtendedPoint.twice(q, tmp);
+    return ExtendedPoint.isNeutral(q);
+  }
+
+  private static boolean isCanonicalScalar(final byte[] s, final int offset) {
+    for (int i = 31; i >= 0; --i) {
+      final int a = s[offset + i] & 0xff;
+      final int l = L_MINUS_ONE[i] & 0xff;
+      if (a != l) {
+        return a < l;
+      }
+    }
+    // s == L - 1
+    return true;
+  }
+}
@@ -0,0 +1,166 @@
+package software.sava.core.crypto.ed25519;
+
+import software.sava.core.crypto.Hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * An Ed25519 private key with the SHA-512 expansion of its seed cached, the pruned scalar and nonce prefix, so that
+ * each signature only hashes the message twice and performs a single fixed-base comb multiplication.
+ * <p>
+ * Instances are immutable and may be shared across threads, {@link MessageDigest} instances may not.
+ */
+public final class Ed25519ExpandedKey {
+
+  public static final int SIGNATURE_LENGTH = 64;
+  public static final int EXPANDED_KEY_LENGTH = 64;
+
+  private final byte[] scalar;
+  private final byte[] prefix;
+  private final byte[] publicKey;
+
+  private Ed25519ExpandedKey(final byte[] scalar, final byte[] prefix, final byte[] publicKey) {
+    this.scalar = scalar;
+    this.prefix = prefix;
+    this.publicKey = publicKey;
+  }
+
+  public static Ed25519ExpandedKey expand(final byte[] privateKey, final int privateKeyOffset) {
+    final var digest = Hash.sha512Digest();
+    digest.update(privateKey, privateKeyOffset, 32);
+    final byte[] expanded = digest.digest();
+    final byte[] scalar = new byte[32];
+    Ed25519Util.pruneScalar(expanded, 0, scalar);
+    final byte[] publicKey = new byte[32];
+    Ed25519Util.scalarMultBaseEncoded(scalar, publicKey, 0);
+    final byte[] prefix = Arrays.copyOfRange(expanded, 32, 64);
+    Arrays.fill(expanded, (byte) 0);
+    return new Ed25519ExpandedKey(scalar, prefix, publicKey);
+  }
+
+  public static Ed25519ExpandedKey expand(final byte[] privateKey) {
+    return expand(privateKey, 0);
+  }
+
+  /**
+   * Creates a key directly from its scalar and nonce prefix, e.g. for keys found by {@link Ed25519KeyWalk} which have
+   * no seed.  The scalar is used as is, it is not pruned.
+   *
+   * @param expandedKey the 32 byte little-endian scalar followed by the 32 byte nonce prefix.
+   */
+  public static Ed25519ExpandedKey fromExpandedKey(final byte[] expandedKey, final int offset) {
+    final byte[] scalar = Arrays.copyOfRange(expandedKey, offset, offset + 32);
+    final byte[] prefix = Arrays.copyOfRange(expandedKey, offset + 32, offset + EXPANDED_KEY_LENGTH);
+    final byte[] publicKey = new byte[32];
+    Ed25519Util.scalarMultBaseEncoded(scalar, publicKey, 0);
+    return new Ed25519ExpandedKey(scalar, prefix, publicKey);
+  }
+
+  public static Ed25519ExpandedKey fromExpandedKey(final byte[] expandedKey) {
+    return fromExpandedKey(expandedKey, 0);
+  }
+
+  /**
+   * @return the 32 byte scalar followed by the 32 byte nonce prefix.
+   */
+  public byte[] toExpandedKey() {
+    final byte[] expandedKey = new byte[EXPANDED_KEY_LENGTH];
+    System.arraycopy(scalar, 0, expandedKey, 0, 32);
+    System.arraycopy(prefix, 0, expandedKey, 32, 32);
+    return expandedKey;
+  }
+
+  public byte[] publicKey() {
+    return publicKey.clone();
+  }
+
+  public void writePublicKey(final byte[] out, final int offset) {
+    System.arraycopy(publicKey, 0, out, offset, 32);
+  }
+
+  /**
+   * A SHA-512 digest and the intermediate buffers of a signature, kept per thread so that signing does not allocate.
+   */
+  private static final class SignScratch {
+
+    private final MessageDigest sha512 = Hash.sha512Digest();
+    private final byte[] hash = new byte[64];
+    private final byte[] r = new byte[32];
+    private final byte[] encodedR = new byte[32];
+    private final byte[] k = new byte[32];
+    private final long[] scalarProduct = new long[64];
+  }
+
+  private static final ThreadLocal<SignScratch> SIGN_SCRATCH = ThreadLocal.withInitial(SignScratch::new);
+
+  /**
+   * Writes the 64 byte signature of the message to {@code out} at {@code outOff}.
+   *
+   * @param sha512 a SHA-512 digest exclusively owned by the calling thread for the duration of this call.
+   * @return the index following the signature.
+   */
+  public int sign(final MessageDigest sha512,
+                  final byte[] message,
+                  final int msgOffset,
+                  final int msgLen,
+                  final byte[] out,
+                  final int outOff) {
+    return sign(SIGN_SCRATCH.get(), sha512, message, msgOffset, msgLen, out, outOff);
+  }
+
+  private int sign(final SignScratch scratch,
+                   final MessageDigest sha512,
+                   final byte[] message,
+                   final int msgOffset,
+                   final int msgLen,
+                   final byte[] out,
+                   final int outOff) {
+    final byte[] hash = scratch.hash;
+    final byte[] r = scratch.r;
+    final byte[] k = scratch.k;
+    final long[] scalarProduct = scratch.scalarProduct;
+    try {
+      sha512.update(prefix, 0, 32);
+      sha512.update(message, msgOffset, msgLen);
+      sha512.digest(hash, 0, 64);
+      Scalar25519.reduce(hash, r, 0, scalarProduct);
+      // R is staged rather than written to out, as the message may share the output array.
+      final byte[] encodedR = scratch.encodedR;
+      Ed25519Util.scalarMultBaseEncoded(r, encodedR, 0);
+
+      sha512.update(encodedR, 0, 32);
+      sha512.update(publicKey, 0, 32);
+      sha512.update(message, msgOffset, msgLen);
+      sha512.digest(hash, 0, 64);
+      Scalar25519.reduce(hash, k, 0, scalarProduct);
+
+      System.arraycopy(encodedR, 0, out, outOff, 32);
+      Scalar25519.mulAdd(k, 0, scalar, 0, r, 0, out, outOff + 32, scalarProduct);
+      return outOff + SIGNATURE_LENGTH;
+    } catch (final DigestException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      Arrays.fill(hash, (byte) 0);
+      Arrays.fill(r, (byte) 0);
+      Arrays.fill(k, (byte) 0);
+      Arrays.fill(scalarProduct, 0);
+    }
+  }
+
+  public int sign(final byte[] message, final int msgOffset, final int msgLen, final byte[] out, final int outOff) {
+    final var scratch = SIGN_SCRATCH.get();
+    return sign(scratch, scratch.sha512, message, msgOffset, msgLen, out, outOff);
+  }
+
+  public byte[] sign(final byte[] message, final int msgOffset, final int msgLen) {
+    final byte[] signature = new byte[SIGNATURE_LENGTH];
+    sign(message, msgOffset, msgLen, signature, 0);
+    return signature;
+  }
+
+  public byte[] sign(final byte[] message) {
+    return sign(message, 0, message.length);
+  }
+}
@@ -0,0 +1,89 @@
+package software.sava.core.crypto.ed25519;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Derives the public keys of consecutive scalars s, s + 1, s + 2, ... by repeatedly adding the base point, so that each
+ * key costs a single point addition and a share of one batched field inversion rather than a full scalar
+ * multiplication.
+ * <p>
+ * Keys along a walk are trivially related, whoever learns one of their private scalars can derive all the others.
+ * Start a new walk from a fresh random scalar after each key that is kept.
+ */
+public final class Ed25519KeyWalk {
+
+  private static final byte[] ONE = new byte[32];
+
+  static {
+    ONE[0] = 1;
+  }
+
+  private final byte[] startScalar;
+  private final ExtendedPoint base;
+  private final ExtendedPoint current;
+  private final ExtendedPoint.Temp tmp;
+  private ExtendedPoint[] batch;
+  private long position;
+
+  private Ed25519KeyWalk(final byte[] startScalar, final ExtendedPoint current) {
+    this.startScalar = startScalar;
+    this.base = ExtendedPoint.base();
+    this.current = current;
+    this.tmp = ExtendedPoint.Temp.create();
+    this.batch = new ExtendedPoint[0];
+  }
+
+  public static Ed25519KeyWalk start(final SecureRandom secureRandom) {
+    final byte[] seed = new byte[64];
+    secureRandom.nextBytes(seed);
+    final byte[] scalar = new byte[32];
+    Scalar25519.reduce(seed, scalar, 0);
+    final byte[] encoded = new byte[32];
+    Ed25519Util.scalarMultBaseEncoded(scalar, encoded, 0);
+    final var point = ExtendedPoint.create();
+    if (!ExtendedPoint.decode(encoded, 0, point)) {
+      throw new IllegalStateException("Failed to decode a derived public key.");
+    }
+    return new Ed25519KeyWalk(scalar, point);
+  }
+
+  /**
+   * @return the number of public keys emitted so far, which is also the position of the next key.
+   */
+  public long position() {
+    return position;
+  }
+
+  /**
+   * Writes the next {@code numKeys} public keys to {@code publicKeysOut} in 32 byte strides.
+   */
+  public void nextPublicKeys(final int numKeys, final byte[] publicKeysOut) {
+    if (batch.length < numKeys) {
+      final int from = batch.length;
+      batch = Arrays.copyOf(batch, numKeys);
+      for (int i = from; i < numKeys; ++i) {
+        batch[i] = ExtendedPoint.create();
+      }
+    }
+    for (int i = 0; i < numKeys; ++i) {
+      ExtendedPoint.copy(current, batch[i]);
+      ExtendedPoint.add(current, base, current, tmp);
+    }
+    ExtendedPoint.encode(batch, numKeys, publicKeysOut);
+    position += numKeys;
+  }
+
+  /**
+   * @return the private scalar of the public key emitted at {@code position}.
+   */
+  public byte[] scalar(final long position) {
+    final byte[] offset = new byte[32];
+    for (int i = 0; i < Long.BYTES; ++i) {
+      offset[i] = (byte) (position >>> (i << 3));
+    }
+    final byte[] scalar = new byte[32];
+    Scalar25519.mulAdd(offset, 0, ONE, 0, startScalar, 0, scalar, 0);
+    return scalar;
+  }
+}
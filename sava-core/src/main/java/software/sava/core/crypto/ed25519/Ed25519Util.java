@@ -6,6 +6,7 @@ import software.sava.core.crypto.Hash;
 
 import java.security.DigestException;
 import java.security.MessageDigest;
+import java.util.Arrays;
 
 /**
  * LICENSE
@@ -307,21 +308,25 @@ public final class Ed25519Util {
   }
 
   public static boolean isNotOnCurve(final byte[] p) {
-    final long[][] r = new long[4][16];
-    final long[] t = new long[16];
-    final long[] chk = new long[16];
-    final long[] num = new long[16];
-    final long[] den = new long[16];
-    final long[] den2 = new long[16];
-    final long[] den4 = new long[16];
-    final long[] den6 = new long[16];
-
-    set25519(r[2]);
-    unpack25519(r[1], p);
-    S(num, r[1]);
+    return isNotOnCurve(p, 0, new OffCurveCheck());
+  }
+
+  static boolean isNotOnCurve(final byte[] p, final int offset, final OffCurveCheck scratch) {
+    final long[] x = scratch.x;
+    final long[] y = scratch.y;
+    final long[] t = scratch.t;
+    final long[] chk = scratch.chk;
+    final long[] num = scratch.num;
+    final long[] den = scratch.den;
+    final long[] den2 = scratch.den2;
+    final long[] den4 = scratch.den4;
+    final long[] den6 = scratch.den6;
+
+    unpack25519(y, p, offset);
+    S(num, y);
     M(den, num, D);
-    Z(num, num, r[2]);
-    A(den, r[2], den);
+    Z(num, num, gf1);
+    A(den, gf1, den);
 
     S(den2, den);
     S(den4, den2);
@@ -329,30 +334,26 @@ public final class Ed25519Util {
     M(t, den6, num);
     M(t, t, den);
 
-    pow2523(t, t);
+    pow2523(t, t, scratch.pow);
     M(t, t, num);
     M(t, t, den);
     M(t, t, den);
-    M(r[0], t, den);
+    M(x, t, den);
 
-    S(chk, r[0]);
+    S(chk, x);
     M(chk, chk, den);
-    if (neq25519(chk, num) != 0) {
-      M(r[0], r[0], I);
+    if (neq25519(chk, num, scratch) != 0) {
+      M(x, x, I);
     }
 
-    S(chk, r[0]);
+    S(chk, x);
     M(chk, chk, den);
-    return neq25519(chk, num) != 0;
-  }
-
-  private static void set25519(final long[] r) {
-    System.arraycopy(Ed25519Util.gf1, 0, r, 0, 16);
+    return neq25519(chk, num, scratch) != 0;
   }
 
-  private static void unpack25519(final long[] o, final byte[] n) {
-    for (int i = 0; i < 16; i++) {
-      o[i] = (n[2 * i] & 0xff) + ((long) ((n[2 * i + 1] << 8) & 0xffff));
+  private static void unpack25519(final long[] o, final byte[] n, final int offset) {
+    for (int i = 0, j = offset; i < 16; i++, j += 2) {
+      o[i] = (n[j] & 0xff) + ((long) ((n[j + 1] << 8) & 0xffff));
     }
     o[15] &= 0x7fff;
   }
@@ -376,8 +377,7 @@ public final class Ed25519Util {
     }
   }
 
-  private static void pack25519(final byte[] o, final long[] n) {
-    final long[] m = new long[16], t = new long[16];
+  private static void pack25519(final byte[] o, final long[] n, final long[] m, final long[] t) {
     System.arraycopy(n, 0, t, 0, 16);
     car25519(t);
     car25519(t);
@@ -407,15 +407,15 @@ public final class Ed25519Util {
     return (1 & ((d - 1) >>> 8)) - 1;
   }
 
-  private static int neq25519(final long[] a, final long[] b) {
-    final byte[] c = new byte[32], d = new byte[32];
-    pack25519(c, a);
-    pack25519(d, b);
+  private static int neq25519(final long[] a, final long[] b, final OffCurveCheck scratch) {
+    final byte[] c = scratch.packedA;
+    final byte[] d = scratch.packedB;
+    pack25519(c, a, scratch.packM, scratch.packT);
+    pack25519(d, b, scratch.packM, scratch.packT);
     return crypto_verify_32(c, d);
   }
 
-  private static void pow2523(final long[] o, final long[] i) {
-    final long[] c = new long[16];
+  private static void pow2523(final long[] o, final long[] i, final long[] c) {
     System.arraycopy(i, 0, c, 0, 16);
     for (int a = 250; a >= 0; a--) {
       S(c, c);
@@ -946,7 +946,7 @@ public final class Ed25519Util {
     }
   }
 
-  private static void pruneScalar(final byte[] mutableKeyPair, final int privateKeyOffset, final byte[] mutablePublicKey) {
+  static void pruneScalar(final byte[] mutableKeyPair, final int privateKeyOffset, final byte[] mutablePublicKey) {
     System.arraycopy(mutableKeyPair, privateKeyOffset, mutablePublicKey, 0, 32);
     mutablePublicKey[0] = (byte) (mutablePublicKey[0] & 248);
     mutablePublicKey[31] = (byte) (mutablePublicKey[31] & 127);
@@ -972,7 +972,7 @@ public final class Ed25519Util {
     encodePoint(pointAffine, publicKeyOut, var2);
   }
 
-  private static void scalarMultBaseEncoded(final byte[] mutablePublicKey, final byte[] publicKeyOut, final int publicKeyOffset) {
+  static void scalarMultBaseEncoded(final byte[] mutablePublicKey, final byte[] publicKeyOut, final int publicKeyOffset) {
     final var pointAccum = scalarMultBase(mutablePublicKey);
     encodeResult(pointAccum, publicKeyOut, publicKeyOffset);
   }
@@ -1013,6 +1013,59 @@ public final class Ed25519Util {
     scalarMultBaseEncoded(mutablePublicKey, publicKeyOut, publicKeyOutOffset);
   }
 
+  /**
+   * Derives the public key for each of {@code numKeys} consecutive 32 byte private keys.  The projective results share a
+   * single field inversion via Montgomery's trick rather than inverting each Z coordinate.
+   */
+  public static void generatePublicKeys(final MessageDigest messageDigest,
+                                        final byte[] privateKeys,
+                                        final int numKeys,
+                                        final byte[] publicKeysOut) {
+    final byte[] mutableKeyPair = new byte[64];
+    final byte[] mutablePublicKey = new byte[32];
+    final var points = new PointAccum[numKeys];
+    final int[] zProducts = X25519Field.createTable(numKeys);
+    final int[] acc = X25519Field.create();
+    for (int i = 0; i < numKeys; ++i) {
+      messageDigest.update(privateKeys, i << 5, 32);
+      try {
+        messageDigest.digest(mutableKeyPair, 0, 64);
+      } catch (final DigestException e) {
+        throw new RuntimeException(e);
+      }
+      pruneScalar(mutableKeyPair, 0, mutablePublicKey);
+      final var point = scalarMultBase(mutablePublicKey);
+      points[i] = point;
+      if (i == 0) {
+        X25519Field.copy(point.z, 0, acc, 0);
+      } else {
+        X25519Field.mul(acc, point.z, acc);
+      }
+      X25519Field.copy(acc, 0, zProducts, i * 10);
+    }
+    Arrays.fill(mutableKeyPair, (byte) 0);
+    Arrays.fill(mutablePublicKey, (byte) 0);
+
+    X25519Field.inv(acc, acc);
+    final int[] zInv = X25519Field.create();
+    final var pointAffine = PointAffine.create();
+    for (int i = numKeys - 1; i >= 0; --i) {
+      final var point = points[i];
+      if (i == 0) {
+        X25519Field.copy(acc, 0, zInv, 0);
+      } else {
+        X25519Field.copy(zProducts, (i - 1) * 10, zInv, 0);
+        X25519Field.mul(zInv, acc, zInv);
+        X25519Field.mul(acc, point.z, acc);
+      }
+      X25519Field.mul(zInv, point.x, pointAffine.x);
+      X25519Field.mul(zInv, point.y, pointAffine.y);
+      X25519Field.normalize(pointAffine.x);
+      X25519Field.normalize(pointAffine.y);
+      encodePoint(pointAffine, publicKeysOut, i << 5);
+    }
+  }
+
   private Ed25519Util() {
   }
 }
@@ -0,0 +1,178 @@
+package software.sava.core.crypto.ed25519;
+
+import org.bouncycastle.math.ec.rfc7748.X25519Field;
+
+/**
+ * A point on edwards25519 in extended coordinates, X/Z, Y/Z and T = XY/Z.
+ */
+record ExtendedPoint(int[] x, int[] y, int[] z, int[] t) {
+
+  private static final int[] C_d = new int[]{56195235, 47411844, 25868126, 40503822, 57364, 58321048, 30416477, 31930572, 57760639, 10749657};
+  private static final int[] C_d2 = new int[]{45281625, 27714825, 18181821, 13898781, 114729, 49533232, 60832955, 30306712, 48412415, 4722099};
+  private static final int[] B_x = new int[]{52811034, 25909283, 8072341, 50637101, 13785486, 30858332, 20483199, 20966410, 43936626, 4379245};
+  private static final int[] B_y = new int[]{40265304, 26843545, 6710886, 53687091, 13421772, 40265318, 26843545, 6710886, 53687091, 13421772};
+
+  record Temp(int[] r0, int[] r1, int[] r2, int[] r3) {
+
+    static Temp create() {
+      return new Temp(X25519Field.create(), X25519Field.create(), X25519Field.create(), X25519Field.create());
+    }
+  }
+
+  static ExtendedPoint create() {
+    return new ExtendedPoint(X25519Field.create(), X25519Field.create(), X25519Field.create(), X25519Field.create());
+  }
+
+  static ExtendedPoint base() {
+    final var base = create();
+    X25519Field.copy(B_x, 0, base.x, 0);
+    X25519Field.copy(B_y, 0, base.y, 0);
+    X25519Field.one(base.z);
+    X25519Field.mul(base.x, base.y, base.t);
+    return base;
+  }
+
+  static void setNeutral(final ExtendedPoint p) {
+    X25519Field.zero(p.x);
+    X25519Field.one(p.y);
+    X25519Field.one(p.z);
+    X25519Field.zero(p.t);
+  }
+
+  static void copy(final ExtendedPoint p, final ExtendedPoint r) {
+    X25519Field.copy(p.x, 0, r.x, 0);
+    X25519Field.copy(p.y, 0, r.y, 0);
+    X25519Field.copy(p.z, 0, r.z, 0);
+    X25519Field.copy(p.t, 0, r.t, 0);
+  }
+
+  // add-2008-hwcd-3, r may alias p or q.
+  static void add(final ExtendedPoint p, final ExtendedPoint q, final ExtendedPoint r, final Temp tmp) {
+    final int[] a = tmp.r0;
+    final int[] b = tmp.r1;
+    final int[] c = tmp.r2;
+    final int[] d = tmp.r3;
+    X25519Field.apm(p.y, p.x, b, a);
+    X25519Field.apm(q.y, q.x, d, c);
+    X25519Field.mul(a, c, a);
+    X25519Field.mul(b, d, b);
+    X25519Field.mul(p.t, q.t, c);
+    X25519Field.mul(c, C_d2, c);
+    X25519Field.add(p.z, p.z, d);
+    X25519Field.mul(d, q.z, d);
+    X25519Field.apm(b, a, b, a);
+    X25519Field.apm(d, c, d, c);
+    X25519Field.mul(a, b, r.t);
+    X25519Field.mul(c, d, r.z);
+    X25519Field.mul(a, c, r.x);
+    X25519Field.mul(b, d, r.y);
+  }
+
+  // dbl-2008-hwcd with every intermediate negated.
+  static void twice(final ExtendedPoint p, final Temp tmp) {
+    final int[] a = tmp.r0;
+    final int[] b = tmp.r1;
+    final int[] c = tmp.r2;
+    final int[] e = tmp.r3;
+    X25519Field.add(p.x, p.y, e);
+    X25519Field.sqr(p.x, a);
+    X25519Field.sqr(p.y, b);
+    X25519Field.sqr(p.z, c);
+    X25519Field.add(c, c, c);
+    X25519Field.apm(a, b, a, b);
+    X25519Field.sqr(e, e);
+    X25519Field.sub(a, e, e);
+    X25519Field.add(c, b, c);
+    X25519Field.carry(c);
+    X25519Field.mul(e, c, p.x);
+    X25519Field.mul(b, a, p.y);
+    X25519Field.mul(e, a, p.t);
+    X25519Field.mul(c, b, p.z);
+  }
+
+  static boolean isNeutral(final ExtendedPoint p) {
+    final int[] x = X25519Field.create();
+    X25519Field.copy(p.x, 0, x, 0);
+    X25519Field.normalize(x);
+    final int[] yz = X25519Field.create();
+    X25519Field.sub(p.y, p.z, yz);
+    X25519Field.normalize(yz);
+    return X25519Field.isZeroVar(x) && X25519Field.isZeroVar(yz);
+  }
+
+  private static boolean isCanonicalY(final byte[] p, final int offset) {
+    if ((p[offset + 31] & 0x7f) != 0x7f) {
+      return true;
+    }
+    for (int i = 30; i > 0; --i) {
+      if (p[offset + i] != (byte) 0xff) {
+        return true;
+      }
+    }
+    return (p[offset] & 0xff) < 0xed;
+  }
+
+  static boolean decode(final byte[] encoded, final int offset, final ExtendedPoint r) {
+    if (!isCanonicalY(encoded, offset)) {
+      return false;
+    }
+    final int[] u = X25519Field.create();
+    final int[] v = X25519Field.create();
+    X25519Field.decode(encoded, offset, r.y);
+    X25519Field.sqr(r.y, u);
+    X25519Field.mul(C_d, u, v);
+    X25519Field.subOne(u);
+    X25519Field.addOne(v);
+    if (!X25519Field.sqrtRatioVar(u, v, r.x)) {
+      return false;
+    }
+    X25519Field.normalize(r.x);
+    final int sign = (encoded[offset + 31] & 0x80) >>> 7;
+    if (sign == 1 && X25519Field.isZeroVar(r.x)) {
+      return false;
+    }
+    if ((r.x[0] & 1) != sign) {
+      X25519Field.negate(r.x, r.x);
+      X25519Field.normalize(r.x);
+    }
+    X25519Field.one(r.z);
+    X25519Field.mul(r.x, r.y, r.t);
+    return true;
+  }
+
+  /**
+   * Encodes each point to {@code out} in 32 byte strides, sharing a single field inversion via Montgomery's trick.
+   */
+  static void encode(final ExtendedPoint[] points, final int numPoints, final byte[] out) {
+    final int[] zProducts = X25519Field.createTable(numPoints);
+    final int[] acc = X25519Field.create();
+    X25519Field.copy(points[0].z, 0, acc, 0);
+    X25519Field.copy(acc, 0, zProducts, 0);
+    for (int i = 1; i < numPoints; ++i) {
+      X25519Field.mul(acc, points[i].z, acc);
+      X25519Field.copy(acc, 0, zProducts, i * 10);
+    }
+    X25519Field.inv(acc, acc);
+
+    final int[] zInv = X25519Field.create();
+    final int[] x = X25519Field.create();
+    final int[] y = X25519Field.create();
+    for (int i = numPoints - 1; i >= 0; --i) {
+      final var point = points[i];
+      if (i == 0) {
+        X25519Field.copy(acc, 0, zInv, 0);
+      } else {
+        X25519Field.copy(zProducts, (i - 1) * 10, zInv, 0);
+        X25519Field.mul(zInv, acc, zInv);
+        X25519Field.mul(acc, point.z, acc);
+      }
+      X25519Field.mul(zInv, point.x, x);
+      X25519Field.mul(zInv, point.y, y);
+      X25519Field.normalize(x);
+      X25519Field.normalize(y);
+      final int offset = i << 5;
+      X25519Field.encode(y, out, offset);
+      out[offset + 31] = (byte) (out[offset + 31] | (x[0] & 1) << 7);
+    }
+  }
+}
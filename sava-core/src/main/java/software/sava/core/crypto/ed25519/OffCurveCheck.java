@@ -0,0 +1,36 @@
+package software.sava.core.crypto.ed25519;
+
+/**
+ * Reusable scratch space for {@link Ed25519Util#isNotOnCurve(byte[])}, so that repeated checks, such as searching for
+ * a program derived address bump, do not allocate.
+ * <p>
+ * Instances are not thread safe.
+ */
+public final class OffCurveCheck {
+
+  final long[] x = new long[16];
+  final long[] y = new long[16];
+  final long[] t = new long[16];
+  final long[] chk = new long[16];
+  final long[] num = new long[16];
+  final long[] den = new long[16];
+  final long[] den2 = new long[16];
+  final long[] den4 = new long[16];
+  final long[] den6 = new long[16];
+  final long[] pow = new long[16];
+  final long[] packM = new long[16];
+  final long[] packT = new long[16];
+  final byte[] packedA = new byte[32];
+  final byte[] packedB = new byte[32];
+
+  /**
+   * @return true if the 32 bytes at {@code offset} do not decode to a point on the Ed25519 curve.
+   */
+  public boolean isNotOnCurve(final byte[] p, final int offset) {
+    return Ed25519Util.isNotOnCurve(p, offset, this);
+  }
+
+  public boolean isNotOnCurve(final byte[] p) {
+    return isNotOnCurve(p, 0);
+  }
+}
@@ -2,6 +2,8 @@ package software.sava.core.crypto.ed25519;
 
 import org.bouncycastle.math.raw.Nat;
 
+import java.util.Arrays;
+
 /**
  * LICENSE
  * Copyright (c) 2000 - 2023 The Legion of the Bouncy Castle Inc. (<a href="https://www.bouncycastle.org">...</a>)
@@ -25,6 +27,90 @@ final class Scalar25519 {
     Nat.shiftDownBit(8, var1, 1);
   }
 
+  // Little-endian bytes of the group order, as used by TweetNaCl.
+  private static final long[] L_BYTES = new long[]{
+      0xed, 0xd3, 0xf5, 0x5c, 0x1a, 0x63, 0x12, 0x58,
+      0xd6, 0x9c, 0xf7, 0xa2, 0xde, 0xf9, 0xde, 0x14,
+      0, 0, 0, 0, 0, 0, 0, 0,
+      0, 0, 0, 0, 0, 0, 0, 0x10
+  };
+
+  private static void modL(final long[] x, final byte[] out, final int outOff) {
+    long carry;
+    int i, j;
+    for (i = 63; i >= 32; --i) {
+      carry = 0;
+      for (j = i - 32; j < i - 12; ++j) {
+        x[j] += carry - 16 * x[i] * L_BYTES[j - (i - 32)];
+        carry = (x[j] + 128) >> 8;
+        x[j] -= carry << 8;
+      }
+      x[j] += carry;
+      x[i] = 0;
+    }
+    carry = 0;
+    for (j = 0; j < 32; ++j) {
+      x[j] += carry - (x[31] >> 4) * L_BYTES[j];
+      carry = x[j] >> 8;
+      x[j] &= 255;
+    }
+    for (j = 0; j < 32; ++j) {
+      x[j] -= carry * L_BYTES[j];
+    }
+    for (i = 0; i < 32; ++i) {
+      x[i + 1] += x[i] >> 8;
+      out[outOff + i] = (byte) (x[i] & 255);
+    }
+  }
+
+  /**
+   * Reduces a 64 byte little-endian value modulo L into 32 bytes.
+   */
+  static void reduce(final byte[] in64, final byte[] out, final int outOff) {
+    reduce(in64, out, outOff, new long[64]);
+  }
+
+  /**
+   * @param x 64 longs of scratch, left holding intermediate values of the reduction.
+   */
+  static void reduce(final byte[] in64, final byte[] out, final int outOff, final long[] x) {
+    for (int i = 0; i < 64; ++i) {
+      x[i] = in64[i] & 0xff;
+    }
+    modL(x, out, outOff);
+  }
+
+  /**
+   * Computes (a * b + c) mod L, each operand being 32 little-endian bytes.
+   */
+  static void mulAdd(final byte[] a, final int aOff,
+                     final byte[] b, final int bOff,
+                     final byte[] c, final int cOff,
+                     final byte[] out, final int outOff) {
+    mulAdd(a, aOff, b, bOff, c, cOff, out, outOff, new long[64]);
+  }
+
+  /**
+   * @param x 64 longs of scratch, left holding intermediate values of the product.
+   */
+  static void mulAdd(final byte[] a, final int aOff,
+                     final byte[] b, final int bOff,
+                     final byte[] c, final int cOff,
+                     final byte[] out, final int outOff,
+                     final long[] x) {
+    for (int i = 0; i < 32; ++i) {
+      x[i] = c[cOff + i] & 0xff;
+    }
+    Arrays.fill(x, 32, 64, 0);
+    for (int i = 0; i < 32; ++i) {
+      final long ai = a[aOff + i] & 0xff;
+      for (int j = 0; j < 32; ++j) {
+        x[i + j] += ai * (b[bOff + j] & 0xff);
+      }
+    }
+    modL(x, out, outOff);
+  }
+
   private Scalar25519() {
   }
 }
@@ -1,9 +1,21 @@
 package software.sava.core.encoding;
 
+import java.lang.invoke.VarHandle;
 import java.util.Arrays;
 
+import static java.lang.invoke.MethodHandles.byteArrayViewVarHandle;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+
 public final class Base58 {
 
+  public static final int MAX_ENCODED_32_LENGTH = 44;
+  public static final int MAX_ENCODED_64_LENGTH = 88;
+
+  private static final VarHandle LONG_BE = byteArrayViewVarHandle(long[].class, BIG_ENDIAN);
+  // 58^5, the largest power of 58 where a remainder shifted left by 32 bits still fits in a long.
+  private static final long R5 = 656_356_768L;
+  private static final long[] POW_58 = {1, 58, 58 * 58, 58 * 58 * 58, 58 * 58 * 58 * 58, R5};
+
   private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
   private static final char ENCODED_ZERO = ALPHABET[0];
   private static final int[] INDEXES = new int[123]; // z == 122
@@ -44,6 +56,14 @@ public final class Base58 {
   }
 
   public static String encode(final byte[] input, final int offset, final int to) {
+    final int len = to - offset;
+    if (len == 32) {
+      final char[] encoded = new char[MAX_ENCODED_32_LENGTH];
+      return new String(encoded, 0, encode32(input, offset, encoded, 0));
+    } else if (len == 64) {
+      final char[] encoded = new char[MAX_ENCODED_64_LENGTH];
+      return new String(encoded, 0, encode64(input, offset, encoded, 0));
+    }
     final char[] encoded = new char[input.length << 1]; // upper bound
     final int outputStart = encode(input, offset, to, encoded);
     return new String(encoded, outputStart, encoded.length - outputStart);
@@ -86,6 +106,16 @@ public final class Base58 {
   public static byte[] decode(final char[] input, final int from, final int len) {
     if (len == 0) {
       return new byte[0];
+    } else if (len >= 32 && len <= MAX_ENCODED_32_LENGTH) {
+      final byte[] decoded = new byte[32];
+      if (decode(input, from, len, decoded, 0, 4)) {
+        return decoded;
+      }
+    } else if (len >= 64 && len <= MAX_ENCODED_64_LENGTH) {
+      final byte[] decoded = new byte[64];
+      if (decode(input, from, len, decoded, 0, 8)) {
+        return decoded;
+      }
     }
 
     final byte[] input58 = new byte[len];
@@ -135,6 +165,16 @@ public final class Base58 {
     final int len = input.length();
     if (len == 0) {
       return new byte[0];
+    } else if (len >= 32 && len <= MAX_ENCODED_32_LENGTH) {
+      final byte[] decoded = new byte[32];
+      if (decode(input, 0, len, decoded, 0, 4)) {
+        return decoded;
+      }
+    } else if (len >= 64 && len <= MAX_ENCODED_64_LENGTH) {
+      final byte[] decoded = new byte[64];
+      if (decode(input, 0, len, decoded, 0, 8)) {
+        return decoded;
+      }
     }
 
     final byte[] input58 = new byte[len];
@@ -265,6 +305,240 @@ public final class Base58 {
     return outputStart | ((long) leadingZeroes << 48) | ((long) inputStart << 32);
   }
 
+  // Fixed width fast paths for 32 byte keys and 64 byte signatures.  The value is handled as 64-bit limbs and
+  // converted in groups of five base58 digits, nothing is allocated.
+
+  /// @return the quotient of `(remainder * 2^64 + limb) / 58^5`, the new remainder is `limb - quotient * 58^5`.
+  private static long divR5(final long remainder, final long limb) {
+    final long hi = (remainder << 32) | (limb >>> 32);
+    final long qHi = hi / R5;
+    final long lo = ((hi - qHi * R5) << 32) | (limb & 0xFFFF_FFFFL);
+    return (qHi << 32) | (lo / R5);
+  }
+
+  private static int writeDigits(long remainder, final boolean last, final char[] output, int o) {
+    for (int i = 0; i < 5 && (!last || remainder != 0); ++i) {
+      output[o++] = ALPHABET[(int) (remainder % 58)];
+      remainder /= 58;
+    }
+    return o;
+  }
+
+  private static int finishEncode(final byte[] input,
+                                  final int offset,
+                                  final int numBytes,
+                                  final char[] output,
+                                  final int outputOffset,
+                                  int o) {
+    for (int i = offset, end = offset + numBytes; i < end && input[i] == 0; ++i) {
+      output[o++] = ENCODED_ZERO;
+    }
+    // Digits were written least significant first.
+    for (int i = outputOffset, j = o - 1; i < j; ++i, --j) {
+      final char c = output[i];
+      output[i] = output[j];
+      output[j] = c;
+    }
+    return o - outputOffset;
+  }
+
+  /// Encodes the 32 bytes at `offset` into `output`, which must have room for [#MAX_ENCODED_32_LENGTH] characters.
+  ///
+  /// @return the number of characters written starting at `outputOffset`.
+  public static int encode32(final byte[] input, final int offset, final char[] output, final int outputOffset) {
+    long l0 = (long) LONG_BE.get(input, offset);
+    long l1 = (long) LONG_BE.get(input, offset + 8);
+    long l2 = (long) LONG_BE.get(input, offset + 16);
+    long l3 = (long) LONG_BE.get(input, offset + 24);
+    int o = outputOffset;
+    while ((l0 | l1 | l2 | l3) != 0) {
+      long q;
+      q = divR5(0, l0);
+      long r = l0 - q * R5;
+      l0 = q;
+      q = divR5(r, l1);
+      r = l1 - q * R5;
+      l1 = q;
+      q = divR5(r, l2);
+      r = l2 - q * R5;
+      l2 = q;
+      q = divR5(r, l3);
+      r = l3 - q * R5;
+      l3 = q;
+      o = writeDigits(r, (l0 | l1 | l2 | l3) == 0, output, o);
+    }
+    return finishEncode(input, offset, 32, output, outputOffset, o);
+  }
+
+  /// Encodes the 64 bytes at `offset` into `output`, which must have room for [#MAX_ENCODED_64_LENGTH] characters.
+  ///
+  /// @return the number of characters written starting at `outputOffset`.
+  public static int encode64(final byte[] input, final int offset, final char[] output, final int outputOffset) {
+    long l0 = (long) LONG_BE.get(input, offset);
+    long l1 = (long) LONG_BE.get(input, offset + 8);
+    long l2 = (long) LONG_BE.get(input, offset + 16);
+    long l3 = (long) LONG_BE.get(input, offset + 24);
+    long l4 = (long) LONG_BE.get(input, offset + 32);
+    long l5 = (long) LONG_BE.get(input, offset + 40);
+    long l6 = (long) LONG_BE.get(input, offset + 48);
+    long l7 = (long) LONG_BE.get(input, offset + 56);
+    int o = outputOffset;
+    while ((l0 | l1 | l2 | l3 | l4 | l5 | l6 | l7) != 0) {
+      long q;
+      q = divR5(0, l0);
+      long r = l0 - q * R5;
+      l0 = q;
+      q = divR5(r, l1);
+      r = l1 - q * R5;
+      l1 = q;
+      q = divR5(r, l2);
+      r = l2 - q * R5;
+      l2 = q;
+      q = divR5(r, l3);
+      r = l3 - q * R5;
+      l3 = q;
+      q = divR5(r, l4);
+      r = l4 - q * R5;
+      l4 = q;
+      q = divR5(r, l5);
+      r = l5 - q * R5;
+      l5 = q;
+      q = divR5(r, l6);
+      r = l6 - q * R5;
+      l6 = q;
+      q = divR5(r, l7);
+      r = l7 - q * R5;
+      l7 = q;
+      o = writeDigits(r, (l0 | l1 | l2 | l3 | l4 | l5 | l6 | l7) == 0, output, o);
+    }
+    return finishEncode(input, offset, 64, output, outputOffset, o);
+  }
+
+  public static String encode32(final byte[] input, final int offset) {
+    final char[] encoded = new char[MAX_ENCODED_32_LENGTH];
+    return new String(encoded, 0, encode32(input, offset, encoded, 0));
+  }
+
+  public static String encode64(final byte[] input, final int offset) {
+    final char[] encoded = new char[MAX_ENCODED_64_LENGTH];
+    return new String(encoded, 0, encode64(input, offset, encoded, 0));
+  }
+
+  private static int digit(final char c, final int position) {
+    if (c < INDEXES.length) {
+      final int digit = INDEXES[c];
+      if (digit >= 0) {
+        return digit;
+      }
+    }
+    throw new IllegalArgumentException("Illegal character " + (int) c + " at position " + position);
+  }
+
+  /// Multiplies the big endian value in `output` by `multiplier` and adds `add`.
+  ///
+  /// @return false if the result overflows.
+  private static boolean mulAdd(final byte[] output,
+                                final int outputOffset,
+                                final int numLimbs,
+                                final long multiplier,
+                                final long add) {
+    long carry = add;
+    for (int o = outputOffset + ((numLimbs - 1) << 3); o >= outputOffset; o -= 8) {
+      final long limb = (long) LONG_BE.get(output, o);
+      final long lo = limb * multiplier;
+      final long sum = lo + carry;
+      carry = Math.unsignedMultiplyHigh(limb, multiplier) + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+      LONG_BE.set(output, o, sum);
+    }
+    return carry == 0;
+  }
+
+  private static boolean hasExpectedLeadingZeroes(final byte[] output,
+                                                  final int outputOffset,
+                                                  final int numBytes,
+                                                  final int leadingZeroes) {
+    final int end = outputOffset + numBytes;
+    int i = outputOffset;
+    while (i < end && output[i] == 0) {
+      ++i;
+    }
+    return i - outputOffset == leadingZeroes;
+  }
+
+  private static boolean decode(final CharSequence input,
+                                final int from,
+                                final int len,
+                                final byte[] output,
+                                final int outputOffset,
+                                final int numLimbs) {
+    Arrays.fill(output, outputOffset, outputOffset + (numLimbs << 3), (byte) 0);
+    final int end = from + len;
+    int leadingZeroes = 0;
+    while (from + leadingZeroes < end && input.charAt(from + leadingZeroes) == ENCODED_ZERO) {
+      ++leadingZeroes;
+    }
+    for (int i = from; i < end; ) {
+      final int groupEnd = Math.min(end, i + 5);
+      final int groupLen = groupEnd - i;
+      long group = 0;
+      for (; i < groupEnd; ++i) {
+        group = group * 58 + digit(input.charAt(i), i);
+      }
+      if (!mulAdd(output, outputOffset, numLimbs, POW_58[groupLen], group)) {
+        return false;
+      }
+    }
+    return hasExpectedLeadingZeroes(output, outputOffset, numLimbs << 3, leadingZeroes);
+  }
+
+  private static boolean decode(final char[] input,
+                                final int from,
+                                final int len,
+                                final byte[] output,
+                                final int outputOffset,
+                                final int numLimbs) {
+    Arrays.fill(output, outputOffset, outputOffset + (numLimbs << 3), (byte) 0);
+    final int end = from + len;
+    int leadingZeroes = 0;
+    while (from + leadingZeroes < end && input[from + leadingZeroes] == ENCODED_ZERO) {
+      ++leadingZeroes;
+    }
+    for (int i = from; i < end; ) {
+      final int groupEnd = Math.min(end, i + 5);
+      final int groupLen = groupEnd - i;
+      long group = 0;
+      for (; i < groupEnd; ++i) {
+        group = group * 58 + digit(input[i], i);
+      }
+      if (!mulAdd(output, outputOffset, numLimbs, POW_58[groupLen], group)) {
+        return false;
+      }
+    }
+    return hasExpectedLeadingZeroes(output, outputOffset, numLimbs << 3, leadingZeroes);
+  }
+
+  /// Decodes a Base58 encoded 32 byte value into `output`.
+  ///
+  /// @return false if `input` does not encode exactly 32 bytes, the contents of `output` are then undefined.
+  public static boolean decode32(final CharSequence input, final int from, final int len, final byte[] output, final int outputOffset) {
+    return len <= MAX_ENCODED_32_LENGTH && decode(input, from, len, output, outputOffset, 4);
+  }
+
+  public static boolean decode32(final char[] input, final int from, final int len, final byte[] output, final int outputOffset) {
+    return len <= MAX_ENCODED_32_LENGTH && decode(input, from, len, output, outputOffset, 4);
+  }
+
+  /// Decodes a Base58 encoded 64 byte value into `output`.
+  ///
+  /// @return false if `input` does not encode exactly 64 bytes, the contents of `output` are then undefined.
+  public static boolean decode64(final CharSequence input, final int from, final int len, final byte[] output, final int outputOffset) {
+    return len <= MAX_ENCODED_64_LENGTH && decode(input, from, len, output, outputOffset, 8);
+  }
+
+  public static boolean decode64(final char[] input, final int from, final int len, final byte[] output, final int outputOffset) {
+    return len <= MAX_ENCODED_64_LENGTH && decode(input, from, len, output, outputOffset, 8);
+  }
+
   private Base58() {
   }
 }
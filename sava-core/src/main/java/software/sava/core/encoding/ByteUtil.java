@@ -15,6 +15,31 @@ public final class ByteUtil {
   private static final VarHandle FLOAT_LE = byteArrayViewVarHandle(float[].class, LITTLE_ENDIAN);
   private static final VarHandle DOUBLE_LE = byteArrayViewVarHandle(double[].class, LITTLE_ENDIAN);
 
+  /// The length of `Long.MIN_VALUE` in base 10, the most [#putAsciiDigits] will write.
+  public static final int MAX_ASCII_DIGITS_LENGTH = 20;
+
+  /// Writes `val` in base 10 as ASCII, `b` must have room for [#MAX_ASCII_DIGITS_LENGTH] bytes.
+  ///
+  /// @return the number of bytes written starting at `off`.
+  public static int putAsciiDigits(final byte[] b, final int off, final long val) {
+    int i = off;
+    // Digits are extracted from the negated value, which unlike the positive one always fits.
+    long v = val;
+    if (v < 0) {
+      b[i++] = '-';
+    } else {
+      v = -v;
+    }
+    int numDigits = 1;
+    for (long n = v; n <= -10; n /= 10) {
+      ++numDigits;
+    }
+    for (int j = i + numDigits - 1; j >= i; --j, v /= 10) {
+      b[j] = (byte) ('0' - (v % 10));
+    }
+    return i + numDigits - off;
+  }
+
   public static void putInt16LE(final byte[] b, final int off, final int val) {
     putInt16LE(b, off, (short) val);
   }
@@ -0,0 +1,15 @@
+package software.sava.core.rpc;
+
+final class AsciiJson {
+
+  static int writeAscii(final String ascii, final byte[] out, final int offset) {
+    final int len = ascii.length();
+    for (int i = 0, o = offset; i < len; ++i, ++o) {
+      out[o] = (byte) ascii.charAt(i);
+    }
+    return len;
+  }
+
+  private AsciiJson() {
+  }
+}
@@ -1,10 +1,27 @@
 package software.sava.core.rpc;
 
+import software.sava.core.encoding.ByteUtil;
+
 record DataSizeFilter(int dataSize) implements Filter {
 
+  @Override
+  public boolean test(final byte[] accountData) {
+    return accountData.length == dataSize;
+  }
+
   @Override
   public String toJson() {
     return String.format("""
         {"dataSize":%d}""", dataSize);
   }
+
+  @Override
+  public int writeJson(final byte[] out, final int offset) {
+    int i = offset;
+    i += AsciiJson.writeAscii("""
+        {"dataSize":""", out, i);
+    i += ByteUtil.putAsciiDigits(out, i, dataSize);
+    out[i++] = '}';
+    return i - offset;
+  }
 }
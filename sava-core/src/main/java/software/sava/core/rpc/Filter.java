@@ -3,6 +3,8 @@ package software.sava.core.rpc;
 import software.sava.core.accounts.PublicKey;
 import software.sava.core.encoding.Base58;
 
+import java.util.Collection;
+
 public sealed interface Filter permits DataSizeFilter, MemCmpFilter {
 
   int MAX_MEM_COMP_LENGTH = 128;
@@ -15,19 +17,38 @@ public sealed interface Filter permits DataSizeFilter, MemCmpFilter {
     if (data.length > MAX_MEM_COMP_LENGTH) {
       throw new IllegalStateException("Maximum memory compare filter size is 128 bytes.");
     }
-    return new MemCmpFilter(offset, Base58.encode(data));
+    return new MemCmpFilter(offset, Base58.encode(data), data.clone());
   }
 
   static Filter createMemCompFilter(final int offset, final PublicKey publicKey) {
-    return new MemCmpFilter(offset, publicKey.toBase58());
+    return new MemCmpFilter(offset, publicKey.toBase58(), publicKey.toByteArray());
   }
 
   static Filter createMemCompFilter(final int offset, final PublicKey publicKey, final PublicKey publicKey2) {
     final byte[] data = new byte[PublicKey.PUBLIC_KEY_LENGTH << 1];
     publicKey.write(data, 0);
     publicKey2.write(data, PublicKey.PUBLIC_KEY_LENGTH);
-    return createMemCompFilter(offset, data);
+    return new MemCmpFilter(offset, Base58.encode(data), data);
+  }
+
+  /// Applies this filter locally, the same way the RPC node would.
+  boolean test(final byte[] accountData);
+
+  static boolean testAll(final Collection<Filter> filters, final byte[] accountData) {
+    for (final var filter : filters) {
+      if (!filter.test(accountData)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   String toJson();
+
+  /**
+   * Writes the ASCII encoded json of this filter, identical to {@link #toJson()}, without intermediate allocation.
+   *
+   * @return the number of bytes written.
+   */
+  int writeJson(final byte[] out, final int offset);
 }
@@ -1,10 +1,50 @@
 package software.sava.core.rpc;
 
-record MemCmpFilter(int offset, String base58Encoded) implements Filter {
+import software.sava.core.encoding.ByteUtil;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// bytes is the decoded form of base58Encoded, kept for local tests and excluded from equality.
+record MemCmpFilter(int offset, String base58Encoded, byte[] bytes) implements Filter {
+
+  @Override
+  public boolean test(final byte[] accountData) {
+    final int to = offset + bytes.length;
+    return to <= accountData.length && Arrays.equals(bytes, 0, bytes.length, accountData, offset, to);
+  }
 
   @Override
   public String toJson() {
     return String.format("""
         {"memcmp":{"offset":%d,"bytes":"%s"}}""", offset, base58Encoded);
   }
+
+  @Override
+  public int writeJson(final byte[] out, final int offset) {
+    int i = offset;
+    i += AsciiJson.writeAscii("""
+        {"memcmp":{"offset":""", out, i);
+    i += ByteUtil.putAsciiDigits(out, i, this.offset);
+    i += AsciiJson.writeAscii("""
+        ,"bytes":\"""", out, i);
+    i += AsciiJson.writeAscii(base58Encoded, out, i);
+    i += AsciiJson.writeAscii("\"}}", out, i);
+    return i - offset;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    return o instanceof MemCmpFilter other && offset == other.offset && base58Encoded.equals(other.base58Encoded);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(offset, base58Encoded);
+  }
+
+  @Override
+  public String toString() {
+    return "MemCmpFilter[offset=" + offset + ", base58Encoded=" + base58Encoded + ']';
+  }
 }
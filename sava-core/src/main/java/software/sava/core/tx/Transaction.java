@@ -713,5 +713,11 @@ public interface Transaction {
 
   Transaction replaceInstruction(final int index, final Instruction instruction);
 
+  /// Compiles this transaction's shape so that variants differing only in instruction data, blockhash or compute budget
+  /// can be stamped from a copy of its serialized form.
+  default TransactionTemplate compileTemplate() {
+    return TransactionTemplate.compile(this);
+  }
+
   AccountMeta feePayer();
 }
@@ -4,13 +4,16 @@ import software.sava.core.accounts.PublicKey;
 import software.sava.core.accounts.lookup.AddressLookupTable;
 import software.sava.core.accounts.meta.AccountMeta;
 import software.sava.core.accounts.meta.LookupTableAccountMeta;
+import software.sava.core.crypto.ed25519.Ed25519BatchVerifier;
 import software.sava.core.programs.Discriminator;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static software.sava.core.accounts.PublicKey.PUBLIC_KEY_LENGTH;
@@ -152,6 +155,39 @@ public interface TransactionSkeleton {
     }
   }
 
+  /**
+   * Verifies every transaction across {@code pool}, each task batch verifying a contiguous group of transactions.  If a
+   * group fails its transactions are re-verified one by one to find the invalid ones.
+   *
+   * @return whether each transaction is fully and validly signed, indexed as {@code transactions}.
+   */
+  static boolean[] verifySignatures(final List<? extends TransactionSkeleton> transactions, final ForkJoinPool pool) {
+    final int numTransactions = transactions.size();
+    final boolean[] valid = new boolean[numTransactions];
+    final int numGroups = Math.max(1, Math.min(numTransactions >> 4, pool.getParallelism() << 2));
+    pool.submit(() -> IntStream.range(0, numGroups).parallel().forEach(group -> {
+      final int from = (int) ((long) numTransactions * group / numGroups);
+      final int to = (int) ((long) numTransactions * (group + 1) / numGroups);
+      final var verifier = new Ed25519BatchVerifier(to - from);
+      boolean wellFormed = true;
+      for (int i = from; i < to && wellFormed; ++i) {
+        wellFormed = transactions.get(i).addSignatures(verifier);
+      }
+      if (wellFormed && verifier.verify()) {
+        Arrays.fill(valid, from, to, true);
+      } else {
+        for (int i = from; i < to; ++i) {
+          valid[i] = transactions.get(i).verifySignatures();
+        }
+      }
+    })).join();
+    return valid;
+  }
+
+  static boolean[] verifySignatures(final List<? extends TransactionSkeleton> transactions) {
+    return verifySignatures(transactions, ForkJoinPool.commonPool());
+  }
+
   byte[] data();
 
   int numSignatures();
@@ -202,6 +238,23 @@ public interface TransactionSkeleton {
 
   PublicKey feePayer();
 
+  /**
+   * Verifies each signature against its signer key by the same rules as {@link #addSignatures}, reading the message in
+   * place from {@link #data()}.
+   *
+   * @return false if the transaction is unsigned, its signature count disagrees with its header or accounts, or a
+   * signature is invalid.
+   */
+  boolean verifySignatures();
+
+  /**
+   * Adds each signature to {@code verifier}, the message is hashed in place from {@link #data()}.
+   *
+   * @return false if the transaction is unsigned, its signature count disagrees with its header or accounts, or a
+   * signature or signer key is malformed.
+   */
+  boolean addSignatures(final Ed25519BatchVerifier verifier);
+
   AccountMeta[] parseSignerAccounts();
 
   PublicKey[] parseSignerPublicKeys();
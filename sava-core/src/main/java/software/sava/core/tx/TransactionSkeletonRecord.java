@@ -4,6 +4,7 @@ import software.sava.core.accounts.PublicKey;
 import software.sava.core.accounts.lookup.AddressLookupTable;
 import software.sava.core.accounts.meta.AccountMeta;
 import software.sava.core.accounts.meta.LookupTableAccountMeta;
+import software.sava.core.crypto.ed25519.Ed25519BatchVerifier;
 import software.sava.core.encoding.Base58;
 import software.sava.core.programs.Discriminator;
 
@@ -18,6 +19,7 @@ import static software.sava.core.encoding.CompactU16Encoding.decode;
 import static software.sava.core.encoding.CompactU16Encoding.getByteLen;
 import static software.sava.core.tx.Instruction.createInstruction;
 import static software.sava.core.tx.Transaction.BLOCK_HASH_LENGTH;
+import static software.sava.core.tx.Transaction.SIGNATURE_LENGTH;
 import static software.sava.core.tx.Transaction.VERSIONED_BIT_MASK;
 
 record TransactionSkeletonRecord(byte[] data,
@@ -60,6 +62,45 @@ record TransactionSkeletonRecord(byte[] data,
     return Base58.encode(data, recentBlockHashIndex, recentBlockHashIndex + BLOCK_HASH_LENGTH);
   }
 
+  /**
+   * @return -1 if the transaction is unsigned or its header does not agree with its signatures and accounts.
+   */
+  private int signaturesOffset() {
+    return numSignatures > 0 && numSignatures <= numIncludedAccounts && decode(data, 0) == numSignatures
+        ? getByteLen(data, 0)
+        : -1;
+  }
+
+  @Override
+  public boolean verifySignatures() {
+    int sigOffset = signaturesOffset();
+    if (sigOffset < 0) {
+      return false;
+    }
+    final int messageLength = data.length - messageOffset;
+    for (int s = 0, keyOffset = accountsOffset; s < numSignatures; ++s, sigOffset += SIGNATURE_LENGTH, keyOffset += PUBLIC_KEY_LENGTH) {
+      if (!Ed25519BatchVerifier.verifySignature(data, keyOffset, data, messageOffset, messageLength, data, sigOffset)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean addSignatures(final Ed25519BatchVerifier verifier) {
+    int sigOffset = signaturesOffset();
+    if (sigOffset < 0) {
+      return false;
+    }
+    final int messageLength = data.length - messageOffset;
+    for (int s = 0, keyOffset = accountsOffset; s < numSignatures; ++s, sigOffset += SIGNATURE_LENGTH, keyOffset += PUBLIC_KEY_LENGTH) {
+      if (!verifier.add(data, keyOffset, data, messageOffset, messageLength, data, sigOffset)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public PublicKey feePayer() {
     return readPubKey(data, accountsOffset);
@@ -0,0 +1,159 @@
+package software.sava.core.tx;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.Signer;
+import software.sava.core.accounts.SolanaAccounts;
+import software.sava.core.encoding.Base58;
+
+import java.util.Arrays;
+import java.util.SequencedCollection;
+
+import static software.sava.core.encoding.CompactU16Encoding.*;
+import static software.sava.core.tx.Transaction.SIGNATURE_LENGTH;
+
+/// A transaction shape compiled once, from which new transactions are stamped by patching a copy of the serialized
+/// message in place, skipping the account merging, sorting and serialization done by [Transaction#createTx].
+///
+/// Only fixed length fields may be patched: instruction data keeps its length and the accounts never change.  Use
+/// [Transaction#replaceInstruction] or a new template when the shape itself changes.
+///
+/// Templates are immutable and may be shared across threads, the stamped buffers are owned by the caller.
+public interface TransactionTemplate {
+
+  byte SET_COMPUTE_UNIT_LIMIT = 2;
+  byte SET_COMPUTE_UNIT_PRICE = 3;
+
+  static TransactionTemplate compile(final Transaction transaction) {
+    return compile(transaction.serialized());
+  }
+
+  static TransactionTemplate compile(final byte[] serialized) {
+    return compile(serialized, SolanaAccounts.MAIN_NET.computeBudgetProgram());
+  }
+
+  /// @param serialized           a serialized legacy or versioned transaction, signatures are discarded.
+  /// @param computeBudgetProgram used to locate the compute unit limit and price instructions, if present.
+  static TransactionTemplate compile(final byte[] serialized, final PublicKey computeBudgetProgram) {
+    final byte[] data = serialized.clone();
+    final int numSignatures = decode(data, 0);
+    final int signaturesOffset = getByteLen(data, 0);
+    int o = signaturesOffset + (numSignatures * SIGNATURE_LENGTH);
+    Arrays.fill(data, signaturesOffset, o, (byte) 0);
+    final int messageOffset = o;
+
+    o += signedByte(data[o]) ? Transaction.VERSIONED_MSG_HEADER_LENGTH : Transaction.MSG_HEADER_LENGTH;
+    final int numIncludedAccounts = decode(data, o);
+    o += getByteLen(data, o);
+    final int accountsOffset = o;
+    o += numIncludedAccounts << 5;
+
+    final int recentBlockHashOffset = o;
+    o += Transaction.BLOCK_HASH_LENGTH;
+
+    final int numInstructions = decode(data, o);
+    o += getByteLen(data, o);
+    final int[] dataOffsets = new int[numInstructions];
+    final int[] dataLengths = new int[numInstructions];
+    int computeUnitLimitOffset = -1;
+    int computeUnitPriceOffset = -1;
+    for (int i = 0, programIndex, numAccounts, len; i < numInstructions; ++i) {
+      programIndex = decode(data, o);
+      o += getByteLen(data, o);
+
+      numAccounts = decode(data, o);
+      o += getByteLen(data, o);
+      o += numAccounts;
+
+      len = decode(data, o);
+      o += getByteLen(data, o);
+      dataOffsets[i] = o;
+      dataLengths[i] = len;
+
+      if (len > 0 && programIndex < numIncludedAccounts
+          && computeBudgetProgram.matches(data, accountsOffset + (programIndex << 5))) {
+        final byte discriminator = data[o];
+        if (discriminator == SET_COMPUTE_UNIT_LIMIT && len == 1 + Integer.BYTES) {
+          computeUnitLimitOffset = o + 1;
+        } else if (discriminator == SET_COMPUTE_UNIT_PRICE && len == 1 + Long.BYTES) {
+          computeUnitPriceOffset = o + 1;
+        }
+      }
+      o += len;
+    }
+
+    return new TransactionTemplateRecord(
+        data,
+        numSignatures,
+        messageOffset,
+        accountsOffset,
+        recentBlockHashOffset,
+        dataOffsets,
+        dataLengths,
+        computeUnitLimitOffset,
+        computeUnitPriceOffset
+    );
+  }
+
+  int numSigners();
+
+  int messageOffset();
+
+  int recentBlockHashOffset();
+
+  int numInstructions();
+
+  /// @return the absolute offset of the instruction's data within a stamped transaction.
+  int instructionDataOffset(final int instruction);
+
+  int instructionDataLength(final int instruction);
+
+  /// @return the absolute offset of the little endian u32 compute unit limit, or `-1` if the template does not set it.
+  int computeUnitLimitOffset();
+
+  /// @return the absolute offset of the little endian u64 micro lamport price, or `-1` if the template does not set it.
+  int computeUnitPriceOffset();
+
+  int size();
+
+  /// @return a new unsigned copy of the template.
+  byte[] stamp();
+
+  default byte[] stamp(final byte[] recentBlockHash) {
+    final byte[] tx = stamp();
+    setRecentBlockHash(tx, recentBlockHash);
+    return tx;
+  }
+
+  default byte[] stamp(final String recentBlockHash) {
+    return stamp(Base58.decode(recentBlockHash));
+  }
+
+  void setRecentBlockHash(final byte[] tx, final byte[] recentBlockHash);
+
+  /// Replaces all the data of an instruction, which must have the same length as the template's.
+  void setInstructionData(final byte[] tx, final int instruction, final byte[] data);
+
+  /// Overwrites `len` bytes of an instruction's data, starting at `dataOffset` relative to the start of its data.
+  void setInstructionData(final byte[] tx,
+                          final int instruction,
+                          final int dataOffset,
+                          final byte[] src,
+                          final int srcOffset,
+                          final int len);
+
+  void putInt64LE(final byte[] tx, final int instruction, final int dataOffset, final long value);
+
+  void setComputeUnitLimit(final byte[] tx, final int computeUnitLimit);
+
+  void setComputeUnitPrice(final byte[] tx, final long microLamports);
+
+  /// Signs with the signing account matching `signer`, all other signatures are left untouched.
+  void sign(final byte[] tx, final Signer signer);
+
+  /// @param signers in the same order as the template's signing accounts.
+  void sign(final byte[] tx, final SequencedCollection<Signer> signers);
+
+  String signAndBase64Encode(final byte[] tx, final Signer signer);
+
+  String signAndBase64Encode(final byte[] tx, final SequencedCollection<Signer> signers);
+}
@@ -0,0 +1,145 @@
+package software.sava.core.tx;
+
+import software.sava.core.accounts.Signer;
+import software.sava.core.encoding.ByteUtil;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.SequencedCollection;
+
+import static software.sava.core.accounts.PublicKey.PUBLIC_KEY_LENGTH;
+import static software.sava.core.tx.Transaction.SIGNATURE_LENGTH;
+
+record TransactionTemplateRecord(byte[] data,
+                                 int numSigners,
+                                 int messageOffset,
+                                 int accountsOffset,
+                                 int recentBlockHashOffset,
+                                 int[] dataOffsets,
+                                 int[] dataLengths,
+                                 int computeUnitLimitOffset,
+                                 int computeUnitPriceOffset) implements TransactionTemplate {
+
+  @Override
+  public int numInstructions() {
+    return dataOffsets.length;
+  }
+
+  @Override
+  public int instructionDataOffset(final int instruction) {
+    return dataOffsets[instruction];
+  }
+
+  @Override
+  public int instructionDataLength(final int instruction) {
+    return dataLengths[instruction];
+  }
+
+  @Override
+  public int size() {
+    return data.length;
+  }
+
+  @Override
+  public byte[] stamp() {
+    return data.clone();
+  }
+
+  @Override
+  public void setRecentBlockHash(final byte[] tx, final byte[] recentBlockHash) {
+    if (recentBlockHash == null || recentBlockHash.length != Transaction.BLOCK_HASH_LENGTH) {
+      throw new IllegalArgumentException("32 byte recent blockHash is required");
+    }
+    System.arraycopy(recentBlockHash, 0, tx, recentBlockHashOffset, Transaction.BLOCK_HASH_LENGTH);
+  }
+
+  @Override
+  public void setInstructionData(final byte[] tx, final int instruction, final byte[] data) {
+    final int len = dataLengths[instruction];
+    if (data.length != len) {
+      throw new IllegalArgumentException(String.format(
+          "Instruction %d data must be %d bytes, not %d.", instruction, len, data.length
+      ));
+    }
+    System.arraycopy(data, 0, tx, dataOffsets[instruction], len);
+  }
+
+  private int checkDataRange(final int instruction, final int dataOffset, final int len) {
+    final int ixLen = dataLengths[instruction];
+    if (dataOffset < 0 || len < 0 || dataOffset + len > ixLen) {
+      throw new IndexOutOfBoundsException(String.format(
+          "[%d, %d) is out of bounds for the %d bytes of instruction %d data.",
+          dataOffset, dataOffset + len, ixLen, instruction
+      ));
+    }
+    return dataOffsets[instruction] + dataOffset;
+  }
+
+  @Override
+  public void setInstructionData(final byte[] tx,
+                                 final int instruction,
+                                 final int dataOffset,
+                                 final byte[] src,
+                                 final int srcOffset,
+                                 final int len) {
+    System.arraycopy(src, srcOffset, tx, checkDataRange(instruction, dataOffset, len), len);
+  }
+
+  @Override
+  public void putInt64LE(final byte[] tx, final int instruction, final int dataOffset, final long value) {
+    ByteUtil.putInt64LE(tx, checkDataRange(instruction, dataOffset, Long.BYTES), value);
+  }
+
+  @Override
+  public void setComputeUnitLimit(final byte[] tx, final int computeUnitLimit) {
+    if (computeUnitLimitOffset < 0) {
+      throw new IllegalStateException("Template does not set a compute unit limit.");
+    }
+    ByteUtil.putInt32LE(tx, computeUnitLimitOffset, computeUnitLimit);
+  }
+
+  @Override
+  public void setComputeUnitPrice(final byte[] tx, final long microLamports) {
+    if (computeUnitPriceOffset < 0) {
+      throw new IllegalStateException("Template does not set a compute unit price.");
+    }
+    ByteUtil.putInt64LE(tx, computeUnitPriceOffset, microLamports);
+  }
+
+  @Override
+  public void sign(final byte[] tx, final Signer signer) {
+    if (numSigners > 1) {
+      final byte[] pubKey = signer.publicKey().toByteArray();
+      for (int from = accountsOffset, i = 0; i < numSigners; ++i, from += PUBLIC_KEY_LENGTH) {
+        if (Arrays.equals(pubKey, 0, PUBLIC_KEY_LENGTH, tx, from, from + PUBLIC_KEY_LENGTH)) {
+          Transaction.sign(signer, tx, messageOffset, tx.length - messageOffset, 1 + (i * SIGNATURE_LENGTH));
+          return;
+        }
+      }
+      throw new IllegalArgumentException("Failed to find index for signer " + signer.publicKey());
+    } else {
+      Transaction.sign(signer, tx, messageOffset, tx.length - messageOffset, 1);
+    }
+  }
+
+  @Override
+  public void sign(final byte[] tx, final SequencedCollection<Signer> signers) {
+    final int numSigners = signers.size();
+    if (numSigners != this.numSigners) {
+      throw new IllegalArgumentException(String.format("Expected %d signers, only passed %d.", this.numSigners, numSigners));
+    }
+    Transaction.sign(signers, tx, messageOffset, tx.length - messageOffset, 1);
+  }
+
+  @Override
+  public String signAndBase64Encode(final byte[] tx, final Signer signer) {
+    sign(tx, signer);
+    return Base64.getEncoder().encodeToString(tx);
+  }
+
+  @Override
+  public String signAndBase64Encode(final byte[] tx, final SequencedCollection<Signer> signers) {
+    sign(tx, signers);
+    return Base64.getEncoder().encodeToString(tx);
+  }
+}
@@ -0,0 +1,69 @@
+package software.sava.core.accounts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PDAEngineTests {
+
+  private static final PublicKey PROGRAM_ID = PublicKey.fromBase58Encoded("BPFLoader1111111111111111111111111111111111");
+
+  @Test
+  void findProgramAddress() {
+    final var engine = PDAEngine.createEngine(2);
+    final List<byte[]> seeds = List.of(
+        PublicKey.fromBase58Encoded("SeedPubey1111111111111111111111111111111111").toByteArray(),
+        PublicKey.fromBase58Encoded("3gF2KMe9KiC6FNVBmfg9i267aMPvK37FewCip4eGBFcT").toByteArray(),
+        PublicKey.fromBase58Encoded("HwRVBufQ4haG5XSgpspwKtNd3PC9GM9m1196uJW36vds").toByteArray()
+    );
+    final var expected = PublicKey.fromBase58Encoded("GXLbx3CbJuTTtJDZeS1PGzwJJ5jGYVEqcXum7472kpUp");
+
+    var pda = engine.findProgramAddress(seeds, PROGRAM_ID);
+    assertEquals(expected, pda.publicKey());
+    assertEquals(254, pda.nonce());
+    assertSame(seeds, pda.seeds());
+    assertEquals(1, engine.numCached());
+
+    final var sameSeeds = List.copyOf(seeds);
+    pda = engine.findProgramAddress(sameSeeds, PROGRAM_ID);
+    assertEquals(expected, pda.publicKey());
+    assertEquals(254, pda.nonce());
+    assertSame(sameSeeds, pda.seeds());
+    assertEquals(1, engine.numCached());
+
+    engine.findProgramAddress(List.of(new byte[]{1}), PROGRAM_ID);
+    engine.findProgramAddress(List.of(new byte[]{2}), PROGRAM_ID);
+    assertEquals(2, engine.numCached());
+    engine.clearCache();
+    assertEquals(0, engine.numCached());
+  }
+
+  @Test
+  void findProgramAddresses() {
+    final var engine = PDAEngine.createEngine();
+    final var seeds = new ArrayList<List<byte[]>>();
+    for (int i = 0; i < 512; ++i) {
+      seeds.add(List.of(new byte[]{(byte) i, (byte) (i >> 8)}, "mint".getBytes()));
+    }
+    final var pool = new ForkJoinPool(4);
+    try {
+      final var addresses = engine.findProgramAddresses(seeds, PROGRAM_ID, pool);
+      assertEquals(seeds.size(), addresses.length);
+      for (int i = 0; i < addresses.length; ++i) {
+        final var expected = PublicKey.findProgramAddress(seeds.get(i), PROGRAM_ID);
+        assertEquals(expected.publicKey(), addresses[i].publicKey());
+        assertEquals(expected.nonce(), addresses[i].nonce());
+        final var withBump = new ArrayList<>(seeds.get(i));
+        withBump.add(new byte[]{(byte) expected.nonce()});
+        assertEquals(expected.publicKey(), PublicKey.createProgramAddress(withBump, PROGRAM_ID));
+      }
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(0, engine.numCached());
+  }
+}
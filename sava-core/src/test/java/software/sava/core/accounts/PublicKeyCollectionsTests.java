@@ -0,0 +1,133 @@
+package software.sava.core.accounts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PublicKeyCollectionsTests {
+
+  private static PublicKey randomKey(final Random random) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    random.nextBytes(key);
+    return PublicKey.createPubKey(key);
+  }
+
+  private static PublicKey[] keys(final Random random, final int numKeys) {
+    final var keys = new PublicKey[numKeys];
+    // The all zero system program key is stored outside the probe table.
+    keys[0] = PublicKey.createPubKey(new byte[PublicKey.PUBLIC_KEY_LENGTH]);
+    for (int i = 1; i < numKeys; ++i) {
+      keys[i] = randomKey(random);
+    }
+    return keys;
+  }
+
+  private static void testIntMap(final PublicKeyIntMap map) {
+    final var random = new Random(17);
+    final var keys = keys(random, 4_096);
+    final var expected = new HashMap<PublicKey, Integer>();
+    for (int round = 0; round < 50_000; ++round) {
+      final var key = keys[random.nextInt(keys.length)];
+      final int value = random.nextInt(1_000);
+      switch (random.nextInt(3)) {
+        case 0 -> {
+          final Integer previous = expected.put(key, value);
+          assertEquals(previous == null ? -1 : previous, map.put(key, value));
+        }
+        case 1 -> {
+          final var previous = expected.remove(key);
+          assertEquals(previous == null ? -1 : previous, map.remove(key));
+        }
+        default -> assertEquals((int) expected.merge(key, value, Integer::sum), map.addTo(key, value));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (final var key : keys) {
+      final int value = expected.getOrDefault(key, -1);
+      assertEquals(value, map.get(key));
+      assertEquals(value, map.get(key.toByteArray(), 0));
+    }
+    final var iterated = new HashMap<PublicKey, Integer>();
+    map.forEach(iterated::put);
+    assertEquals(expected, iterated);
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertEquals(-1, map.get(keys[0]));
+    map.close();
+  }
+
+  @Test
+  void intMap() {
+    testIntMap(PublicKeyIntMap.createMap(8));
+    testIntMap(PublicKeyIntMap.createOffHeapMap(8));
+  }
+
+  private static void testMap(final PublicKeyMap<String> map) {
+    final var random = new Random(1_017);
+    final var keys = keys(random, 2_048);
+    final var expected = new HashMap<PublicKey, String>();
+    for (int round = 0; round < 20_000; ++round) {
+      final var key = keys[random.nextInt(keys.length)];
+      if (random.nextBoolean()) {
+        final var value = Integer.toString(round);
+        assertEquals(expected.put(key, value), map.put(key, value));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (final var key : keys) {
+      assertEquals(expected.get(key), map.get(key));
+      assertEquals(expected.get(key), map.get(key.toByteArray(), 0));
+    }
+    final var iterated = new HashMap<PublicKey, String>();
+    map.forEach(iterated::put);
+    assertEquals(expected, iterated);
+
+    final var absent = randomKey(random);
+    assertEquals("absent", map.computeIfAbsent(absent, k -> "absent"));
+    assertEquals("absent", map.computeIfAbsent(absent, k -> "other"));
+    assertEquals("absent", map.putIfAbsent(absent, "other"));
+    map.close();
+  }
+
+  @Test
+  void map() {
+    testMap(PublicKeyMap.createMap(0));
+    testMap(PublicKeyMap.createOffHeapMap(0));
+  }
+
+  private static void testSet(final PublicKeySet set) {
+    final var random = new Random(7);
+    final var keys = keys(random, 1_024);
+    final var expected = new HashSet<PublicKey>();
+    for (int round = 0; round < 10_000; ++round) {
+      final var key = keys[random.nextInt(keys.length)];
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), set.remove(key));
+      } else {
+        assertEquals(expected.add(key), set.add(key));
+      }
+      assertEquals(expected.size(), set.size());
+    }
+    for (final var key : keys) {
+      assertEquals(expected.contains(key), set.contains(key));
+      assertEquals(expected.contains(key), set.contains(key.toByteArray(), 0));
+    }
+    final var iterated = new HashSet<PublicKey>();
+    set.forEach(iterated::add);
+    assertEquals(expected, iterated);
+    set.close();
+  }
+
+  @Test
+  void set() {
+    testSet(PublicKeySet.createSet(16));
+    testSet(PublicKeySet.createOffHeapSet(16));
+  }
+}
@@ -2,9 +2,16 @@ package software.sava.core.accounts;
 
 import org.bouncycastle.math.ec.rfc8032.Ed25519;
 import org.junit.jupiter.api.Test;
+import software.sava.core.crypto.Hash;
+import software.sava.core.crypto.ed25519.Ed25519BatchVerifier;
+import software.sava.core.crypto.ed25519.Ed25519KeyWalk;
 import software.sava.core.encoding.Base58;
 
+import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static software.sava.core.accounts.Signer.KEY_LENGTH;
@@ -70,4 +77,258 @@ final class SignerTest {
     final boolean verified = PublicKey.verifySignature(publicKey, msg, signature);
     assertTrue(verified);
   }
+
+  @Test
+  void threadSafeSigner() throws InterruptedException {
+    final var keyPair = Signer.generatePrivateKeyPairBytes();
+    final var signer = Signer.createFromKeyPair(keyPair);
+    final var threadSafeSigner = signer.createThreadSafeSigner();
+    assertSame(threadSafeSigner, threadSafeSigner.createThreadSafeSigner());
+    assertEquals(signer.publicKey(), threadSafeSigner.publicKey());
+
+    final int numMessages = 256;
+    final byte[][] messages = new byte[numMessages][];
+    final byte[][] expected = new byte[numMessages][];
+    for (int i = 0; i < numMessages; ++i) {
+      messages[i] = ("sava-" + i).getBytes();
+      expected[i] = signer.sign(messages[i]);
+    }
+
+    final byte[][] signatures = new byte[numMessages][];
+    try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < numMessages; ++i) {
+        final int index = i;
+        executor.execute(() -> signatures[index] = threadSafeSigner.sign(messages[index]));
+      }
+    }
+    for (int i = 0; i < numMessages; ++i) {
+      assertArrayEquals(expected[i], signatures[i]);
+    }
+  }
+
+  @Test
+  void precomputedSigner() {
+    for (int i = 0; i < 32; ++i) {
+      final var keyPair = Signer.generatePrivateKeyPairBytes();
+      final var signer = Signer.createFromKeyPair(keyPair);
+      final var precomputedSigner = Signer.createPrecomputedSigner(Arrays.copyOfRange(keyPair, 0, KEY_LENGTH));
+      assertEquals(signer.publicKey(), precomputedSigner.publicKey());
+
+      final byte[] msg = new byte[64 + (i << 3)];
+      for (int j = 64; j < msg.length; ++j) {
+        msg[j] = (byte) (i * j);
+      }
+      final byte[] expected = signer.sign(msg, 64, msg.length - 64);
+      assertArrayEquals(expected, precomputedSigner.sign(msg, 64, msg.length - 64));
+
+      assertEquals(64, precomputedSigner.sign(msg, 64, msg.length - 64, 0));
+      assertArrayEquals(expected, Arrays.copyOfRange(msg, 0, 64));
+      assertTrue(signer.publicKey().verifySignature(Arrays.copyOfRange(msg, 64, msg.length), expected));
+    }
+  }
+
+  @Test
+  void batchVerify() {
+    final int numSignatures = 300;
+    final byte[][] publicKeys = new byte[numSignatures][];
+    final byte[][] messages = new byte[numSignatures][];
+    final byte[][] signatures = new byte[numSignatures][];
+    for (int i = 0; i < numSignatures; ++i) {
+      final var signer = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+      publicKeys[i] = signer.publicKey().toByteArray();
+      messages[i] = new byte[1 + i];
+      Arrays.fill(messages[i], (byte) i);
+      signatures[i] = signer.sign(messages[i]);
+    }
+
+    final var pool = new ForkJoinPool(4);
+    try {
+      for (final int batchSize : new int[]{1, 3, 4, 17, numSignatures}) {
+        final var verifier = new Ed25519BatchVerifier(batchSize);
+        for (int i = 0; i < batchSize; ++i) {
+          assertTrue(verifier.add(publicKeys[i], messages[i], signatures[i]));
+        }
+        assertTrue(verifier.verify());
+        assertTrue(verifier.verify(pool));
+
+        final int tampered = batchSize >> 1;
+        verifier.clear();
+        for (int i = 0; i < batchSize; ++i) {
+          final byte[] msg = i == tampered ? messages[i].clone() : messages[i];
+          if (i == tampered) {
+            msg[0] ^= 1;
+          }
+          assertTrue(verifier.add(publicKeys[i], msg, signatures[i]));
+        }
+        assertFalse(verifier.verify());
+        assertFalse(verifier.verify(pool));
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    final var verifier = new Ed25519BatchVerifier();
+    final byte[] nonCanonical = signatures[0].clone();
+    nonCanonical[63] = (byte) 0xff;
+    assertFalse(verifier.add(publicKeys[0], messages[0], nonCanonical));
+    assertTrue(verifier.add(publicKeys[1], messages[1], signatures[1]));
+    assertFalse(verifier.verify());
+  }
+
+  private static final BigInteger L = BigInteger.ONE.shiftLeft(252).add(new BigInteger("27742317777372353535851937790883648493"));
+
+  private static BigInteger decodeScalar(final byte[] le, final int offset) {
+    final byte[] be = new byte[32];
+    for (int i = 0; i < 32; ++i) {
+      be[31 - i] = le[offset + i];
+    }
+    return new BigInteger(1, be);
+  }
+
+  private static void encodeScalar(final BigInteger scalar, final byte[] out, final int offset) {
+    final byte[] be = scalar.toByteArray();
+    for (int i = 0; i < 32 && i < be.length; ++i) {
+      out[offset + i] = be[be.length - 1 - i];
+    }
+  }
+
+  private static BigInteger challenge(final byte[] r, final byte[] publicKey, final byte[] msg) {
+    final var sha512 = Hash.sha512Digest();
+    sha512.update(r);
+    sha512.update(publicKey);
+    sha512.update(msg);
+    final byte[] le = sha512.digest();
+    final byte[] be = new byte[64];
+    for (int i = 0; i < 64; ++i) {
+      be[63 - i] = le[i];
+    }
+    return new BigInteger(1, be).mod(L);
+  }
+
+  private static byte[] expandedKey(final SecureRandom random) {
+    final byte[] expandedKey = new byte[64];
+    random.nextBytes(expandedKey);
+    // Below 2^252 and so below L.
+    expandedKey[31] &= 0x0f;
+    return expandedKey;
+  }
+
+  private static void assertRejected(final byte[] publicKey,
+                                     final byte[] msg,
+                                     final byte[] sig,
+                                     final Signer[] signers) {
+    assertFalse(Ed25519BatchVerifier.verifySignature(publicKey, 0, msg, 0, msg.length, sig, 0));
+
+    final var verifier = new Ed25519BatchVerifier(1 + signers.length);
+    assertFalse(verifier.add(publicKey, msg, sig));
+    assertFalse(verifier.verify());
+
+    verifier.clear();
+    for (int i = 0; i < signers.length; ++i) {
+      final byte[] validMsg = new byte[]{(byte) i};
+      assertTrue(verifier.add(signers[i].publicKey().toByteArray(), validMsg, signers[i].sign(validMsg)));
+      if (i == signers.length >> 1) {
+        assertFalse(verifier.add(publicKey, msg, sig));
+      }
+    }
+    assertFalse(verifier.verify());
+  }
+
+  @Test
+  void batchRejectsSmallOrderPoints() {
+    // (0, -1) of order 2 and (sqrt(-1), 0) of order 4.
+    final byte[] order2 = new byte[32];
+    Arrays.fill(order2, (byte) 0xff);
+    order2[0] = (byte) 0xec;
+    order2[31] = 0x7f;
+    final byte[] order4 = new byte[32];
+
+    final var random = new SecureRandom();
+    final var signers = new Signer[20];
+    for (int i = 0; i < signers.length; ++i) {
+      signers[i] = Signer.createFromExpandedKey(expandedKey(random));
+    }
+    final var verifier = new Ed25519BatchVerifier(signers.length);
+    for (int i = 0; i < signers.length; ++i) {
+      final byte[] msg = new byte[]{(byte) i};
+      assertTrue(verifier.add(signers[i].publicKey().toByteArray(), msg, signers[i].sign(msg)));
+    }
+    assertTrue(verifier.verify());
+
+    final byte[] expandedKey = expandedKey(random);
+    final byte[] publicKey = Signer.createFromExpandedKey(expandedKey).publicKey().toByteArray();
+    final var a = decodeScalar(expandedKey, 0);
+    final byte[] msg = new byte[]{1, 2, 3};
+    for (final byte[] smallOrder : new byte[][]{order2, order4}) {
+      // R of small order with S = ka, [8]([S]B - R - [k]A) == 0 but [S]B - R - [k]A != 0.
+      final byte[] sig = new byte[64];
+      System.arraycopy(smallOrder, 0, sig, 0, 32);
+      encodeScalar(challenge(smallOrder, publicKey, msg).multiply(a).mod(L), sig, 32);
+      assertRejected(publicKey, msg, sig, signers);
+
+      // A public key of small order with R = [r]B, S = r and k a multiple of the order, [S]B - R - [k]A == 0.
+      final byte[] nonce = expandedKey(random);
+      final byte[] r = Signer.createFromExpandedKey(nonce).publicKey().toByteArray();
+      final byte[] smallOrderMsg = msg.clone();
+      while (challenge(r, smallOrder, smallOrderMsg).testBit(0) || challenge(r, smallOrder, smallOrderMsg).testBit(1)) {
+        ++smallOrderMsg[0];
+      }
+      System.arraycopy(r, 0, sig, 0, 32);
+      System.arraycopy(nonce, 0, sig, 32, 32);
+      assertRejected(smallOrder, smallOrderMsg, sig, signers);
+    }
+  }
+
+  @Test
+  void batchVerifyWideWindow() {
+    final int numKeys = 32;
+    final byte[][] publicKeys = new byte[numKeys][];
+    final byte[][] messages = new byte[numKeys][];
+    final byte[][] signatures = new byte[numKeys][];
+    for (int i = 0; i < numKeys; ++i) {
+      final var signer = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+      publicKeys[i] = signer.publicKey().toByteArray();
+      messages[i] = new byte[]{(byte) i};
+      signatures[i] = signer.sign(messages[i]);
+    }
+
+    // 7,000 signatures are 14,001 points, enough for an 11 bit bucket window whose digits span three bytes.
+    final int batchSize = 7_000;
+    final var verifier = new Ed25519BatchVerifier(batchSize);
+    for (int i = 0; i < batchSize; ++i) {
+      final int k = i % numKeys;
+      assertTrue(verifier.add(publicKeys[k], messages[k], signatures[k]));
+    }
+    assertTrue(verifier.verify());
+
+    verifier.clear();
+    final byte[] tampered = messages[3].clone();
+    tampered[0] ^= 1;
+    for (int i = 0; i < batchSize; ++i) {
+      final int k = i % numKeys;
+      assertTrue(verifier.add(publicKeys[k], i == batchSize - 1 ? tampered : messages[k], signatures[k]));
+    }
+    assertFalse(verifier.verify());
+  }
+
+  @Test
+  void expandedKeySignerFromKeyWalk() {
+    final var secureRandom = new SecureRandom();
+    final var walk = Ed25519KeyWalk.start(secureRandom);
+    final byte[] publicKeys = new byte[32 << 4];
+    walk.nextPublicKeys(3, publicKeys);
+    walk.nextPublicKeys(16, publicKeys);
+    assertEquals(19, walk.position());
+    for (int i = 0; i < 16; ++i) {
+      final byte[] expandedKey = new byte[64];
+      secureRandom.nextBytes(expandedKey);
+      System.arraycopy(walk.scalar(3 + i), 0, expandedKey, 0, 32);
+      final var signer = Signer.createFromExpandedKey(expandedKey);
+      assertArrayEquals(Arrays.copyOfRange(publicKeys, i << 5, (i + 1) << 5), signer.publicKey().toByteArray());
+
+      final byte[] msg = new byte[]{(byte) i, 1, 2, 3};
+      final byte[] sig = signer.sign(msg);
+      assertTrue(signer.publicKey().verifySignature(msg, sig));
+    }
+  }
 }
@@ -0,0 +1,92 @@
+package software.sava.core.accounts.lookup;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.meta.AccountMeta;
+import software.sava.core.tx.Instruction;
+import software.sava.core.tx.Transaction;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static software.sava.core.accounts.lookup.AddressLookupTable.DEACTIVATION_SLOT_OFFSET;
+import static software.sava.core.accounts.lookup.AddressLookupTable.LOOKUP_TABLE_META_SIZE;
+
+final class LookupTableRegistryTests {
+
+  private static PublicKey key(final int id) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    key[0] = (byte) id;
+    key[31] = 1;
+    return PublicKey.createPubKey(key);
+  }
+
+  private static AddressLookupTable table(final int id, final boolean active, final PublicKey... accounts) {
+    final byte[] data = new byte[LOOKUP_TABLE_META_SIZE + (accounts.length * PublicKey.PUBLIC_KEY_LENGTH)];
+    data[0] = 1;
+    if (active) {
+      Arrays.fill(data, DEACTIVATION_SLOT_OFFSET, DEACTIVATION_SLOT_OFFSET + Long.BYTES, (byte) 0xFF);
+    }
+    for (int i = 0, o = LOOKUP_TABLE_META_SIZE; i < accounts.length; ++i) {
+      o += accounts[i].write(data, o);
+    }
+    return AddressLookupTable.FACTORY.apply(key(200 + id), data);
+  }
+
+  @Test
+  void selectTables() {
+    final var a = key(1);
+    final var b = key(2);
+    final var c = key(3);
+    final var d = key(4);
+    final var e = key(5);
+    final var f = key(6);
+    final var program = key(7);
+    final var feePayer = key(8);
+
+    final var t1 = table(1, true, a, b, c, d, program);
+    final var t2 = table(2, true, c, d, e);
+    final var t3 = table(3, true, f, feePayer);
+
+    final var registry = LookupTableRegistry.createRegistry();
+    assertTrue(registry.addTable(t1));
+    assertTrue(registry.addTable(t2));
+    assertTrue(registry.addTable(t3));
+    assertEquals(3, registry.numTables());
+
+    final var instructions = List.of(Instruction.createInstruction(
+        AccountMeta.createInvoked(program),
+        List.of(
+            AccountMeta.createWrite(a),
+            AccountMeta.createRead(b),
+            AccountMeta.createRead(c),
+            AccountMeta.createRead(d),
+            AccountMeta.createRead(e),
+            AccountMeta.createRead(f)
+        ),
+        new byte[]{1}
+    ));
+    final var payer = AccountMeta.createFeePayer(feePayer);
+
+    // t2 and t3 each only add a single account once t1 is selected, which costs more than it saves.
+    assertArrayEquals(new AddressLookupTable[]{t1}, registry.selectTables(payer, instructions));
+
+    final var t4 = table(4, true, e, f, key(9));
+    assertTrue(registry.addTable(t4));
+    assertArrayEquals(new AddressLookupTable[]{t1, t4}, registry.selectTables(payer, instructions));
+
+    final var legacy = Transaction.createTx(payer, instructions);
+    final var compressed = registry.createTx(payer, instructions);
+    assertEquals(0, compressed.version());
+    assertEquals(legacy.size() - (6 * 31) + (2 * Transaction.BASE_LOOKUP_TABLE_LEN) + 2, compressed.size());
+
+    assertSame(t4, registry.removeTable(t4.address()));
+    assertArrayEquals(new AddressLookupTable[]{t1}, registry.selectTables(payer, instructions));
+
+    // Replacing t1 with a deactivated version drops it from the index.
+    assertFalse(registry.addTable(table(1, false, a, b, c, d)));
+    assertNull(registry.table(t1.address()));
+    assertArrayEquals(new AddressLookupTable[]{t2}, registry.selectTables(payer, instructions));
+  }
+}
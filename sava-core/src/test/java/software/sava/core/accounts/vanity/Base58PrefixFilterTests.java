@@ -0,0 +1,177 @@
+package software.sava.core.accounts.vanity;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.Signer;
+import software.sava.core.crypto.Hash;
+import software.sava.core.crypto.ed25519.Ed25519Util;
+import software.sava.core.encoding.Base58;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class Base58PrefixFilterTests {
+
+  private static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+  private static final int BATCH_SIZE = 256;
+
+  private static SubsequenceRecord subsequence(final String subsequence,
+                                               final boolean caseSensitive,
+                                               final boolean _1337Numbers,
+                                               final boolean _1337Letters) {
+    return (SubsequenceRecord) Subsequence.create(subsequence, caseSensitive, _1337Numbers, _1337Letters);
+  }
+
+  private static SubsequenceRecord[] subsequences() {
+    return new SubsequenceRecord[]{
+        subsequence("z", true, false, false),
+        subsequence("abc", true, false, false),
+        subsequence("Sava", false, false, false),
+        subsequence("be5t", false, true, true),
+        subsequence("G3m5", true, true, true),
+        subsequence("ZZZZZZZZ", true, false, false)
+    };
+  }
+
+  private static Base58PrefixFilter filter(final SubsequenceRecord subsequence) {
+    return Base58PrefixFilter.create(subsequence.length(), subsequence.masks());
+  }
+
+  private static boolean beginsWith(final SubsequenceRecord subsequence, final byte[] publicKey) {
+    return subsequence.contains(Base58.encode(publicKey).toCharArray(), 0);
+  }
+
+  private static String prefix(final SubsequenceRecord subsequence, final long mask) {
+    final char[] prefix = new char[subsequence.length()];
+    for (int i = prefix.length - 1, shift = 0; i >= 0; --i, shift += Byte.SIZE) {
+      prefix[i] = (char) ((mask >>> shift) & 0xFF);
+    }
+    return new String(prefix);
+  }
+
+  /// @return the 32 byte key encoded by `encoded`, or `null` if it is out of range or has a leading zero byte.
+  private static byte[] decodeKey(final String encoded) {
+    final byte[] key = Base58.decode(encoded);
+    return key.length == 32 && key[0] != 0 ? key : null;
+  }
+
+  private static String fill(final String prefix, final int encodedLength, final char c) {
+    final char[] encoded = new char[encodedLength];
+    Arrays.fill(encoded, c);
+    prefix.getChars(0, prefix.length(), encoded, 0);
+    return new String(encoded);
+  }
+
+  @Test
+  void generatePublicKeysMatchesSigner() {
+    final var random = new Random(7);
+    final byte[] privateKeys = new byte[BATCH_SIZE << 5];
+    random.nextBytes(privateKeys);
+    final byte[] publicKeys = new byte[privateKeys.length];
+    Ed25519Util.generatePublicKeys(Hash.sha512Digest(), privateKeys, BATCH_SIZE, publicKeys);
+
+    final byte[] expected = new byte[32];
+    for (int i = 0; i < BATCH_SIZE; ++i) {
+      final int offset = i << 5;
+      final byte[] privateKey = Arrays.copyOfRange(privateKeys, offset, offset + 32);
+      Ed25519Util.generatePublicKey(privateKey, expected);
+      assertArrayEquals(expected, Arrays.copyOfRange(publicKeys, offset, offset + 32));
+      assertArrayEquals(expected, Signer.createFromPrivateKey(privateKey).publicKey().toByteArray());
+    }
+
+    // A single key batch.
+    final byte[] publicKey = new byte[32];
+    Ed25519Util.generatePublicKeys(Hash.sha512Digest(), privateKeys, 1, publicKey);
+    assertArrayEquals(Arrays.copyOf(publicKeys, 32), publicKey);
+  }
+
+  @Test
+  void matchesBruteForceForGeneratedKeys() {
+    final var subsequences = subsequences();
+    final var filters = Arrays.stream(subsequences).map(Base58PrefixFilterTests::filter).toArray(Base58PrefixFilter[]::new);
+    final var random = new Random(42);
+    final var digest = Hash.sha512Digest();
+    final byte[] privateKeys = new byte[BATCH_SIZE << 5];
+    final byte[] publicKeys = new byte[privateKeys.length];
+    final byte[] publicKey = new byte[32];
+    for (int batch = 0; batch < 32; ++batch) {
+      random.nextBytes(privateKeys);
+      Ed25519Util.generatePublicKeys(digest, privateKeys, BATCH_SIZE, publicKeys);
+      for (int offset = 0; offset < publicKeys.length; offset += 32) {
+        System.arraycopy(publicKeys, offset, publicKey, 0, 32);
+        for (int i = 0; i < subsequences.length; ++i) {
+          final boolean mayMatch = filters[i].mayMatch(publicKeys, offset);
+          if (beginsWith(subsequences[i], publicKey)) {
+            assertTrue(mayMatch, subsequences[i].subsequence() + " " + Base58.encode(publicKey));
+          } else if (publicKey[0] != 0) {
+            // Range bounds only round at the 64th bit, a false positive is practically impossible.
+            assertFalse(mayMatch, subsequences[i].subsequence() + " " + Base58.encode(publicKey));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void matchesEveryCombination() {
+    final var random = new Random(42);
+    final char[] suffix = new char[44];
+    for (final var subsequence : subsequences()) {
+      final var filter = filter(subsequence);
+      int numMatched = 0;
+      for (final long mask : subsequence.masks()) {
+        final var prefix = prefix(subsequence, mask);
+        for (int encodedLength = 43; encodedLength <= 44; ++encodedLength) {
+          // The lowest and highest keys for the prefix, then random keys in between.
+          for (final var encoded : new String[]{fill(prefix, encodedLength, '1'), fill(prefix, encodedLength, 'z')}) {
+            final byte[] key = decodeKey(encoded);
+            if (key != null) {
+              assertTrue(beginsWith(subsequence, key), encoded);
+              assertTrue(filter.mayMatch(key, 0), encoded);
+              ++numMatched;
+            }
+          }
+          for (int i = 0; i < 16; ++i) {
+            for (int c = 0; c < encodedLength; ++c) {
+              suffix[c] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            final var encoded = prefix + new String(suffix, prefix.length(), encodedLength - prefix.length());
+            final byte[] key = decodeKey(encoded);
+            if (key != null) {
+              assertTrue(beginsWith(subsequence, key), encoded);
+              assertTrue(filter.mayMatch(key, 0), encoded);
+              ++numMatched;
+            }
+          }
+        }
+      }
+      assertTrue(numMatched >= subsequence.numCombinations(), subsequence.subsequence());
+    }
+  }
+
+  @Test
+  void rejectsNeighbouringPrefixes() {
+    final var filter = filter(subsequence("abc", true, false, false));
+    for (final var prefix : new String[]{"abb", "abd", "ab", "bbc", "Abc"}) {
+      for (int encodedLength = 43; encodedLength <= 44; ++encodedLength) {
+        for (final var encoded : new String[]{fill(prefix, encodedLength, '2'), fill(prefix, encodedLength, 'y')}) {
+          final byte[] key = decodeKey(encoded);
+          if (key != null) {
+            assertFalse(filter.mayMatch(key, 0), encoded);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void leadingZeroBytePasses() {
+    final var filter = filter(subsequence("abc", true, false, false));
+    final byte[] key = new byte[32];
+    Arrays.fill(key, 1, 32, (byte) 0xFF);
+    assertTrue(filter.mayMatch(key, 0));
+    key[0] = 1;
+    assertFalse(filter.mayMatch(key, 0));
+  }
+}
@@ -3,11 +3,13 @@ package software.sava.core.ecnoding;
 import org.junit.jupiter.api.Test;
 import software.sava.core.encoding.Base58;
 
+import java.math.BigInteger;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 final class Base58Tests {
 
@@ -33,5 +35,80 @@ final class Base58Tests {
     assertArrayEquals(new byte[32], decoded);
     assertEquals(expected, Base58.encode(decoded));
   }
-}
 
+  private static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+  private static final BigInteger BASE = BigInteger.valueOf(58);
+
+  private static String referenceEncode(final byte[] bytes) {
+    final var encoded = new StringBuilder();
+    var value = new BigInteger(1, bytes);
+    while (value.signum() > 0) {
+      final var qr = value.divideAndRemainder(BASE);
+      encoded.append(ALPHABET.charAt(qr[1].intValue()));
+      value = qr[0];
+    }
+    for (int i = 0; i < bytes.length && bytes[i] == 0; ++i) {
+      encoded.append('1');
+    }
+    return encoded.reverse().toString();
+  }
+
+  private static void assertFixedWidth(final byte[] bytes) {
+    final var expected = referenceEncode(bytes);
+    final char[] out = new char[3 + Base58.MAX_ENCODED_64_LENGTH];
+    final byte[] decoded = new byte[2 + bytes.length];
+    if (bytes.length == 32) {
+      final int len = Base58.encode32(bytes, 0, out, 3);
+      assertEquals(expected, new String(out, 3, len));
+      assertTrue(Base58.decode32(expected, 0, len, decoded, 2));
+      assertTrue(Base58.decode32(out, 3, len, decoded, 2));
+    } else {
+      final int len = Base58.encode64(bytes, 0, out, 3);
+      assertEquals(expected, new String(out, 3, len));
+      assertTrue(Base58.decode64(expected, 0, len, decoded, 2));
+      assertTrue(Base58.decode64(out, 3, len, decoded, 2));
+    }
+    assertArrayEquals(bytes, Arrays.copyOfRange(decoded, 2, decoded.length));
+    assertEquals(expected, Base58.encode(bytes));
+    assertArrayEquals(bytes, Base58.decode(expected));
+    assertArrayEquals(bytes, Base58.decode(expected.toCharArray()));
+  }
+
+  @Test
+  void testFixedWidth() {
+    final var random = new Random(58);
+    for (final int width : new int[]{32, 64}) {
+      for (int i = 0; i < 1_024; ++i) {
+        final byte[] bytes = new byte[width];
+        random.nextBytes(bytes);
+        Arrays.fill(bytes, 0, i % (width + 1), (byte) 0);
+        assertFixedWidth(bytes);
+      }
+      final byte[] max = new byte[width];
+      Arrays.fill(max, (byte) 0xFF);
+      assertFixedWidth(max);
+      assertEquals(width == 32 ? Base58.MAX_ENCODED_32_LENGTH : Base58.MAX_ENCODED_64_LENGTH, Base58.encode(max).length());
+      assertFixedWidth(new byte[width]);
+    }
+  }
+
+  @Test
+  void testFixedWidthMismatch() {
+    final byte[] out = new byte[64];
+    // 33 bytes with a leading 0x01.
+    final byte[] tooLong = new byte[33];
+    tooLong[0] = 1;
+    final var encoded = referenceEncode(tooLong);
+    assertFalse(Base58.decode32(encoded, 0, encoded.length(), out, 0));
+    assertArrayEquals(tooLong, Base58.decode(encoded));
+
+    // Leading '1' count must match the number of leading zero bytes.
+    final byte[] shorter = new byte[31];
+    shorter[0] = 1;
+    final var shortEncoded = referenceEncode(shorter);
+    assertFalse(Base58.decode32(shortEncoded, 0, shortEncoded.length(), out, 0));
+    assertArrayEquals(shorter, Base58.decode(shortEncoded));
+
+    assertThrows(IllegalArgumentException.class, () -> Base58.decode32("0" + "1".repeat(31), 0, 32, out, 0));
+  }
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import software.sava.core.encoding.ByteUtil;
 
 import java.math.BigInteger;
+import java.util.Random;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -64,4 +66,26 @@ final class ByteUtilTests {
   void test256BitIntegers() {
     testInt256(new BigInteger("240952751974454416887375303278538328657633745834006340121122396849307110663"));
   }
+
+  private void testAsciiDigits(final long val) {
+    final byte[] out = new byte[2 + ByteUtil.MAX_ASCII_DIGITS_LENGTH];
+    final int len = ByteUtil.putAsciiDigits(out, 2, val);
+    assertEquals(Long.toString(val), new String(out, 2, len, US_ASCII));
+  }
+
+  @Test
+  void testAsciiDigits() {
+    testAsciiDigits(0);
+    testAsciiDigits(9);
+    testAsciiDigits(10);
+    testAsciiDigits(-1);
+    testAsciiDigits(-10);
+    testAsciiDigits(328984397);
+    testAsciiDigits(Long.MAX_VALUE);
+    testAsciiDigits(Long.MIN_VALUE);
+    final var random = new Random(7);
+    for (int i = 0; i < 1_000; ++i) {
+      testAsciiDigits(random.nextLong() >> random.nextInt(Long.SIZE));
+    }
+  }
 }
@@ -0,0 +1,96 @@
+package software.sava.core.token;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.token.*;
+import software.sava.core.rpc.Filter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TokenViewTests {
+
+  private static PublicKey key(final int id) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    key[0] = (byte) id;
+    key[31] = (byte) (id * 7);
+    return PublicKey.createPubKey(key);
+  }
+
+  @Test
+  void tokenAccountView() {
+    final var mint = key(1);
+    final var owner = key(2);
+    final var delegate = key(3);
+    final var closeAuthority = key(4);
+    final var account = new TokenAccount(
+        key(5), mint, owner, 1_234_567, 1, delegate, AccountState.Frozen, 0, 0, 89, 0, closeAuthority
+    );
+    final byte[] data = new byte[TokenAccount.BYTES];
+    account.write(data, 0);
+
+    final var view = TokenAccountView.wrapData(data);
+    assertEquals(mint, view.mint());
+    assertTrue(view.mintEquals(mint));
+    assertFalse(view.mintEquals(owner));
+    assertEquals(owner, view.owner());
+    assertTrue(view.ownerEquals(owner));
+    assertEquals(1_234_567, view.amount());
+    assertTrue(view.hasDelegate());
+    assertEquals(delegate, view.delegate());
+    assertTrue(view.delegateEquals(delegate));
+    assertEquals(AccountState.Frozen, view.state());
+    assertFalse(view.isNative());
+    assertEquals(0, view.nativeReserve());
+    assertEquals(89, view.delegatedAmount());
+    assertFalse(view.hasCloseAuthority());
+    assertNull(view.closeAuthority());
+    assertFalse(view.closeAuthorityEquals(closeAuthority));
+
+    final var read = view.read(key(5));
+    assertEquals(mint, read.mint());
+    assertEquals(owner, read.owner());
+    assertEquals(1_234_567, read.amount());
+
+    final var filters = List.of(
+        TokenAccount.TOKEN_ACCOUNT_SIZE_FILTER,
+        TokenAccount.createMintFilter(mint),
+        TokenAccount.createOwnerFilter(owner)
+    );
+    assertTrue(Filter.testAll(filters, data));
+    assertFalse(TokenAccount.createMintFilter(owner).test(data));
+    assertFalse(TokenAccount.TOKEN_ACCOUNT_SIZE_FILTER.test(new byte[TokenAccount.BYTES + 1]));
+    assertFalse(Filter.createMemCompFilter(TokenAccount.BYTES - 8, mint).test(data));
+    assertEquals(TokenAccount.createMintFilter(mint), TokenAccount.createMintFilter(key(1)));
+
+    final byte[] ownerBytes = owner.copyByteArray();
+    final var ownerFilter = Filter.createMemCompFilter(TokenAccount.OWNER_OFFSET, ownerBytes);
+    ownerBytes[0] ^= 1;
+    assertTrue(ownerFilter.test(data));
+
+    final byte[] shifted = new byte[TokenAccount.BYTES + 3];
+    System.arraycopy(data, 0, shifted, 3, TokenAccount.BYTES);
+    assertTrue(view.wrap(shifted, 3).ownerEquals(owner));
+    assertEquals(1_234_567, view.amount());
+  }
+
+  @Test
+  void mintView() {
+    final var authority = key(9);
+    final var mint = new Mint(key(10), authority, 1_000_000_000L, 9, true, null);
+    final byte[] data = new byte[Mint.BYTES];
+    mint.write(data, 0);
+
+    final var view = MintView.wrapData(data);
+    assertTrue(view.hasMintAuthority());
+    assertEquals(authority, view.mintAuthority());
+    assertTrue(view.mintAuthorityEquals(authority));
+    assertEquals(1_000_000_000L, view.supply());
+    assertEquals(9, view.decimals());
+    assertTrue(view.initialized());
+    assertFalse(view.hasFreezeAuthority());
+    assertNull(view.freezeAuthority());
+    assertEquals(mint, view.read(key(10)));
+  }
+}
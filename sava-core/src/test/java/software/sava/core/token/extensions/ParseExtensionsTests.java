@@ -5,15 +5,40 @@ import software.sava.core.accounts.PublicKey;
 import software.sava.core.accounts.token.AccountState;
 import software.sava.core.accounts.token.Token2022;
 import software.sava.core.accounts.token.Token2022Account;
+import software.sava.core.accounts.token.Token2022Extensions;
 import software.sava.core.accounts.token.extensions.*;
 
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static software.sava.core.accounts.token.extensions.ExtensionType.*;
 
 final class ParseExtensionsTests {
 
+  private static void assertLazyExtensions(final byte[] data,
+                                           final AccountType accountType,
+                                           final Map<ExtensionType, TokenExtension> expected) {
+    final var lazy = Token2022Extensions.index(data);
+    assertEquals(accountType, lazy.accountType());
+    assertEquals(expected.size(), lazy.numExtensions());
+    for (final var type : ExtensionType.values()) {
+      final var extension = expected.get(type);
+      assertEquals(extension != null, lazy.has(type));
+      assertEquals(extension != null, Token2022Extensions.hasExtension(data, type));
+      assertEquals(lazy.offset(type), Token2022Extensions.findExtension(data, type));
+      if (extension != null) {
+        assertArrayEquals(extension.write(), lazy.get(type).write());
+        assertSame(lazy.get(type), lazy.get(type));
+      } else {
+        assertNull(lazy.get(type));
+      }
+    }
+    assertEquals(expected.keySet(), lazy.toMap().keySet());
+    assertEquals(List.of(data), Token2022Extensions.withExtension(List.of(data, new byte[0]), d -> d, expected.keySet().iterator().next()));
+  }
+
   @Test
   void confidentialTokenAccount() {
     final byte[] data = Base64.getDecoder().decode("""
@@ -41,6 +66,7 @@ final class ParseExtensionsTests {
 
     final var extensions = account.extensions();
     assertEquals(2, extensions.size());
+    assertLazyExtensions(data, AccountType.Account, extensions);
 
     final var immutableOwner = (ImmutableOwner) extensions.get(ImmutableOwner);
     assertNotNull(immutableOwner);
@@ -91,6 +117,7 @@ final class ParseExtensionsTests {
 
     final var extensions = token2022.extensions();
     assertEquals(8, extensions.size());
+    assertLazyExtensions(data, AccountType.Mint, extensions);
 
     final var mintCloseAuthority = (MintCloseAuthority) extensions.get(MintCloseAuthority);
     assertEquals("2apBGMsS6ti9RyF5TwQTDswXBWskiJP2LD4cUEDqYJjk", mintCloseAuthority.closeAuthority().toBase58());
@@ -7,6 +7,7 @@ import software.sava.core.accounts.SolanaAccounts;
 import software.sava.core.accounts.lookup.AddressLookupTable;
 import software.sava.core.accounts.meta.AccountMeta;
 import software.sava.core.accounts.meta.LookupTableAccountMeta;
+import software.sava.core.crypto.ed25519.Ed25519BatchVerifier;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -242,6 +243,81 @@ final class TransactionSerializationTests {
   }
 
 
+  @Test
+  void verifySkeletonSignatures() {
+    final var signers = new Signer[8];
+    for (int i = 0; i < signers.length; ++i) {
+      signers[i] = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    }
+    final var skeletons = new ArrayList<TransactionSkeleton>();
+    for (int i = 0; i < 64; ++i) {
+      final var feePayer = signers[i % signers.length];
+      final var cosigner = signers[(i + 1) % signers.length];
+      final var ix = Instruction.createInstruction(
+          SolanaAccounts.MAIN_NET.systemProgram(),
+          List.of(AccountMeta.createWritableSigner(cosigner.publicKey())),
+          new byte[]{(byte) i}
+      );
+      final var tx = Transaction.createTx(feePayer.publicKey(), ix);
+      tx.sign(feePayer);
+      tx.sign(cosigner);
+      final var skeleton = TransactionSkeleton.deserializeSkeleton(tx.serialized());
+      assertTrue(skeleton.verifySignatures());
+      skeletons.add(skeleton);
+    }
+
+    var valid = TransactionSkeleton.verifySignatures(skeletons);
+    assertEquals(skeletons.size(), valid.length);
+    for (final boolean v : valid) {
+      assertTrue(v);
+    }
+
+    final byte[] data = skeletons.get(37).data();
+    data[data.length - 1] ^= 1;
+    assertFalse(skeletons.get(37).verifySignatures());
+    valid = TransactionSkeleton.verifySignatures(skeletons);
+    for (int i = 0; i < valid.length; ++i) {
+      assertEquals(i != 37, valid[i]);
+    }
+  }
+
+  @Test
+  void rejectMalformedSkeletonSignatures() {
+    final var feePayer = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    final var ix = Instruction.createInstruction(SolanaAccounts.MAIN_NET.systemProgram(), List.of(), new byte[]{1});
+    final var tx = Transaction.createTx(feePayer.publicKey(), ix);
+    tx.sign(feePayer);
+    final byte[] signed = tx.serialized();
+    final var skeleton = TransactionSkeleton.deserializeSkeleton(signed);
+    assertEquals(1, skeleton.numSignatures());
+    assertEquals(2, skeleton.numIncludedAccounts());
+    final byte[] message = Arrays.copyOfRange(signed, 1 + Transaction.SIGNATURE_LENGTH, signed.length);
+
+    // Unsigned.
+    final byte[] unsigned = new byte[1 + message.length];
+    System.arraycopy(message, 0, unsigned, 1, message.length);
+    unsigned[1] = 0;
+    final var unsignedSkeleton = TransactionSkeleton.deserializeSkeleton(unsigned);
+    assertEquals(0, unsignedSkeleton.numSignatures());
+    assertFalse(unsignedSkeleton.verifySignatures());
+    assertFalse(unsignedSkeleton.addSignatures(new Ed25519BatchVerifier(1)));
+
+    // More signatures than accounts.
+    final int numSignatures = 3;
+    final byte[] oversigned = new byte[1 + (numSignatures * Transaction.SIGNATURE_LENGTH) + message.length];
+    oversigned[0] = numSignatures;
+    final int messageOffset = oversigned.length - message.length;
+    System.arraycopy(message, 0, oversigned, messageOffset, message.length);
+    oversigned[messageOffset] = numSignatures;
+    final var oversignedSkeleton = TransactionSkeleton.deserializeSkeleton(oversigned);
+    assertEquals(numSignatures, oversignedSkeleton.numSignatures());
+    assertFalse(oversignedSkeleton.verifySignatures());
+    assertFalse(oversignedSkeleton.addSignatures(new Ed25519BatchVerifier(1)));
+
+    final var valid = TransactionSkeleton.verifySignatures(List.of(skeleton, unsignedSkeleton, oversignedSkeleton));
+    assertArrayEquals(new boolean[]{true, false, false}, valid);
+  }
+
   @Test
   void testMultipleLookupTables() {
     final var decoder = Base64.getDecoder();
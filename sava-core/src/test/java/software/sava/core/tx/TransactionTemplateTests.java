@@ -0,0 +1,144 @@
+package software.sava.core.tx;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.Signer;
+import software.sava.core.accounts.SolanaAccounts;
+import software.sava.core.accounts.meta.AccountMeta;
+import software.sava.core.encoding.ByteUtil;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TransactionTemplateTests {
+
+  private static final PublicKey SWAP_PROGRAM = PublicKey.fromBase58Encoded("JUP6LkbZbjS1jKKwapdHNy74zcZ3tLUZoi5QNyVTaV4");
+
+  private static Instruction computeUnitLimit(final int limit) {
+    final byte[] data = new byte[1 + Integer.BYTES];
+    data[0] = TransactionTemplate.SET_COMPUTE_UNIT_LIMIT;
+    ByteUtil.putInt32LE(data, 1, limit);
+    return Instruction.createInstruction(SolanaAccounts.MAIN_NET.invokedComputeBudgetProgram(), List.of(), data);
+  }
+
+  private static Instruction computeUnitPrice(final long microLamports) {
+    final byte[] data = new byte[1 + Long.BYTES];
+    data[0] = TransactionTemplate.SET_COMPUTE_UNIT_PRICE;
+    ByteUtil.putInt64LE(data, 1, microLamports);
+    return Instruction.createInstruction(SolanaAccounts.MAIN_NET.invokedComputeBudgetProgram(), List.of(), data);
+  }
+
+  private static Instruction swap(final PublicKey user, final PublicKey cosigner, final long amountIn, final long minOut) {
+    final byte[] data = new byte[8 + Long.BYTES + Long.BYTES];
+    Arrays.fill(data, 0, 8, (byte) 7);
+    ByteUtil.putInt64LE(data, 8, amountIn);
+    ByteUtil.putInt64LE(data, 16, minOut);
+    return Instruction.createInstruction(
+        SWAP_PROGRAM,
+        List.of(
+            AccountMeta.createWritableSigner(user),
+            AccountMeta.createReadOnlySigner(cosigner),
+            AccountMeta.createWrite(PublicKey.createPubKey(new byte[32]))
+        ),
+        data
+    );
+  }
+
+  private static List<Instruction> instructions(final PublicKey user,
+                                                final PublicKey cosigner,
+                                                final int limit,
+                                                final long price,
+                                                final long amountIn,
+                                                final long minOut) {
+    return List.of(computeUnitLimit(limit), computeUnitPrice(price), swap(user, cosigner, amountIn, minOut));
+  }
+
+  @Test
+  void stampMatchesRebuiltTransaction() {
+    final var feePayer = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    final var cosigner = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    final var signers = List.of(feePayer, cosigner);
+
+    final var shape = Transaction.createTx(
+        feePayer.publicKey(),
+        instructions(feePayer.publicKey(), cosigner.publicKey(), 200_000, 1_000, 1, 1)
+    );
+    final byte[] blockHash = new byte[Transaction.BLOCK_HASH_LENGTH];
+    Arrays.fill(blockHash, (byte) 9);
+    shape.setRecentBlockHash(blockHash);
+    shape.sign(signers);
+
+    final var template = shape.compileTemplate();
+    assertEquals(2, template.numSigners());
+    assertEquals(3, template.numInstructions());
+    assertEquals(24, template.instructionDataLength(2));
+    assertEquals(shape.size(), template.size());
+    assertTrue(template.computeUnitLimitOffset() > 0);
+    assertTrue(template.computeUnitPriceOffset() > 0);
+
+    final byte[] stamped = template.stamp();
+    for (int i = 1; i < 1 + (2 * Transaction.SIGNATURE_LENGTH); ++i) {
+      assertEquals(0, stamped[i]);
+    }
+
+    final byte[] newBlockHash = new byte[Transaction.BLOCK_HASH_LENGTH];
+    Arrays.fill(newBlockHash, (byte) 42);
+    final byte[] tx = template.stamp(newBlockHash);
+    template.setComputeUnitLimit(tx, 350_000);
+    template.setComputeUnitPrice(tx, 123_456_789L);
+    template.putInt64LE(tx, 2, 8, 5_000_000_000L);
+    template.putInt64LE(tx, 2, 16, 4_900_000_000L);
+    template.sign(tx, signers);
+
+    final var expected = Transaction.createTx(
+        feePayer.publicKey(),
+        instructions(feePayer.publicKey(), cosigner.publicKey(), 350_000, 123_456_789L, 5_000_000_000L, 4_900_000_000L)
+    );
+    expected.setRecentBlockHash(newBlockHash);
+    expected.sign(signers);
+    assertArrayEquals(expected.serialized(), tx);
+
+    final byte[] singleSigned = template.stamp(newBlockHash);
+    template.setInstructionData(singleSigned, 2, Arrays.copyOfRange(
+        tx, template.instructionDataOffset(2), template.instructionDataOffset(2) + template.instructionDataLength(2)
+    ));
+    template.setComputeUnitLimit(singleSigned, 350_000);
+    template.setComputeUnitPrice(singleSigned, 123_456_789L);
+    template.sign(singleSigned, cosigner);
+    template.sign(singleSigned, feePayer);
+    assertArrayEquals(tx, singleSigned);
+
+    final var skeleton = TransactionSkeleton.deserializeSkeleton(tx);
+    final var parsed = skeleton.parseInstructionsWithoutAccounts();
+    assertEquals(5_000_000_000L, ByteUtil.getInt64LE(parsed[2].data(), parsed[2].offset() + 8));
+
+    assertThrows(IllegalArgumentException.class, () -> template.setInstructionData(tx, 2, new byte[23]));
+    assertThrows(IndexOutOfBoundsException.class, () -> template.putInt64LE(tx, 2, 17, 1));
+    final var stranger = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    assertThrows(IllegalArgumentException.class, () -> template.sign(tx, stranger));
+  }
+
+  @Test
+  void templateWithoutComputeBudget() {
+    final var feePayer = Signer.createFromKeyPair(Signer.generatePrivateKeyPairBytes());
+    final var ix = Instruction.createInstruction(
+        SolanaAccounts.MAIN_NET.systemProgram(),
+        List.of(AccountMeta.createWritableSigner(feePayer.publicKey())),
+        new byte[12]
+    );
+    final var template = TransactionTemplate.compile(Transaction.createTx(feePayer.publicKey(), ix));
+    assertEquals(1, template.numSigners());
+    assertEquals(-1, template.computeUnitLimitOffset());
+    assertEquals(-1, template.computeUnitPriceOffset());
+
+    final byte[] tx = template.stamp();
+    assertThrows(IllegalStateException.class, () -> template.setComputeUnitPrice(tx, 1));
+    template.sign(tx, feePayer);
+    assertTrue(feePayer.publicKey().verifySignature(
+        tx, template.messageOffset(), tx.length - template.messageOffset(),
+        Arrays.copyOfRange(tx, 1, 1 + Transaction.SIGNATURE_LENGTH)
+    ));
+  }
+}
@@ -0,0 +1,248 @@
+package software.sava.rpc.json.http.client;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static software.sava.rpc.json.http.request.Commitment.PROCESSED;
+
+/**
+ * Routes each request to the node with the lowest score, derived from its EWMA latency, error rate and slot lag.
+ * Reads may be hedged to the next best node once the primary exceeds its estimated p95 latency.
+ */
+final class BalancedJsonRpcTransport implements JsonRpcTransport {
+
+  private static final double ALPHA = 0.1;
+  private static final long ERROR_PENALTY_NANOS = Duration.ofSeconds(2).toNanos();
+  private static final double Z_95 = 1.645;
+  private static final long SLOT_LAG_PENALTY_NANOS = Duration.ofMillis(400).toNanos();
+  private static final long SLOT_REFRESH_INTERVAL_NANOS = Duration.ofSeconds(2).toNanos();
+  private static final long MIN_HEDGE_DELAY_NANOS = Duration.ofMillis(5).toNanos();
+
+  private final Node[] nodes;
+  private final boolean hedgeReads;
+  private final AtomicLong maxSlot;
+  private final AtomicLong lastSlotRefresh;
+
+  BalancedJsonRpcTransport(final List<SolanaJsonRpcClient> nodes, final boolean hedgeReads) {
+    if (nodes.isEmpty()) {
+      throw new IllegalArgumentException("At least one node is required.");
+    }
+    this.nodes = nodes.stream().map(Node::new).toArray(Node[]::new);
+    this.hedgeReads = hedgeReads;
+    this.maxSlot = new AtomicLong();
+    this.lastSlotRefresh = new AtomicLong(System.nanoTime() - SLOT_REFRESH_INTERVAL_NANOS);
+  }
+
+  private static boolean isRead(final String method) {
+    return method != null && !method.equals("sendTransaction") && !method.equals("requestAirdrop");
+  }
+
+  private void refreshSlots() {
+    final long now = System.nanoTime();
+    final long lastRefresh = lastSlotRefresh.get();
+    if (now - lastRefresh < SLOT_REFRESH_INTERVAL_NANOS || !lastSlotRefresh.compareAndSet(lastRefresh, now)) {
+      return;
+    }
+    for (final var node : nodes) {
+      final long start = System.nanoTime();
+      node.client.getSlot(PROCESSED).whenComplete((slot, ex) -> {
+        if (ex != null || slot == null) {
+          node.recordError();
+        } else {
+          node.recordLatency(System.nanoTime() - start);
+          node.slot = slot;
+          maxSlot.accumulateAndGet(slot, Math::max);
+        }
+      });
+    }
+  }
+
+  private Node[] rankTwo() {
+    final long maxSlot = this.maxSlot.get();
+    Node best = null, second = null;
+    double bestScore = Double.MAX_VALUE, secondScore = Double.MAX_VALUE;
+    for (final var node : nodes) {
+      final double score = node.score(maxSlot);
+      if (score < bestScore) {
+        second = best;
+        secondScore = bestScore;
+        best = node;
+        bestScore = score;
+      } else if (score < secondScore) {
+        second = node;
+        secondScore = score;
+      }
+    }
+    return new Node[]{best, second};
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse<byte[]>> send(final JsonRpcRequestWriter body, final Duration requestTimeout) {
+    refreshSlots();
+    final var ranked = rankTwo();
+    final var primary = ranked[0];
+    final var secondary = ranked[1];
+    if (!hedgeReads || secondary == null || !isRead(body.method())) {
+      return primary.send(body, requestTimeout);
+    }
+    final long p95LatencyNanos = primary.p95LatencyNanos();
+    if (p95LatencyNanos == 0) {
+      return primary.send(body, requestTimeout);
+    }
+
+    // The pooled writer is released as soon as either attempt completes, so both attempts publish a copy.
+    final var hedge = new Hedge(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()), requestTimeout, secondary);
+    primary.send(hedge.body, requestTimeout).whenComplete(hedge::complete);
+    final long hedgeDelay = Math.max(MIN_HEDGE_DELAY_NANOS, p95LatencyNanos);
+    CompletableFuture.delayedExecutor(hedgeDelay, NANOSECONDS).execute(hedge::sendSecondary);
+    return hedge.result;
+  }
+
+  /**
+   * Sends a request which does not fit {@link #send}, such as a streamed response, through the best node's own client
+   * so that its endpoint and request extension apply.  Only failures are scored as the latency of such requests is not
+   * comparable, and failed requests are not retried as a stream may already have been partially consumed.
+   */
+  <R> CompletableFuture<R> route(final Function<SolanaJsonRpcClient, CompletableFuture<R>> request) {
+    refreshSlots();
+    final var node = rankTwo()[0];
+    return request.apply(node.client).whenComplete((result, ex) -> {
+      if (ex != null) {
+        node.recordError();
+      }
+    });
+  }
+
+  private static boolean isFailure(final HttpResponse<byte[]> response) {
+    final int statusCode = response.statusCode();
+    return statusCode == 429 || statusCode >= 500;
+  }
+
+  /**
+   * Completes with the first healthy response.  A failed primary sends to the secondary immediately rather than waiting
+   * for the hedge delay, and the last failure is only surfaced once both attempts have failed.
+   */
+  private static final class Hedge {
+
+    private final HttpRequest.BodyPublisher body;
+    private final Duration requestTimeout;
+    private final Node secondary;
+    private final CompletableFuture<HttpResponse<byte[]>> result;
+    private final AtomicBoolean secondarySent;
+    // The secondary is always sent before the result can fail, so both attempts are counted up front.
+    private final AtomicInteger pending;
+
+    private Hedge(final HttpRequest.BodyPublisher body, final Duration requestTimeout, final Node secondary) {
+      this.body = body;
+      this.requestTimeout = requestTimeout;
+      this.secondary = secondary;
+      this.result = new CompletableFuture<>();
+      this.secondarySent = new AtomicBoolean();
+      this.pending = new AtomicInteger(2);
+    }
+
+    private void sendSecondary() {
+      if (!result.isDone() && secondarySent.compareAndSet(false, true)) {
+        secondary.send(body, requestTimeout).whenComplete(this::complete);
+      }
+    }
+
+    private void complete(final HttpResponse<byte[]> response, final Throwable ex) {
+      if (ex == null && !isFailure(response)) {
+        result.complete(response);
+        return;
+      }
+      sendSecondary();
+      if (pending.decrementAndGet() == 0) {
+        if (ex == null) {
+          result.complete(response);
+        } else {
+          result.completeExceptionally(ex);
+        }
+      }
+    }
+  }
+
+  private static final class Node {
+
+    private final SolanaJsonRpcClient client;
+    private final ReentrantLock lock;
+    private double latencyNanos;
+    private double latencyVariance;
+    private double errorRate;
+    private volatile long slot;
+
+    private Node(final SolanaJsonRpcClient client) {
+      this.client = client;
+      this.lock = new ReentrantLock();
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(final HttpRequest.BodyPublisher body,
+                                                         final Duration requestTimeout) {
+      final long start = System.nanoTime();
+      return client.sendBody(body, requestTimeout).whenComplete((response, ex) -> {
+        if (ex != null) {
+          recordError();
+        } else if (isFailure(response)) {
+          recordError();
+        } else {
+          recordLatency(System.nanoTime() - start);
+        }
+      });
+    }
+
+    private void recordLatency(final long sampleNanos) {
+      lock.lock();
+      try {
+        if (latencyNanos == 0) {
+          latencyNanos = sampleNanos;
+        } else {
+          final double delta = sampleNanos - latencyNanos;
+          latencyNanos += ALPHA * delta;
+          latencyVariance = (1 - ALPHA) * (latencyVariance + ALPHA * delta * delta);
+        }
+        errorRate *= 1 - ALPHA;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void recordError() {
+      lock.lock();
+      try {
+        errorRate += ALPHA * (1 - errorRate);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private long p95LatencyNanos() {
+      lock.lock();
+      try {
+        return (long) (latencyNanos + Z_95 * Math.sqrt(latencyVariance));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private double score(final long maxSlot) {
+      final long slot = this.slot;
+      final long slotLag = slot == 0 ? 0 : Math.max(0, maxSlot - slot);
+      lock.lock();
+      try {
+        return latencyNanos + errorRate * ERROR_PENALTY_NANOS + slotLag * SLOT_LAG_PENALTY_NANOS;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
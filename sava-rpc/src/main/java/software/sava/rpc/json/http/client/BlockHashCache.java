@@ -0,0 +1,112 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.LatestBlockHash;
+import software.sava.rpc.json.http.response.ProcessedSlot;
+import software.sava.rpc.json.http.ws.SolanaRpcWebsocket;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the most recent blockhashes for one or more commitment levels, refreshed in the background from
+ * {@code getLatestBlockHash} so that sending a transaction does not wait on a round trip.
+ * <p>
+ * Refreshes are driven by a fixed interval, by slot notifications, or both.  Reads never block: each commitment
+ * level publishes an immutable snapshot of its hashes, newest first, from which expired hashes are dropped.
+ * <p>
+ * A snapshot is only served for {@code maxAge} after its newest hash was last fetched, if refreshes keep failing the
+ * commitment level reads as if nothing has been fetched yet.
+ */
+public interface BlockHashCache extends AutoCloseable {
+
+  int DEFAULT_MAX_HASHES = 8;
+  Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMillis(400);
+  Duration DEFAULT_MAX_AGE = Duration.ofSeconds(60);
+
+  /**
+   * @param refreshInterval may be {@code null} if refreshes are only driven by {@link #onSlot(long)}.
+   * @param maxAge          how long cached hashes are served after the newest was last fetched.
+   */
+  static BlockHashCache createCache(final SolanaRpcClient rpcClient,
+                                    final Set<Commitment> commitments,
+                                    final int maxHashes,
+                                    final Duration refreshInterval,
+                                    final Duration maxAge) {
+    return new PrefetchingBlockHashCache(rpcClient, commitments, maxHashes, refreshInterval, maxAge);
+  }
+
+  static BlockHashCache createCache(final SolanaRpcClient rpcClient,
+                                    final Set<Commitment> commitments,
+                                    final int maxHashes,
+                                    final Duration refreshInterval) {
+    return createCache(rpcClient, commitments, maxHashes, refreshInterval, DEFAULT_MAX_AGE);
+  }
+
+  static BlockHashCache createCache(final SolanaRpcClient rpcClient, final Commitment commitment) {
+    return createCache(rpcClient, EnumSet.of(commitment), DEFAULT_MAX_HASHES, DEFAULT_REFRESH_INTERVAL);
+  }
+
+  /**
+   * Starts the refresh schedule, if any, and fetches every commitment level immediately.
+   */
+  void start();
+
+  /**
+   * Refreshes on every slot notification of {@code websocket}, which only supports a single slot subscription.
+   */
+  default boolean subscribe(final SolanaRpcWebsocket websocket) {
+    return websocket.slotSubscribe(this::onSlot);
+  }
+
+  /**
+   * Triggers a refresh unless one is already in flight, for callers that already follow slots.
+   */
+  void onSlot(final long slot);
+
+  default void onSlot(final ProcessedSlot slot) {
+    onSlot(slot.slot());
+  }
+
+  Set<Commitment> commitments();
+
+  /**
+   * @return the newest blockhash, or {@code null} if none has been fetched within {@code maxAge}.
+   */
+  LatestBlockHash latest(final Commitment commitment);
+
+  /**
+   * @return the newest blockhash, fetching it if none has been fetched within {@code maxAge}.
+   */
+  CompletableFuture<LatestBlockHash> latestAsync(final Commitment commitment);
+
+  /**
+   * @return the cached, unexpired blockhashes, newest first.
+   */
+  List<LatestBlockHash> recent(final Commitment commitment);
+
+  /**
+   * @return the cached entry for {@code blockHash}, or {@code null} if unknown or expired.
+   */
+  LatestBlockHash find(final Commitment commitment, final String blockHash);
+
+  /**
+   * Derived from the newest blockhash, which remains valid for {@code Transaction.BLOCK_QUEUE_SIZE - 1} blocks.
+   *
+   * @return the estimated current block height, or {@code 0} if none has been fetched within {@code maxAge}.
+   */
+  long estimatedBlockHeight(final Commitment commitment);
+
+  /**
+   * @return the number of blocks left before {@code blockHash} expires, or a negative number if it already has.
+   */
+  default long remainingBlocks(final Commitment commitment, final LatestBlockHash blockHash) {
+    return blockHash.lastValidBlockHeight() - estimatedBlockHeight(commitment);
+  }
+
+  @Override
+  void close();
+}
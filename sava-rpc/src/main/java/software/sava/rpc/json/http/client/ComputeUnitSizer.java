@@ -0,0 +1,139 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.SolanaAccounts;
+import software.sava.core.tx.Transaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sizes the compute unit limit of transactions from the units consumed by a simulation, plus a margin.
+ * <p>
+ * Results are cached by instruction shape: the program, the leading discriminator bytes and the number of accounts of
+ * each instruction, ignoring compute budget instructions.  The discriminator length is configured per program, it
+ * defaults to the 8 bytes used by Anchor programs and to 1 byte for the native programs.  Repeat shapes skip
+ * simulation, and concurrent requests for the same shape share a single simulation.  At most {@code maxInFlight}
+ * simulations run at once, the rest are queued.
+ * <p>
+ * Simulations replace the blockhash, skip signature verification and request the maximum compute unit limit.
+ * Failed simulations are not cached.
+ */
+public interface ComputeUnitSizer {
+
+  int MAX_COMPUTE_UNIT_LIMIT = 1_400_000;
+  int DISCRIMINATOR_LENGTH = 8;
+  int NATIVE_DISCRIMINATOR_LENGTH = 1;
+
+  int DEFAULT_MAX_IN_FLIGHT = 16;
+  int DEFAULT_MAX_CACHED = 4_096;
+  double DEFAULT_MARGIN = 0.1;
+  int DEFAULT_MIN_MARGIN_UNITS = 1_000;
+
+  /**
+   * @return a mutable map of the native programs to {@link #NATIVE_DISCRIMINATOR_LENGTH}, memo programs to {@code 0}.
+   */
+  static Map<PublicKey, Integer> nativeDiscriminatorLengths(final SolanaAccounts solanaAccounts) {
+    final var lengths = HashMap.<PublicKey, Integer>newHashMap(16);
+    for (final var program : new PublicKey[]{
+        solanaAccounts.systemProgram(),
+        solanaAccounts.tokenProgram(),
+        solanaAccounts.token2022Program(),
+        solanaAccounts.associatedTokenAccountProgram(),
+        solanaAccounts.stakeProgram(),
+        solanaAccounts.voteProgram(),
+        solanaAccounts.addressLookupTableProgram(),
+        solanaAccounts.configProgram()
+    }) {
+      lengths.put(program, NATIVE_DISCRIMINATOR_LENGTH);
+    }
+    // Memo data is free form text.
+    lengths.put(solanaAccounts.memoProgram(), 0);
+    lengths.put(solanaAccounts.invokedMemoProgramV2().publicKey(), 0);
+    return lengths;
+  }
+
+  /**
+   * @param margin               fraction of the consumed units added on top.
+   * @param minMarginUnits       lower bound of the units added on top.
+   * @param discriminatorLengths per program, others use {@link #DISCRIMINATOR_LENGTH}.
+   */
+  static ComputeUnitSizer createSizer(final SolanaRpcClient rpcClient,
+                                      final SolanaAccounts solanaAccounts,
+                                      final double margin,
+                                      final int minMarginUnits,
+                                      final int maxInFlight,
+                                      final int maxCached,
+                                      final Map<PublicKey, Integer> discriminatorLengths) {
+    return new SimulatingComputeUnitSizer(
+        rpcClient,
+        solanaAccounts,
+        margin,
+        minMarginUnits,
+        maxInFlight,
+        maxCached,
+        discriminatorLengths
+    );
+  }
+
+  static ComputeUnitSizer createSizer(final SolanaRpcClient rpcClient,
+                                      final SolanaAccounts solanaAccounts,
+                                      final double margin,
+                                      final int minMarginUnits,
+                                      final int maxInFlight,
+                                      final int maxCached) {
+    return createSizer(
+        rpcClient,
+        solanaAccounts,
+        margin,
+        minMarginUnits,
+        maxInFlight,
+        maxCached,
+        nativeDiscriminatorLengths(solanaAccounts)
+    );
+  }
+
+  static ComputeUnitSizer createSizer(final SolanaRpcClient rpcClient) {
+    return createSizer(
+        rpcClient,
+        SolanaAccounts.MAIN_NET,
+        DEFAULT_MARGIN,
+        DEFAULT_MIN_MARGIN_UNITS,
+        DEFAULT_MAX_IN_FLIGHT,
+        DEFAULT_MAX_CACHED
+    );
+  }
+
+  /**
+   * @return the consumed units plus margin, capped at {@link #MAX_COMPUTE_UNIT_LIMIT}.
+   */
+  int computeUnitLimit(final int unitsConsumed);
+
+  /**
+   * @return the cached or simulated compute unit limit for the transaction's shape.  Stamped
+   * {@link software.sava.core.tx.TransactionTemplate template} transactions may apply it with
+   * {@code setComputeUnitLimit}.
+   */
+  CompletableFuture<Integer> computeUnitLimit(final Transaction transaction);
+
+  /**
+   * @return a transaction with its compute unit limit instruction replaced, or prepended if it has none.  The
+   * blockhash is preserved, signatures are not.
+   */
+  CompletableFuture<Transaction> size(final Transaction transaction);
+
+  /**
+   * Drops the cached limit of the transaction's shape, for example after a program upgrade.
+   */
+  void invalidate(final Transaction transaction);
+
+  void clearCache();
+
+  int numCached();
+
+  /**
+   * @return the number of simulations running or queued.
+   */
+  int numPending();
+}
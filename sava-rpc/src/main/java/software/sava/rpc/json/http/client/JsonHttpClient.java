@@ -138,6 +138,12 @@ public abstract class JsonHttpClient {
     return newRequest(endpoint, requestTimeout, "POST", ofString(body)).build();
   }
 
+  protected final HttpRequest newPostRequest(final URI endpoint,
+                                             final Duration requestTimeout,
+                                             final HttpRequest.BodyPublisher bodyPublisher) {
+    return newRequest(endpoint, requestTimeout, "POST", bodyPublisher).build();
+  }
+
   protected final <R> CompletableFuture<R> sendPostRequest(final URI endpoint,
                                                            final Function<HttpResponse<byte[]>, R> parser,
                                                            final Duration requestTimeout,
@@ -0,0 +1,293 @@
+package software.sava.rpc.json.http.client;
+
+import systems.comodal.jsoniter.JsonIterator;
+import systems.comodal.jsoniter.ValueType;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Coalesces JSON-RPC requests into batch arrays.  Each response element is routed back to the future of the request
+ * with the same id.  A batch holding a single request is sent as a plain JSON-RPC request.
+ */
+final class JsonRpcBatcher implements SolanaRpcBatch {
+
+  private final SolanaRpcClient rpcClient;
+  private final JsonRpcTransport transport;
+  private final int maxBatchSize;
+  private final Executor flushExecutor;
+  private final ReentrantLock lock;
+  private Batch pending;
+
+  JsonRpcBatcher(final Function<JsonRpcBatcher, SolanaRpcClient> rpcClientFactory,
+                 final JsonRpcTransport transport,
+                 final int maxBatchSize,
+                 final Duration window) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be positive, not: " + maxBatchSize);
+    }
+    this.transport = transport;
+    this.maxBatchSize = maxBatchSize;
+    this.flushExecutor = window == null ? null : CompletableFuture.delayedExecutor(window.toNanos(), NANOSECONDS);
+    this.lock = new ReentrantLock();
+    this.rpcClient = rpcClientFactory.apply(this);
+  }
+
+  @Override
+  public SolanaRpcClient rpcClient() {
+    return rpcClient;
+  }
+
+  @Override
+  public int numPending() {
+    lock.lock();
+    try {
+      return pending == null ? 0 : pending.calls.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  <R> CompletableFuture<R> enqueue(final JsonRpcRequestWriter body,
+                                   final Duration requestTimeout,
+                                   final Function<HttpResponse<byte[]>, R> parser) {
+    final var call = new Call<>(body.id(), parser, new CompletableFuture<>());
+    final Batch full;
+    lock.lock();
+    try {
+      var batch = this.pending;
+      if (batch == null) {
+        batch = this.pending = new Batch();
+        if (flushExecutor != null) {
+          final var scheduled = batch;
+          flushExecutor.execute(() -> send(scheduled));
+        }
+      }
+      batch.add(call, body, requestTimeout);
+      if (batch.calls.size() >= maxBatchSize) {
+        this.pending = null;
+        full = batch;
+      } else {
+        full = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (full != null) {
+      full.send(transport);
+    }
+    return call.future;
+  }
+
+  @Override
+  public void send() {
+    final Batch batch;
+    lock.lock();
+    try {
+      batch = this.pending;
+      this.pending = null;
+    } finally {
+      lock.unlock();
+    }
+    if (batch != null) {
+      batch.send(transport);
+    }
+  }
+
+  private void send(final Batch expected) {
+    lock.lock();
+    try {
+      if (this.pending != expected) {
+        return;
+      }
+      this.pending = null;
+    } finally {
+      lock.unlock();
+    }
+    expected.send(transport);
+  }
+
+  private record Call<R>(long id,
+                         Function<HttpResponse<byte[]>, R> parser,
+                         CompletableFuture<R> future) {
+
+    void complete(final HttpResponse<byte[]> response) {
+      try {
+        future.complete(parser.apply(response));
+      } catch (final RuntimeException ex) {
+        future.completeExceptionally(ex);
+      }
+    }
+  }
+
+  private static final class Batch {
+
+    private final ArrayList<Call<?>> calls;
+    private JsonRpcRequestWriter first;
+    private JsonRpcRequestWriter body;
+    private Duration requestTimeout;
+
+    private Batch() {
+      this.calls = new ArrayList<>();
+    }
+
+    private void add(final Call<?> call, final JsonRpcRequestWriter request, final Duration requestTimeout) {
+      if (calls.isEmpty()) {
+        this.first = request;
+        this.requestTimeout = requestTimeout;
+      } else {
+        if (body == null) {
+          this.body = JsonRpcRequestWriter.acquire().ascii('[').append(first);
+          first.release();
+          this.first = null;
+        }
+        body.comma().append(request);
+        request.release();
+        if (requestTimeout.compareTo(this.requestTimeout) > 0) {
+          this.requestTimeout = requestTimeout;
+        }
+      }
+      calls.add(call);
+    }
+
+    private void send(final JsonRpcTransport transport) {
+      if (body == null) {
+        final var call = calls.getFirst();
+        final var request = first;
+        transport.send(request, requestTimeout).whenComplete((response, ex) -> {
+          request.release();
+          if (ex == null) {
+            call.complete(response);
+          } else {
+            call.future.completeExceptionally(ex);
+          }
+        });
+      } else {
+        final var request = body.ascii(']');
+        transport.send(request, requestTimeout).whenComplete((response, ex) -> {
+          request.release();
+          if (ex == null) {
+            route(response);
+          } else {
+            for (final var call : calls) {
+              call.future.completeExceptionally(ex);
+            }
+          }
+        });
+      }
+    }
+
+    private void route(final HttpResponse<byte[]> response) {
+      final byte[] json = response.body();
+      int i = 0;
+      while (i < json.length && json[i] <= ' ') {
+        ++i;
+      }
+      if (i == json.length || json[i] != '[') {
+        // Batch level failure, e.g. rate limited, let each parser surface the error.
+        for (final var call : calls) {
+          call.complete(response);
+        }
+        return;
+      }
+
+      final var callsById = HashMap.<Long, Call<?>>newHashMap(calls.size());
+      for (final var call : calls) {
+        callsById.put(call.id, call);
+      }
+      HttpResponse<byte[]> anonymousError = null;
+      for (int depth = 0, start = 0; i < json.length; ++i) {
+        final byte b = json[i];
+        if (b == '"') {
+          for (++i; json[i] != '"'; ++i) {
+            if (json[i] == '\\') {
+              ++i;
+            }
+          }
+        } else if (b == '{' || b == '[') {
+          if (++depth == 2) {
+            start = i;
+          }
+        } else if (b == '}' || b == ']') {
+          if (--depth == 1) {
+            final var element = new BatchElementResponse(response, Arrays.copyOfRange(json, start, i + 1));
+            final var ji = JsonIterator.parse(element.body);
+            if (ji.skipUntil("id") != null && ji.whatIsNext() == ValueType.NUMBER) {
+              final var call = callsById.remove(ji.readLong());
+              if (call != null) {
+                call.complete(element);
+              }
+            } else {
+              anonymousError = element;
+            }
+          } else if (depth == 0) {
+            break;
+          }
+        }
+      }
+
+      for (final var call : callsById.values()) {
+        if (anonymousError != null) {
+          call.complete(anonymousError);
+        } else {
+          call.future.completeExceptionally(new IllegalStateException(
+              "No response for JSON-RPC request id " + call.id
+          ));
+        }
+      }
+    }
+  }
+
+  private record BatchElementResponse(HttpResponse<byte[]> batchResponse, byte[] body) implements HttpResponse<byte[]> {
+
+    @Override
+    public int statusCode() {
+      return batchResponse.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+      return batchResponse.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<byte[]>> previousResponse() {
+      return batchResponse.previousResponse();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+      return batchResponse.headers();
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+      return batchResponse.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+      return batchResponse.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+      return batchResponse.version();
+    }
+  }
+}
@@ -0,0 +1,332 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.encoding.Base58;
+import software.sava.core.rpc.Filter;
+import software.sava.rpc.json.http.request.Commitment;
+
+import java.math.BigInteger;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Flow;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static software.sava.core.encoding.ByteUtil.MAX_ASCII_DIGITS_LENGTH;
+import static software.sava.core.encoding.ByteUtil.putAsciiDigits;
+import static software.sava.core.rpc.Filter.MAX_MEM_COMP_LENGTH;
+
+/**
+ * Writes JSON-RPC request bodies directly into a reusable ASCII byte buffer.
+ * Writers are leased from a bounded pool and should only be released once the HTTP exchange which published the body
+ * has completed.
+ */
+final class JsonRpcRequestWriter implements HttpRequest.BodyPublisher {
+
+  private static final int INITIAL_CAPACITY = 512;
+  private static final int MAX_POOLED_CAPACITY = 1 << 16;
+  private static final int MAX_POOLED_WRITERS = 256;
+  private static final int MAX_FILTER_JSON_LENGTH = 64 + (MAX_MEM_COMP_LENGTH << 1);
+
+  private static final ArrayBlockingQueue<JsonRpcRequestWriter> POOL = new ArrayBlockingQueue<>(MAX_POOLED_WRITERS);
+
+  private final char[] base58;
+  private byte[] buf;
+  private int pos;
+  private boolean firstField;
+  private long id;
+  private String method;
+
+  JsonRpcRequestWriter(final int initialCapacity) {
+    this.base58 = new char[Base58.MAX_ENCODED_32_LENGTH];
+    this.buf = new byte[initialCapacity];
+  }
+
+  static JsonRpcRequestWriter acquire() {
+    final var writer = POOL.poll();
+    return writer == null ? new JsonRpcRequestWriter(INITIAL_CAPACITY) : writer;
+  }
+
+  void release() {
+    if (buf.length <= MAX_POOLED_CAPACITY) {
+      this.pos = 0;
+      this.method = null;
+      POOL.offer(this);
+    }
+  }
+
+  private void ensureCapacity(final int len) {
+    final int required = pos + len;
+    if (required > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(required, buf.length << 1));
+    }
+  }
+
+  long id() {
+    return id;
+  }
+
+  /**
+   * @return the method of this request, or null if this is a batch.
+   */
+  String method() {
+    return method;
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(buf, pos);
+  }
+
+  @Override
+  public String toString() {
+    return new String(buf, 0, pos, US_ASCII);
+  }
+
+  // Envelope
+
+  JsonRpcRequestWriter begin(final long id, final String method) {
+    this.id = id;
+    this.method = method;
+    ascii("""
+        {"jsonrpc":"2.0","id":""");
+    number(id);
+    ascii("""
+        ,"method":\"""");
+    ascii(method);
+    return ascii("\"");
+  }
+
+  JsonRpcRequestWriter params() {
+    return ascii("""
+        ,"params":[""");
+  }
+
+  JsonRpcRequestWriter endParams() {
+    return ascii("]}");
+  }
+
+  JsonRpcRequestWriter end() {
+    return ascii("}");
+  }
+
+  // Primitives
+
+  JsonRpcRequestWriter ascii(final String ascii) {
+    final int len = ascii.length();
+    ensureCapacity(len);
+    for (int i = 0; i < len; ++i) {
+      buf[pos++] = (byte) ascii.charAt(i);
+    }
+    return this;
+  }
+
+  JsonRpcRequestWriter ascii(final char c) {
+    ensureCapacity(1);
+    buf[pos++] = (byte) c;
+    return this;
+  }
+
+  JsonRpcRequestWriter append(final JsonRpcRequestWriter other) {
+    ensureCapacity(other.pos);
+    System.arraycopy(other.buf, 0, buf, pos, other.pos);
+    pos += other.pos;
+    return this;
+  }
+
+  JsonRpcRequestWriter comma() {
+    return ascii(',');
+  }
+
+  JsonRpcRequestWriter string(final String ascii) {
+    ensureCapacity(ascii.length() + 2);
+    buf[pos++] = '"';
+    ascii(ascii);
+    buf[pos++] = '"';
+    return this;
+  }
+
+  JsonRpcRequestWriter number(final long val) {
+    ensureCapacity(MAX_ASCII_DIGITS_LENGTH);
+    pos += putAsciiDigits(buf, pos, val);
+    return this;
+  }
+
+  JsonRpcRequestWriter number(final BigInteger val) {
+    return val.bitLength() < Long.SIZE ? number(val.longValue()) : ascii(val.toString());
+  }
+
+  JsonRpcRequestWriter bool(final boolean val) {
+    return ascii(val ? "true" : "false");
+  }
+
+  JsonRpcRequestWriter key(final PublicKey key) {
+    final int len = Base58.encode32(key.toByteArray(), 0, base58, 0);
+    ensureCapacity(len + 2);
+    buf[pos++] = '"';
+    for (int i = 0; i < len; ++i) {
+      buf[pos++] = (byte) base58[i];
+    }
+    buf[pos++] = '"';
+    return this;
+  }
+
+  JsonRpcRequestWriter keys(final Collection<PublicKey> keys) {
+    ascii('[');
+    if (keys != null && !keys.isEmpty()) {
+      final var iterator = keys.iterator();
+      for (; ; ) {
+        key(iterator.next());
+        if (iterator.hasNext()) {
+          comma();
+        } else {
+          break;
+        }
+      }
+    }
+    return ascii(']');
+  }
+
+  JsonRpcRequestWriter strings(final Collection<String> strings) {
+    ascii('[');
+    if (strings != null && !strings.isEmpty()) {
+      final var iterator = strings.iterator();
+      for (; ; ) {
+        string(iterator.next());
+        if (iterator.hasNext()) {
+          comma();
+        } else {
+          break;
+        }
+      }
+    }
+    return ascii(']');
+  }
+
+  // Config objects
+
+  JsonRpcRequestWriter beginObject() {
+    firstField = true;
+    return ascii('{');
+  }
+
+  JsonRpcRequestWriter endObject() {
+    return ascii('}');
+  }
+
+  private JsonRpcRequestWriter fieldName(final String name) {
+    ensureCapacity(name.length() + 4);
+    if (firstField) {
+      firstField = false;
+    } else {
+      buf[pos++] = ',';
+    }
+    buf[pos++] = '"';
+    ascii(name);
+    buf[pos++] = '"';
+    buf[pos++] = ':';
+    return this;
+  }
+
+  JsonRpcRequestWriter field(final String name, final String ascii) {
+    return fieldName(name).string(ascii);
+  }
+
+  JsonRpcRequestWriter field(final String name, final long val) {
+    return fieldName(name).number(val);
+  }
+
+  JsonRpcRequestWriter field(final String name, final BigInteger val) {
+    return fieldName(name).number(val);
+  }
+
+  JsonRpcRequestWriter field(final String name, final boolean val) {
+    return fieldName(name).bool(val);
+  }
+
+  JsonRpcRequestWriter field(final String name, final PublicKey key) {
+    return fieldName(name).key(key);
+  }
+
+  JsonRpcRequestWriter commitment(final Commitment commitment) {
+    return field("commitment", commitment.getValue());
+  }
+
+  JsonRpcRequestWriter commitmentConfig(final Commitment commitment) {
+    return beginObject().commitment(commitment).endObject();
+  }
+
+  JsonRpcRequestWriter dataSlice(final int length, final int offset) {
+    fieldName("dataSlice");
+    ascii("""
+        {"length":""");
+    number(length);
+    ascii("""
+        ,"offset":""");
+    number(offset);
+    return ascii('}');
+  }
+
+  JsonRpcRequestWriter filters(final Collection<Filter> filters) {
+    fieldName("filters");
+    ascii('[');
+    final var iterator = filters.iterator();
+    for (; ; ) {
+      ensureCapacity(MAX_FILTER_JSON_LENGTH);
+      pos += iterator.next().writeJson(buf, pos);
+      if (iterator.hasNext()) {
+        comma();
+      } else {
+        break;
+      }
+    }
+    return ascii(']');
+  }
+
+  // BodyPublisher
+
+  @Override
+  public long contentLength() {
+    return pos;
+  }
+
+  @Override
+  public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+    subscriber.onSubscribe(new BodySubscription(subscriber, ByteBuffer.wrap(buf, 0, pos)));
+  }
+
+  private static final class BodySubscription implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super ByteBuffer> subscriber;
+    private ByteBuffer body;
+
+    private BodySubscription(final Flow.Subscriber<? super ByteBuffer> subscriber, final ByteBuffer body) {
+      this.subscriber = subscriber;
+      this.body = body;
+    }
+
+    @Override
+    public void request(final long n) {
+      final ByteBuffer body;
+      synchronized (this) {
+        body = this.body;
+        if (body == null) {
+          return;
+        }
+        this.body = null;
+      }
+      if (n <= 0) {
+        subscriber.onError(new IllegalArgumentException("non-positive subscription request: " + n));
+      } else {
+        subscriber.onNext(body);
+        subscriber.onComplete();
+      }
+    }
+
+    @Override
+    public synchronized void cancel() {
+      this.body = null;
+    }
+  }
+}
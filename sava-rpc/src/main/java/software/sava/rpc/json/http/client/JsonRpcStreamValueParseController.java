@@ -0,0 +1,89 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.rpc.json.http.response.Context;
+import software.sava.rpc.json.http.response.JsonRpcException;
+import systems.comodal.jsoniter.JsonIterator;
+import systems.comodal.jsoniter.ValueType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static software.sava.rpc.json.http.client.JsonResponseController.logBody;
+import static software.sava.rpc.json.http.client.JsonResponseController.throwUncheckedIOException;
+
+/**
+ * Parses a {@code withContext} response value directly from the response body stream, so only the parse buffer and
+ * whatever the parser retains is ever held in memory.
+ * <p>
+ * Reads block on the network, apply on a thread that may block.
+ */
+record JsonRpcStreamValueParseController<R>(BiFunction<JsonIterator, Context, R> parser,
+                                            int bufferSize) implements Function<HttpResponse<InputStream>, R> {
+
+  static final int DEFAULT_BUFFER_SIZE = 64 << 10;
+
+  JsonRpcStreamValueParseController(final BiFunction<JsonIterator, Context, R> parser) {
+    this(parser, DEFAULT_BUFFER_SIZE);
+  }
+
+  @Override
+  public R apply(final HttpResponse<InputStream> httpResponse) {
+    try (final var in = httpResponse.body()) {
+      final int responseCode = httpResponse.statusCode();
+      if (responseCode < 200 || responseCode >= 300) {
+        throw parseError(httpResponse, in.readAllBytes());
+      }
+      final var ji = JsonIterator.parse(in, bufferSize);
+      for (String field; (field = ji.readObjField()) != null; ) {
+        switch (field) {
+          case "result" -> {
+            return parseResult(ji);
+          }
+          case "error" -> {
+            final var retryAfter = httpResponse.headers().firstValueAsLong("retry-after");
+            throw JsonRpcException.parseException(ji, retryAfter);
+          }
+          default -> ji.skip();
+        }
+      }
+      throw throwUncheckedIOException(httpResponse, "");
+    } catch (final IOException ioException) {
+      throw new UncheckedIOException(ioException);
+    }
+  }
+
+  // The value is parsed as it streams, so the context, which every parsed value carries, has to precede it.
+  private R parseResult(final JsonIterator ji) {
+    Context context = null;
+    for (String field; (field = ji.readObjField()) != null; ) {
+      switch (field) {
+        case "context" -> context = Context.parse(ji);
+        case "value" -> {
+          if (context == null) {
+            throw new IllegalStateException("Streamed result value must follow its context.");
+          }
+          return parser.apply(ji, context);
+        }
+        default -> ji.skip();
+      }
+    }
+    throw new IllegalStateException("Streamed result is missing its value.");
+  }
+
+  private static RuntimeException parseError(final HttpResponse<InputStream> httpResponse, final byte[] body) {
+    final var ji = JsonIterator.parse(body);
+    try {
+      if (ji.whatIsNext() == ValueType.OBJECT && ji.skipUntil("error") != null) {
+        final var retryAfter = httpResponse.headers().firstValueAsLong("retry-after");
+        return JsonRpcException.parseException(ji, retryAfter);
+      }
+    } catch (final RuntimeException ex) {
+      logBody(httpResponse, new String(body), ex);
+    }
+    throw throwUncheckedIOException(httpResponse, new String(body));
+  }
+}
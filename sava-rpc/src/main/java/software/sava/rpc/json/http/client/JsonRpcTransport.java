@@ -0,0 +1,10 @@
+package software.sava.rpc.json.http.client;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+interface JsonRpcTransport {
+
+  CompletableFuture<HttpResponse<byte[]>> send(final JsonRpcRequestWriter body, final Duration requestTimeout);
+}
@@ -0,0 +1,219 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.tx.Transaction;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.LatestBlockHash;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+final class PrefetchingBlockHashCache implements BlockHashCache {
+
+  private static final System.Logger log = System.getLogger(PrefetchingBlockHashCache.class.getName());
+
+  private static final Snapshot EMPTY = new Snapshot(new LatestBlockHash[0], 0);
+  private static final int VALID_BLOCKS = Transaction.BLOCK_QUEUE_SIZE - 1;
+
+  private final SolanaRpcClient rpcClient;
+  private final Set<Commitment> commitments;
+  private final int maxHashes;
+  private final long maxAgeNanos;
+  private final Executor refreshExecutor;
+  private final EnumMap<Commitment, Hashes> hashes;
+  private volatile boolean closed;
+
+  PrefetchingBlockHashCache(final SolanaRpcClient rpcClient,
+                            final Set<Commitment> commitments,
+                            final int maxHashes,
+                            final Duration refreshInterval,
+                            final Duration maxAge) {
+    if (commitments.isEmpty()) {
+      throw new IllegalArgumentException("At least one commitment level is required.");
+    }
+    if (maxHashes < 1) {
+      throw new IllegalArgumentException("maxHashes must be positive, not: " + maxHashes);
+    }
+    this.rpcClient = rpcClient;
+    this.commitments = Collections.unmodifiableSet(EnumSet.copyOf(commitments));
+    this.maxHashes = maxHashes;
+    this.maxAgeNanos = maxAge.toNanos();
+    this.refreshExecutor = refreshInterval == null
+        ? null
+        : CompletableFuture.delayedExecutor(refreshInterval.toNanos(), NANOSECONDS);
+    this.hashes = new EnumMap<>(Commitment.class);
+    for (final var commitment : this.commitments) {
+      this.hashes.put(commitment, new Hashes(commitment));
+    }
+  }
+
+  // Hashes are newest first, fetchedNanos is when the newest was last returned by the RPC node.
+  private record Snapshot(LatestBlockHash[] hashes, long fetchedNanos) {
+  }
+
+  private final class Hashes {
+
+    private final Commitment commitment;
+    // Replaced as a whole so that readers only ever see a complete snapshot.
+    private final AtomicReference<Snapshot> snapshot;
+    private final AtomicBoolean refreshing;
+
+    private Hashes(final Commitment commitment) {
+      this.commitment = commitment;
+      this.snapshot = new AtomicReference<>(EMPTY);
+      this.refreshing = new AtomicBoolean();
+    }
+
+    private CompletableFuture<LatestBlockHash> fetch() {
+      return rpcClient.getLatestBlockHash(commitment).thenApply(this::add);
+    }
+
+    private void refresh() {
+      if (closed || !refreshing.compareAndSet(false, true)) {
+        return;
+      }
+      fetch().whenComplete((latest, ex) -> {
+        refreshing.set(false);
+        if (ex != null) {
+          log.log(WARNING, "Failed to refresh " + commitment + " blockhash.", ex);
+        }
+      });
+    }
+
+    private LatestBlockHash add(final LatestBlockHash latest) {
+      final long fetchedNanos = System.nanoTime();
+      for (; ; ) {
+        final var current = snapshot.get();
+        final var previous = current.hashes;
+        if (previous.length > 0) {
+          final var newest = previous[0];
+          // Responses may arrive out of order, never move backwards.
+          if (newest.lastValidBlockHeight() > latest.lastValidBlockHeight()) {
+            return newest;
+          } else if (newest.blockHash().equals(latest.blockHash())) {
+            // Still the newest, only its fetch time moves forward.
+            if (fetchedNanos - current.fetchedNanos <= 0
+                || snapshot.compareAndSet(current, new Snapshot(previous, fetchedNanos))) {
+              return newest;
+            }
+            continue;
+          }
+        }
+        final long blockHeight = latest.lastValidBlockHeight() - VALID_BLOCKS;
+        final var next = new LatestBlockHash[Math.min(maxHashes, previous.length + 1)];
+        next[0] = latest;
+        int n = 1;
+        for (int i = 0; n < next.length && i < previous.length; ++i) {
+          final var hash = previous[i];
+          if (hash.lastValidBlockHeight() >= blockHeight && !hash.blockHash().equals(latest.blockHash())) {
+            next[n++] = hash;
+          }
+        }
+        final var hashes = n == next.length ? next : Arrays.copyOfRange(next, 0, n);
+        if (snapshot.compareAndSet(current, new Snapshot(hashes, fetchedNanos))) {
+          return latest;
+        }
+      }
+    }
+
+    // Once refreshes stop succeeding the cached hashes are treated as unknown rather than served indefinitely.
+    private LatestBlockHash[] current() {
+      final var snapshot = this.snapshot.get();
+      return System.nanoTime() - snapshot.fetchedNanos > maxAgeNanos ? EMPTY.hashes : snapshot.hashes;
+    }
+
+    private LatestBlockHash latest() {
+      final var hashes = current();
+      return hashes.length == 0 ? null : hashes[0];
+    }
+  }
+
+  private Hashes hashes(final Commitment commitment) {
+    final var hashes = this.hashes.get(commitment);
+    if (hashes == null) {
+      throw new IllegalArgumentException(commitment + " blockhashes are not cached.");
+    }
+    return hashes;
+  }
+
+  private void refreshAll() {
+    for (final var hashes : this.hashes.values()) {
+      hashes.refresh();
+    }
+  }
+
+  private void scheduleRefresh() {
+    if (!closed) {
+      refreshExecutor.execute(() -> {
+        refreshAll();
+        scheduleRefresh();
+      });
+    }
+  }
+
+  @Override
+  public void start() {
+    refreshAll();
+    if (refreshExecutor != null) {
+      scheduleRefresh();
+    }
+  }
+
+  @Override
+  public void onSlot(final long slot) {
+    refreshAll();
+  }
+
+  @Override
+  public Set<Commitment> commitments() {
+    return commitments;
+  }
+
+  @Override
+  public LatestBlockHash latest(final Commitment commitment) {
+    return hashes(commitment).latest();
+  }
+
+  @Override
+  public CompletableFuture<LatestBlockHash> latestAsync(final Commitment commitment) {
+    final var hashes = hashes(commitment);
+    final var latest = hashes.latest();
+    return latest == null ? hashes.fetch() : CompletableFuture.completedFuture(latest);
+  }
+
+  @Override
+  public List<LatestBlockHash> recent(final Commitment commitment) {
+    return List.of(hashes(commitment).current());
+  }
+
+  @Override
+  public LatestBlockHash find(final Commitment commitment, final String blockHash) {
+    final var snapshot = hashes(commitment).current();
+    if (snapshot.length > 0) {
+      final long blockHeight = snapshot[0].lastValidBlockHeight() - VALID_BLOCKS;
+      for (final var hash : snapshot) {
+        if (hash.blockHash().equals(blockHash)) {
+          return hash.lastValidBlockHeight() >= blockHeight ? hash : null;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public long estimatedBlockHeight(final Commitment commitment) {
+    final var latest = hashes(commitment).latest();
+    return latest == null ? 0 : latest.lastValidBlockHeight() - VALID_BLOCKS;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+}
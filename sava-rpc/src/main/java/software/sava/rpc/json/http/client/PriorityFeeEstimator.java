@@ -0,0 +1,126 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.tx.TransactionTemplate;
+import software.sava.rpc.json.http.response.PrioritizationFee;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains a rolling window of {@code getRecentPrioritizationFees} samples for each tracked writable account, polled
+ * in the background one account per request, so that priority fee bids are answered without an RPC call.
+ * <p>
+ * A transaction competes for every account it write locks, so the estimate for a set of accounts is the highest of
+ * their individual percentiles.  Percentiles use the nearest rank over the per slot fees in the window, including
+ * slots without any fee.  Accounts without samples are estimated at zero.
+ */
+public interface PriorityFeeEstimator extends AutoCloseable {
+
+  int DEFAULT_WINDOW_SLOTS = 150;
+  Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(2);
+
+  /**
+   * @param rpcClient consider a {@link SolanaRpcClient#createCoalescingClient coalescing client} if tracking many
+   *                  accounts.
+   */
+  static PriorityFeeEstimator createEstimator(final SolanaRpcClient rpcClient,
+                                              final int windowSlots,
+                                              final Duration pollInterval) {
+    return new RollingPriorityFeeEstimator(rpcClient, windowSlots, pollInterval);
+  }
+
+  static PriorityFeeEstimator createEstimator(final SolanaRpcClient rpcClient) {
+    return createEstimator(rpcClient, DEFAULT_WINDOW_SLOTS, DEFAULT_POLL_INTERVAL);
+  }
+
+  /**
+   * Starts polling the tracked accounts.
+   */
+  void start();
+
+  /**
+   * @return false if the account was already tracked.
+   */
+  boolean track(final PublicKey account);
+
+  default void trackAll(final Collection<PublicKey> accounts) {
+    for (final var account : accounts) {
+      track(account);
+    }
+  }
+
+  /**
+   * Stops polling the account and drops its samples.
+   */
+  boolean untrack(final PublicKey account);
+
+  Set<PublicKey> tracked();
+
+  /**
+   * Merges fees sampled elsewhere, for example by a caller already polling the account.
+   */
+  void update(final PublicKey account, final List<PrioritizationFee> fees);
+
+  /**
+   * @return the newest slot sampled for the account, or {@code 0} if none.
+   */
+  long newestSlot(final PublicKey account);
+
+  int numSamples(final PublicKey account);
+
+  /**
+   * @param percentile in the range {@code [0, 1]}.
+   * @return the fee in micro-lamports per compute unit.
+   */
+  long percentile(final PublicKey account, final double percentile);
+
+  default long percentile(final Collection<PublicKey> writableAccounts, final double percentile) {
+    long max = 0;
+    for (final var account : writableAccounts) {
+      max = Math.max(max, percentile(account, percentile));
+    }
+    return max;
+  }
+
+  default long p50(final Collection<PublicKey> writableAccounts) {
+    return percentile(writableAccounts, 0.5);
+  }
+
+  default long p75(final Collection<PublicKey> writableAccounts) {
+    return percentile(writableAccounts, 0.75);
+  }
+
+  default long p95(final Collection<PublicKey> writableAccounts) {
+    return percentile(writableAccounts, 0.95);
+  }
+
+  /**
+   * @return the estimate, capped at {@code maxMicroLamports}.
+   */
+  default long computeUnitPrice(final Collection<PublicKey> writableAccounts,
+                                final double percentile,
+                                final long maxMicroLamports) {
+    return Math.min(maxMicroLamports, percentile(writableAccounts, percentile));
+  }
+
+  /**
+   * Writes the capped estimate into the compute unit price instruction of a stamped template transaction.
+   *
+   * @return the price written, in micro-lamports per compute unit.
+   */
+  default long setComputeUnitPrice(final TransactionTemplate template,
+                                   final byte[] tx,
+                                   final Collection<PublicKey> writableAccounts,
+                                   final double percentile,
+                                   final long maxMicroLamports) {
+    final long microLamports = computeUnitPrice(writableAccounts, percentile, maxMicroLamports);
+    template.setComputeUnitPrice(tx, microLamports);
+    return microLamports;
+  }
+
+  @Override
+  void close();
+}
@@ -0,0 +1,324 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.tx.Transaction;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.TxResult;
+import software.sava.rpc.json.http.response.TxStatus;
+import software.sava.rpc.json.http.ws.SolanaRpcWebsocket;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+final class RebroadcastingTransactionSender implements TransactionSender {
+
+  private static final System.Logger log = System.getLogger(RebroadcastingTransactionSender.class.getName());
+  // Subscribed transactions are also polled once unconfirmed for this many ticks, in case a notification was missed.
+  static final int WEBSOCKET_POLL_TICKS = 5;
+
+  private final SolanaRpcClient rpcClient;
+  private final SolanaRpcWebsocket websocket;
+  private final Commitment commitment;
+  private final int maxInFlight;
+  private final long rebroadcastIntervalNanos;
+  private final Executor tickExecutor;
+  private final ConcurrentHashMap<String, InFlight> inFlight;
+  private final AtomicInteger numInFlight;
+  private final AtomicBoolean ticking;
+  private volatile long blockHeight;
+  private volatile boolean closed;
+
+  RebroadcastingTransactionSender(final SolanaRpcClient rpcClient,
+                                  final SolanaRpcWebsocket websocket,
+                                  final Commitment commitment,
+                                  final int maxInFlight,
+                                  final Duration rebroadcastInterval,
+                                  final Duration pollInterval) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be positive, not: " + maxInFlight);
+    }
+    this.rpcClient = rpcClient;
+    this.websocket = websocket;
+    this.commitment = commitment;
+    this.maxInFlight = maxInFlight;
+    this.rebroadcastIntervalNanos = rebroadcastInterval.toNanos();
+    this.tickExecutor = CompletableFuture.delayedExecutor(pollInterval.toNanos(), NANOSECONDS);
+    this.inFlight = new ConcurrentHashMap<>();
+    this.numInFlight = new AtomicInteger();
+    this.ticking = new AtomicBoolean();
+  }
+
+  private static final class InFlight {
+
+    private final String signature;
+    private final String base64Tx;
+    private final CompletableFuture<TxStatus> future;
+    // Set before the transaction is published to inFlight, then only mutated by the tick loop.
+    private long lastValidBlockHeight;
+    private long lastSent;
+    private int unconfirmedTicks;
+    private volatile boolean landed;
+    private volatile boolean subscribed;
+
+    private InFlight(final String signature,
+                     final String base64Tx,
+                     final long lastValidBlockHeight,
+                     final long lastSent) {
+      this.signature = signature;
+      this.base64Tx = base64Tx;
+      this.lastValidBlockHeight = lastValidBlockHeight;
+      this.lastSent = lastSent;
+      this.future = new CompletableFuture<>();
+    }
+
+    private boolean expired(final long blockHeight) {
+      return lastValidBlockHeight > 0 && blockHeight > lastValidBlockHeight;
+    }
+  }
+
+  @Override
+  public CompletableFuture<TxStatus> send(final byte[] signedTx, final long lastValidBlockHeight) {
+    if (closed) {
+      return CompletableFuture.failedFuture(new IllegalStateException("Transaction sender is closed."));
+    }
+    final var signature = Transaction.getBase58Id(signedTx);
+    final var existing = inFlight.get(signature);
+    if (existing != null) {
+      return existing.future;
+    }
+    if (numInFlight.incrementAndGet() > maxInFlight) {
+      numInFlight.decrementAndGet();
+      return CompletableFuture.failedFuture(new RejectedExecutionException(String.format(
+          "%d transactions are already in flight.", maxInFlight
+      )));
+    }
+    final var tx = new InFlight(
+        signature,
+        Base64.getEncoder().encodeToString(signedTx),
+        lastValidBlockHeight,
+        System.nanoTime()
+    );
+    final var raced = inFlight.putIfAbsent(signature, tx);
+    if (raced != null) {
+      numInFlight.decrementAndGet();
+      return raced.future;
+    }
+    if (websocket != null) {
+      // Set first, as a notification may arrive and clear it before signatureSubscribe returns.
+      tx.subscribed = true;
+      if (!websocket.signatureSubscribe(commitment, false, signature, result -> onResult(tx, result))) {
+        tx.subscribed = false;
+      }
+    }
+    broadcast(tx);
+    if (closed) {
+      fail(tx, new IllegalStateException("Transaction sender is closed."));
+    } else {
+      scheduleTick();
+    }
+    return tx.future;
+  }
+
+  @Override
+  public CompletableFuture<TxStatus> send(final byte[] signedTx) {
+    return send(signedTx, -1);
+  }
+
+  @Override
+  public Commitment commitment() {
+    return commitment;
+  }
+
+  @Override
+  public int maxInFlight() {
+    return maxInFlight;
+  }
+
+  @Override
+  public int numInFlight() {
+    return numInFlight.get();
+  }
+
+  @Override
+  public long blockHeight() {
+    return blockHeight;
+  }
+
+  private void broadcast(final InFlight tx) {
+    rpcClient.sendTransactionSkipPreflight(tx.base64Tx, 0).whenComplete((signature, ex) -> {
+      if (ex != null) {
+        log.log(DEBUG, "Failed to send transaction " + tx.signature, ex);
+      }
+    });
+  }
+
+  private boolean remove(final InFlight tx) {
+    if (inFlight.remove(tx.signature, tx)) {
+      numInFlight.decrementAndGet();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  // The server cancels signature subscriptions itself once it has notified, so this is only needed otherwise.
+  private void unsubscribe(final InFlight tx) {
+    if (tx.subscribed) {
+      tx.subscribed = false;
+      websocket.signatureUnsubscribe(commitment, tx.signature);
+    }
+  }
+
+  private void complete(final InFlight tx, final TxStatus status) {
+    if (remove(tx)) {
+      unsubscribe(tx);
+      tx.future.complete(status);
+    }
+  }
+
+  private void fail(final InFlight tx, final Throwable cause) {
+    if (remove(tx)) {
+      unsubscribe(tx);
+      tx.future.completeExceptionally(cause);
+    }
+  }
+
+  private void onResult(final InFlight tx, final TxResult result) {
+    if (!remove(tx)) {
+      return;
+    }
+    tx.subscribed = false;
+    final var context = result.context();
+    tx.future.complete(new TxStatus(
+        context,
+        context == null ? 0 : context.slot(),
+        OptionalInt.empty(),
+        result.error(),
+        commitment
+    ));
+  }
+
+  // FINALIZED is declared first, so any status at or before the target ordinal satisfies it.
+  private boolean reached(final Commitment confirmationStatus) {
+    return confirmationStatus != null && confirmationStatus.ordinal() <= commitment.ordinal();
+  }
+
+  private void onStatuses(final Map<String, TxStatus> statuses) {
+    for (final var entry : statuses.entrySet()) {
+      final var tx = inFlight.get(entry.getKey());
+      if (tx == null) {
+        continue;
+      }
+      final var status = entry.getValue();
+      if (status == null || status.nil()) {
+        // Either not seen yet or dropped along with a fork, either way it should be re-sent.
+        tx.landed = false;
+      } else if (status.error() != null || reached(status.confirmationStatus())) {
+        complete(tx, status);
+      } else {
+        tx.landed = true;
+      }
+    }
+  }
+
+  private void scheduleTick() {
+    if (!closed && ticking.compareAndSet(false, true)) {
+      tickExecutor.execute(this::tick);
+    }
+  }
+
+  private void tick() {
+    if (closed) {
+      ticking.set(false);
+      return;
+    }
+    final long now = System.nanoTime();
+    rpcClient.getBlockHeight(commitment).handle((height, ex) -> {
+      if (ex != null) {
+        log.log(WARNING, "Failed to fetch block height.", ex);
+      } else if (height.height() > blockHeight) {
+        blockHeight = height.height();
+      }
+      return blockHeight;
+    }).thenCompose(this::pollStatuses).whenComplete((height, ex) -> {
+      if (ex != null) {
+        log.log(WARNING, "Failed to poll transaction statuses.", ex);
+      } else {
+        expire(height);
+      }
+      rebroadcast(now);
+      ticking.set(false);
+      if (!inFlight.isEmpty()) {
+        scheduleTick();
+      }
+    });
+  }
+
+  private CompletableFuture<Long> pollStatuses(final long height) {
+    final var signatures = new ArrayList<String>(Math.min(inFlight.size(), SolanaRpcClient.MAX_SIG_STATUS));
+    final var polls = new ArrayList<CompletableFuture<Void>>();
+    for (final var tx : inFlight.values()) {
+      if (tx.lastValidBlockHeight < 0 && height > 0) {
+        tx.lastValidBlockHeight = height + Transaction.BLOCK_QUEUE_SIZE;
+      }
+      if (shouldPoll(tx, height)) {
+        signatures.add(tx.signature);
+        if (signatures.size() == SolanaRpcClient.MAX_SIG_STATUS) {
+          polls.add(rpcClient.getSignatureStatuses(new ArrayList<>(signatures), false).thenAccept(this::onStatuses));
+          signatures.clear();
+        }
+      }
+    }
+    if (!signatures.isEmpty()) {
+      polls.add(rpcClient.getSignatureStatuses(signatures, false).thenAccept(this::onStatuses));
+    }
+    return CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).thenApply(done -> height);
+  }
+
+  // With a websocket, subscribed transactions are only polled once landed, expiring or unconfirmed for
+  // WEBSOCKET_POLL_TICKS, to catch failed subscriptions and missed notifications.
+  private boolean shouldPoll(final InFlight tx, final long height) {
+    return websocket == null
+        || !tx.subscribed
+        || tx.landed
+        || tx.expired(height)
+        || ++tx.unconfirmedTicks > WEBSOCKET_POLL_TICKS;
+  }
+
+  // Landed transactions are polled before expiring, so one still unconfirmed here was likely dropped with a fork.
+  private void expire(final long height) {
+    for (final var tx : inFlight.values()) {
+      if (tx.expired(height)) {
+        fail(tx, new TimeoutException(String.format(
+            "Transaction %s expired, block height %d is past %d.", tx.signature, height, tx.lastValidBlockHeight
+        )));
+      }
+    }
+  }
+
+  private void rebroadcast(final long now) {
+    for (final var tx : inFlight.values()) {
+      if (!tx.landed && now - tx.lastSent >= rebroadcastIntervalNanos) {
+        tx.lastSent = now;
+        broadcast(tx);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (final var tx : inFlight.values()) {
+      fail(tx, new IllegalStateException("Transaction sender is closed."));
+    }
+  }
+}
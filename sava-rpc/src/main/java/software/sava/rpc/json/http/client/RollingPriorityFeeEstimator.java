@@ -0,0 +1,181 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.rpc.json.http.response.PrioritizationFee;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+final class RollingPriorityFeeEstimator implements PriorityFeeEstimator {
+
+  private static final System.Logger log = System.getLogger(RollingPriorityFeeEstimator.class.getName());
+
+  private static final Window EMPTY = new Window(new long[0], new long[0], new long[0]);
+
+  private final SolanaRpcClient rpcClient;
+  private final int windowSlots;
+  private final Executor pollExecutor;
+  private final ConcurrentHashMap<PublicKey, Window> windows;
+  private final Set<PublicKey> tracked;
+  private volatile boolean closed;
+
+  RollingPriorityFeeEstimator(final SolanaRpcClient rpcClient, final int windowSlots, final Duration pollInterval) {
+    if (windowSlots < 1) {
+      throw new IllegalArgumentException("windowSlots must be positive, not: " + windowSlots);
+    }
+    this.rpcClient = rpcClient;
+    this.windowSlots = windowSlots;
+    this.pollExecutor = CompletableFuture.delayedExecutor(pollInterval.toNanos(), NANOSECONDS);
+    this.windows = new ConcurrentHashMap<>();
+    this.tracked = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * An immutable window of samples, ordered by slot, along with their fees sorted for percentile lookups.
+   */
+  private record Window(long[] slots, long[] fees, long[] sortedFees) {
+
+    private long newestSlot() {
+      return slots.length == 0 ? 0 : slots[slots.length - 1];
+    }
+
+    private long percentile(final double percentile) {
+      final int n = sortedFees.length;
+      if (n == 0) {
+        return 0;
+      }
+      final int rank = (int) Math.ceil(percentile * n);
+      return sortedFees[Math.clamp(rank - 1, 0, n - 1)];
+    }
+
+    private Window merge(final List<PrioritizationFee> samples, final int windowSlots) {
+      final var sampled = samples.toArray(PrioritizationFee[]::new);
+      Arrays.sort(sampled, (a, b) -> Long.compare(a.slot(), b.slot()));
+      long newestSlot = newestSlot();
+      if (sampled.length > 0) {
+        newestSlot = Math.max(newestSlot, sampled[sampled.length - 1].slot());
+      }
+      final long oldestSlot = newestSlot - windowSlots;
+
+      // Merge both slot ordered sequences, newer samples win for the same slot.
+      final int maxLength = slots.length + sampled.length;
+      final long[] mergedSlots = new long[maxLength];
+      final long[] mergedFees = new long[maxLength];
+      int n = 0;
+      for (int i = 0, j = 0; i < slots.length || j < sampled.length; ) {
+        final long slot;
+        final long fee;
+        if (j == sampled.length || (i < slots.length && slots[i] < sampled[j].slot())) {
+          slot = slots[i];
+          fee = fees[i++];
+        } else {
+          final var sample = sampled[j++];
+          slot = sample.slot();
+          fee = sample.prioritizationFee();
+          if (i < slots.length && slots[i] == slot) {
+            ++i;
+          }
+        }
+        if (slot <= oldestSlot) {
+          continue;
+        }
+        if (n > 0 && mergedSlots[n - 1] == slot) {
+          mergedFees[n - 1] = fee;
+        } else {
+          mergedSlots[n] = slot;
+          mergedFees[n++] = fee;
+        }
+      }
+      final long[] windowSlotsArray = Arrays.copyOf(mergedSlots, n);
+      final long[] windowFees = Arrays.copyOf(mergedFees, n);
+      final long[] sortedFees = windowFees.clone();
+      Arrays.sort(sortedFees);
+      return new Window(windowSlotsArray, windowFees, sortedFees);
+    }
+  }
+
+  private Window window(final PublicKey account) {
+    final var window = windows.get(account);
+    return window == null ? EMPTY : window;
+  }
+
+  @Override
+  public void start() {
+    schedulePoll();
+  }
+
+  private void schedulePoll() {
+    if (!closed) {
+      pollExecutor.execute(this::poll);
+    }
+  }
+
+  private void poll() {
+    if (closed) {
+      return;
+    }
+    final var polls = new ArrayList<CompletableFuture<Void>>(tracked.size());
+    for (final var account : tracked) {
+      polls.add(rpcClient.getRecentPrioritizationFees(List.of(account)).handle((fees, ex) -> {
+        if (ex != null) {
+          log.log(WARNING, "Failed to fetch prioritization fees for " + account, ex);
+        } else if (tracked.contains(account)) {
+          update(account, fees);
+        }
+        return null;
+      }));
+    }
+    CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).whenComplete((done, ex) -> schedulePoll());
+  }
+
+  @Override
+  public boolean track(final PublicKey account) {
+    return tracked.add(account);
+  }
+
+  @Override
+  public boolean untrack(final PublicKey account) {
+    final boolean removed = tracked.remove(account);
+    windows.remove(account);
+    return removed;
+  }
+
+  @Override
+  public Set<PublicKey> tracked() {
+    return Set.copyOf(tracked);
+  }
+
+  @Override
+  public void update(final PublicKey account, final List<PrioritizationFee> fees) {
+    windows.compute(account, (key, window) -> (window == null ? EMPTY : window).merge(fees, windowSlots));
+  }
+
+  @Override
+  public long newestSlot(final PublicKey account) {
+    return window(account).newestSlot();
+  }
+
+  @Override
+  public int numSamples(final PublicKey account) {
+    return window(account).slots.length;
+  }
+
+  @Override
+  public long percentile(final PublicKey account, final double percentile) {
+    return window(account).percentile(percentile);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+}
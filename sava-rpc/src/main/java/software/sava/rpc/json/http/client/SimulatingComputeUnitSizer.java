@@ -0,0 +1,288 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.SolanaAccounts;
+import software.sava.core.encoding.ByteUtil;
+import software.sava.core.tx.Instruction;
+import software.sava.core.tx.Transaction;
+import software.sava.core.tx.TransactionTemplate;
+import software.sava.rpc.json.http.response.TxSimulation;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static software.sava.core.accounts.PublicKey.PUBLIC_KEY_LENGTH;
+
+final class SimulatingComputeUnitSizer implements ComputeUnitSizer {
+
+  private final SolanaRpcClient rpcClient;
+  private final SolanaAccounts solanaAccounts;
+  private final PublicKey computeBudgetProgram;
+  private final double margin;
+  private final int minMarginUnits;
+  private final int maxInFlight;
+  private final int maxCached;
+  private final Map<PublicKey, Integer> discriminatorLengths;
+  private final ConcurrentHashMap<Shape, Integer> cache;
+  private final ConcurrentHashMap<Shape, CompletableFuture<Integer>> simulating;
+  private final ReentrantLock lock;
+  private final ArrayDeque<Runnable> queued;
+  private int running;
+
+  SimulatingComputeUnitSizer(final SolanaRpcClient rpcClient,
+                             final SolanaAccounts solanaAccounts,
+                             final double margin,
+                             final int minMarginUnits,
+                             final int maxInFlight,
+                             final int maxCached,
+                             final Map<PublicKey, Integer> discriminatorLengths) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be positive, not: " + maxInFlight);
+    }
+    this.rpcClient = rpcClient;
+    this.solanaAccounts = solanaAccounts;
+    this.computeBudgetProgram = solanaAccounts.computeBudgetProgram();
+    this.margin = margin;
+    this.minMarginUnits = minMarginUnits;
+    this.maxInFlight = maxInFlight;
+    this.maxCached = maxCached;
+    this.discriminatorLengths = Map.copyOf(discriminatorLengths);
+    this.cache = new ConcurrentHashMap<>(Math.max(16, maxCached));
+    this.simulating = new ConcurrentHashMap<>();
+    this.lock = new ReentrantLock();
+    this.queued = new ArrayDeque<>();
+  }
+
+  private record Shape(byte[] bytes, int hash) {
+
+    private Shape(final byte[] bytes) {
+      this(bytes, Arrays.hashCode(bytes));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Shape shape && Arrays.equals(bytes, shape.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private boolean isComputeBudget(final Instruction ix) {
+    return ix.programId().publicKey().equals(computeBudgetProgram);
+  }
+
+  private int discriminatorLength(final Instruction ix) {
+    final var programLength = discriminatorLengths.get(ix.programId().publicKey());
+    return Math.min(programLength == null ? DISCRIMINATOR_LENGTH : programLength, ix.len());
+  }
+
+  // Per instruction: program id, discriminator length and bytes, then the u16 number of accounts.
+  private Shape shape(final List<Instruction> instructions) {
+    int length = 0;
+    for (final var ix : instructions) {
+      if (!isComputeBudget(ix)) {
+        length += PUBLIC_KEY_LENGTH + 1 + discriminatorLength(ix) + Short.BYTES;
+      }
+    }
+    final byte[] bytes = new byte[length];
+    int i = 0;
+    for (final var ix : instructions) {
+      if (!isComputeBudget(ix)) {
+        i += ix.programId().publicKey().write(bytes, i);
+        final int discriminatorLength = discriminatorLength(ix);
+        bytes[i++] = (byte) discriminatorLength;
+        System.arraycopy(ix.data(), ix.offset(), bytes, i, discriminatorLength);
+        i += discriminatorLength;
+        ByteUtil.putInt16LE(bytes, i, (short) ix.accounts().size());
+        i += Short.BYTES;
+      }
+    }
+    return new Shape(bytes);
+  }
+
+  private int indexOfComputeUnitLimit(final List<Instruction> instructions) {
+    int i = 0;
+    for (final var ix : instructions) {
+      if (isComputeBudget(ix)
+          && ix.len() == 1 + Integer.BYTES
+          && ix.data()[ix.offset()] == TransactionTemplate.SET_COMPUTE_UNIT_LIMIT) {
+        return i;
+      }
+      ++i;
+    }
+    return -1;
+  }
+
+  private Instruction computeUnitLimitIx(final int computeUnitLimit) {
+    final byte[] data = new byte[1 + Integer.BYTES];
+    data[0] = TransactionTemplate.SET_COMPUTE_UNIT_LIMIT;
+    ByteUtil.putInt32LE(data, 1, computeUnitLimit);
+    return Instruction.createInstruction(solanaAccounts.invokedComputeBudgetProgram(), List.of(), data);
+  }
+
+  private Transaction withComputeUnitLimit(final Transaction transaction, final int computeUnitLimit) {
+    final var instructions = transaction.instructions();
+    final int index = indexOfComputeUnitLimit(instructions);
+    return index < 0
+        ? transaction.prependIx(computeUnitLimitIx(computeUnitLimit))
+        : transaction.replaceInstruction(index, computeUnitLimitIx(computeUnitLimit));
+  }
+
+  @Override
+  public int computeUnitLimit(final int unitsConsumed) {
+    final long marginUnits = Math.max(minMarginUnits, (long) Math.ceil(unitsConsumed * margin));
+    return (int) Math.min(MAX_COMPUTE_UNIT_LIMIT, unitsConsumed + marginUnits);
+  }
+
+  private String simulationTx(final Transaction transaction) {
+    final byte[] tx;
+    if (indexOfComputeUnitLimit(transaction.instructions()) < 0) {
+      tx = transaction.prependIx(computeUnitLimitIx(MAX_COMPUTE_UNIT_LIMIT)).serialized();
+    } else {
+      final var template = TransactionTemplate.compile(transaction.serialized(), computeBudgetProgram);
+      tx = template.stamp();
+      template.setComputeUnitLimit(tx, MAX_COMPUTE_UNIT_LIMIT);
+    }
+    return Base64.getEncoder().encodeToString(tx);
+  }
+
+  private int parseSimulation(final TxSimulation simulation) {
+    if (simulation.error() != null) {
+      throw new IllegalStateException("Simulation failed: " + simulation.error());
+    }
+    final var unitsConsumed = simulation.unitsConsumed();
+    if (unitsConsumed.isEmpty()) {
+      throw new IllegalStateException("Simulation did not report units consumed.");
+    }
+    return computeUnitLimit(unitsConsumed.getAsInt());
+  }
+
+  private void cache(final Shape shape, final int computeUnitLimit) {
+    if (maxCached <= 0) {
+      return;
+    }
+    if (cache.size() >= maxCached) {
+      // Evict an arbitrary entry rather than track recency.
+      final var iterator = cache.keySet().iterator();
+      if (iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+    cache.put(shape, computeUnitLimit);
+  }
+
+  private void submit(final Runnable simulation) {
+    lock.lock();
+    try {
+      queued.addLast(simulation);
+    } finally {
+      lock.unlock();
+    }
+    drain();
+  }
+
+  private void drain() {
+    for (; ; ) {
+      final Runnable next;
+      lock.lock();
+      try {
+        if (running >= maxInFlight || (next = queued.pollFirst()) == null) {
+          return;
+        }
+        ++running;
+      } finally {
+        lock.unlock();
+      }
+      next.run();
+    }
+  }
+
+  private void release() {
+    lock.lock();
+    try {
+      --running;
+    } finally {
+      lock.unlock();
+    }
+    drain();
+  }
+
+  private CompletableFuture<Integer> simulate(final Shape shape, final Transaction transaction) {
+    final var result = new CompletableFuture<Integer>();
+    final var existing = simulating.putIfAbsent(shape, result);
+    if (existing != null) {
+      return existing;
+    }
+    submit(() -> {
+      final CompletableFuture<TxSimulation> simulation;
+      try {
+        simulation = rpcClient.simulateTransaction(simulationTx(transaction), true);
+      } catch (final RuntimeException ex) {
+        simulating.remove(shape, result);
+        release();
+        result.completeExceptionally(ex);
+        return;
+      }
+      simulation.thenApply(this::parseSimulation).whenComplete((computeUnitLimit, ex) -> {
+        if (ex == null) {
+          cache(shape, computeUnitLimit);
+        }
+        simulating.remove(shape, result);
+        release();
+        if (ex == null) {
+          result.complete(computeUnitLimit);
+        } else {
+          result.completeExceptionally(ex);
+        }
+      });
+    });
+    return result;
+  }
+
+  @Override
+  public CompletableFuture<Integer> computeUnitLimit(final Transaction transaction) {
+    final var shape = shape(transaction.instructions());
+    final var cached = cache.get(shape);
+    return cached == null ? simulate(shape, transaction) : CompletableFuture.completedFuture(cached);
+  }
+
+  @Override
+  public CompletableFuture<Transaction> size(final Transaction transaction) {
+    return computeUnitLimit(transaction).thenApply(computeUnitLimit -> withComputeUnitLimit(transaction, computeUnitLimit));
+  }
+
+  @Override
+  public void invalidate(final Transaction transaction) {
+    cache.remove(shape(transaction.instructions()));
+  }
+
+  @Override
+  public void clearCache() {
+    cache.clear();
+  }
+
+  @Override
+  public int numCached() {
+    return cache.size();
+  }
+
+  @Override
+  public int numPending() {
+    lock.lock();
+    try {
+      return running + queued.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -23,18 +23,24 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import static java.lang.String.format;
-import static java.net.http.HttpRequest.BodyPublishers.ofString;
 import static java.net.http.HttpResponse.BodyHandlers.ofByteArray;
+import static java.net.http.HttpResponse.BodyHandlers.ofInputStream;
 import static java.util.Objects.requireNonNullElse;
-import static software.sava.core.rpc.Filter.MAX_MEM_COMP_LENGTH;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static software.sava.rpc.json.PublicKeyEncoding.parseBase58Encoded;
 import static software.sava.rpc.json.http.response.AccountInfo.BYTES_IDENTITY;
 
@@ -42,6 +48,11 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(8);
   static final Duration PROGRAM_ACCOUNTS_TIMEOUT = Duration.ofSeconds(120);
+  static final int MAX_MIN_CONTEXT_SLOT_RETRIES = 3;
+  // Roughly one slot, for nodes which have not yet caught up to a chunk's minimum context slot.
+  private static final Executor MIN_CONTEXT_SLOT_RETRY_EXECUTOR = CompletableFuture.delayedExecutor(400, MILLISECONDS);
+  // Streamed responses block on the network while parsing.
+  private static final Executor STREAM_PARSE_EXECUTOR = runnable -> Thread.ofVirtual().start(runnable);
 
   private static final Function<HttpResponse<byte[]>, LatestBlockHash> LATEST_BLOCK_HASH = applyResponseValue(LatestBlockHash::parse);
   private static final Function<HttpResponse<byte[]>, Lamports> CONTEXT_LONG_VAL = applyResponseValue(Lamports::parse);
@@ -103,20 +114,76 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   final AtomicLong id;
   private final Commitment defaultCommitment;
+  private final JsonRpcTransport transport;
+  private final JsonRpcBatcher batcher;
   private final Function<HttpResponse<byte[]>, String> sendTxResponseParser;
   private final Function<HttpResponse<byte[]>, LatestBlockHash> latestBlockhashResponseParser;
 
+  private SolanaJsonRpcClient(final URI endpoint,
+                              final HttpClient httpClient,
+                              final Duration requestTimeout,
+                              final UnaryOperator<HttpRequest.Builder> extendRequest,
+                              final Predicate<HttpResponse<byte[]>> applyResponse,
+                              final Commitment defaultCommitment,
+                              final AtomicLong id,
+                              final JsonRpcTransport transport,
+                              final JsonRpcBatcher batcher) {
+    super(endpoint, httpClient, requestTimeout, extendRequest, applyResponse);
+    this.id = id;
+    this.defaultCommitment = defaultCommitment;
+    this.transport = transport == null ? this::sendBody : transport;
+    this.batcher = batcher;
+    this.latestBlockhashResponseParser = wrapParser(LATEST_BLOCK_HASH);
+    this.sendTxResponseParser = wrapParser(SEND_TX_RESPONSE_PARSER);
+  }
+
   SolanaJsonRpcClient(final URI endpoint,
                       final HttpClient httpClient,
                       final Duration requestTimeout,
                       final UnaryOperator<HttpRequest.Builder> extendRequest,
                       final Predicate<HttpResponse<byte[]>> applyResponse,
                       final Commitment defaultCommitment) {
-    super(endpoint, httpClient, requestTimeout, extendRequest, applyResponse);
-    this.id = new AtomicLong(System.currentTimeMillis());
-    this.defaultCommitment = defaultCommitment;
-    this.latestBlockhashResponseParser = wrapParser(LATEST_BLOCK_HASH);
-    this.sendTxResponseParser = wrapParser(SEND_TX_RESPONSE_PARSER);
+    this(
+        endpoint, httpClient, requestTimeout, extendRequest, applyResponse, defaultCommitment,
+        new AtomicLong(System.currentTimeMillis()), null, null
+    );
+  }
+
+  static SolanaJsonRpcClient createBalancedClient(final List<SolanaJsonRpcClient> nodes,
+                                                  final Predicate<HttpResponse<byte[]>> applyResponse,
+                                                  final boolean hedgeReads) {
+    // Every request is sent through a node's own client, so each keeps its endpoint and request extension.
+    final var first = nodes.getFirst();
+    return new SolanaJsonRpcClient(
+        first.endpoint, first.httpClient, first.requestTimeout, null, applyResponse, first.defaultCommitment,
+        new AtomicLong(System.currentTimeMillis()), new BalancedJsonRpcTransport(nodes, hedgeReads), null
+    );
+  }
+
+  CompletableFuture<HttpResponse<byte[]>> sendBody(final HttpRequest.BodyPublisher body, final Duration requestTimeout) {
+    return httpClient.sendAsync(newPostRequest(endpoint, requestTimeout, body), ofByteArray());
+  }
+
+  private JsonRpcBatcher createBatcher(final int maxBatchSize, final Duration window) {
+    return new JsonRpcBatcher(
+        batcher -> new SolanaJsonRpcClient(
+            endpoint, httpClient, requestTimeout, extendRequest, applyResponse, defaultCommitment,
+            id, transport, batcher
+        ),
+        transport,
+        maxBatchSize,
+        window
+    );
+  }
+
+  @Override
+  public SolanaRpcBatch createBatch(final int maxBatchSize) {
+    return createBatcher(maxBatchSize, null);
+  }
+
+  @Override
+  public SolanaRpcClient createCoalescingClient(final int maxBatchSize, final Duration window) {
+    return createBatcher(maxBatchSize, Objects.requireNonNull(window)).rpcClient();
   }
 
   @Override
@@ -124,6 +191,42 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
     return defaultCommitment;
   }
 
+  private JsonRpcRequestWriter newRequestBody(final String method) {
+    return JsonRpcRequestWriter.acquire().begin(id.incrementAndGet(), method);
+  }
+
+  private static <R> Function<HttpResponse<byte[]>, R> releaseBody(final JsonRpcRequestWriter body,
+                                                                   final Function<HttpResponse<byte[]>, R> parser) {
+    return response -> {
+      body.release();
+      return parser.apply(response);
+    };
+  }
+
+  private <R> CompletableFuture<R> send(final Function<HttpResponse<byte[]>, R> parser,
+                                        final Duration requestTimeout,
+                                        final JsonRpcRequestWriter body) {
+    return batcher == null
+        ? transport.send(body, requestTimeout).thenApply(releaseBody(body, parser))
+        : batcher.enqueue(body, requestTimeout, parser);
+  }
+
+  private <R> CompletableFuture<R> sendPostRequest(final Function<HttpResponse<byte[]>, R> parser,
+                                                   final Duration requestTimeout,
+                                                   final JsonRpcRequestWriter body) {
+    return send(wrapParser(parser), requestTimeout, body);
+  }
+
+  private <R> CompletableFuture<R> sendPostRequest(final Function<HttpResponse<byte[]>, R> parser,
+                                                   final JsonRpcRequestWriter body) {
+    return sendPostRequest(parser, requestTimeout, body);
+  }
+
+  private <R> CompletableFuture<R> sendPostRequestNoWrap(final Function<HttpResponse<byte[]>, R> parser,
+                                                         final JsonRpcRequestWriter body) {
+    return send(parser, requestTimeout, body);
+  }
+
   @Override
   public CompletableFuture<NodeHealth> getHealth() {
     return getHealth(this.requestTimeout);
@@ -131,10 +234,7 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<NodeHealth> getHealth(final Duration requestTimeout) {
-    return sendPostRequest(SolanaJsonRpcClient.NODE_HEALTH, requestTimeout, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getHealth"}""", id.incrementAndGet()
-        )
-    );
+    return sendPostRequest(SolanaJsonRpcClient.NODE_HEALTH, requestTimeout, newRequestBody("getHealth").end());
   }
 
   @Override
@@ -234,43 +334,24 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                                               final int offset,
                                                               final PublicKey account,
                                                               final BiFunction<PublicKey, byte[], T> factory) {
-    final var builder = new StringBuilder(256);
-    builder.append("""
-        {"jsonrpc":"2.0","id":""");
-    builder.append(id.incrementAndGet());
-
-    builder.append("""
-        ,"method":"getAccountInfo","params":[""");
-    builder.append('"');
-    builder.append(account.toBase58());
-    builder.append('"');
-
-    builder.append("""
-        ,{"encoding":"base64","commitment":\"""");
-    builder.append(commitment.getValue());
-    builder.append('"');
-
+    final var body = newRequestBody("getAccountInfo")
+        .params()
+        .key(account)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .commitment(commitment);
     if (minContextSlot != null) {
-      builder.append("""
-          ,"minContextSlot":""");
-      builder.append(minContextSlot);
+      body.field("minContextSlot", minContextSlot);
     }
-
     if (length != 0) {
-      builder.append("""
-          ,"dataSlice":{"length":""");
-      builder.append(length);
-      builder.append("""
-          ,"offset":""");
-      builder.append(offset);
-      builder.append('}');
+      body.dataSlice(length, offset);
     }
-
-    builder.append("}]}");
+    body.endObject().endParams();
 
     return sendPostRequest(
         applyResponseValue((ji, context) -> AccountInfo.parse(account, ji, context, factory)),
-        builder.toString()
+        body
     );
   }
 
@@ -281,10 +362,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Lamports> getBalance(final Commitment commitment, final PublicKey account) {
-    return sendPostRequest(CONTEXT_LONG_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBalance","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), account, commitment.getValue()
-        )
+    return sendPostRequest(CONTEXT_LONG_VAL, newRequestBody("getBalance")
+        .params()
+        .key(account)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -317,10 +400,17 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                            final long slot,
                                            final BlockTxDetails blockTxDetails,
                                            final boolean rewards) {
-    return sendPostRequest(BLOCK, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlock","params":[%d,{"encoding":"base64","commitment":"%s","transactionDetails":"%s","rewards":%b}]}""",
-            id.incrementAndGet(), slot, commitment.getValue(), blockTxDetails, rewards
-        )
+    return sendPostRequest(BLOCK, newRequestBody("getBlock")
+        .params()
+        .number(slot)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .commitment(commitment)
+        .field("transactionDetails", blockTxDetails.name())
+        .field("rewards", rewards)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -331,10 +421,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<BlockHeight> getBlockHeight(final Commitment commitment) {
-    return sendPostRequest(BLOCK_HEIGHT, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlockHeight","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(BLOCK_HEIGHT, newRequestBody("getBlockHeight")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -345,10 +435,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<BlockProduction> getBlockProduction(final Commitment commitment) {
-    return sendPostRequest(BLOCK_PRODUCTION, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlockProduction","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(BLOCK_PRODUCTION, newRequestBody("getBlockProduction")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -359,10 +449,13 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<BlockProduction> getBlockProduction(final Commitment commitment, final PublicKey identity) {
-    return sendPostRequest(BLOCK_PRODUCTION, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlockProduction","params":[{"commitment":"%s","identity":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue(), identity
-        )
+    return sendPostRequest(BLOCK_PRODUCTION, newRequestBody("getBlockProduction")
+        .params()
+        .beginObject()
+        .commitment(commitment)
+        .field("identity", identity)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -373,10 +466,13 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<BlockProduction> getBlockProduction(final Commitment commitment, final long firstSlot) {
-    return sendPostRequest(BLOCK_PRODUCTION, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlockProduction","params":[{"commitment":"%s","firstSlot":%d}]}""",
-            id.incrementAndGet(), commitment.getValue(), firstSlot
-        )
+    return sendPostRequest(BLOCK_PRODUCTION, newRequestBody("getBlockProduction")
+        .params()
+        .beginObject()
+        .commitment(commitment)
+        .field("firstSlot", firstSlot)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -389,18 +485,23 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<BlockProduction> getBlockProduction(final Commitment commitment,
                                                                final PublicKey identity,
                                                                final long firstSlot) {
-    return sendPostRequest(BLOCK_PRODUCTION, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlockProduction","params":[{"commitment":"%s","identity":"%s","firstSlot":%d}]}""",
-            id.incrementAndGet(), commitment.getValue(), identity, firstSlot
-        )
+    return sendPostRequest(BLOCK_PRODUCTION, newRequestBody("getBlockProduction")
+        .params()
+        .beginObject()
+        .commitment(commitment)
+        .field("identity", identity)
+        .field("firstSlot", firstSlot)
+        .endObject()
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<BlockCommitment> getBlockCommitment(final long slot) {
-    return sendPostRequest(BLOCK_COMMITMENT, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getBlockCommitment","params":[%d]}""", id.incrementAndGet(), slot
-        )
+    return sendPostRequest(BLOCK_COMMITMENT, newRequestBody("getBlockCommitment")
+        .params()
+        .number(slot)
+        .endParams()
     );
   }
 
@@ -411,10 +512,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<long[]> getBlocks(final Commitment commitment, final long startSlot) {
-    return sendPostRequest(LONG_ARRAY, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlocks","params":[%d,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), startSlot, commitment.getValue()
-        )
+    return sendPostRequest(LONG_ARRAY, newRequestBody("getBlocks")
+        .params()
+        .number(startSlot)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -425,10 +528,14 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<long[]> getBlocks(final Commitment commitment, final long startSlot, final long endSlot) {
-    return sendPostRequest(LONG_ARRAY, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlocks","params":[%d,%d,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), startSlot, Math.min(endSlot, startSlot + 500_000), commitment.getValue()
-        )
+    return sendPostRequest(LONG_ARRAY, newRequestBody("getBlocks")
+        .params()
+        .number(startSlot)
+        .comma()
+        .number(Math.min(endSlot, startSlot + 500_000))
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -441,26 +548,30 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<long[]> getBlocksWithLimit(final Commitment commitment,
                                                       final long startSlot,
                                                       final long limit) {
-    return sendPostRequest(LONG_ARRAY, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getBlocksWithLimit","params":[%d,%d,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), startSlot, Math.min(limit, 500_000), commitment.getValue()
-        )
+    return sendPostRequest(LONG_ARRAY, newRequestBody("getBlocksWithLimit")
+        .params()
+        .number(startSlot)
+        .comma()
+        .number(Math.min(limit, 500_000))
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<Instant> getBlockTime(final long slot) {
-    return sendPostRequest(INSTANT, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getBlockTime","params":[%d]}""", id.incrementAndGet(), slot
-        )
+    return sendPostRequest(INSTANT, newRequestBody("getBlockTime")
+        .params()
+        .number(slot)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<List<ClusterNode>> getClusterNodes() {
-    return sendPostRequest(CLUSTER_NODES, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getClusterNodes"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(CLUSTER_NODES, newRequestBody("getClusterNodes")
+        .end()
     );
   }
 
@@ -471,18 +582,17 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<EpochInfo> getEpochInfo(final Commitment commitment) {
-    return sendPostRequest(EPOCH_INFO, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getEpochInfo","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(EPOCH_INFO, newRequestBody("getEpochInfo")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<EpochSchedule> getEpochSchedule() {
-    return sendPostRequest(EPOCH_SCHEDULE, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getEpochSchedule"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(EPOCH_SCHEDULE, newRequestBody("getEpochSchedule")
+        .end()
     );
   }
 
@@ -493,42 +603,40 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<FeeForMessage> getFeeForMessage(final Commitment commitment, final String base64Msg) {
-    return sendPostRequest(FEE_FOR_MESSAGE, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getFeeForMessage","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), base64Msg, commitment.getValue()
-        )
+    return sendPostRequest(FEE_FOR_MESSAGE, newRequestBody("getFeeForMessage")
+        .params()
+        .string(base64Msg)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<Long> getFirstAvailableBlock() {
-    return sendPostRequest(LONG_VAL, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getFirstAvailableBlock"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getFirstAvailableBlock")
+        .end()
     );
   }
 
   @Override
   public CompletableFuture<String> getGenesisHash() {
-    return sendPostRequest(STRING, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getGenesisHash"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(STRING, newRequestBody("getGenesisHash")
+        .end()
     );
   }
 
   @Override
   public CompletableFuture<HighestSnapshotSlot> getHighestSnapshotSlot() {
-    return sendPostRequest(HIGHEST_SNAPSHOT_SLOT, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getHighestSnapshotSlot"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(HIGHEST_SNAPSHOT_SLOT, newRequestBody("getHighestSnapshotSlot")
+        .end()
     );
   }
 
   @Override
   public CompletableFuture<Identity> getIdentity() {
-    return sendPostRequest(IDENTITY, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getIdentity"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(IDENTITY, newRequestBody("getIdentity")
+        .end()
     );
   }
 
@@ -539,18 +647,17 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<InflationGovernor> getInflationGovernor(final Commitment commitment) {
-    return sendPostRequest(INFLATION_GOVERNOR, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getInflationGovernor","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(INFLATION_GOVERNOR, newRequestBody("getInflationGovernor")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<InflationRate> getInflationRate() {
-    return sendPostRequest(INFLATION_RATE, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getInflationRate"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(INFLATION_RATE, newRequestBody("getInflationRate")
+        .end()
     );
   }
 
@@ -559,19 +666,15 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
     return getInflationReward(defaultCommitment, keys);
   }
 
-  private String joinKeys(final SequencedCollection<PublicKey> keys) {
-    return keys == null || keys.isEmpty() ? "[]" : keys.stream()
-        .map(PublicKey::toBase58)
-        .collect(Collectors.joining("\",\"", "[\"", "\"]"));
-  }
-
   @Override
   public CompletableFuture<List<InflationReward>> getInflationReward(final Commitment commitment,
                                                                      final SequencedCollection<PublicKey> keys) {
-    return sendPostRequest(INFLATION_REWARDS, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getInflationReward","params":[%s,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), joinKeys(keys), commitment.getValue()
-        )
+    return sendPostRequest(INFLATION_REWARDS, newRequestBody("getInflationReward")
+        .params()
+        .keys(keys)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -585,10 +688,15 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<InflationReward>> getInflationReward(final Commitment commitment,
                                                                      final SequencedCollection<PublicKey> keys,
                                                                      final long epoch) {
-    return sendPostRequest(INFLATION_REWARDS, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getInflationReward","params":[%s,{"commitment":"%s","epoch":%d}]}""",
-            id.incrementAndGet(), joinKeys(keys), commitment.getValue(), epoch
-        )
+    return sendPostRequest(INFLATION_REWARDS, newRequestBody("getInflationReward")
+        .params()
+        .keys(keys)
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("epoch", epoch)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -599,10 +707,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<List<AccountLamports>> getLargestAccounts(final Commitment commitment) {
-    return sendPostRequest(TOP_LAMPORT_ACCOUNTS, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLargestAccounts","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(TOP_LAMPORT_ACCOUNTS, newRequestBody("getLargestAccounts")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -613,10 +721,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<LatestBlockHash> getLatestBlockHash(final Commitment commitment) {
-    return sendPostRequestNoWrap(latestBlockhashResponseParser, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLatestBlockhash","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequestNoWrap(latestBlockhashResponseParser, newRequestBody("getLatestBlockhash")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -627,10 +735,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Map<PublicKey, long[]>> getLeaderSchedule(final Commitment commitment) {
-    return sendPostRequest(LEADER_SCHEDULE, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLeaderSchedule","params":[null,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(LEADER_SCHEDULE, newRequestBody("getLeaderSchedule")
+        .params()
+        .ascii("null")
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -641,10 +751,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Map<PublicKey, long[]>> getLeaderSchedule(final Commitment commitment, final long slot) {
-    return sendPostRequest(LEADER_SCHEDULE, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLeaderSchedule","params":[%d,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), slot, commitment.getValue()
-        )
+    return sendPostRequest(LEADER_SCHEDULE, newRequestBody("getLeaderSchedule")
+        .params()
+        .number(slot)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -657,10 +769,15 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<Map<PublicKey, long[]>> getLeaderSchedule(final Commitment commitment,
                                                                      final long slot,
                                                                      final PublicKey identity) {
-    return sendPostRequest(LEADER_SCHEDULE, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLeaderSchedule","params":[%d,{"commitment":"%s","identity":"%s"}]}""",
-            id.incrementAndGet(), slot, commitment.getValue(), identity
-        )
+    return sendPostRequest(LEADER_SCHEDULE, newRequestBody("getLeaderSchedule")
+        .params()
+        .number(slot)
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("identity", identity)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -672,35 +789,38 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   @Override
   public CompletableFuture<Map<PublicKey, long[]>> getLeaderSchedule(final Commitment commitment,
                                                                      final PublicKey identity) {
-    return sendPostRequest(LEADER_SCHEDULE, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getLeaderSchedule","params":[null,{"commitment":"%s","identity":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue(), identity
-        )
+    return sendPostRequest(LEADER_SCHEDULE, newRequestBody("getLeaderSchedule")
+        .params()
+        .ascii("null")
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("identity", identity)
+        .endObject()
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<Long> getMaxRetransmitSlot() {
-    return sendPostRequest(LONG_VAL, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getMaxRetransmitSlot"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getMaxRetransmitSlot")
+        .end()
     );
   }
 
   @Override
   public CompletableFuture<Long> getMaxShredInsertSlot() {
-    return sendPostRequest(LONG_VAL, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getMaxShredInsertSlot"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getMaxShredInsertSlot")
+        .end()
     );
   }
 
   @Override
   public CompletableFuture<Long> getMinimumBalanceForRentExemption(final long accountLength) {
-    return sendPostRequest(LONG_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getMinimumBalanceForRentExemption","params":[%d]}""",
-            id.incrementAndGet(), accountLength
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getMinimumBalanceForRentExemption")
+        .params()
+        .number(accountLength)
+        .endParams()
     );
   }
 
@@ -826,50 +946,22 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
       throw new IllegalArgumentException("keys must not be empty");
     }
 
-    final var builder = new StringBuilder(512);
-    builder.append("""
-        {"jsonrpc":"2.0","id":""");
-    builder.append(id.incrementAndGet());
-
-    builder.append("""
-        ,"method":"getMultipleAccounts","params":[[""");
-    final var iterator = keys.iterator();
-    for (PublicKey key; ; ) {
-      key = iterator.next();
-      builder.append('"');
-      builder.append(key.toBase58());
-      builder.append('"');
-      if (iterator.hasNext()) {
-        builder.append(',');
-      } else {
-        break;
-      }
-    }
-
-    builder.append("""
-        ],{"encoding":"base64","commitment":\"""");
-    builder.append(commitment.getValue());
-    builder.append('"');
-
+    final var body = newRequestBody("getMultipleAccounts")
+        .params()
+        .keys(keys)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .commitment(commitment);
     if (minContextSlot != null) {
-      builder.append("""
-          ,"minContextSlot":""");
-      builder.append(minContextSlot);
+      body.field("minContextSlot", minContextSlot);
     }
-
     if (length != 0) {
-      builder.append("""
-          ,"dataSlice":{"length":""");
-      builder.append(length);
-      builder.append("""
-          ,"offset":""");
-      builder.append(offset);
-      builder.append('}');
+      body.dataSlice(length, offset);
     }
+    body.endObject().endParams();
 
-    builder.append("}]}");
-
-    return sendPostRequest(applyResponseValue(adapter), builder.toString());
+    return sendPostRequest(applyResponseValue(adapter), body);
   }
 
   @Override
@@ -984,6 +1076,165 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
     );
   }
 
+  @Override
+  public <T> CompletableFuture<List<AccountInfo<T>>> getAccountsChunked(final Commitment commitment,
+                                                                        final BigInteger minContextSlot,
+                                                                        final int length,
+                                                                        final int offset,
+                                                                        final SequencedCollection<PublicKey> keys,
+                                                                        final int maxConcurrency,
+                                                                        final BiFunction<PublicKey, byte[], T> factory) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive, not: " + maxConcurrency);
+    }
+    if (keys.size() <= MAX_MULTIPLE_ACCOUNTS) {
+      return getAccounts(commitment, minContextSlot, length, offset, keys, factory);
+    }
+    final var chunkedAccounts = new ChunkedAccounts<>(
+        commitment,
+        minContextSlot == null ? 0 : minContextSlot.longValueExact(),
+        length, offset,
+        List.copyOf(keys),
+        maxConcurrency,
+        factory
+    );
+    chunkedAccounts.start();
+    return chunkedAccounts.result;
+  }
+
+  private static boolean isMinContextSlotNotReached(final Throwable ex) {
+    final var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    return cause instanceof JsonRpcException rpcException
+        && rpcException.customError() instanceof RpcCustomError.MinContextSlotNotReached;
+  }
+
+  /**
+   * The first pass fetches every chunk, each requiring the highest context slot observed so far.  Chunks served from a
+   * slot below the highest slot observed by the first pass are then re-fetched with that slot as their minimum.
+   */
+  private final class ChunkedAccounts<T> {
+
+    private final Commitment commitment;
+    private final AtomicLong minContextSlot;
+    private final int length;
+    private final int offset;
+    private final List<PublicKey> keys;
+    private final int maxConcurrency;
+    private final BiFunction<PublicKey, byte[], T> factory;
+    private final AtomicReferenceArray<List<AccountInfo<T>>> chunks;
+    private final AtomicLongArray chunkSlots;
+    private final CompletableFuture<List<AccountInfo<T>>> result;
+    // Zero during the first pass, afterward the slot every chunk must have been served from.
+    private volatile long targetSlot;
+
+    private ChunkedAccounts(final Commitment commitment,
+                            final long minContextSlot,
+                            final int length,
+                            final int offset,
+                            final List<PublicKey> keys,
+                            final int maxConcurrency,
+                            final BiFunction<PublicKey, byte[], T> factory) {
+      this.commitment = commitment;
+      this.minContextSlot = new AtomicLong(minContextSlot);
+      this.length = length;
+      this.offset = offset;
+      this.keys = keys;
+      this.maxConcurrency = maxConcurrency;
+      this.factory = factory;
+      final int numChunks = (keys.size() + MAX_MULTIPLE_ACCOUNTS - 1) / MAX_MULTIPLE_ACCOUNTS;
+      this.chunks = new AtomicReferenceArray<>(numChunks);
+      this.chunkSlots = new AtomicLongArray(numChunks);
+      this.result = new CompletableFuture<>();
+    }
+
+    private void start() {
+      final var pass = new Pass(IntStream.range(0, chunks.length()).toArray());
+      pass.start();
+    }
+
+    private final class Pass {
+
+      private final int[] chunkIndexes;
+      private final AtomicInteger next;
+      private final AtomicInteger remaining;
+
+      private Pass(final int[] chunkIndexes) {
+        this.chunkIndexes = chunkIndexes;
+        this.next = new AtomicInteger();
+        this.remaining = new AtomicInteger(chunkIndexes.length);
+      }
+
+      private void start() {
+        for (int i = 0; i < maxConcurrency && i < chunkIndexes.length; ++i) {
+          fetchNext();
+        }
+      }
+
+      private void fetchNext() {
+        final int i = next.getAndIncrement();
+        if (i < chunkIndexes.length && !result.isDone()) {
+          fetch(chunkIndexes[i], 0);
+        }
+      }
+
+      private void fetch(final int chunk, final int retries) {
+        final int from = chunk * MAX_MULTIPLE_ACCOUNTS;
+        final var chunkKeys = keys.subList(from, Math.min(from + MAX_MULTIPLE_ACCOUNTS, keys.size()));
+        final long minSlot = minContextSlot.get();
+        getAppliedAccounts(
+            commitment, minSlot == 0 ? null : BigInteger.valueOf(minSlot), length, offset, chunkKeys,
+            (ji, context) -> {
+              chunkSlots.set(chunk, context.slot());
+              if (targetSlot == 0) {
+                minContextSlot.accumulateAndGet(context.slot(), Math::max);
+              }
+              return AccountInfo.parseAccountsFromKeysWithNulls(chunkKeys, ji, context, factory);
+            }
+        ).whenComplete((accounts, ex) -> {
+          if (ex != null) {
+            if (retries < MAX_MIN_CONTEXT_SLOT_RETRIES && isMinContextSlotNotReached(ex)) {
+              MIN_CONTEXT_SLOT_RETRY_EXECUTOR.execute(() -> fetch(chunk, retries + 1));
+            } else {
+              result.completeExceptionally(ex);
+            }
+          } else if (accounts == null) {
+            result.complete(null);
+          } else {
+            chunks.set(chunk, accounts);
+            if (remaining.decrementAndGet() == 0) {
+              completePass();
+            } else {
+              fetchNext();
+            }
+          }
+        });
+      }
+    }
+
+    private void completePass() {
+      final long targetSlot = this.targetSlot == 0 ? minContextSlot.get() : this.targetSlot;
+      final var staleChunks = IntStream.range(0, chunks.length())
+          .filter(chunk -> chunkSlots.get(chunk) < targetSlot)
+          .toArray();
+      if (staleChunks.length == 0) {
+        final var allAccounts = new ArrayList<AccountInfo<T>>(keys.size());
+        for (int i = 0; i < chunks.length(); ++i) {
+          allAccounts.addAll(chunks.get(i));
+        }
+        result.complete(allAccounts);
+      } else if (this.targetSlot != 0) {
+        final int chunk = staleChunks[0];
+        result.completeExceptionally(new IllegalStateException(String.format(
+            "Accounts chunk %d was served from slot %d, below the required minimum context slot %d.",
+            chunk, chunkSlots.get(chunk), targetSlot
+        )));
+      } else {
+        this.targetSlot = targetSlot;
+        new Pass(staleChunks).start();
+      }
+    }
+  }
+
   @Override
   public <T> CompletableFuture<List<AccountInfo<T>>> getProgramAccounts(final Duration requestTimeout,
                                                                         final PublicKey programId,
@@ -1069,81 +1320,89 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                                                         final int length,
                                                                         final int offset,
                                                                         final BiFunction<PublicKey, byte[], T> factory) {
-    final int numFilters = filters == null ? 0 : filters.size();
-    final var builder = new StringBuilder(256 + (numFilters * MAX_MEM_COMP_LENGTH));
-
-    builder.append("""
-        {"jsonrpc":"2.0","id":""");
-    builder.append(id.incrementAndGet());
-
-    builder.append("""
-        ,"method":"getProgramAccounts","params":[\"""");
-    builder.append(programId.toBase58());
-
-    builder.append("""
-        ",{"withContext":true,"encoding":"base64","commitment":\"""");
-    builder.append(commitment.getValue());
-    builder.append('"');
+    final var body = programAccountsRequest(programId, commitment, minContextSlot, filters, length, offset);
+    return sendPostRequest(
+        applyResponseValue((ji, context) -> AccountInfo.parseAccounts(ji, context, factory)),
+        requireNonNullElse(requestTimeout, this.requestTimeout),
+        body
+    );
+  }
 
+  private JsonRpcRequestWriter programAccountsRequest(final PublicKey programId,
+                                                      final Commitment commitment,
+                                                      final BigInteger minContextSlot,
+                                                      final Collection<Filter> filters,
+                                                      final int length,
+                                                      final int offset) {
+    final var body = newRequestBody("getProgramAccounts")
+        .params()
+        .key(programId)
+        .comma()
+        .beginObject()
+        .field("withContext", true)
+        .field("encoding", "base64")
+        .commitment(commitment);
     if (minContextSlot != null) {
-      builder.append("""
-          ,"minContextSlot":""");
-      builder.append(minContextSlot);
+      body.field("minContextSlot", minContextSlot);
     }
-
     if (length != 0) {
-      builder.append("""
-          ,"dataSlice":{"length":""");
-      builder.append(length);
-      builder.append("""
-          ,"offset":""");
-      builder.append(offset);
-      builder.append('}');
+      body.dataSlice(length, offset);
     }
-
-    if (numFilters == 0) {
-      builder.append("}]}");
-    } else {
-      builder.append("""
-          ,"filters":[""");
-      final var iterator = filters.iterator();
-      for (Filter filter; ; ) {
-        filter = iterator.next();
-        builder.append(filter.toJson());
-        if (iterator.hasNext()) {
-          builder.append(',');
-        } else {
-          break;
-        }
-      }
-      builder.append("]}]}");
+    if (filters != null && !filters.isEmpty()) {
+      body.filters(filters);
     }
+    return body.endObject().endParams();
+  }
 
-    final var body = builder.toString();
-    final var request = newRequest("POST", ofString(body))
-        .timeout(requireNonNullElse(requestTimeout, this.requestTimeout))
-        .build();
-    return httpClient
-        .sendAsync(request, ofByteArray())
-        .thenApply(wrapParser(applyResponseValue((ji, context) -> AccountInfo.parseAccounts(ji, context, factory))));
+  @Override
+  public <T> CompletableFuture<Context> streamProgramAccounts(final Duration requestTimeout,
+                                                              final PublicKey programId,
+                                                              final Commitment commitment,
+                                                              final long minContextSlot,
+                                                              final Collection<Filter> filters,
+                                                              final int length,
+                                                              final int offset,
+                                                              final BiFunction<PublicKey, byte[], T> factory,
+                                                              final Consumer<AccountInfo<T>> consumer) {
+    if (transport instanceof BalancedJsonRpcTransport balancedTransport) {
+      return balancedTransport.route(node -> node.streamProgramAccounts(
+          requestTimeout, programId, commitment, minContextSlot, filters, length, offset, factory, consumer
+      ));
+    }
+    final var body = programAccountsRequest(
+        programId,
+        commitment,
+        minContextSlot == 0 ? null : new BigInteger(Long.toUnsignedString(minContextSlot)),
+        filters,
+        length,
+        offset
+    );
+    final var request = newPostRequest(endpoint, requireNonNullElse(requestTimeout, this.requestTimeout), body);
+    final var parser = new JsonRpcStreamValueParseController<>((ji, context) -> {
+      AccountInfo.parseAccounts(ji, context, factory, consumer);
+      return context;
+    });
+    // Streamed requests bypass batching, the body is sent as-is to this endpoint.
+    return httpClient.sendAsync(request, ofInputStream())
+        .whenComplete((response, throwable) -> body.release())
+        .thenApplyAsync(parser, STREAM_PARSE_EXECUTOR);
   }
 
   @Override
   public CompletableFuture<List<PerfSample>> getRecentPerformanceSamples(final int limit) {
-    return sendPostRequest(PERF_SAMPLE, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getRecentPerformanceSamples","params":[%d]}""", id.incrementAndGet(), Math.min(limit, 720)
-        )
+    return sendPostRequest(PERF_SAMPLE, newRequestBody("getRecentPerformanceSamples")
+        .params()
+        .number(Math.min(limit, 720))
+        .endParams()
     );
   }
 
   private CompletableFuture<List<PrioritizationFee>> recentPrioritizationFees(final Collection<PublicKey> writablePublicKeys) {
-    final var params = writablePublicKeys == null || writablePublicKeys.isEmpty() ? "" : writablePublicKeys.stream()
-        .map(PublicKey::toBase58)
-        .collect(Collectors.joining("\",\"", "[\"", "\"]"));
-    final var body = format("""
-        {"jsonrpc":"2.0","id":%d,"method":"getRecentPrioritizationFees","params":[%s]}""", id.incrementAndGet(), params
-    );
-    return sendPostRequest(PRIORITIZATION_FEE, body);
+    final var body = newRequestBody("getRecentPrioritizationFees").params();
+    if (writablePublicKeys != null && !writablePublicKeys.isEmpty()) {
+      body.keys(writablePublicKeys);
+    }
+    return sendPostRequest(PRIORITIZATION_FEE, body.endParams());
   }
 
   @Override
@@ -1165,10 +1424,15 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<TxSig>> getSignaturesForAddress(final Commitment commitment,
                                                                 final PublicKey address,
                                                                 final int limit) {
-    return sendPostRequest(TX_SIGNATURES, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSignaturesForAddress","params":["%s",{"commitment":"%s","limit":%d}]}""",
-            id.incrementAndGet(), address, commitment.getValue(), Math.min(limit, 1_000)
-        )
+    return sendPostRequest(TX_SIGNATURES, newRequestBody("getSignaturesForAddress")
+        .params()
+        .key(address)
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("limit", Math.min(limit, 1_000))
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1184,10 +1448,16 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                                                       final PublicKey address,
                                                                       final int limit,
                                                                       final String beforeTxSig) {
-    return sendPostRequest(TX_SIGNATURES, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSignaturesForAddress","params":["%s",{"commitment":"%s","limit":%d,"before":"%s"}]}""",
-            id.incrementAndGet(), address.toBase58(), commitment.getValue(), Math.min(limit, 1_000), beforeTxSig
-        )
+    return sendPostRequest(TX_SIGNATURES, newRequestBody("getSignaturesForAddress")
+        .params()
+        .key(address)
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("limit", Math.min(limit, 1_000))
+        .field("before", beforeTxSig)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1203,19 +1473,29 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                                                      final PublicKey address,
                                                                      final int limit,
                                                                      final String untilTxSig) {
-    return sendPostRequest(TX_SIGNATURES, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSignaturesForAddress","params":["%s",{"commitment":"%s","limit":%d,"until":"%s"}]}""",
-            id.incrementAndGet(), address.toBase58(), commitment.getValue(), Math.min(limit, 1_000), untilTxSig
-        )
+    return sendPostRequest(TX_SIGNATURES, newRequestBody("getSignaturesForAddress")
+        .params()
+        .key(address)
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("limit", Math.min(limit, 1_000))
+        .field("until", untilTxSig)
+        .endObject()
+        .endParams()
     );
   }
 
-  private String sigStatusBody(final SequencedCollection<String> signatures, final boolean searchTransactionHistory) {
-    final var joined = String.join("\",\"", signatures);
-    return format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getSignatureStatuses","params":[["%s"],{"searchTransactionHistory":%b}]}""",
-        id.incrementAndGet(), joined, searchTransactionHistory
-    );
+  private JsonRpcRequestWriter sigStatusBody(final SequencedCollection<String> signatures,
+                                             final boolean searchTransactionHistory) {
+    return newRequestBody("getSignatureStatuses")
+        .params()
+        .strings(signatures)
+        .comma()
+        .beginObject()
+        .field("searchTransactionHistory", searchTransactionHistory)
+        .endObject()
+        .endParams();
   }
 
   @Override
@@ -1240,10 +1520,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Long> getSlot(final Commitment commitment) {
-    return sendPostRequest(LONG_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSlot","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getSlot")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1254,19 +1534,21 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<PublicKey> getSlotLeader(final Commitment commitment) {
-    return sendPostRequest(PUBLIC_KEY, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSlotLeader","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(PUBLIC_KEY, newRequestBody("getSlotLeader")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<List<PublicKey>> getSlotLeaders(final long from, final int limit) {
-    return sendPostRequest(PUBLIC_KEY_LIST, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSlotLeaders","params":[%d,%d]}""",
-            id.incrementAndGet(), from, Math.min(limit, 5_000)
-        )
+    return sendPostRequest(PUBLIC_KEY_LIST, newRequestBody("getSlotLeaders")
+        .params()
+        .number(from)
+        .comma()
+        .number(Math.min(limit, 5_000))
+        .endParams()
     );
   }
 
@@ -1277,10 +1559,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Lamports> getStakeMinimumDelegation(final Commitment commitment) {
-    return sendPostRequest(CONTEXT_LONG_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getStakeMinimumDelegation","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(CONTEXT_LONG_VAL, newRequestBody("getStakeMinimumDelegation")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1292,10 +1574,13 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   @Override
   public CompletableFuture<Supply> getSupply(final Commitment commitment,
                                              final boolean excludeNonCirculatingAccountsList) {
-    return sendPostRequest(SUPPLY, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getSupply","params":[{"commitment":"%s","excludeNonCirculatingAccountsList":%b}]}""",
-            id.incrementAndGet(), commitment.getValue(), excludeNonCirculatingAccountsList
-        )
+    return sendPostRequest(SUPPLY, newRequestBody("getSupply")
+        .params()
+        .beginObject()
+        .commitment(commitment)
+        .field("excludeNonCirculatingAccountsList", excludeNonCirculatingAccountsList)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1307,10 +1592,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   @Override
   public CompletableFuture<TokenAmount> getTokenAccountBalance(final Commitment commitment,
                                                                final PublicKey tokenAccount) {
-    return sendPostRequest(TOKEN_AMOUNT, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenAccountBalance","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), tokenAccount.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_AMOUNT, newRequestBody("getTokenAccountBalance")
+        .params()
+        .key(tokenAccount)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1324,10 +1611,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<AccountInfo<TokenAccount>>> getTokenAccountsForTokenMintByDelegate(final Commitment commitment,
                                                                                                    final PublicKey delegate,
                                                                                                    final PublicKey tokenMint) {
-    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenAccountsByDelegate","params":["%s",{"mint":"%s"},{"commitment":"%s","encoding":"base64"}]}""",
-            id.incrementAndGet(), delegate.toBase58(), tokenMint.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, newRequestBody("getTokenAccountsByDelegate")
+        .params()
+        .key(delegate)
+        .comma()
+        .beginObject()
+        .field("mint", tokenMint)
+        .endObject()
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("encoding", "base64")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1341,10 +1637,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<AccountInfo<TokenAccount>>> getTokenAccountsForProgramByDelegate(final Commitment commitment,
                                                                                                  final PublicKey delegate,
                                                                                                  final PublicKey programId) {
-    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenAccountsByDelegate","params":["%s",{"programId":"%s"},{"commitment":"%s","encoding":"base64"}]}""",
-            id.incrementAndGet(), delegate.toBase58(), programId.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, newRequestBody("getTokenAccountsByDelegate")
+        .params()
+        .key(delegate)
+        .comma()
+        .beginObject()
+        .field("programId", programId)
+        .endObject()
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("encoding", "base64")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1358,10 +1663,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<AccountInfo<TokenAccount>>> getTokenAccountsForTokenMintByOwner(final Commitment commitment,
                                                                                                 final PublicKey owner,
                                                                                                 final PublicKey tokenMint) {
-    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenAccountsByOwner","params":["%s",{"mint":"%s"},{"commitment":"%s","encoding":"base64"}]}""",
-            id.incrementAndGet(), owner.toBase58(), tokenMint.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, newRequestBody("getTokenAccountsByOwner")
+        .params()
+        .key(owner)
+        .comma()
+        .beginObject()
+        .field("mint", tokenMint)
+        .endObject()
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("encoding", "base64")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1375,10 +1689,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<List<AccountInfo<TokenAccount>>> getTokenAccountsForProgramByOwner(final Commitment commitment,
                                                                                               final PublicKey owner,
                                                                                               final PublicKey programId) {
-    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenAccountsByOwner","params":["%s",{"programId":"%s"},{"commitment":"%s","encoding":"base64"}]}""",
-            id.incrementAndGet(), owner.toBase58(), programId.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_ACCOUNTS_PARSER, newRequestBody("getTokenAccountsByOwner")
+        .params()
+        .key(owner)
+        .comma()
+        .beginObject()
+        .field("programId", programId)
+        .endObject()
+        .comma()
+        .beginObject()
+        .commitment(commitment)
+        .field("encoding", "base64")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1390,10 +1713,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   @Override
   public CompletableFuture<List<AccountTokenAmount>> getTokenLargestAccounts(final Commitment commitment,
                                                                              final PublicKey tokenMint) {
-    return sendPostRequest(ACCOUNT_TOKEN_AMOUNT, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenLargestAccounts","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), tokenMint.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(ACCOUNT_TOKEN_AMOUNT, newRequestBody("getTokenLargestAccounts")
+        .params()
+        .key(tokenMint)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1404,10 +1729,12 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<TokenAmount> getTokenSupply(final Commitment commitment, final PublicKey tokenMintAccount) {
-    return sendPostRequest(TOKEN_AMOUNT, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTokenSupply","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), tokenMintAccount.toBase58(), commitment.getValue()
-        )
+    return sendPostRequest(TOKEN_AMOUNT, newRequestBody("getTokenSupply")
+        .params()
+        .key(tokenMintAccount)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1428,13 +1755,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                               final String txSignature,
                                               final int maxSupportedTransactionVersion,
                                               final String encoding) {
-    final var maxVersionParam = maxSupportedTransactionVersion < 0
-        ? ""
-        : String.format("\"maxSupportedTransactionVersion\":%d,", maxSupportedTransactionVersion);
-    return sendPostRequest(TRANSACTION, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTransaction","params":["%s",{"commitment":"%s",%s"encoding":"base64"}]}""",
-            id.incrementAndGet(), txSignature, commitment.getValue(), maxVersionParam
-        )
+    final var body = newRequestBody("getTransaction")
+        .params()
+        .string(txSignature)
+        .comma()
+        .beginObject()
+        .commitment(commitment);
+    if (maxSupportedTransactionVersion >= 0) {
+      body.field("maxSupportedTransactionVersion", maxSupportedTransactionVersion);
+    }
+    return sendPostRequest(TRANSACTION, body
+        .field("encoding", "base64")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1445,18 +1778,17 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<Long> getTransactionCount(final Commitment commitment) {
-    return sendPostRequest(LONG_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getTransactionCount","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("getTransactionCount")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<Version> getVersion() {
-    return sendPostRequest(VERSION, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"getVersion"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(VERSION, newRequestBody("getVersion")
+        .end()
     );
   }
 
@@ -1467,10 +1799,10 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<VoteAccounts> getVoteAccounts(final Commitment commitment) {
-    return sendPostRequest(VOTE_ACCOUNTS, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getVoteAccounts","params":[{"commitment":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue()
-        )
+    return sendPostRequest(VOTE_ACCOUNTS, newRequestBody("getVoteAccounts")
+        .params()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1482,10 +1814,13 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   @Override
   public CompletableFuture<VoteAccounts> getVoteAccounts(final Commitment commitment,
                                                          final PublicKey validatorVoteAddress) {
-    return sendPostRequest(VOTE_ACCOUNTS, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"getVoteAccounts","params":[{"commitment":"%s","votePubkey":"%s"}]}""",
-            id.incrementAndGet(), commitment.getValue(), validatorVoteAddress.toBase58()
-        )
+    return sendPostRequest(VOTE_ACCOUNTS, newRequestBody("getVoteAccounts")
+        .params()
+        .beginObject()
+        .commitment(commitment)
+        .field("votePubkey", validatorVoteAddress)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1496,18 +1831,19 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
 
   @Override
   public CompletableFuture<ContextBoolVal> isBlockHashValid(final Commitment commitment, final String b58BlockHash) {
-    return sendPostRequest(CONTEXT_BOOL_VAL, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"isBlockhashValid","params":["%s",{"commitment":"%s"}]}""",
-            id.incrementAndGet(), b58BlockHash, commitment.getValue()
-        )
+    return sendPostRequest(CONTEXT_BOOL_VAL, newRequestBody("isBlockhashValid")
+        .params()
+        .string(b58BlockHash)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
   @Override
   public CompletableFuture<Long> minimumLedgerSlot() {
-    return sendPostRequest(LONG_VAL, format("""
-            {"jsonrpc":"2.0","id":%d,"method":"minimumLedgerSlot"}""", id.incrementAndGet()
-        )
+    return sendPostRequest(LONG_VAL, newRequestBody("minimumLedgerSlot")
+        .end()
     );
   }
 
@@ -1520,10 +1856,14 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<String> requestAirdrop(final Commitment commitment,
                                                   final PublicKey key,
                                                   final long lamports) {
-    return sendPostRequest(STRING, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"requestAirdrop","params":["%s",%d,{"commitment":"%s"}]}""",
-            id.incrementAndGet(), key.toBase58(), lamports, commitment.getValue()
-        )
+    return sendPostRequest(STRING, newRequestBody("requestAirdrop")
+        .params()
+        .key(key)
+        .comma()
+        .number(lamports)
+        .comma()
+        .commitmentConfig(commitment)
+        .endParams()
     );
   }
 
@@ -1568,10 +1908,16 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<String> sendTransaction(final Commitment preflightCommitment,
                                                    final String base64SignedTx,
                                                    final int maxRetries) {
-    return sendPostRequestNoWrap(sendTxResponseParser, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"sendTransaction","params":["%s",{"encoding":"base64","preflightCommitment":"%s","maxRetries":%d}]}""",
-            id.incrementAndGet(), base64SignedTx, preflightCommitment.getValue(), maxRetries
-        )
+    return sendPostRequestNoWrap(sendTxResponseParser, newRequestBody("sendTransaction")
+        .params()
+        .string(base64SignedTx)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .field("preflightCommitment", preflightCommitment.getValue())
+        .field("maxRetries", maxRetries)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1579,10 +1925,17 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
   public CompletableFuture<String> sendTransactionSkipPreflight(final Commitment preflightCommitment,
                                                                 final String base64SignedTx,
                                                                 final int maxRetries) {
-    return sendPostRequestNoWrap(sendTxResponseParser, format("""
-                {"jsonrpc":"2.0","id":%d,"method":"sendTransaction","params":["%s",{"encoding":"base64","skipPreflight":true,"preflightCommitment":"%s","maxRetries":%d}]}""",
-            id.incrementAndGet(), base64SignedTx, preflightCommitment.getValue(), maxRetries
-        )
+    return sendPostRequestNoWrap(sendTxResponseParser, newRequestBody("sendTransaction")
+        .params()
+        .string(base64SignedTx)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .field("skipPreflight", true)
+        .field("preflightCommitment", preflightCommitment.getValue())
+        .field("maxRetries", maxRetries)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1655,13 +2008,22 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
     } else {
       returnAccounts = accounts;
     }
-    final var joinedAccounts = returnAccounts.stream()
-        .map(PublicKey::toBase58)
-        .collect(Collectors.joining("\",\"", ",\"accounts\":{\"addresses\":[\"", "\"],\"encoding\":\"jsonParsed\"}"));
-    return sendPostRequest(applyResponseValue((ji, context) -> TxSimulation.parse(returnAccounts, ji, context)), format("""
-                {"jsonrpc":"2.0","id":%d,"method":"simulateTransaction","params":["%s",{"encoding":"base64","sigVerify":false,"replaceRecentBlockhash":true,"commitment":"%s"%s}]}""",
-            id.incrementAndGet(), base64EncodedTx, commitment.getValue(), joinedAccounts
-        )
+    return sendPostRequest(applyResponseValue((ji, context) -> TxSimulation.parse(returnAccounts, ji, context)), newRequestBody("simulateTransaction")
+        .params()
+        .string(base64EncodedTx)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .field("sigVerify", false)
+        .field("replaceRecentBlockhash", true)
+        .commitment(commitment)
+        .ascii("""
+            ,"accounts":{"addresses":""")
+        .keys(returnAccounts)
+        .ascii("""
+            ,"encoding":"jsonParsed"}""")
+        .endObject()
+        .endParams()
     );
   }
 
@@ -1752,10 +2114,18 @@ final class SolanaJsonRpcClient extends JsonRpcHttpClient implements SolanaRpcCl
                                                              final String base64EncodedTx,
                                                              final boolean replaceRecentBlockhash,
                                                              final boolean innerInstructions) {
-    return sendPostRequest(applyResponseValue((ji, context) -> TxSimulation.parse(List.of(), ji, context)), format("""
-                {"jsonrpc":"2.0","id":%d,"method":"simulateTransaction","params":["%s",{"encoding":"base64","sigVerify":false,"replaceRecentBlockhash":%b,"innerInstructions":%b,"commitment":"%s"}]}""",
-            id.incrementAndGet(), base64EncodedTx, replaceRecentBlockhash, innerInstructions, commitment.getValue()
-        )
+    return sendPostRequest(applyResponseValue((ji, context) -> TxSimulation.parse(List.of(), ji, context)), newRequestBody("simulateTransaction")
+        .params()
+        .string(base64EncodedTx)
+        .comma()
+        .beginObject()
+        .field("encoding", "base64")
+        .field("sigVerify", false)
+        .field("replaceRecentBlockhash", replaceRecentBlockhash)
+        .field("innerInstructions", innerInstructions)
+        .commitment(commitment)
+        .endObject()
+        .endParams()
     );
   }
 
@@ -0,0 +1,23 @@
+package software.sava.rpc.json.http.client;
+
+/**
+ * Collects requests issued through {@link #rpcClient()} into JSON-RPC batch arrays, each returned future completes
+ * once the batch response containing its id has been received.
+ */
+public interface SolanaRpcBatch {
+
+  /**
+   * @return a client which enqueues each request into the pending batch instead of sending it.
+   */
+  SolanaRpcClient rpcClient();
+
+  /**
+   * @return the number of requests waiting to be sent.
+   */
+  int numPending();
+
+  /**
+   * Sends all pending requests as a single HTTP request.
+   */
+  void send();
+}
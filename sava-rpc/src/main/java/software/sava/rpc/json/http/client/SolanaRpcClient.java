@@ -18,12 +18,14 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.SequencedCollection;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
@@ -78,12 +80,58 @@ public interface SolanaRpcClient {
     return createClient(endpoint, httpClient, DEFAULT_REQUEST_TIMEOUT, null, null, CONFIRMED);
   }
 
+  /**
+   * Creates a client which routes each request to the best of {@code rpcClients}, as scored by EWMA latency, error rate
+   * and slot lag.  Each underlying client contributes its endpoint, http client and request extension.
+   *
+   * @param hedgeReads if true, read requests are also sent to the next best node once the first exceeds its estimated
+   *                   p95 latency, completing with the first successful response.  A primary which fails or
+   *                   responds with a 429 or 5xx status is immediately retried against the next best node.
+   * @throws IllegalArgumentException if any of {@code rpcClients} was not created by {@link #createClient}.
+   */
+  static SolanaRpcClient createBalancedClient(final List<SolanaRpcClient> rpcClients,
+                                              final Predicate<HttpResponse<byte[]>> applyResponse,
+                                              final boolean hedgeReads) {
+    final var nodes = new ArrayList<SolanaJsonRpcClient>(rpcClients.size());
+    for (final var rpcClient : rpcClients) {
+      if (rpcClient instanceof SolanaJsonRpcClient node) {
+        nodes.add(node);
+      } else {
+        throw new IllegalArgumentException(String.format(
+            "Balanced clients can only route to clients created by SolanaRpcClient.createClient, not %s.",
+            rpcClient == null ? null : rpcClient.getClass().getName()
+        ));
+      }
+    }
+    return SolanaJsonRpcClient.createBalancedClient(nodes, applyResponse, hedgeReads);
+  }
+
+  static SolanaRpcClient createBalancedClient(final List<SolanaRpcClient> rpcClients, final boolean hedgeReads) {
+    return createBalancedClient(rpcClients, null, hedgeReads);
+  }
+
   URI endpoint();
 
   HttpClient httpClient();
 
   Commitment defaultCommitment();
 
+  /**
+   * Creates an explicit batch which shares this clients configuration and request ids.
+   * Requests are sent once {@link SolanaRpcBatch#send()} is called or {@code maxBatchSize} requests are pending.
+   */
+  SolanaRpcBatch createBatch(final int maxBatchSize);
+
+  default SolanaRpcBatch createBatch() {
+    return createBatch(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a client which merges requests issued within {@code window} of the first pending request into a single
+   * JSON-RPC batch, sending early once {@code maxBatchSize} requests are pending.
+   */
+  SolanaRpcClient createCoalescingClient(final int maxBatchSize, final Duration window);
+
   CompletableFuture<NodeHealth> getHealth();
 
   CompletableFuture<FeeForMessage> getFeeForMessage(final String base64Msg);
@@ -468,6 +516,41 @@ public interface SolanaRpcClient {
                                                           final SequencedCollection<PublicKey> keys,
                                                           final BiFunction<PublicKey, byte[], T> factory);
 
+  /**
+   * Splits {@code keys} into requests of at most {@link #MAX_MULTIPLE_ACCOUNTS}, with at most {@code maxConcurrency}
+   * in flight.  Each request requires the highest context slot observed so far as its minimum context slot, and is
+   * retried if the node has not yet reached it.  Once every chunk has been fetched, chunks served from a slot below the
+   * highest slot observed are fetched again with that slot as their minimum, so every account reflects state at or
+   * after it.
+   *
+   * @return accounts in the same order as {@code keys}, with null entries for accounts which do not exist.
+   */
+  <T> CompletableFuture<List<AccountInfo<T>>> getAccountsChunked(final Commitment commitment,
+                                                                 final BigInteger minContextSlot,
+                                                                 final int length,
+                                                                 final int offset,
+                                                                 final SequencedCollection<PublicKey> keys,
+                                                                 final int maxConcurrency,
+                                                                 final BiFunction<PublicKey, byte[], T> factory);
+
+  default <T> CompletableFuture<List<AccountInfo<T>>> getAccountsChunked(final Commitment commitment,
+                                                                         final SequencedCollection<PublicKey> keys,
+                                                                         final int maxConcurrency,
+                                                                         final BiFunction<PublicKey, byte[], T> factory) {
+    return getAccountsChunked(commitment, null, 0, 0, keys, maxConcurrency, factory);
+  }
+
+  default <T> CompletableFuture<List<AccountInfo<T>>> getAccountsChunked(final SequencedCollection<PublicKey> keys,
+                                                                         final int maxConcurrency,
+                                                                         final BiFunction<PublicKey, byte[], T> factory) {
+    return getAccountsChunked(defaultCommitment(), keys, maxConcurrency, factory);
+  }
+
+  default CompletableFuture<List<AccountInfo<byte[]>>> getAccountsChunked(final SequencedCollection<PublicKey> keys,
+                                                                          final int maxConcurrency) {
+    return getAccountsChunked(keys, maxConcurrency, BYTES_IDENTITY);
+  }
+
   default CompletableFuture<List<AccountInfo<byte[]>>> getProgramAccounts(final PublicKey programId) {
     return getProgramAccounts(programId, BYTES_IDENTITY);
   }
@@ -680,6 +763,48 @@ public interface SolanaRpcClient {
                                                                  final int offset,
                                                                  final BiFunction<PublicKey, byte[], T> factory);
 
+  /**
+   * Streams each account to {@code consumer} as it is parsed from the response body, so the full response is never
+   * buffered.  The consumer is called from a single virtual thread.
+   * <p>
+   * Streamed requests are never batched.  A balanced client sends the whole request through the best node's client,
+   * a failed stream is not retried against another node.  The client's {@code applyResponse} predicate is not applied
+   * as it requires the buffered body, non 2xx responses and results without a context preceding their value fail the
+   * returned future instead.
+   *
+   * @return the context of the response, completed once every account has been consumed.
+   */
+  <T> CompletableFuture<Context> streamProgramAccounts(final Duration requestTimeout,
+                                                       final PublicKey programId,
+                                                       final Commitment commitment,
+                                                       final long minContextSlot,
+                                                       final Collection<Filter> filters,
+                                                       final int length,
+                                                       final int offset,
+                                                       final BiFunction<PublicKey, byte[], T> factory,
+                                                       final Consumer<AccountInfo<T>> consumer);
+
+  default <T> CompletableFuture<Context> streamProgramAccounts(final PublicKey programId,
+                                                               final Commitment commitment,
+                                                               final Collection<Filter> filters,
+                                                               final BiFunction<PublicKey, byte[], T> factory,
+                                                               final Consumer<AccountInfo<T>> consumer) {
+    return streamProgramAccounts(PROGRAM_ACCOUNTS_TIMEOUT, programId, commitment, 0, filters, 0, 0, factory, consumer);
+  }
+
+  default <T> CompletableFuture<Context> streamProgramAccounts(final PublicKey programId,
+                                                               final Collection<Filter> filters,
+                                                               final BiFunction<PublicKey, byte[], T> factory,
+                                                               final Consumer<AccountInfo<T>> consumer) {
+    return streamProgramAccounts(programId, defaultCommitment(), filters, factory, consumer);
+  }
+
+  default CompletableFuture<Context> streamProgramAccounts(final PublicKey programId,
+                                                           final Collection<Filter> filters,
+                                                           final Consumer<AccountInfo<byte[]>> consumer) {
+    return streamProgramAccounts(programId, filters, BYTES_IDENTITY, consumer);
+  }
+
   CompletableFuture<List<PerfSample>> getRecentPerformanceSamples(final int limit);
 
   default CompletableFuture<List<PerfSample>> getRecentPerformanceSamples() {
@@ -0,0 +1,108 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.core.tx.Transaction;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.TxStatus;
+import software.sava.rpc.json.http.ws.SolanaRpcWebsocket;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends signed transactions and tracks them until they reach the target commitment or their blockhash expires.
+ * <p>
+ * Every pending transaction is re-sent, skipping preflight, each {@code rebroadcastInterval} until it is seen on chain.
+ * A single background loop refreshes the block height and confirms every pending transaction with batched
+ * {@code getSignatureStatuses} calls, or, if a websocket is provided, through {@code signatureSubscribe}.  Subscribed
+ * transactions are still polled once seen on chain, when about to expire or after several polls without a
+ * notification, and transactions whose subscription could not be created are polled like any other.
+ * <p>
+ * Futures complete with the first status which either carries an error or has reached the target commitment.  Expired
+ * transactions complete exceptionally with a {@link java.util.concurrent.TimeoutException}.
+ */
+public interface TransactionSender extends AutoCloseable {
+
+  int DEFAULT_MAX_IN_FLIGHT = 4_096;
+  Duration DEFAULT_REBROADCAST_INTERVAL = Duration.ofSeconds(2);
+  Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(400);
+
+  static TransactionSender createSender(final SolanaRpcClient rpcClient,
+                                        final SolanaRpcWebsocket websocket,
+                                        final Commitment commitment,
+                                        final int maxInFlight,
+                                        final Duration rebroadcastInterval,
+                                        final Duration pollInterval) {
+    return new RebroadcastingTransactionSender(
+        rpcClient,
+        websocket,
+        commitment,
+        maxInFlight,
+        rebroadcastInterval,
+        pollInterval
+    );
+  }
+
+  static TransactionSender createSender(final SolanaRpcClient rpcClient,
+                                        final SolanaRpcWebsocket websocket,
+                                        final Commitment commitment) {
+    return createSender(
+        rpcClient,
+        websocket,
+        commitment,
+        DEFAULT_MAX_IN_FLIGHT,
+        DEFAULT_REBROADCAST_INTERVAL,
+        DEFAULT_POLL_INTERVAL
+    );
+  }
+
+  static TransactionSender createSender(final SolanaRpcClient rpcClient,
+                                        final Commitment commitment,
+                                        final int maxInFlight,
+                                        final Duration rebroadcastInterval,
+                                        final Duration pollInterval) {
+    return createSender(rpcClient, null, commitment, maxInFlight, rebroadcastInterval, pollInterval);
+  }
+
+  static TransactionSender createSender(final SolanaRpcClient rpcClient, final Commitment commitment) {
+    return createSender(rpcClient, null, commitment);
+  }
+
+  /**
+   * @param signedTx             a fully signed serialized transaction.
+   * @param lastValidBlockHeight as returned alongside the transaction's blockhash by {@code getLatestBlockHash}.
+   * @return completes once the transaction errors, reaches the target commitment or expires.  Fails immediately with
+   * a {@link java.util.concurrent.RejectedExecutionException} if {@link #maxInFlight()} transactions are pending.
+   */
+  CompletableFuture<TxStatus> send(final byte[] signedTx, final long lastValidBlockHeight);
+
+  /**
+   * Expires the transaction {@link Transaction#BLOCK_QUEUE_SIZE} blocks after the first block height observed once
+   * it has been sent, an upper bound if the blockhash was already older.
+   */
+  CompletableFuture<TxStatus> send(final byte[] signedTx);
+
+  default CompletableFuture<TxStatus> send(final Transaction transaction, final long lastValidBlockHeight) {
+    return send(transaction.serialized(), lastValidBlockHeight);
+  }
+
+  default CompletableFuture<TxStatus> send(final Transaction transaction) {
+    return send(transaction.serialized());
+  }
+
+  Commitment commitment();
+
+  int maxInFlight();
+
+  int numInFlight();
+
+  /**
+   * @return the latest block height observed, or {@code 0} if none has been fetched yet.
+   */
+  long blockHeight();
+
+  /**
+   * Stops tracking, pending futures complete exceptionally with an {@link IllegalStateException}.
+   */
+  @Override
+  void close();
+}
@@ -12,6 +12,7 @@ import systems.comodal.jsoniter.ValueType;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static software.sava.rpc.json.http.response.JsonUtil.parseEncodedData;
 import static systems.comodal.jsoniter.JsonIterator.fieldEquals;
@@ -114,6 +115,25 @@ public record AccountInfo<T>(PublicKey pubKey,
     return accounts;
   }
 
+  /**
+   * Hands each account to {@code consumer} as soon as it is parsed rather than collecting them.
+   *
+   * @return the number of accounts consumed.
+   */
+  public static <T> int parseAccounts(final JsonIterator ji,
+                                      final Context context,
+                                      final BiFunction<PublicKey, byte[], T> factory,
+                                      final Consumer<AccountInfo<T>> consumer) {
+    int numAccounts = 0;
+    while (ji.readArray()) {
+      final var builder = new Builder(context);
+      ji.testObject(builder, PARSER);
+      consumer.accept(builder.create(factory));
+      ++numAccounts;
+    }
+    return numAccounts;
+  }
+
   private static final ContextFieldBufferPredicate<Builder> ACCOUNT_PARSER = (builder, buf, offset, len, ji) -> {
     if (fieldEquals("data", buf, offset, len)) {
       final var next = ji.whatIsNext();
@@ -0,0 +1,85 @@
+package software.sava.rpc.json.http.ws;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.rpc.Filter;
+import software.sava.rpc.json.http.client.SolanaRpcClient;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.AccountInfo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static software.sava.rpc.json.http.response.AccountInfo.BYTES_IDENTITY;
+
+/// A live in-memory copy of every account owned by a program.
+///
+/// The program subscription is sent first, and every time it is (re-)sent, for example after a reconnect, a
+/// `getProgramAccounts` snapshot is streamed.  Notifications received while a snapshot is in flight are buffered and
+/// replayed once it completes.  Each account only ever moves forward by [context slot][AccountInfo#context()], and
+/// accounts missing from a snapshot that have not been written since are removed.  Snapshots are requested with the
+/// latest notification or snapshot slot as their `minContextSlot`, so a lagging node fails the request, which is
+/// retried, rather than resurrecting closed accounts.
+///
+/// Reads never block.  Listeners are called from the thread applying the change, either the websocket
+/// [dispatcher][SubscriptionDispatcher] or the snapshot parser.
+public interface AccountMirror<T> extends AutoCloseable {
+
+  static <T> AccountMirror<T> createMirror(final SolanaRpcClient rpcClient,
+                                           final SolanaRpcWebsocket websocket,
+                                           final Commitment commitment,
+                                           final PublicKey program,
+                                           final List<Filter> filters,
+                                           final BiFunction<PublicKey, byte[], T> factory) {
+    return new ProgramAccountMirror<>(rpcClient, websocket, commitment, program, filters, factory);
+  }
+
+  static AccountMirror<byte[]> createMirror(final SolanaRpcClient rpcClient,
+                                            final SolanaRpcWebsocket websocket,
+                                            final PublicKey program,
+                                            final List<Filter> filters) {
+    return createMirror(rpcClient, websocket, websocket.defaultCommitment(), program, filters, BYTES_IDENTITY);
+  }
+
+  /// Queues the program subscription, the first snapshot is requested once it has been sent.
+  ///
+  /// @return false if the websocket already has a subscription for this program and commitment.
+  boolean start();
+
+  /// @return completes once the first snapshot has been reconciled.
+  CompletableFuture<AccountMirror<T>> initialSync();
+
+  PublicKey program();
+
+  Commitment commitment();
+
+  AccountInfo<T> get(final PublicKey account);
+
+  default T data(final PublicKey account) {
+    final var accountInfo = get(account);
+    return accountInfo == null ? null : accountInfo.data();
+  }
+
+  /// @return a live, unmodifiable view.
+  Collection<AccountInfo<T>> accounts();
+
+  int size();
+
+  /// @return the context slot of the latest reconciled snapshot, or `0` if none has completed.
+  long snapshotSlot();
+
+  /// @return true if no snapshot is in flight and at least one has completed.
+  boolean synced();
+
+  /// `onChange` receives the previous and current account, previous is `null` for a new account and current is
+  /// `null` for a removed account.
+  void addListener(final BiConsumer<AccountInfo<T>, AccountInfo<T>> onChange);
+
+  boolean removeListener(final BiConsumer<AccountInfo<T>, AccountInfo<T>> onChange);
+
+  /// Un-subscribes from the program, the mirrored accounts remain readable.
+  @Override
+  void close();
+}
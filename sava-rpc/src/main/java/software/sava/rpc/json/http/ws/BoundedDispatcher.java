@@ -0,0 +1,208 @@
+package software.sava.rpc.json.http.ws;
+
+import software.sava.rpc.json.http.response.AccountInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+final class BoundedDispatcher implements SubscriptionDispatcher {
+
+  private static final System.Logger log = System.getLogger(BoundedDispatcher.class.getName());
+
+  private static final class Pending {
+
+    private Subscription<?> subscription;
+    private Object key;
+    private Object notification;
+  }
+
+  private record CoalesceKey(Subscription<?> subscription, Object key) {
+  }
+
+  private final OverflowPolicy overflowPolicy;
+  private final Pending[] ring;
+  private final Map<CoalesceKey, Pending> queuedByKey;
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final Condition notFull;
+  private int head;
+  private int size;
+  private long numDispatched;
+  private long numDropped;
+  private long numCoalesced;
+  private boolean closed;
+
+  BoundedDispatcher(final int capacity, final OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+    this.ring = new Pending[capacity];
+    for (int i = 0; i < capacity; ++i) {
+      ring[i] = new Pending();
+    }
+    this.queuedByKey = overflowPolicy == OverflowPolicy.COALESCE_BY_KEY ? HashMap.newHashMap(capacity) : null;
+    this.lock = new ReentrantLock();
+    this.notEmpty = lock.newCondition();
+    this.notFull = lock.newCondition();
+    Thread.ofVirtual().name("SubscriptionDispatcher").start(this::drain);
+  }
+
+  private static CoalesceKey coalesceKey(final Subscription<?> subscription, final Object notification) {
+    if (notification instanceof AccountInfo<?> accountInfo) {
+      return new CoalesceKey(subscription, accountInfo.pubKey());
+    } else if (subscription.channel() == Channel.slot) {
+      return new CoalesceKey(subscription, null);
+    } else {
+      return null;
+    }
+  }
+
+  private void removeOldest() {
+    final var oldest = ring[head];
+    if (oldest.key != null) {
+      queuedByKey.remove(oldest.key, oldest);
+    }
+    clear(oldest);
+    head = (head + 1) % ring.length;
+    --size;
+  }
+
+  private static void clear(final Pending pending) {
+    pending.subscription = null;
+    pending.key = null;
+    pending.notification = null;
+  }
+
+  @Override
+  public <T> void dispatch(final Subscription<T> subscription, final T notification) {
+    final var key = queuedByKey == null ? null : coalesceKey(subscription, notification);
+    lock.lock();
+    try {
+      if (closed) {
+        ++numDropped;
+        return;
+      }
+      if (key != null) {
+        final var queued = queuedByKey.get(key);
+        if (queued != null) {
+          queued.notification = notification;
+          ++numCoalesced;
+          return;
+        }
+      }
+      if (size == ring.length) {
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+          while (size == ring.length && !closed) {
+            notFull.awaitUninterruptibly();
+          }
+          if (closed) {
+            ++numDropped;
+            return;
+          }
+        } else {
+          removeOldest();
+          ++numDropped;
+        }
+      }
+      final var pending = ring[(head + size) % ring.length];
+      pending.subscription = subscription;
+      pending.notification = notification;
+      if (key != null) {
+        pending.key = key;
+        queuedByKey.put(key, pending);
+      }
+      if (++size == 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void drain() {
+    for (; ; ) {
+      final Subscription<Object> subscription;
+      final Object notification;
+      lock.lock();
+      try {
+        while (size == 0) {
+          if (closed) {
+            return;
+          }
+          notEmpty.await();
+        }
+        final var pending = ring[head];
+        subscription = (Subscription<Object>) pending.subscription;
+        notification = pending.notification;
+        removeOldest();
+        ++numDispatched;
+        notFull.signal();
+      } catch (final InterruptedException e) {
+        return;
+      } finally {
+        lock.unlock();
+      }
+      try {
+        subscription.accept(notification);
+      } catch (final RuntimeException ex) {
+        log.log(WARNING, "Subscription consumer failed for " + subscription.key(), ex);
+      }
+    }
+  }
+
+  @Override
+  public int queueDepth() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long numDispatched() {
+    lock.lock();
+    try {
+      return numDispatched;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long numDropped() {
+    lock.lock();
+    try {
+      return numDropped;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long numCoalesced() {
+    lock.lock();
+    try {
+      return numCoalesced;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /// Queued notifications are still delivered, new ones are dropped.
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signalAll();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package software.sava.rpc.json.http.ws;
+
+import java.util.concurrent.atomic.LongAdder;
+
+final class DirectDispatcher implements SubscriptionDispatcher {
+
+  private final LongAdder numDispatched;
+
+  DirectDispatcher() {
+    this.numDispatched = new LongAdder();
+  }
+
+  @Override
+  public <T> void dispatch(final Subscription<T> subscription, final T notification) {
+    subscription.accept(notification);
+    numDispatched.increment();
+  }
+
+  @Override
+  public int queueDepth() {
+    return 0;
+  }
+
+  @Override
+  public long numDispatched() {
+    return numDispatched.sum();
+  }
+
+  @Override
+  public long numDropped() {
+    return 0;
+  }
+
+  @Override
+  public long numCoalesced() {
+    return 0;
+  }
+
+  @Override
+  public void close() {
+  }
+}
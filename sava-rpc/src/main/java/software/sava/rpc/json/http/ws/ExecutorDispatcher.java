@@ -0,0 +1,70 @@
+package software.sava.rpc.json.http.ws;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+final class ExecutorDispatcher implements SubscriptionDispatcher {
+
+  private static final System.Logger log = System.getLogger(ExecutorDispatcher.class.getName());
+
+  private final Executor executor;
+  private final AtomicInteger queueDepth;
+  private final LongAdder numDispatched;
+  private final LongAdder numDropped;
+
+  ExecutorDispatcher(final Executor executor) {
+    this.executor = executor;
+    this.queueDepth = new AtomicInteger();
+    this.numDispatched = new LongAdder();
+    this.numDropped = new LongAdder();
+  }
+
+  @Override
+  public <T> void dispatch(final Subscription<T> subscription, final T notification) {
+    queueDepth.incrementAndGet();
+    try {
+      executor.execute(() -> {
+        try {
+          subscription.accept(notification);
+        } catch (final RuntimeException ex) {
+          log.log(WARNING, "Subscription consumer failed for " + subscription.key(), ex);
+        } finally {
+          queueDepth.decrementAndGet();
+          numDispatched.increment();
+        }
+      });
+    } catch (final RejectedExecutionException ex) {
+      queueDepth.decrementAndGet();
+      numDropped.increment();
+    }
+  }
+
+  @Override
+  public int queueDepth() {
+    return queueDepth.get();
+  }
+
+  @Override
+  public long numDispatched() {
+    return numDispatched.sum();
+  }
+
+  @Override
+  public long numDropped() {
+    return numDropped.sum();
+  }
+
+  @Override
+  public long numCoalesced() {
+    return 0;
+  }
+
+  /// The executor is owned by the caller and is left running.
+  @Override
+  public void close() {
+  }
+}
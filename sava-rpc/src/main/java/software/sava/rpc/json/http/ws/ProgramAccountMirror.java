@@ -0,0 +1,285 @@
+package software.sava.rpc.json.http.ws;
+
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.rpc.Filter;
+import software.sava.rpc.json.http.client.SolanaRpcClient;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.AccountInfo;
+import software.sava.rpc.json.http.response.Context;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+final class ProgramAccountMirror<T> implements AccountMirror<T> {
+
+  private static final System.Logger log = System.getLogger(ProgramAccountMirror.class.getName());
+
+  private static final Duration SNAPSHOT_TIMEOUT = Duration.ofSeconds(120);
+
+  private final SolanaRpcClient rpcClient;
+  private final SolanaRpcWebsocket websocket;
+  private final Commitment commitment;
+  private final PublicKey program;
+  private final List<Filter> filters;
+  private final BiFunction<PublicKey, byte[], T> factory;
+  private final ConcurrentHashMap<PublicKey, AccountInfo<T>> accounts;
+  private final Collection<AccountInfo<T>> accountsView;
+  private final List<BiConsumer<AccountInfo<T>, AccountInfo<T>>> listeners;
+  private final CompletableFuture<AccountMirror<T>> initialSync;
+
+  private final ReentrantLock lock;
+  private final ArrayList<AccountInfo<byte[]>> buffered;
+  private boolean syncing;
+  private boolean resyncRequested;
+  private volatile boolean closed;
+  private volatile long snapshotSlot;
+  private volatile long notificationSlot;
+
+  ProgramAccountMirror(final SolanaRpcClient rpcClient,
+                       final SolanaRpcWebsocket websocket,
+                       final Commitment commitment,
+                       final PublicKey program,
+                       final List<Filter> filters,
+                       final BiFunction<PublicKey, byte[], T> factory) {
+    this.rpcClient = rpcClient;
+    this.websocket = websocket;
+    this.commitment = commitment;
+    this.program = program;
+    this.filters = filters == null ? List.of() : List.copyOf(filters);
+    this.factory = factory;
+    this.accounts = new ConcurrentHashMap<>();
+    this.accountsView = Collections.unmodifiableCollection(accounts.values());
+    this.listeners = new CopyOnWriteArrayList<>();
+    this.initialSync = new CompletableFuture<>();
+    this.lock = new ReentrantLock();
+    this.buffered = new ArrayList<>();
+  }
+
+  @Override
+  public boolean start() {
+    return websocket.programSubscribe(commitment, program, filters, sub -> requestSync(), this::onNotification);
+  }
+
+  @Override
+  public CompletableFuture<AccountMirror<T>> initialSync() {
+    return initialSync;
+  }
+
+  @Override
+  public PublicKey program() {
+    return program;
+  }
+
+  @Override
+  public Commitment commitment() {
+    return commitment;
+  }
+
+  @Override
+  public AccountInfo<T> get(final PublicKey account) {
+    return accounts.get(account);
+  }
+
+  @Override
+  public Collection<AccountInfo<T>> accounts() {
+    return accountsView;
+  }
+
+  @Override
+  public int size() {
+    return accounts.size();
+  }
+
+  @Override
+  public long snapshotSlot() {
+    return snapshotSlot;
+  }
+
+  @Override
+  public boolean synced() {
+    lock.lock();
+    try {
+      return !syncing && snapshotSlot > 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addListener(final BiConsumer<AccountInfo<T>, AccountInfo<T>> onChange) {
+    listeners.add(onChange);
+  }
+
+  @Override
+  public boolean removeListener(final BiConsumer<AccountInfo<T>, AccountInfo<T>> onChange) {
+    return listeners.remove(onChange);
+  }
+
+  private void onNotification(final AccountInfo<byte[]> accountInfo) {
+    lock.lock();
+    try {
+      final long slot = accountInfo.context().slot();
+      if (slot > notificationSlot) {
+        notificationSlot = slot;
+      }
+      if (syncing) {
+        buffered.add(accountInfo);
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    applyNotification(accountInfo);
+  }
+
+  private void applyNotification(final AccountInfo<byte[]> accountInfo) {
+    if (accountInfo.lamports() == 0 || !program.equals(accountInfo.owner())) {
+      remove(accountInfo.pubKey(), accountInfo.context().slot());
+    } else {
+      apply(new AccountInfo<>(
+          accountInfo.pubKey(),
+          accountInfo.context(),
+          accountInfo.executable(),
+          accountInfo.lamports(),
+          accountInfo.owner(),
+          accountInfo.rentEpoch(),
+          accountInfo.space(),
+          factory.apply(accountInfo.pubKey(), accountInfo.data())
+      ));
+    }
+  }
+
+  private void notifyListeners(final AccountInfo<T> previous, final AccountInfo<T> current) {
+    for (final var listener : listeners) {
+      try {
+        listener.accept(previous, current);
+      } catch (final RuntimeException ex) {
+        log.log(WARNING, "Account mirror listener failed for " + program, ex);
+      }
+    }
+  }
+
+  private void apply(final AccountInfo<T> accountInfo) {
+    final var key = accountInfo.pubKey();
+    for (; ; ) {
+      final var previous = accounts.get(key);
+      if (previous == null) {
+        if (accounts.putIfAbsent(key, accountInfo) == null) {
+          notifyListeners(null, accountInfo);
+          return;
+        }
+      } else if (previous.context().slot() > accountInfo.context().slot()) {
+        return;
+      } else if (accounts.replace(key, previous, accountInfo)) {
+        notifyListeners(previous, accountInfo);
+        return;
+      }
+    }
+  }
+
+  private void remove(final PublicKey key, final long slot) {
+    for (; ; ) {
+      final var previous = accounts.get(key);
+      if (previous == null || previous.context().slot() > slot) {
+        return;
+      } else if (accounts.remove(key, previous)) {
+        notifyListeners(previous, null);
+        return;
+      }
+    }
+  }
+
+  private void requestSync() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      } else if (syncing) {
+        resyncRequested = true;
+        return;
+      }
+      syncing = true;
+    } finally {
+      lock.unlock();
+    }
+    sync();
+  }
+
+  private void sync() {
+    // A snapshot older than an applied removal would resurrect the account, a lagging node fails the request instead
+    // and it is retried.
+    final long minContextSlot = Math.max(notificationSlot, snapshotSlot);
+    // Only the snapshot thread touches this set.
+    final var snapshotKeys = new HashSet<PublicKey>();
+    rpcClient.streamProgramAccounts(
+        SNAPSHOT_TIMEOUT, program, commitment, minContextSlot, filters, 0, 0, factory,
+        accountInfo -> {
+          snapshotKeys.add(accountInfo.pubKey());
+          apply(accountInfo);
+        }
+    ).whenComplete((context, throwable) -> completeSync(context, snapshotKeys, throwable));
+  }
+
+  private void completeSync(final Context context, final Set<PublicKey> snapshotKeys, final Throwable throwable) {
+    if (throwable == null) {
+      final long slot = context.slot();
+      for (final var accountInfo : accounts.values()) {
+        if (accountInfo.context().slot() < slot && !snapshotKeys.contains(accountInfo.pubKey())) {
+          remove(accountInfo.pubKey(), slot);
+        }
+      }
+      this.snapshotSlot = slot;
+    } else {
+      log.log(WARNING, "Failed to snapshot accounts for program " + program, throwable);
+    }
+
+    final boolean resync;
+    lock.lock();
+    try {
+      for (final var accountInfo : buffered) {
+        applyNotification(accountInfo);
+      }
+      buffered.clear();
+      resync = !closed && (throwable != null || resyncRequested);
+      resyncRequested = false;
+      syncing = resync;
+    } finally {
+      lock.unlock();
+    }
+
+    if (throwable == null) {
+      initialSync.complete(this);
+    }
+    if (resync) {
+      if (throwable == null) {
+        sync();
+      } else {
+        final var delayedExecutor = CompletableFuture.delayedExecutor(websocket.timings().reConnectDelay(), MILLISECONDS);
+        CompletableFuture.runAsync(this::sync, delayedExecutor);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    } finally {
+      lock.unlock();
+    }
+    websocket.programUnsubscribe(commitment, program);
+  }
+}
@@ -43,6 +43,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
   private final Consumer<SolanaRpcWebsocket> onOpen;
   private final OnClose onClose;
   private final BiConsumer<SolanaRpcWebsocket, Throwable> onError;
+  private final SubscriptionDispatcher[] dispatchers;
   private final AtomicLong msgId;
   private final Map<Long, Subscription<?>> pendingSubscriptions;
   private final Map<Long, String> pendingUnSubscriptions;
@@ -70,7 +71,8 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
                          final Timings timings,
                          final Consumer<SolanaRpcWebsocket> onOpen,
                          final OnClose onClose,
-                         final BiConsumer<SolanaRpcWebsocket, Throwable> onError) {
+                         final BiConsumer<SolanaRpcWebsocket, Throwable> onError,
+                         final SubscriptionDispatcher[] dispatchers) {
     this.endpoint = endpoint;
     this.solanaAccounts = solanaAccounts;
     this.defaultCommitment = defaultCommitment;
@@ -79,6 +81,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
     this.onOpen = onOpen;
     this.onClose = onClose;
     this.onError = onError;
+    this.dispatchers = dispatchers;
     this.msgId = new AtomicLong(1);
     this.lastWrite = new AtomicLong(0);
     this.pendingSubscriptions = new ConcurrentSkipListMap<>();
@@ -118,6 +121,11 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
     return timings;
   }
 
+  @Override
+  public SubscriptionDispatcher dispatcher(final Channel channel) {
+    return dispatchers[channel.ordinal()];
+  }
+
   @Override
   public boolean closed() {
     return this.msgId.get() < 0;
@@ -588,7 +596,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
     if (sub == null) {
       sendUnSubscription(webSocket, channel, subId);
     } else {
-      sub.accept(item);
+      dispatchers[channel.ordinal()].dispatch(sub, item);
     }
   }
 
@@ -608,7 +616,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
       sendUnSubscription(webSocket, channel, subId);
     } else {
       ji.reset(mark);
-      sub.accept(factory.apply(sub));
+      dispatchers[channel.ordinal()].dispatch(sub, factory.apply(sub));
     }
   }
 
@@ -655,7 +663,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
             } else {
               ji.skipUntil("result");
               final var slot = ProcessedSlot.parse(ji);
-              slotSub.accept(slot);
+              dispatchers[channel.ordinal()].dispatch(slotSub, slot);
             }
           } else {
             final int paramsMark = ji.mark();
@@ -683,7 +691,7 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
                   final long subId = ji.readLong();
                   @SuppressWarnings("unchecked") final var sub = (Subscription<TxResult>) this.subscriptionsBySubId.get(subId);
                   if (sub != null) {
-                    sub.accept(result);
+                    dispatchers[channel.ordinal()].dispatch(sub, result);
                     if (!"receivedSignature".equals(result.value())) {
                       // Server side subscription is automatically cancelled after processed message has been sent.
                       this.subscriptionsBySubId.remove(subId);
@@ -876,6 +884,9 @@ final class SolanaJsonRpcWebsocket implements WebSocket.Listener, SolanaRpcWebso
     }
 
     this.executorService.shutdown();
+    for (final var dispatcher : this.dispatchers) {
+      dispatcher.close();
+    }
     this.pendingSubscriptions.clear();
     this.pendingUnSubscriptions.clear();
     this.subscriptionsBySubId.clear();
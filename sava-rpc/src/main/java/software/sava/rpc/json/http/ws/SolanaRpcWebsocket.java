@@ -50,6 +50,10 @@ public interface SolanaRpcWebsocket extends AutoCloseable {
 
   Timings timings();
 
+  /// @return the dispatcher which hands notifications for `channel` to subscription consumers, see its queue depth
+  /// and drop counts to monitor slow consumers.
+  SubscriptionDispatcher dispatcher(final Channel channel);
+
   boolean closed();
 
   /// @return A CompletableFuture which completes once the underlying WebSocket is connected.
@@ -309,5 +313,16 @@ public interface SolanaRpcWebsocket extends AutoCloseable {
     ///
     /// This behavior can be changed to instead attempt to [re-connect][#connect()] the underlying WebSocket and re-use this instance.
     Builder onError(final BiConsumer<SolanaRpcWebsocket, Throwable> onError);
+
+    /// @return the dispatcher configured for `channel`, or `null` if the default [direct][SubscriptionDispatcher#direct()]
+    /// dispatcher will be used.
+    SubscriptionDispatcher dispatcher(final Channel channel);
+
+    /// Sets the dispatcher for every channel without a channel specific dispatcher.
+    ///
+    /// By default consumers run on the WebSocket listener thread.
+    Builder dispatcher(final SubscriptionDispatcher dispatcher);
+
+    Builder dispatcher(final Channel channel, final SubscriptionDispatcher dispatcher);
   }
 }
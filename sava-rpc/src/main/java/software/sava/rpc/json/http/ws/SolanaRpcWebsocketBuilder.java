@@ -21,10 +21,22 @@ public final class SolanaRpcWebsocketBuilder implements SolanaRpcWebsocket.Build
   private Consumer<SolanaRpcWebsocket> onOpen;
   private SolanaRpcWebsocket.OnClose onClose;
   private BiConsumer<SolanaRpcWebsocket, Throwable> onError;
+  private final SubscriptionDispatcher[] dispatchers = new SubscriptionDispatcher[Channel.values().length];
+  private SubscriptionDispatcher defaultDispatcher;
 
   SolanaRpcWebsocketBuilder() {
   }
 
+  private SubscriptionDispatcher[] createDispatchers() {
+    final var dispatchers = new SubscriptionDispatcher[this.dispatchers.length];
+    final var defaultDispatcher = this.defaultDispatcher == null ? SubscriptionDispatcher.direct() : this.defaultDispatcher;
+    for (int i = 0; i < dispatchers.length; ++i) {
+      final var dispatcher = this.dispatchers[i];
+      dispatchers[i] = dispatcher == null ? defaultDispatcher : dispatcher;
+    }
+    return dispatchers;
+  }
+
   @Override
   public SolanaRpcWebsocket create() {
     return new SolanaJsonRpcWebsocket(
@@ -33,7 +45,8 @@ public final class SolanaRpcWebsocketBuilder implements SolanaRpcWebsocket.Build
         new Timings(reConnectDelay, pingDelay, subscriptionAndPingCheckDelay),
         onOpen,
         onClose,
-        onError
+        onError,
+        createDispatchers()
     );
   }
 
@@ -146,4 +159,22 @@ public final class SolanaRpcWebsocketBuilder implements SolanaRpcWebsocket.Build
     this.onError = onError;
     return this;
   }
+
+  @Override
+  public SubscriptionDispatcher dispatcher(final Channel channel) {
+    final var dispatcher = dispatchers[channel.ordinal()];
+    return dispatcher == null ? defaultDispatcher : dispatcher;
+  }
+
+  @Override
+  public SolanaRpcWebsocket.Builder dispatcher(final SubscriptionDispatcher dispatcher) {
+    this.defaultDispatcher = dispatcher;
+    return this;
+  }
+
+  @Override
+  public SolanaRpcWebsocket.Builder dispatcher(final Channel channel, final SubscriptionDispatcher dispatcher) {
+    this.dispatchers[channel.ordinal()] = dispatcher;
+    return this;
+  }
 }
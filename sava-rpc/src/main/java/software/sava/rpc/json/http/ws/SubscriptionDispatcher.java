@@ -0,0 +1,59 @@
+package software.sava.rpc.json.http.ws;
+
+import java.util.concurrent.Executor;
+
+/// Hands parsed notifications to subscription consumers.
+///
+/// Notifications are always parsed on the WebSocket listener thread, the dispatcher decides which thread runs the
+/// consumer.  Closing a websocket closes its dispatchers, share a dispatcher across websockets with care.
+public interface SubscriptionDispatcher extends AutoCloseable {
+
+  enum OverflowPolicy {
+    /// Blocks the WebSocket listener until there is room, which in turn stops reading from the socket.
+    BLOCK,
+    /// Discards the oldest queued notification.
+    DROP_OLDEST,
+    /// Replaces a queued notification for the same account, or slot subscription, with the newer one.
+    /// Falls back to [#DROP_OLDEST] if the queue is full of distinct keys.
+    COALESCE_BY_KEY
+  }
+
+  /// Runs consumers on the WebSocket listener thread, a slow consumer delays every subscription.
+  ///
+  /// This is the default.
+  static SubscriptionDispatcher direct() {
+    return new DirectDispatcher();
+  }
+
+  /// Submits each notification to `executor`, ordering is only preserved if the executor is single threaded.
+  static SubscriptionDispatcher executor(final Executor executor) {
+    return new ExecutorDispatcher(executor);
+  }
+
+  /// Runs each notification on its own virtual thread, ordering is not preserved.
+  static SubscriptionDispatcher virtualThreadPerMessage() {
+    return new ExecutorDispatcher(runnable -> Thread.ofVirtual().start(runnable));
+  }
+
+  /// Queues up to `capacity` notifications which are drained in order by a single virtual thread.
+  static SubscriptionDispatcher bounded(final int capacity, final OverflowPolicy overflowPolicy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    return new BoundedDispatcher(capacity, overflowPolicy);
+  }
+
+  <T> void dispatch(final Subscription<T> subscription, final T notification);
+
+  /// @return the number of notifications accepted but not yet handed to a consumer.
+  int queueDepth();
+
+  long numDispatched();
+
+  long numDropped();
+
+  long numCoalesced();
+
+  @Override
+  void close();
+}
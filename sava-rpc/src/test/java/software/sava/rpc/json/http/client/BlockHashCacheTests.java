@@ -0,0 +1,152 @@
+package software.sava.rpc.json.http.client;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.tx.Transaction;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.Context;
+import software.sava.rpc.json.http.response.LatestBlockHash;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class BlockHashCacheTests {
+
+  private static final Context CONTEXT = new Context(328984397, "2.1.9");
+  private static final int VALID_BLOCKS = Transaction.BLOCK_QUEUE_SIZE - 1;
+
+  private static final class StubNode {
+
+    private final Queue<CompletableFuture<LatestBlockHash>> requests = new ConcurrentLinkedQueue<>();
+    private final RpcStub rpc = new RpcStub().on("getLatestBlockHash", args -> {
+      final var request = new CompletableFuture<LatestBlockHash>();
+      requests.add(request);
+      return request;
+    });
+
+    private CompletableFuture<LatestBlockHash> next() {
+      final var request = requests.poll();
+      assertNotNull(request, "Expected a getLatestBlockHash request.");
+      return request;
+    }
+
+    private LatestBlockHash respond(final BlockHashCache cache, final LatestBlockHash hash) {
+      cache.onSlot(hash.lastValidBlockHeight());
+      next().complete(hash);
+      return hash;
+    }
+  }
+
+  private static LatestBlockHash hash(final String blockHash, final long lastValidBlockHeight) {
+    return new LatestBlockHash(CONTEXT, blockHash, lastValidBlockHeight);
+  }
+
+  private static BlockHashCache createCache(final StubNode node, final int maxHashes, final Duration maxAge) {
+    return BlockHashCache.createCache(node.rpc.rpcClient(), EnumSet.of(Commitment.CONFIRMED), maxHashes, null, maxAge);
+  }
+
+  @Test
+  void ignoresOutOfOrderResponses() {
+    final var node = new StubNode();
+    try (final var cache = createCache(node, 8, BlockHashCache.DEFAULT_MAX_AGE)) {
+      cache.start();
+      final var refresh = node.next();
+      assertNull(cache.latest(Commitment.CONFIRMED));
+      assertEquals(0, cache.estimatedBlockHeight(Commitment.CONFIRMED));
+
+      final var latestAsync = cache.latestAsync(Commitment.CONFIRMED);
+      final var newer = hash("newer", 1_000);
+      node.next().complete(newer);
+      assertSame(newer, latestAsync.join());
+
+      // Only one refresh per commitment may be in flight.
+      cache.onSlot(1);
+      assertTrue(node.requests.isEmpty());
+
+      refresh.complete(hash("older", 990));
+      assertSame(newer, cache.latest(Commitment.CONFIRMED));
+      assertEquals(List.of(newer), cache.recent(Commitment.CONFIRMED));
+      assertEquals(1_000 - VALID_BLOCKS, cache.estimatedBlockHeight(Commitment.CONFIRMED));
+      assertSame(newer, cache.latestAsync(Commitment.CONFIRMED).join());
+      assertTrue(node.requests.isEmpty());
+
+      node.respond(cache, hash("newer", 1_000));
+      assertEquals(List.of(newer), cache.recent(Commitment.CONFIRMED));
+    }
+  }
+
+  @Test
+  void evictsExpiredAndExcessHashes() {
+    final var node = new StubNode();
+    try (final var cache = createCache(node, 3, BlockHashCache.DEFAULT_MAX_AGE)) {
+      final var a = node.respond(cache, hash("a", 1_000));
+      final var b = node.respond(cache, hash("b", 1_001));
+      final var c = node.respond(cache, hash("c", 1_002));
+      assertEquals(List.of(c, b, a), cache.recent(Commitment.CONFIRMED));
+
+      final var d = node.respond(cache, hash("d", 1_003));
+      assertEquals(List.of(d, c, b), cache.recent(Commitment.CONFIRMED));
+
+      // Hashes more than VALID_BLOCKS behind the newest have expired.
+      final var e = node.respond(cache, hash("e", 1_003 + VALID_BLOCKS));
+      assertEquals(List.of(e, d), cache.recent(Commitment.CONFIRMED));
+      assertEquals(1_003, cache.estimatedBlockHeight(Commitment.CONFIRMED));
+      assertEquals(VALID_BLOCKS, cache.remainingBlocks(Commitment.CONFIRMED, e));
+      assertEquals(0, cache.remainingBlocks(Commitment.CONFIRMED, d));
+      assertEquals(-2, cache.remainingBlocks(Commitment.CONFIRMED, b));
+    }
+  }
+
+  @Test
+  void findsUnexpiredHashes() {
+    final var node = new StubNode();
+    try (final var cache = createCache(node, 8, BlockHashCache.DEFAULT_MAX_AGE)) {
+      assertNull(cache.find(Commitment.CONFIRMED, "a"));
+      final var a = node.respond(cache, hash("a", 1_000));
+      final var b = node.respond(cache, hash("b", 1_010));
+      assertSame(a, cache.find(Commitment.CONFIRMED, "a"));
+      assertSame(b, cache.find(Commitment.CONFIRMED, "b"));
+      assertNull(cache.find(Commitment.CONFIRMED, "c"));
+
+      node.respond(cache, hash("c", 1_000 + VALID_BLOCKS));
+      assertSame(a, cache.find(Commitment.CONFIRMED, "a"));
+      node.respond(cache, hash("d", 1_001 + VALID_BLOCKS));
+      assertNull(cache.find(Commitment.CONFIRMED, "a"));
+      assertSame(b, cache.find(Commitment.CONFIRMED, "b"));
+
+      assertThrows(IllegalArgumentException.class, () -> cache.find(Commitment.FINALIZED, "b"));
+    }
+  }
+
+  @Test
+  void agesOutStaleSnapshots() throws InterruptedException {
+    final var node = new StubNode();
+    try (final var cache = createCache(node, 8, Duration.ofMillis(50))) {
+      final var a = node.respond(cache, hash("a", 1_000));
+      assertSame(a, cache.latest(Commitment.CONFIRMED));
+
+      Thread.sleep(100);
+      assertNull(cache.latest(Commitment.CONFIRMED));
+      assertTrue(cache.recent(Commitment.CONFIRMED).isEmpty());
+      assertNull(cache.find(Commitment.CONFIRMED, "a"));
+      assertEquals(0, cache.estimatedBlockHeight(Commitment.CONFIRMED));
+
+      // The same hash fetched again is fresh.
+      node.respond(cache, hash("a", 1_000));
+      assertSame(a, cache.latest(Commitment.CONFIRMED));
+
+      Thread.sleep(100);
+      final var latestAsync = cache.latestAsync(Commitment.CONFIRMED);
+      assertFalse(latestAsync.isDone());
+      final var b = hash("b", 1_001);
+      node.next().complete(b);
+      assertSame(b, latestAsync.join());
+      assertEquals(List.of(b, a), cache.recent(Commitment.CONFIRMED));
+    }
+  }
+}
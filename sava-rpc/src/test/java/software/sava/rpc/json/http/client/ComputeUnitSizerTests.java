@@ -0,0 +1,234 @@
+package software.sava.rpc.json.http.client;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.core.accounts.SolanaAccounts;
+import software.sava.core.accounts.meta.AccountMeta;
+import software.sava.core.encoding.ByteUtil;
+import software.sava.core.tx.Instruction;
+import software.sava.core.tx.Transaction;
+import software.sava.core.tx.TransactionTemplate;
+import software.sava.rpc.json.http.response.Context;
+import software.sava.rpc.json.http.response.TransactionError;
+import software.sava.rpc.json.http.response.TxSimulation;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ComputeUnitSizerTests {
+
+  private static final Context CONTEXT = new Context(328984397, "2.1.9");
+  private static final SolanaAccounts ACCOUNTS = SolanaAccounts.MAIN_NET;
+  private static final PublicKey FEE_PAYER = key(1);
+  private static final PublicKey ANCHOR_PROGRAM = key(2);
+
+  private static PublicKey key(final int id) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    key[0] = (byte) id;
+    key[31] = 1;
+    return PublicKey.createPubKey(key);
+  }
+
+  private static final class StubNode {
+
+    private final Queue<CompletableFuture<TxSimulation>> simulations = new ConcurrentLinkedQueue<>();
+    private final RpcStub rpc = new RpcStub().on("simulateTransaction", args -> {
+      final var simulation = new CompletableFuture<TxSimulation>();
+      simulations.add(simulation);
+      return simulation;
+    });
+
+    private void complete(final TransactionError error, final int unitsConsumed) {
+      final var simulation = simulations.poll();
+      assertNotNull(simulation, "Expected a simulation.");
+      simulation.complete(new TxSimulation(
+          CONTEXT, error, List.of(), List.of(), List.of(), null, OptionalInt.of(unitsConsumed), null, null
+      ));
+    }
+
+    private void complete(final int unitsConsumed) {
+      complete(null, unitsConsumed);
+    }
+  }
+
+  private static ComputeUnitSizer createSizer(final StubNode node, final int maxInFlight) {
+    return ComputeUnitSizer.createSizer(node.rpc.rpcClient(), ACCOUNTS, 0.1, 1_000, maxInFlight, 64);
+  }
+
+  private static Transaction tx(final PublicKey program, final int numAccounts, final byte... data) {
+    final var accounts = IntStream.range(0, numAccounts)
+        .mapToObj(i -> AccountMeta.createWrite(key(100 + i)))
+        .toList();
+    return Transaction.createTx(FEE_PAYER, List.of(Instruction.createInstruction(program, accounts, data)));
+  }
+
+  private static Transaction anchorTx(final int discriminator, final int numAccounts, final long arg) {
+    final byte[] data = new byte[8 + Long.BYTES];
+    Arrays.fill(data, 0, 8, (byte) discriminator);
+    ByteUtil.putInt64LE(data, 8, arg);
+    return tx(ANCHOR_PROGRAM, numAccounts, data);
+  }
+
+  @Test
+  void marginMath() {
+    final var sizer = createSizer(new StubNode(), 1);
+    assertEquals(110_000, sizer.computeUnitLimit(100_000));
+    // The margin is rounded up.
+    assertEquals(11_002, sizer.computeUnitLimit(10_001));
+    // The margin never drops below minMarginUnits.
+    assertEquals(6_000, sizer.computeUnitLimit(5_000));
+    assertEquals(1_000, sizer.computeUnitLimit(0));
+    final int max = ComputeUnitSizer.MAX_COMPUTE_UNIT_LIMIT;
+    assertEquals(max, sizer.computeUnitLimit(1_300_000));
+    assertEquals(max, sizer.computeUnitLimit(max));
+  }
+
+  @Test
+  void cachesByShape() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 4);
+
+    final var first = sizer.computeUnitLimit(anchorTx(1, 2, 7));
+    assertFalse(first.isDone());
+    node.complete(50_000);
+    assertEquals(55_000, first.join());
+    assertEquals(1, sizer.numCached());
+
+    // Same program, discriminator and number of accounts, different arguments.
+    assertEquals(55_000, sizer.computeUnitLimit(anchorTx(1, 2, 8)).join());
+    assertTrue(node.simulations.isEmpty());
+
+    final var otherDiscriminator = sizer.computeUnitLimit(anchorTx(2, 2, 7));
+    final var otherAccounts = sizer.computeUnitLimit(anchorTx(1, 3, 7));
+    assertFalse(otherDiscriminator.isDone());
+    assertFalse(otherAccounts.isDone());
+    node.complete(20_000);
+    node.complete(30_000);
+    assertEquals(22_000, otherDiscriminator.join());
+    assertEquals(33_000, otherAccounts.join());
+    assertEquals(3, sizer.numCached());
+
+    sizer.invalidate(anchorTx(1, 2, 9));
+    assertEquals(2, sizer.numCached());
+    final var resimulated = sizer.computeUnitLimit(anchorTx(1, 2, 7));
+    assertFalse(resimulated.isDone());
+    node.complete(60_000);
+    assertEquals(66_000, resimulated.join());
+
+    sizer.clearCache();
+    assertEquals(0, sizer.numCached());
+  }
+
+  @Test
+  void failedSimulationsAreNotCached() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 4);
+
+    final var failed = sizer.computeUnitLimit(anchorTx(1, 2, 7));
+    node.complete(new TransactionError.InsufficientFundsForFee(), 10_000);
+    final var ex = assertThrows(CompletionException.class, failed::join);
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+    assertEquals(0, sizer.numCached());
+    assertEquals(0, sizer.numPending());
+
+    final var retried = sizer.computeUnitLimit(anchorTx(1, 2, 7));
+    assertFalse(retried.isDone());
+    node.complete(10_000);
+    assertEquals(11_000, retried.join());
+  }
+
+  @Test
+  void discriminatorLengthPerProgram() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 4);
+
+    // Native programs are keyed by their first byte only.
+    final var transfer = sizer.computeUnitLimit(tx(ACCOUNTS.tokenProgram(), 3, (byte) 3, (byte) 1, (byte) 0));
+    node.complete(4_000);
+    assertEquals(5_000, transfer.join());
+    assertTrue(sizer.computeUnitLimit(tx(ACCOUNTS.tokenProgram(), 3, (byte) 3, (byte) 2, (byte) 5)).isDone());
+    assertFalse(sizer.computeUnitLimit(tx(ACCOUNTS.tokenProgram(), 3, (byte) 12, (byte) 1, (byte) 0)).isDone());
+    node.complete(4_000);
+
+    // Memo text does not split the cache.
+    final var memo = sizer.computeUnitLimit(tx(ACCOUNTS.memoProgram(), 0, "a".getBytes()));
+    node.complete(2_000);
+    assertEquals(3_000, memo.join());
+    assertTrue(sizer.computeUnitLimit(tx(ACCOUNTS.memoProgram(), 0, "b".getBytes())).isDone());
+
+    // Anchor programs differing after the first byte of their discriminator.
+    final byte[] data = new byte[8];
+    sizer.computeUnitLimit(tx(ANCHOR_PROGRAM, 1, data));
+    node.complete(7_000);
+    data[7] = 1;
+    assertFalse(sizer.computeUnitLimit(tx(ANCHOR_PROGRAM, 1, data)).isDone());
+    node.complete(7_000);
+
+    final var lengths = ComputeUnitSizer.nativeDiscriminatorLengths(ACCOUNTS);
+    lengths.put(ANCHOR_PROGRAM, 2);
+    final var configured = ComputeUnitSizer.createSizer(node.rpc.rpcClient(), ACCOUNTS, 0.1, 1_000, 4, 64, lengths);
+    data[7] = 0;
+    configured.computeUnitLimit(tx(ANCHOR_PROGRAM, 1, data));
+    node.complete(7_000);
+    data[7] = 1;
+    assertTrue(configured.computeUnitLimit(tx(ANCHOR_PROGRAM, 1, data)).isDone());
+    data[1] = 1;
+    assertFalse(configured.computeUnitLimit(tx(ANCHOR_PROGRAM, 1, data)).isDone());
+  }
+
+  @Test
+  void sharesConcurrentSimulations() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 4);
+
+    final var first = sizer.computeUnitLimit(anchorTx(1, 2, 7));
+    final var second = sizer.computeUnitLimit(anchorTx(1, 2, 8));
+    assertSame(first, second);
+    assertEquals(1, node.simulations.size());
+    assertEquals(1, sizer.numPending());
+
+    node.complete(10_000);
+    assertEquals(11_000, second.join());
+    assertEquals(0, sizer.numPending());
+  }
+
+  @Test
+  void boundsInFlightSimulations() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 2);
+
+    final var futures = IntStream.range(0, 5)
+        .mapToObj(i -> sizer.computeUnitLimit(anchorTx(i, 1, 0)))
+        .toList();
+    assertEquals(2, node.simulations.size());
+    assertEquals(5, sizer.numPending());
+
+    for (int i = 0; i < futures.size(); ++i) {
+      assertTrue(node.simulations.size() <= 2);
+      node.complete(10_000 * (i + 1));
+      assertEquals(11_000 * (i + 1), futures.get(i).join());
+      assertEquals(futures.size() - i - 1, sizer.numPending());
+    }
+    assertTrue(node.simulations.isEmpty());
+  }
+
+  @Test
+  void sizeSetsComputeUnitLimit() {
+    final var node = new StubNode();
+    final var sizer = createSizer(node, 1);
+
+    final var sized = sizer.size(anchorTx(1, 2, 7));
+    node.complete(100_000);
+    final var instructions = sized.join().instructions();
+    assertEquals(2, instructions.size());
+    final var computeUnitLimitIx = instructions.getFirst();
+    assertEquals(ACCOUNTS.computeBudgetProgram(), computeUnitLimitIx.programId().publicKey());
+    assertEquals(TransactionTemplate.SET_COMPUTE_UNIT_LIMIT, computeUnitLimitIx.data()[computeUnitLimitIx.offset()]);
+    assertEquals(110_000, ByteUtil.getInt32LE(computeUnitLimitIx.data(), computeUnitLimitIx.offset() + 1));
+  }
+}
@@ -0,0 +1,165 @@
+package software.sava.rpc.json.http.client;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.rpc.json.http.response.PrioritizationFee;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PriorityFeeEstimatorTests {
+
+  private static final PublicKey ACCOUNT = PublicKey.fromBase58Encoded("So11111111111111111111111111111111111111112");
+  private static final PublicKey OTHER = PublicKey.fromBase58Encoded("11111111111111111111111111111111");
+
+  private static PriorityFeeEstimator createEstimator(final int windowSlots) {
+    return PriorityFeeEstimator.createEstimator(null, windowSlots, Duration.ofHours(1));
+  }
+
+  private static List<PrioritizationFee> fees(final long... slotFeePairs) {
+    final var fees = new ArrayList<PrioritizationFee>(slotFeePairs.length >> 1);
+    for (int i = 0; i < slotFeePairs.length; i += 2) {
+      fees.add(new PrioritizationFee(slotFeePairs[i], slotFeePairs[i + 1]));
+    }
+    return fees;
+  }
+
+  @Test
+  void emptyWindow() {
+    try (final var estimator = createEstimator(150)) {
+      assertEquals(0, estimator.newestSlot(ACCOUNT));
+      assertEquals(0, estimator.numSamples(ACCOUNT));
+      assertEquals(0, estimator.percentile(ACCOUNT, 0.5));
+
+      estimator.update(ACCOUNT, List.of());
+      assertEquals(0, estimator.numSamples(ACCOUNT));
+      assertEquals(0, estimator.percentile(ACCOUNT, 0.95));
+    }
+  }
+
+  @Test
+  void nearestRankPercentiles() {
+    try (final var estimator = createEstimator(150)) {
+      // Slots 1 to 10 with fees 100 down to 10.
+      final var fees = new ArrayList<PrioritizationFee>();
+      for (int slot = 1; slot <= 10; ++slot) {
+        fees.add(new PrioritizationFee(slot, 110 - 10L * slot));
+      }
+      estimator.update(ACCOUNT, fees);
+      assertEquals(10, estimator.numSamples(ACCOUNT));
+      assertEquals(10, estimator.newestSlot(ACCOUNT));
+
+      assertEquals(10, estimator.percentile(ACCOUNT, 0));
+      assertEquals(10, estimator.percentile(ACCOUNT, 0.1));
+      assertEquals(20, estimator.percentile(ACCOUNT, 0.11));
+      assertEquals(50, estimator.percentile(ACCOUNT, 0.5));
+      assertEquals(80, estimator.percentile(ACCOUNT, 0.75));
+      assertEquals(100, estimator.percentile(ACCOUNT, 0.95));
+      assertEquals(100, estimator.percentile(ACCOUNT, 1));
+
+      // Slots without any fee count towards the rank.
+      estimator.update(ACCOUNT, fees(11, 0, 12, 0, 13, 0, 14, 0, 15, 0, 16, 0, 17, 0, 18, 0, 19, 0, 20, 0));
+      assertEquals(0, estimator.percentile(ACCOUNT, 0.5));
+      assertEquals(50, estimator.percentile(ACCOUNT, 0.75));
+
+      estimator.update(OTHER, fees(20, 1_000));
+      assertEquals(1_000, estimator.p50(List.of(ACCOUNT, OTHER)));
+      assertEquals(500, estimator.computeUnitPrice(List.of(ACCOUNT, OTHER), 0.5, 500));
+    }
+  }
+
+  @Test
+  void mergesUnsortedSamples() {
+    try (final var estimator = createEstimator(150)) {
+      estimator.update(ACCOUNT, fees(105, 5, 101, 1, 103, 3));
+      assertEquals(105, estimator.newestSlot(ACCOUNT));
+      assertEquals(3, estimator.numSamples(ACCOUNT));
+
+      // Interleaved with, older and newer than the existing samples.
+      estimator.update(ACCOUNT, fees(104, 4, 100, 0, 106, 6, 102, 2));
+      assertEquals(106, estimator.newestSlot(ACCOUNT));
+      assertEquals(7, estimator.numSamples(ACCOUNT));
+      for (int rank = 1; rank <= 7; ++rank) {
+        assertEquals(rank - 1, estimator.percentile(ACCOUNT, (rank - 0.5) / 7));
+      }
+    }
+  }
+
+  @Test
+  void newerSamplesWinForDuplicateSlots() {
+    try (final var estimator = createEstimator(150)) {
+      estimator.update(ACCOUNT, fees(10, 100, 11, 110, 12, 120));
+
+      // Later entries of the same batch win, as do later batches.
+      estimator.update(ACCOUNT, fees(11, 1, 12, 2, 11, 3));
+      assertEquals(3, estimator.numSamples(ACCOUNT));
+      assertEquals(2, estimator.percentile(ACCOUNT, 0));
+      assertEquals(3, estimator.percentile(ACCOUNT, 0.5));
+      assertEquals(100, estimator.percentile(ACCOUNT, 1));
+
+      estimator.update(ACCOUNT, fees(13, 7, 13, 8));
+      assertEquals(4, estimator.numSamples(ACCOUNT));
+      assertEquals(100, estimator.percentile(ACCOUNT, 1));
+      assertEquals(8, estimator.percentile(ACCOUNT, 0.75));
+    }
+  }
+
+  @Test
+  void evictsSlotsOutsideTheWindow() {
+    try (final var estimator = createEstimator(4)) {
+      estimator.update(ACCOUNT, fees(1, 1, 2, 2, 3, 3, 4, 4));
+      assertEquals(4, estimator.numSamples(ACCOUNT));
+
+      estimator.update(ACCOUNT, fees(6, 6));
+      assertEquals(3, estimator.numSamples(ACCOUNT));
+      assertEquals(3, estimator.percentile(ACCOUNT, 0));
+
+      // Samples older than the window are dropped on arrival.
+      estimator.update(ACCOUNT, fees(2, 200, 5, 5));
+      assertEquals(4, estimator.numSamples(ACCOUNT));
+      assertEquals(6, estimator.percentile(ACCOUNT, 1));
+
+      estimator.update(ACCOUNT, fees(100, 100));
+      assertEquals(1, estimator.numSamples(ACCOUNT));
+      assertEquals(100, estimator.newestSlot(ACCOUNT));
+
+      assertTrue(estimator.track(ACCOUNT));
+      assertTrue(estimator.untrack(ACCOUNT));
+      assertEquals(0, estimator.numSamples(ACCOUNT));
+    }
+  }
+
+  @Test
+  void matchesReferenceWindow() {
+    final var random = new Random(42);
+    final int windowSlots = 20;
+    try (final var estimator = createEstimator(windowSlots)) {
+      final var reference = new TreeMap<Long, Long>();
+      long baseSlot = 1_000;
+      for (int round = 0; round < 500; ++round) {
+        baseSlot += random.nextInt(4);
+        final int numSamples = random.nextInt(8);
+        final var batch = new ArrayList<PrioritizationFee>(numSamples);
+        for (int i = 0; i < numSamples; ++i) {
+          final var sample = new PrioritizationFee(baseSlot - random.nextInt(30), random.nextInt(5) * 1_000L);
+          batch.add(sample);
+          reference.put(sample.slot(), sample.prioritizationFee());
+        }
+        estimator.update(ACCOUNT, batch);
+
+        if (!reference.isEmpty()) {
+          reference.headMap(reference.lastKey() - windowSlots, true).clear();
+        }
+        final long[] sortedFees = reference.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        assertEquals(sortedFees.length, estimator.numSamples(ACCOUNT));
+        assertEquals(reference.isEmpty() ? 0 : reference.lastKey(), estimator.newestSlot(ACCOUNT));
+        for (int rank = 1; rank <= sortedFees.length; ++rank) {
+          final double percentile = (rank - 0.5) / sortedFees.length;
+          assertEquals(sortedFees[rank - 1], estimator.percentile(ACCOUNT, percentile));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package software.sava.rpc.json.http.client;
+
+import software.sava.rpc.json.http.ws.SolanaRpcWebsocket;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/// Answers [SolanaRpcClient] and [SolanaRpcWebsocket] calls with handlers registered by method name, every overload
+/// of a method shares its handler.  Any other method throws [UnsupportedOperationException].
+public final class RpcStub implements InvocationHandler {
+
+  private final Map<String, Function<Object[], Object>> handlers = new ConcurrentHashMap<>();
+
+  public RpcStub on(final String method, final Function<Object[], Object> handler) {
+    handlers.put(method, handler);
+    return this;
+  }
+
+  public SolanaRpcClient rpcClient() {
+    return proxy(SolanaRpcClient.class);
+  }
+
+  public SolanaRpcWebsocket websocket() {
+    return proxy(SolanaRpcWebsocket.class);
+  }
+
+  private <T> T proxy(final Class<T> type) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+  }
+
+  @Override
+  public Object invoke(final Object proxy, final Method method, final Object[] args) {
+    final var handler = handlers.get(method.getName());
+    if (handler != null) {
+      return handler.apply(args);
+    }
+    return switch (method.getName()) {
+      case "hashCode" -> System.identityHashCode(proxy);
+      case "equals" -> proxy == args[0];
+      case "toString" -> "RpcStub";
+      default -> throw new UnsupportedOperationException(method.getName());
+    };
+  }
+}
@@ -1,24 +1,35 @@
 package software.sava.rpc.json.http.client;
 
+import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import software.sava.core.accounts.PublicKey;
+import software.sava.core.encoding.ByteUtil;
+import software.sava.core.rpc.Filter;
 import software.sava.rpc.json.http.request.Commitment;
 import software.sava.rpc.json.http.response.AccountInfo;
+import software.sava.rpc.json.http.response.JsonRpcException;
 import software.sava.rpc.json.http.response.NodeHealth;
 import systems.comodal.jsoniter.JsonIterator;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpResponse;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static software.sava.rpc.json.http.client.HttpClientTests.createServer;
 import static software.sava.rpc.json.http.client.HttpClientTests.writeResponse;
 
@@ -117,6 +128,26 @@ final class SolanaRpcTests {
                   yield null;
                 }
               }
+              case 401 -> {
+                if (requestString.equals("""
+                    {"jsonrpc":"2.0","id":401,"method":"getProgramAccounts","params":["TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA",{"withContext":true,"encoding":"base64","commitment":"confirmed","minContextSlot":1000,"dataSlice":{"length":32,"offset":0},"filters":[{"dataSize":165},{"memcmp":{"offset":32,"bytes":"7ubS3GccjhQY99AYNKXjNJqnXjaokEdfdV915xnCb96r"}}]}]}""")) {
+                  yield """
+                      {"jsonrpc":"2.0","id":401,"result":{"context":{"slot":328984397,"apiVersion":"2.1.9"},"value":[{"pubkey":"5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6","account":{"lamports":2039280,"data":["CR5z0XpVJtRI5Ymupa/nwizWHFtmqGpCerJiMJUU5Vw=","base64"],"owner":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA","executable":false,"rentEpoch":18446744073709551615,"space":165}}]}}""";
+                } else {
+                  yield null;
+                }
+              }
+              case 402 -> {
+                if (requestString.equals("""
+                    {"jsonrpc":"2.0","id":402,"method":"getProgramAccounts","params":["TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA",{"withContext":true,"encoding":"base64","commitment":"confirmed","minContextSlot":1000,"dataSlice":{"length":32,"offset":0},"filters":[{"dataSize":165}]}]}""")) {
+                  yield """
+                      {"jsonrpc":"2.0","id":402,"result":{"context":{"slot":328984397,"apiVersion":"2.1.9"},"value":[{"pubkey":"5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6","account":{"lamports":2039280,"data":["CR5z0XpVJtRI5Ymupa/nwizWHFtmqGpCerJiMJUU5Vw=","base64"],"owner":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA","executable":false,"rentEpoch":18446744073709551615,"space":165}},{"pubkey":"7ubS3GccjhQY99AYNKXjNJqnXjaokEdfdV915xnCb96r","account":{"lamports":2039280,"data":["BpuIV/6rgYT7aH9jRhjANdrEOdwa6ztVmKDwAAAAAAE=","base64"],"owner":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA","executable":false,"rentEpoch":18446744073709551615,"space":165}}]}}""";
+                } else {
+                  yield null;
+                }
+              }
+              case 403 -> """
+                  {"jsonrpc":"2.0","error":{"code":-32010,"message":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA excluded from account secondary indexes; this RPC method unavailable for key"},"id":403}""";
               default -> "Unexpected json rpc id: " + id;
             };
 
@@ -129,6 +160,19 @@ final class SolanaRpcTests {
         }
     );
 
+    httpServerRecord.httpServer().createContext("/batch", request -> {
+          assertEquals("POST", request.getRequestMethod());
+          final var requestString = new String(request.getRequestBody().readAllBytes());
+          if (requestString.equals("""
+              [{"jsonrpc":"2.0","id":501,"method":"getSlot","params":[{"commitment":"confirmed"}]},{"jsonrpc":"2.0","id":502,"method":"getInflationReward","params":[["BDn3HiXMTym7ZQofWFxDb7ZGQX6GomQzJYKfytTAqd5g"],{"commitment":"confirmed"}]},{"jsonrpc":"2.0","id":503,"method":"getSlot","params":[{"commitment":"finalized"}]}]""")) {
+            writeResponse(request, """
+                [{"jsonrpc":"2.0","result":328984350,"id":503},{"jsonrpc":"2.0","result":[{"amount":1854511658,"commission":5,"effectiveSlot":338256000,"epoch":782,"postBalance":2178854057}],"id":502},{"jsonrpc":"2.0","result":328984397,"id":501}]""");
+          } else {
+            writeResponse(400, request, requestString);
+          }
+        }
+    );
+
     HTTP_SERVER_ENDPOINT = httpServerRecord.endpoint();
     HTTP_SERVER = httpServerRecord.httpServer();
     HTTP_CLIENT = HttpClientTests.createClient();
@@ -293,6 +337,139 @@ final class SolanaRpcTests {
     assertEquals("So11111111111111111111111111111111111111112", PublicKey.readPubKey(data, 88).toBase58());
   }
 
+  @Test
+  void testProgramAccounts() {
+    final int testId = 400;
+    final var rpcClient = createClient();
+
+    rpcClient.id.set(testId);
+    final var accounts = rpcClient.getProgramAccounts(
+        null,
+        PublicKey.fromBase58Encoded("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+        Commitment.CONFIRMED,
+        1000,
+        List.of(
+            Filter.createDataSizeFilter(165),
+            Filter.createMemCompFilter(32, PublicKey.fromBase58Encoded("7ubS3GccjhQY99AYNKXjNJqnXjaokEdfdV915xnCb96r"))
+        ),
+        32, 0,
+        AccountInfo.BYTES_IDENTITY
+    ).join();
+
+    assertEquals(1, accounts.size());
+    final var accountInfo = accounts.getFirst();
+    assertEquals("5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6", accountInfo.pubKey().toBase58());
+    assertEquals(328984397, accountInfo.context().slot());
+    assertEquals("cbbtcf3aa214zXHbiAZQwf4122FBYbraNdFqgw4iMij", PublicKey.readPubKey(accountInfo.data()).toString());
+  }
+
+  @Test
+  void testStreamProgramAccounts() {
+    final int testId = 401;
+    final var rpcClient = createClient();
+
+    rpcClient.id.set(testId);
+    final var accounts = new ArrayList<AccountInfo<byte[]>>();
+    final var context = rpcClient.streamProgramAccounts(
+        null,
+        PublicKey.fromBase58Encoded("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+        Commitment.CONFIRMED,
+        1000,
+        List.of(Filter.createDataSizeFilter(165)),
+        32, 0,
+        AccountInfo.BYTES_IDENTITY,
+        accounts::add
+    ).join();
+
+    assertEquals(328984397, context.slot());
+    assertEquals(2, accounts.size());
+    var accountInfo = accounts.getFirst();
+    assertEquals("5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6", accountInfo.pubKey().toBase58());
+    assertEquals(328984397, accountInfo.context().slot());
+    assertEquals("cbbtcf3aa214zXHbiAZQwf4122FBYbraNdFqgw4iMij", PublicKey.readPubKey(accountInfo.data()).toString());
+    accountInfo = accounts.getLast();
+    assertEquals("7ubS3GccjhQY99AYNKXjNJqnXjaokEdfdV915xnCb96r", accountInfo.pubKey().toBase58());
+    assertEquals("So11111111111111111111111111111111111111112", PublicKey.readPubKey(accountInfo.data()).toBase58());
+
+    final var error = assertThrows(CompletionException.class, () -> rpcClient.streamProgramAccounts(
+        PublicKey.fromBase58Encoded("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+        List.of(),
+        account -> fail()
+    ).join());
+    final var rpcException = assertInstanceOf(JsonRpcException.class, error.getCause());
+    assertEquals(-32010, rpcException.code());
+  }
+
+  @Test
+  void testStreamProgramAccountsResultFields() {
+    final var account = """
+        {"pubkey":"5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6","account":{"lamports":2039280,"data":["CR5z0XpVJtRI5Ymupa/nwizWHFtmqGpCerJiMJUU5Vw=","base64"],"owner":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA","executable":false,"rentEpoch":18446744073709551615,"space":165}}""";
+    final var context = """
+        "context":{"slot":328984397,"apiVersion":"2.1.9"}""";
+    final var responses = new ArrayDeque<String>();
+    for (final var result : List.of(
+        """
+            {"extra":[1,2],%1$s,"value":[%2$s]}""",
+        """
+            {"value":[%2$s],%1$s}""",
+        """
+            {%1$s}"""
+    )) {
+      responses.add("""
+          {"jsonrpc":"2.0","id":1,"result":%s}""".formatted(result.formatted(context, account)));
+    }
+    final var path = "/stream/result";
+    HTTP_SERVER.createContext(path, request -> {
+      request.getRequestBody().readAllBytes();
+      writeResponse(request, responses.removeFirst());
+    });
+    try {
+      final var rpcClient = SolanaRpcClient.createClient(HTTP_SERVER_ENDPOINT.resolve(path), HTTP_CLIENT);
+      final var program = PublicKey.fromBase58Encoded("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+      final var accounts = new ArrayList<AccountInfo<byte[]>>();
+      assertEquals(328984397, rpcClient.streamProgramAccounts(program, List.of(), accounts::add).join().slot());
+      assertEquals(1, accounts.size());
+      assertEquals(328984397, accounts.getFirst().context().slot());
+
+      for (final var message : List.of(
+          "Streamed result value must follow its context.",
+          "Streamed result is missing its value."
+      )) {
+        final var error = assertThrows(CompletionException.class, () -> rpcClient.streamProgramAccounts(
+            program, List.of(), accountInfo -> fail()
+        ).join());
+        final var cause = assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(message, cause.getMessage());
+      }
+    } finally {
+      HTTP_SERVER.removeContext(path);
+    }
+  }
+
+  @Test
+  void testBatch() {
+    final int testId = 500;
+    final var rpcClient = (SolanaJsonRpcClient) SolanaRpcClient.createClient(HTTP_SERVER_ENDPOINT.resolve("/batch"), HTTP_CLIENT);
+
+    rpcClient.id.set(testId);
+    final var batch = rpcClient.createBatch();
+    final var batchClient = batch.rpcClient();
+    final var confirmedSlot = batchClient.getSlot();
+    final var inflationRewards = batchClient.getInflationReward(List.of(
+        PublicKey.fromBase58Encoded("BDn3HiXMTym7ZQofWFxDb7ZGQX6GomQzJYKfytTAqd5g")
+    ));
+    final var finalizedSlot = batchClient.getSlot(Commitment.FINALIZED);
+    assertEquals(3, batch.numPending());
+
+    batch.send();
+    assertEquals(0, batch.numPending());
+    assertEquals(328984397L, confirmedSlot.join().longValue());
+    assertEquals(328984350L, finalizedSlot.join().longValue());
+    final var inflationReward = inflationRewards.join().getFirst();
+    assertEquals(1854511658, inflationReward.amount());
+    assertEquals(782, inflationReward.epoch());
+  }
+
   private void validateNodeHealth(final NodeHealth nodeHealth) {
     assertEquals(-32005, nodeHealth.code());
     assertEquals(0, nodeHealth.numSlotsBehind());
@@ -323,4 +500,346 @@ final class SolanaRpcTests {
     nodeHealth = rpcClient.getHealth().join();
     validateNodeHealth(nodeHealth);
   }
+
+  private static void sleep(final long millis) {
+    if (millis > 0) {
+      try {
+        Thread.sleep(millis);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private record MockNode(String path,
+                          AtomicLong delayMillis,
+                          AtomicInteger statusCode,
+                          AtomicInteger healthRequests) {
+
+    private static MockNode create(final String path, final long delayMillis) {
+      final var node = new MockNode(path, new AtomicLong(delayMillis), new AtomicInteger(200), new AtomicInteger());
+      HTTP_SERVER.createContext(path, request -> {
+        final var requestString = new String(request.getRequestBody().readAllBytes());
+        final boolean isHealth = requestString.contains("\"getHealth\"");
+        if (isHealth) {
+          node.healthRequests.incrementAndGet();
+        }
+        sleep(node.delayMillis.get());
+        final int statusCode = node.statusCode.get();
+        if (statusCode != 200) {
+          writeResponse(statusCode, request, """
+              {"jsonrpc":"2.0","error":{"code":-32005,"message":"Node is unavailable"},"id":1}""");
+        } else if (isHealth) {
+          writeResponse(request, """
+              {"jsonrpc":"2.0","result":"ok","id":1}""");
+        } else {
+          writeResponse(request, """
+              {"jsonrpc":"2.0","result":328984397,"id":1}""");
+        }
+      });
+      return node;
+    }
+
+    private SolanaRpcClient client() {
+      return SolanaRpcClient.createClient(HTTP_SERVER_ENDPOINT.resolve(path), HTTP_CLIENT);
+    }
+
+    private void remove() {
+      HTTP_SERVER.removeContext(path);
+    }
+  }
+
+  @Test
+  void testBalancedPrefersLowLatency() {
+    final var slow = MockNode.create("/balanced/latency/slow", 200);
+    final var fast = MockNode.create("/balanced/latency/fast", 0);
+    try {
+      final var rpcClient = SolanaRpcClient.createBalancedClient(List.of(slow.client(), fast.client()), false);
+      for (int i = 0; i < 10; ++i) {
+        assertEquals(200, rpcClient.getHealth().join().code());
+      }
+      // Unscored nodes tie, so only the first request may reach the slow node before its latency is recorded.
+      assertEquals(1, slow.healthRequests().get());
+      assertEquals(9, fast.healthRequests().get());
+    } finally {
+      slow.remove();
+      fast.remove();
+    }
+  }
+
+  @Test
+  void testBalancedRoutesAroundErrors() {
+    final var failing = MockNode.create("/balanced/errors/failing", 0);
+    final var healthy = MockNode.create("/balanced/errors/healthy", 0);
+    failing.statusCode().set(503);
+    try {
+      final var rpcClient = SolanaRpcClient.createBalancedClient(List.of(failing.client(), healthy.client()), false);
+      assertEquals(-32005, rpcClient.getHealth().join().code());
+      for (int i = 0; i < 5; ++i) {
+        assertEquals(200, rpcClient.getHealth().join().code());
+      }
+      assertEquals(1, failing.healthRequests().get());
+      assertEquals(5, healthy.healthRequests().get());
+    } finally {
+      failing.remove();
+      healthy.remove();
+    }
+  }
+
+  @Test
+  void testBalancedHedgesSlowPrimary() {
+    final var primary = MockNode.create("/balanced/hedge/primary", 0);
+    final var secondary = MockNode.create("/balanced/hedge/secondary", 100);
+    try {
+      final var rpcClient = SolanaRpcClient.createBalancedClient(List.of(primary.client(), secondary.client()), true);
+      assertEquals(200, rpcClient.getHealth().join().code());
+      // Let the slot refresh score the secondary so the primary stays ranked first.
+      sleep(150);
+      for (int i = 0; i < 4; ++i) {
+        assertEquals(200, rpcClient.getHealth().join().code());
+      }
+      final int secondaryRequests = secondary.healthRequests().get();
+
+      primary.delayMillis().set(2_000);
+      secondary.delayMillis().set(0);
+      final long start = System.nanoTime();
+      assertEquals(200, rpcClient.getHealth().join().code());
+      final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      assertTrue(elapsedMillis < 1_000, "Hedged request waited on the slow primary: " + elapsedMillis + "ms");
+      assertTrue(secondary.healthRequests().get() > secondaryRequests);
+    } finally {
+      primary.remove();
+      secondary.remove();
+    }
+  }
+
+  @Test
+  void testBalancedHedgeFailsOverBeforeDelay() {
+    final var primary = MockNode.create("/balanced/failover/primary", 200);
+    final var secondary = MockNode.create("/balanced/failover/secondary", 400);
+    try {
+      final var rpcClient = SolanaRpcClient.createBalancedClient(List.of(primary.client(), secondary.client()), true);
+      // Both nodes start unscored, so the first request goes to the primary and its p95 becomes the hedge delay.
+      assertEquals(200, rpcClient.getHealth().join().code());
+      sleep(300);
+      assertEquals(0, secondary.healthRequests().get());
+
+      primary.statusCode().set(429);
+      primary.delayMillis().set(0);
+      secondary.delayMillis().set(0);
+      final long start = System.nanoTime();
+      assertEquals(200, rpcClient.getHealth().join().code());
+      final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      assertTrue(elapsedMillis < 150, "Secondary was only tried after the hedge delay: " + elapsedMillis + "ms");
+      assertEquals(2, primary.healthRequests().get());
+      assertEquals(1, secondary.healthRequests().get());
+
+      // Once both nodes fail the last failed response is surfaced.
+      secondary.statusCode().set(503);
+      assertEquals(-32005, rpcClient.getHealth().join().code());
+    } finally {
+      primary.remove();
+      secondary.remove();
+    }
+  }
+
+  @Test
+  void testBalancedStreamsThroughBestNode() {
+    final var streamedBy = new CopyOnWriteArrayList<String>();
+    final var nodes = new ArrayList<SolanaRpcClient>();
+    for (final var name : new String[]{"slow", "fast"}) {
+      final var path = "/balanced/stream/" + name;
+      HTTP_SERVER.createContext(path, request -> {
+        final var requestString = new String(request.getRequestBody().readAllBytes());
+        if (requestString.contains("\"getProgramAccounts\"")) {
+          streamedBy.add(name + ':' + request.getRequestHeaders().getFirst("X-Node"));
+          writeResponse(request, """
+              {"jsonrpc":"2.0","id":1,"result":{"context":{"slot":328984397,"apiVersion":"2.1.9"},"value":[{"pubkey":"5rCf1DM8LjKTw4YqhnoLcngyZYeNnQqztScTogYHAS6","account":{"lamports":2039280,"data":["CR5z0XpVJtRI5Ymupa/nwizWHFtmqGpCerJiMJUU5Vw=","base64"],"owner":"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA","executable":false,"rentEpoch":18446744073709551615,"space":165}}]}}""");
+        } else {
+          sleep(name.equals("slow") ? 200 : 0);
+          writeResponse(request, """
+              {"jsonrpc":"2.0","result":328984397,"id":1}""");
+        }
+      });
+      nodes.add(SolanaRpcClient.createClient(
+          HTTP_SERVER_ENDPOINT.resolve(path), HTTP_CLIENT, builder -> builder.header("X-Node", name), null
+      ));
+    }
+    try {
+      final var rpcClient = SolanaRpcClient.createBalancedClient(nodes, false);
+      for (int i = 0; i < 3; ++i) {
+        assertEquals(328984397L, rpcClient.getSlot().join().longValue());
+      }
+      final var accounts = new ArrayList<AccountInfo<byte[]>>();
+      final var context = rpcClient.streamProgramAccounts(
+          PublicKey.fromBase58Encoded("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+          List.of(),
+          accounts::add
+      ).join();
+      assertEquals(328984397, context.slot());
+      assertEquals(1, accounts.size());
+      assertEquals(List.of("fast:fast"), streamedBy);
+    } finally {
+      HTTP_SERVER.removeContext("/balanced/stream/slow");
+      HTTP_SERVER.removeContext("/balanced/stream/fast");
+    }
+  }
+
+  private static final Pattern MIN_CONTEXT_SLOT = Pattern.compile("\"minContextSlot\":(\\d+)");
+
+  private record ChunkNode(String path,
+                           boolean enforceMinContextSlot,
+                           IntToLongFunction servedSlot,
+                           AtomicInteger requests,
+                           AtomicInteger inFlight,
+                           AtomicInteger maxInFlight,
+                           List<Long> minContextSlots) {
+
+    private static ChunkNode create(final String path,
+                                    final boolean enforceMinContextSlot,
+                                    final IntToLongFunction servedSlot) {
+      final var node = new ChunkNode(
+          path, enforceMinContextSlot, servedSlot,
+          new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new CopyOnWriteArrayList<>()
+      );
+      HTTP_SERVER.createContext(path, node::handle);
+      return node;
+    }
+
+    private void handle(final HttpExchange request) throws IOException {
+      final var requestString = new String(request.getRequestBody().readAllBytes());
+      final int requestNumber = requests.incrementAndGet();
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      final String response;
+      try {
+        sleep(20);
+        final int keysStart = requestString.indexOf("[[") + 2;
+        final var keys = requestString.substring(keysStart, requestString.indexOf(']', keysStart)).replace("\"", "").split(",");
+        final var matcher = MIN_CONTEXT_SLOT.matcher(requestString);
+        final long minContextSlot = matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+        minContextSlots.add(minContextSlot);
+        final long slot = servedSlot.applyAsLong(requestNumber);
+        if (enforceMinContextSlot && slot < minContextSlot) {
+          response = String.format("""
+              {"jsonrpc":"2.0","error":{"code":-32016,"message":"Minimum context slot has not been reached","data":{"contextSlot":%d}},"id":1}""", slot);
+        } else {
+          final var accounts = Arrays.stream(keys).map(key -> {
+            final var keyBytes = PublicKey.fromBase58Encoded(key).toByteArray();
+            return (keyBytes[31] & 1) == 0 ? "null" : String.format("""
+                {"lamports":1,"data":["%s","base64"],"owner":"11111111111111111111111111111111","executable":false,"rentEpoch":0,"space":32}""",
+                Base64.getEncoder().encodeToString(keyBytes)
+            );
+          }).collect(Collectors.joining(","));
+          response = String.format("""
+              {"jsonrpc":"2.0","id":1,"result":{"context":{"slot":%d,"apiVersion":"2.1.9"},"value":[%s]}}""", slot, accounts);
+        }
+      } finally {
+        inFlight.decrementAndGet();
+      }
+      writeResponse(request, response);
+    }
+
+    private SolanaRpcClient client() {
+      return SolanaRpcClient.createClient(HTTP_SERVER_ENDPOINT.resolve(path), HTTP_CLIENT);
+    }
+
+    private void remove() {
+      HTTP_SERVER.removeContext(path);
+    }
+  }
+
+  // Keys with an even last byte do not exist.
+  private static List<PublicKey> chunkKeys(final int numKeys) {
+    final var keys = new ArrayList<PublicKey>(numKeys);
+    for (int i = 0; i < numKeys; ++i) {
+      final var key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+      ByteUtil.putInt32LE(key, 0, i);
+      key[31] = (byte) (i % 7 == 0 ? 2 : 1);
+      keys.add(PublicKey.createPubKey(key));
+    }
+    return keys;
+  }
+
+  private static void validateChunkedAccounts(final List<PublicKey> keys, final List<AccountInfo<byte[]>> accounts) {
+    assertEquals(keys.size(), accounts.size());
+    for (int i = 0; i < keys.size(); ++i) {
+      final var account = accounts.get(i);
+      if (i % 7 == 0) {
+        assertNull(account);
+      } else {
+        assertEquals(keys.get(i), account.pubKey());
+        assertEquals(keys.get(i), PublicKey.readPubKey(account.data()));
+      }
+    }
+  }
+
+  @Test
+  void testChunkedAccountsOrderAndConcurrency() {
+    final var node = ChunkNode.create("/chunked/order", true, request -> 500);
+    try {
+      final var keys = chunkKeys(1_050);
+      final var accounts = node.client().getAccountsChunked(keys, 3).join();
+      validateChunkedAccounts(keys, accounts);
+      assertEquals(11, node.requests().get());
+      assertEquals(3, node.maxInFlight().get());
+      // Only the initial requests go out before any context slot has been observed.
+      assertEquals(3, node.minContextSlots().stream().filter(slot -> slot == 0).count());
+      assertTrue(node.minContextSlots().stream().allMatch(slot -> slot == 0 || slot == 500));
+    } finally {
+      node.remove();
+    }
+  }
+
+  @Test
+  void testChunkedAccountsRefetchStaleChunks() {
+    final var node = ChunkNode.create("/chunked/stale", true, request -> 1_000 + request);
+    try {
+      final var keys = chunkKeys(450);
+      final var accounts = node.client().getAccountsChunked(keys, 2).join();
+      validateChunkedAccounts(keys, accounts);
+      // Slots 1001 through 1005 are served by the first pass, the four chunks below 1005 are fetched again.
+      assertEquals(9, node.requests().get());
+      assertEquals(List.of(1_005L, 1_005L, 1_005L, 1_005L), node.minContextSlots().subList(5, 9));
+      assertTrue(accounts.stream().filter(Objects::nonNull).allMatch(account -> account.context().slot() >= 1_005));
+    } finally {
+      node.remove();
+    }
+  }
+
+  @Test
+  void testChunkedAccountsRetryMinContextSlot() {
+    // The third request hits a node which has not caught up yet.
+    final var lagging = ChunkNode.create("/chunked/lagging", true, request -> request == 3 ? 900 : 1_000);
+    try {
+      final var keys = chunkKeys(250);
+      final var accounts = lagging.client().getAccountsChunked(keys, 1).join();
+      validateChunkedAccounts(keys, accounts);
+      assertEquals(4, lagging.requests().get());
+    } finally {
+      lagging.remove();
+    }
+
+    final var stuck = ChunkNode.create("/chunked/stuck", true, request -> request == 1 ? 1_000 : 900);
+    try {
+      final var error = assertThrows(CompletionException.class, () -> stuck.client().getAccountsChunked(chunkKeys(150), 1).join());
+      final var rpcException = assertInstanceOf(JsonRpcException.class, error.getCause());
+      assertEquals(-32016, rpcException.code());
+      assertEquals(2 + SolanaJsonRpcClient.MAX_MIN_CONTEXT_SLOT_RETRIES, stuck.requests().get());
+    } finally {
+      stuck.remove();
+    }
+  }
+
+  @Test
+  void testChunkedAccountsRejectsSlotsBelowMinimum() {
+    // A node which ignores minContextSlot and serves older state when chunks are fetched again.
+    final var node = ChunkNode.create("/chunked/ignored", false, request -> request <= 3 ? 1_000 + request : 900);
+    try {
+      final var error = assertThrows(CompletionException.class, () -> node.client().getAccountsChunked(chunkKeys(250), 1).join());
+      final var stateException = assertInstanceOf(IllegalStateException.class, error.getCause());
+      assertTrue(stateException.getMessage().contains("minimum context slot 1003"), stateException.getMessage());
+    } finally {
+      node.remove();
+    }
+  }
 }
@@ -0,0 +1,264 @@
+package software.sava.rpc.json.http.client;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.tx.Transaction;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.*;
+import software.sava.rpc.json.http.ws.SolanaRpcWebsocket;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TransactionSenderTests {
+
+  private static final Context CONTEXT = new Context(328984397, "2.1.9");
+  private static final TxStatus NIL = new TxStatus(CONTEXT, 0, OptionalInt.empty(), null, null);
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+  private static final class StubNode {
+
+    private final AtomicLong blockHeight = new AtomicLong(100);
+    private final AtomicInteger ticks = new AtomicInteger();
+    private final AtomicInteger sends = new AtomicInteger();
+    private final Map<String, TxStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<TxResult>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<String> unsubscribed = ConcurrentHashMap.newKeySet();
+    private volatile boolean acceptSubscriptions = true;
+
+    @SuppressWarnings("unchecked")
+    private final RpcStub rpc = new RpcStub()
+        .on("getBlockHeight", args -> {
+          ticks.incrementAndGet();
+          return CompletableFuture.completedFuture(new BlockHeight(blockHeight.get()));
+        })
+        .on("getSignatureStatuses", args -> {
+          final var signatures = (SequencedCollection<String>) args[0];
+          final var result = HashMap.<String, TxStatus>newHashMap(signatures.size());
+          for (final var signature : signatures) {
+            result.put(signature, statuses.getOrDefault(signature, NIL));
+          }
+          return CompletableFuture.completedFuture(result);
+        })
+        .on("sendTransactionSkipPreflight", args -> {
+          sends.incrementAndGet();
+          return CompletableFuture.completedFuture("");
+        })
+        .on("signatureSubscribe", args -> {
+          if (acceptSubscriptions) {
+            subscriptions.put((String) args[2], (Consumer<TxResult>) args[args.length - 1]);
+          }
+          return acceptSubscriptions;
+        })
+        .on("signatureUnsubscribe", args -> unsubscribed.add((String) args[1]));
+
+    private SolanaRpcClient rpcClient() {
+      return rpc.rpcClient();
+    }
+
+    private SolanaRpcWebsocket websocket() {
+      return rpc.websocket();
+    }
+
+    private void awaitTicks(final int numTicks) throws InterruptedException {
+      final int target = ticks.get() + numTicks;
+      final long deadline = System.nanoTime() + SECONDS.toNanos(5);
+      while (ticks.get() < target) {
+        assertTrue(System.nanoTime() < deadline, "Timed out waiting for the tick loop.");
+        //noinspection BusyWait
+        Thread.sleep(1);
+      }
+    }
+  }
+
+  private static final Random RANDOM = new Random(7);
+
+  private static byte[] signedTx() {
+    final var tx = new byte[1 + 64 + 32];
+    RANDOM.nextBytes(tx);
+    tx[0] = 1;
+    return tx;
+  }
+
+  private static String signature(final byte[] signedTx) {
+    return Transaction.getBase58Id(signedTx);
+  }
+
+  private static TxStatus status(final Commitment confirmationStatus, final TransactionError error) {
+    return new TxStatus(CONTEXT, CONTEXT.slot(), OptionalInt.empty(), error, confirmationStatus);
+  }
+
+  private static TransactionSender createSender(final StubNode node,
+                                                final SolanaRpcWebsocket websocket,
+                                                final int maxInFlight) {
+    return TransactionSender.createSender(
+        node.rpcClient(), websocket, Commitment.CONFIRMED, maxInFlight, Duration.ZERO, POLL_INTERVAL
+    );
+  }
+
+  @Test
+  void confirmsByPolling() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, null, 8)) {
+      final var tx = signedTx();
+      final var future = sender.send(tx, 200);
+      assertEquals(1, sender.numInFlight());
+      assertSame(future, sender.send(tx, 200));
+
+      node.awaitTicks(2);
+      assertFalse(future.isDone());
+      assertTrue(node.sends.get() > 1);
+
+      node.statuses.put(signature(tx), status(Commitment.PROCESSED, null));
+      node.awaitTicks(2);
+      assertFalse(future.isDone());
+
+      node.statuses.put(signature(tx), status(Commitment.CONFIRMED, null));
+      final var status = future.get(5, SECONDS);
+      assertEquals(Commitment.CONFIRMED, status.confirmationStatus());
+      assertNull(status.error());
+      assertEquals(0, sender.numInFlight());
+      assertEquals(100, sender.blockHeight());
+    }
+  }
+
+  @Test
+  void completesWithError() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, null, 8)) {
+      final var tx = signedTx();
+      final var error = new TransactionError.Unknown("InsufficientFundsForFee");
+      node.statuses.put(signature(tx), status(Commitment.PROCESSED, error));
+      final var status = sender.send(tx, 200).get(5, SECONDS);
+      assertEquals(error, status.error());
+      assertEquals(0, sender.numInFlight());
+    }
+  }
+
+  @Test
+  void expiresPastLastValidBlockHeight() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, null, 8)) {
+      final var future = sender.send(signedTx(), 150);
+      node.awaitTicks(2);
+      assertFalse(future.isDone());
+
+      node.blockHeight.set(151);
+      final var ex = assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+      assertInstanceOf(TimeoutException.class, ex.getCause());
+      assertEquals(0, sender.numInFlight());
+    }
+  }
+
+  @Test
+  void droppedForkResumesRebroadcastAndStillExpires() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, null, 8)) {
+      final var tx = signedTx();
+      final var signature = signature(tx);
+      final var future = sender.send(tx, 150);
+
+      node.statuses.put(signature, status(Commitment.PROCESSED, null));
+      node.awaitTicks(2);
+      final int sends = node.sends.get();
+      node.awaitTicks(3);
+      assertEquals(sends, node.sends.get(), "Landed transactions should not be re-sent.");
+
+      node.statuses.remove(signature);
+      node.awaitTicks(3);
+      assertTrue(node.sends.get() > sends, "Transactions dropped with a fork should be re-sent.");
+
+      node.statuses.put(signature, status(Commitment.PROCESSED, null));
+      node.awaitTicks(2);
+      node.blockHeight.set(151);
+      final var ex = assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+      assertInstanceOf(TimeoutException.class, ex.getCause());
+      assertEquals(0, sender.numInFlight());
+    }
+  }
+
+  @Test
+  void boundsInFlight() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, null, 2)) {
+      final var first = signedTx();
+      sender.send(first, 200);
+      sender.send(signedTx(), 200);
+      assertEquals(2, sender.numInFlight());
+
+      final var ex = assertThrows(ExecutionException.class, () -> sender.send(signedTx(), 200).get());
+      assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+      assertEquals(2, sender.numInFlight());
+
+      node.statuses.put(signature(first), status(Commitment.FINALIZED, null));
+      sender.send(first, 200).get(5, SECONDS);
+      assertEquals(1, sender.numInFlight());
+      assertFalse(sender.send(signedTx(), 200).isDone());
+      assertEquals(2, sender.numInFlight());
+    }
+  }
+
+  @Test
+  void closeFailsPendingAndCancelsSubscriptions() {
+    final var node = new StubNode();
+    final var sender = createSender(node, node.websocket(), 8);
+    final var tx = signedTx();
+    final var future = sender.send(tx);
+    assertTrue(node.subscriptions.containsKey(signature(tx)));
+
+    sender.close();
+    final var ex = assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+    assertEquals(0, sender.numInFlight());
+    assertTrue(node.unsubscribed.contains(signature(tx)));
+
+    final var closedEx = assertThrows(ExecutionException.class, () -> sender.send(signedTx()).get());
+    assertInstanceOf(IllegalStateException.class, closedEx.getCause());
+  }
+
+  @Test
+  void confirmsByNotification() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, node.websocket(), 8)) {
+      final var tx = signedTx();
+      final var future = sender.send(tx, 200);
+      node.subscriptions.get(signature(tx)).accept(new TxResult(CONTEXT, null, null));
+      final var status = future.get(5, SECONDS);
+      assertEquals(CONTEXT.slot(), status.slot());
+      assertEquals(0, sender.numInFlight());
+      // The server cancels the subscription once it has notified.
+      assertFalse(node.unsubscribed.contains(signature(tx)));
+    }
+  }
+
+  @Test
+  void pollsWhenSubscriptionFails() throws Exception {
+    final var node = new StubNode();
+    node.acceptSubscriptions = false;
+    try (final var sender = createSender(node, node.websocket(), 8)) {
+      final var tx = signedTx();
+      node.statuses.put(signature(tx), status(Commitment.CONFIRMED, null));
+      sender.send(tx, 200).get(5, SECONDS);
+      assertEquals(1, node.ticks.get());
+      assertTrue(node.unsubscribed.isEmpty());
+    }
+  }
+
+  @Test
+  void pollsMissedNotifications() throws Exception {
+    final var node = new StubNode();
+    try (final var sender = createSender(node, node.websocket(), 8)) {
+      final var tx = signedTx();
+      node.statuses.put(signature(tx), status(Commitment.CONFIRMED, null));
+      sender.send(tx, 200).get(5, SECONDS);
+      assertEquals(RebroadcastingTransactionSender.WEBSOCKET_POLL_TICKS + 1, node.ticks.get());
+      assertTrue(node.unsubscribed.contains(signature(tx)));
+    }
+  }
+}
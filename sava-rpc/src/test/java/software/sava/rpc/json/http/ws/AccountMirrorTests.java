@@ -0,0 +1,257 @@
+package software.sava.rpc.json.http.ws;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.rpc.json.http.client.RpcStub;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.AccountInfo;
+import software.sava.rpc.json.http.response.Context;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+final class AccountMirrorTests {
+
+  private static final PublicKey PROGRAM = key(1);
+  private static final PublicKey OTHER_PROGRAM = key(2);
+  private static final PublicKey A = key(10);
+  private static final PublicKey B = key(11);
+  private static final PublicKey C = key(12);
+  private static final PublicKey D = key(13);
+  private static final PublicKey E = key(14);
+  private static final PublicKey F = key(15);
+
+  private static PublicKey key(final int id) {
+    final byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+    key[0] = (byte) id;
+    key[31] = 1;
+    return PublicKey.createPubKey(key);
+  }
+
+  private static Context context(final long slot) {
+    return new Context(slot, "2.1.9");
+  }
+
+  private static AccountInfo<byte[]> notification(final PublicKey account,
+                                                  final long slot,
+                                                  final long lamports,
+                                                  final PublicKey owner,
+                                                  final String data) {
+    return new AccountInfo<>(account, context(slot), false, lamports, owner, BigInteger.ZERO, 0, data.getBytes(UTF_8));
+  }
+
+  private static AccountInfo<byte[]> notification(final PublicKey account, final long slot, final String data) {
+    return notification(account, slot, 1, PROGRAM, data);
+  }
+
+  private static AccountInfo<String> snapshotAccount(final PublicKey account, final long slot, final String data) {
+    return new AccountInfo<>(account, context(slot), false, 1, PROGRAM, BigInteger.ZERO, 0, data);
+  }
+
+  private static final class StubNode {
+
+    private Consumer<Subscription<AccountInfo<byte[]>>> onSub;
+    private Consumer<AccountInfo<byte[]>> notifications;
+    // Failed snapshots are retried from another thread.
+    private final BlockingDeque<Consumer<AccountInfo<String>>> snapshotConsumers = new LinkedBlockingDeque<>();
+    private final BlockingDeque<Long> minContextSlots = new LinkedBlockingDeque<>();
+    private final BlockingDeque<CompletableFuture<Context>> snapshots = new LinkedBlockingDeque<>();
+    private boolean unsubscribed;
+
+    @SuppressWarnings("unchecked")
+    private final RpcStub rpc = new RpcStub()
+        .on("programSubscribe", args -> {
+          onSub = (Consumer<Subscription<AccountInfo<byte[]>>>) args[3];
+          notifications = (Consumer<AccountInfo<byte[]>>) args[4];
+          return true;
+        })
+        .on("programUnsubscribe", args -> unsubscribed = true)
+        .on("timings", args -> new Timings(0, 0, 0))
+        .on("streamProgramAccounts", args -> {
+          minContextSlots.add((Long) args[3]);
+          snapshotConsumers.add((Consumer<AccountInfo<String>>) args[args.length - 1]);
+          final var snapshot = new CompletableFuture<Context>();
+          snapshots.add(snapshot);
+          return snapshot;
+        });
+
+    private AccountMirror<String> createMirror() {
+      return AccountMirror.createMirror(
+          rpc.rpcClient(), rpc.websocket(),
+          Commitment.CONFIRMED, PROGRAM, List.of(), (account, data) -> new String(data, UTF_8)
+      );
+    }
+
+    /// Simulates the program subscription being (re-)sent.
+    private void subscribed() {
+      onSub.accept(null);
+    }
+
+    private void notify(final AccountInfo<byte[]> accountInfo) {
+      notifications.accept(accountInfo);
+    }
+
+    /// Fails like a node would if the snapshot slot is below the requested `minContextSlot`.
+    private void streamSnapshot(final List<AccountInfo<String>> accounts, final long slot) {
+      try {
+        final var consumer = snapshotConsumers.pollFirst(5, SECONDS);
+        final long minContextSlot = minContextSlots.pollFirst(5, SECONDS);
+        final var snapshot = snapshots.pollFirst(5, SECONDS);
+        assertNotNull(snapshot, "Timed out waiting for a snapshot request.");
+        if (slot < minContextSlot) {
+          snapshot.completeExceptionally(new IllegalStateException("Minimum context slot has not been reached"));
+        } else {
+          accounts.forEach(consumer);
+          snapshot.complete(context(slot));
+        }
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static Map<PublicKey, String> state(final AccountMirror<String> mirror) {
+    final var state = new HashMap<PublicKey, String>();
+    for (final var accountInfo : mirror.accounts()) {
+      state.put(accountInfo.pubKey(), accountInfo.data());
+    }
+    return state;
+  }
+
+  /// Retries run on another thread which may only attach to the request after the stub has completed it.
+  private static void awaitSynced(final AccountMirror<String> mirror) {
+    final long deadline = System.nanoTime() + SECONDS.toNanos(5);
+    while (!mirror.synced()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting for the mirror to sync.");
+      Thread.onSpinWait();
+    }
+  }
+
+  @Test
+  void reconcilesNotificationsAroundTheSnapshotSlot() {
+    final var node = new StubNode();
+    try (final var mirror = node.createMirror()) {
+      final var changes = new CopyOnWriteArrayList<String>();
+      mirror.addListener((previous, current) -> changes.add(
+          (previous == null ? "-" : previous.data()) + " > " + (current == null ? "-" : current.data())
+      ));
+
+      assertTrue(mirror.start());
+      node.subscribed();
+      assertFalse(mirror.synced());
+      assertEquals(1, node.snapshots.size());
+
+      // Buffered while the snapshot at slot 100 is in flight.
+      node.notify(notification(A, 99, "A99"));
+      node.notify(notification(B, 105, "B105"));
+      node.notify(notification(C, 101, 0, PROGRAM, ""));
+      node.notify(notification(D, 90, 0, PROGRAM, ""));
+      node.notify(notification(E, 102, "E102"));
+      assertEquals(0, mirror.size());
+
+      node.streamSnapshot(List.of(
+          snapshotAccount(A, 100, "A100"),
+          snapshotAccount(B, 100, "B100"),
+          snapshotAccount(C, 100, "C100"),
+          snapshotAccount(D, 100, "D100")
+      ), 100);
+
+      assertTrue(mirror.synced());
+      assertTrue(mirror.initialSync().isDone());
+      assertEquals(100, mirror.snapshotSlot());
+      assertEquals(Map.of(A, "A100", B, "B105", D, "D100", E, "E102"), state(mirror));
+      assertEquals(List.of(
+          "- > A100", "- > B100", "- > C100", "- > D100",
+          "B100 > B105", "C100 > -", "- > E102"
+      ), changes);
+
+      // Applied directly once synced, older writes are ignored.
+      node.notify(notification(A, 99, "A99"));
+      node.notify(notification(A, 106, "A106"));
+      node.notify(notification(F, 107, "F107"));
+      node.notify(notification(D, 108, 1, OTHER_PROGRAM, "D108"));
+      assertEquals(Map.of(A, "A106", B, "B105", E, "E102", F, "F107"), state(mirror));
+    }
+    assertTrue(node.unsubscribed);
+  }
+
+  @Test
+  void resyncRemovesAccountsMissingFromTheSnapshot() {
+    final var node = new StubNode();
+    try (final var mirror = node.createMirror()) {
+      mirror.start();
+      node.subscribed();
+      node.streamSnapshot(List.of(
+          snapshotAccount(A, 100, "A100"),
+          snapshotAccount(B, 100, "B100"),
+          snapshotAccount(C, 100, "C100")
+      ), 100);
+      node.notify(notification(D, 110, "D110"));
+      assertEquals(Map.of(A, "A100", B, "B100", C, "C100", D, "D110"), state(mirror));
+
+      // Reconnect, and a second reconnect while the snapshot at slot 120 is in flight.
+      node.subscribed();
+      assertFalse(mirror.synced());
+      node.notify(notification(A, 115, "A115"));
+      node.notify(notification(E, 125, "E125"));
+      node.subscribed();
+      assertEquals(1, node.snapshots.size());
+
+      // C and D were closed before slot 120, B was written at slot 130 while streaming.
+      final var consumer = node.snapshotConsumers.peekFirst();
+      consumer.accept(snapshotAccount(A, 120, "A120"));
+      node.notify(notification(B, 130, "B130"));
+      node.streamSnapshot(List.of(), 120);
+
+      assertEquals(120, mirror.snapshotSlot());
+      assertEquals(Map.of(A, "A120", B, "B130", E, "E125"), state(mirror));
+      assertFalse(mirror.synced());
+      assertEquals(1, node.snapshots.size());
+
+      node.streamSnapshot(List.of(snapshotAccount(A, 140, "A140"), snapshotAccount(B, 140, "B140")), 140);
+      assertTrue(mirror.synced());
+      assertEquals(140, mirror.snapshotSlot());
+      assertEquals(Map.of(A, "A140", B, "B140"), state(mirror));
+    }
+  }
+
+  @Test
+  void laggingSnapshotDoesNotResurrectClosedAccounts() {
+    final var node = new StubNode();
+    try (final var mirror = node.createMirror()) {
+      final var changes = new CopyOnWriteArrayList<String>();
+      mirror.addListener((previous, current) -> changes.add(
+          (previous == null ? "-" : previous.data()) + " > " + (current == null ? "-" : current.data())
+      ));
+      mirror.start();
+      node.subscribed();
+      assertEquals(0, node.minContextSlots.peekFirst());
+      node.streamSnapshot(List.of(snapshotAccount(A, 100, "A100"), snapshotAccount(B, 100, "B100")), 100);
+      node.notify(notification(B, 110, 0, PROGRAM, ""));
+      assertEquals(Map.of(A, "A100"), state(mirror));
+
+      // B was closed at slot 110, a node still at slot 105 would stream it again.
+      node.subscribed();
+      assertEquals(110, node.minContextSlots.peekFirst());
+      node.streamSnapshot(List.of(snapshotAccount(A, 105, "A105"), snapshotAccount(B, 105, "B105")), 105);
+      assertFalse(mirror.synced());
+      assertEquals(Map.of(A, "A100"), state(mirror));
+
+      // Retried once the failed request completes.
+      node.streamSnapshot(List.of(snapshotAccount(A, 112, "A112")), 112);
+      awaitSynced(mirror);
+      assertEquals(112, mirror.snapshotSlot());
+      assertEquals(Map.of(A, "A112"), state(mirror));
+      assertEquals(List.of("- > A100", "- > B100", "B100 > -", "A100 > A112"), changes);
+    }
+  }
+}
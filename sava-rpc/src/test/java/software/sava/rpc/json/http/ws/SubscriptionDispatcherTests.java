@@ -0,0 +1,296 @@
+package software.sava.rpc.json.http.ws;
+
+import org.junit.jupiter.api.Test;
+import software.sava.core.accounts.PublicKey;
+import software.sava.rpc.json.http.request.Commitment;
+import software.sava.rpc.json.http.response.AccountInfo;
+import software.sava.rpc.json.http.response.Context;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+import static software.sava.rpc.json.http.ws.SubscriptionDispatcher.OverflowPolicy.*;
+
+final class SubscriptionDispatcherTests {
+
+  private static final Context CONTEXT = new Context(328984397, "2.1.9");
+  private static final PublicKey ACCOUNT_A = PublicKey.fromBase58Encoded("So11111111111111111111111111111111111111112");
+  private static final PublicKey ACCOUNT_B = PublicKey.fromBase58Encoded("11111111111111111111111111111111");
+
+  private static <T> Subscription<T> subscription(final Channel channel, final Consumer<T> consumer) {
+    return Subscription.createSubscription(Commitment.CONFIRMED, channel, channel.name(), 1, "", sub -> {
+    }, consumer);
+  }
+
+  private static AccountInfo<byte[]> accountInfo(final PublicKey account, final long lamports) {
+    return new AccountInfo<>(account, CONTEXT, false, lamports, ACCOUNT_B, BigInteger.ZERO, 0, new byte[0]);
+  }
+
+  private static void await(final BooleanSupplier condition, final String message) throws InterruptedException {
+    final long deadline = System.nanoTime() + SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, message);
+      //noinspection BusyWait
+      Thread.sleep(1);
+    }
+  }
+
+  /// Blocks the consumer on its first notification until released.
+  private static final class Gate<T> implements Consumer<T> {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<T> received = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void accept(final T notification) {
+      received.add(notification);
+      entered.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    private void awaitEntered() throws InterruptedException {
+      assertTrue(entered.await(5, SECONDS), "Consumer was never called.");
+    }
+
+    private void awaitReceived(final int numReceived) throws InterruptedException {
+      await(() -> received.size() >= numReceived, "Expected " + numReceived + " notifications, got " + received);
+    }
+  }
+
+  private static void assertOrderedPerChannel(final SubscriptionDispatcher dispatcher) throws InterruptedException {
+    final int numNotifications = 2_000;
+    final var slots = new CopyOnWriteArrayList<Long>();
+    final var logs = new CopyOnWriteArrayList<Long>();
+    final Subscription<Long> slotSub = subscription(Channel.slot, slots::add);
+    final Subscription<Long> logsSub = subscription(Channel.logs, logs::add);
+    for (long i = 0; i < numNotifications; ++i) {
+      dispatcher.dispatch(slotSub, i);
+      dispatcher.dispatch(logsSub, i);
+    }
+    await(() -> dispatcher.numDispatched() == 2 * numNotifications, "Not all notifications were dispatched.");
+    final var expected = LongStream.range(0, numNotifications).boxed().toList();
+    assertEquals(expected, slots);
+    assertEquals(expected, logs);
+    assertEquals(0, dispatcher.queueDepth());
+    assertEquals(0, dispatcher.numDropped());
+  }
+
+  @Test
+  void directRunsOnTheListenerThread() {
+    try (final var dispatcher = SubscriptionDispatcher.direct()) {
+      final var threads = new ArrayList<Thread>();
+      final Subscription<Long> sub = subscription(Channel.slot, slot -> threads.add(Thread.currentThread()));
+      dispatcher.dispatch(sub, 1L);
+      dispatcher.dispatch(sub, 2L);
+      assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), threads);
+      assertEquals(2, dispatcher.numDispatched());
+      assertEquals(0, dispatcher.queueDepth());
+    }
+  }
+
+  @Test
+  void boundedPreservesOrderPerChannel() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(16, BLOCK)) {
+      assertOrderedPerChannel(dispatcher);
+    }
+  }
+
+  @Test
+  void singleThreadedExecutorPreservesOrderPerChannel() throws InterruptedException {
+    try (final var executor = Executors.newSingleThreadExecutor();
+         final var dispatcher = SubscriptionDispatcher.executor(executor)) {
+      assertOrderedPerChannel(dispatcher);
+    }
+  }
+
+  @Test
+  void blockWaitsForRoom() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(2, BLOCK)) {
+      final var gate = new Gate<Long>();
+      final var sub = subscription(Channel.slot, gate);
+      dispatcher.dispatch(sub, 1L);
+      gate.awaitEntered();
+      dispatcher.dispatch(sub, 2L);
+      dispatcher.dispatch(sub, 3L);
+      assertEquals(2, dispatcher.queueDepth());
+
+      final var listener = Thread.ofVirtual().start(() -> dispatcher.dispatch(sub, 4L));
+      assertFalse(listener.join(Duration.ofMillis(100)), "Dispatch should block while the queue is full.");
+      assertEquals(2, dispatcher.queueDepth());
+
+      gate.release.countDown();
+      assertTrue(listener.join(Duration.ofSeconds(5)));
+      gate.awaitReceived(4);
+      assertEquals(List.of(1L, 2L, 3L, 4L), gate.received);
+      assertEquals(0, dispatcher.numDropped());
+    }
+  }
+
+  @Test
+  void dropOldestDiscardsQueuedNotifications() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(2, DROP_OLDEST)) {
+      final var gate = new Gate<Long>();
+      final var sub = subscription(Channel.slot, gate);
+      dispatcher.dispatch(sub, 1L);
+      gate.awaitEntered();
+      for (long slot = 2; slot <= 5; ++slot) {
+        dispatcher.dispatch(sub, slot);
+      }
+      assertEquals(2, dispatcher.queueDepth());
+      assertEquals(2, dispatcher.numDropped());
+
+      gate.release.countDown();
+      gate.awaitReceived(3);
+      assertEquals(List.of(1L, 4L, 5L), gate.received);
+      await(() -> dispatcher.numDispatched() == 3, "Expected 3 dispatched notifications.");
+    }
+  }
+
+  @Test
+  void coalesceReplacesQueuedNotificationsByKey() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(4, COALESCE_BY_KEY)) {
+      final var gate = new Gate<Object>();
+      final Subscription<Object> slotSub = subscription(Channel.slot, gate);
+      final var accounts = new CopyOnWriteArrayList<AccountInfo<byte[]>>();
+      final Subscription<AccountInfo<byte[]>> accountSub = subscription(Channel.account, accounts::add);
+      final var logs = new CopyOnWriteArrayList<String>();
+      final Subscription<String> logsSub = subscription(Channel.logs, logs::add);
+
+      dispatcher.dispatch(slotSub, 1L);
+      gate.awaitEntered();
+      for (long slot = 2; slot <= 10; ++slot) {
+        dispatcher.dispatch(slotSub, slot);
+      }
+      for (long lamports = 1; lamports <= 3; ++lamports) {
+        dispatcher.dispatch(accountSub, accountInfo(ACCOUNT_A, lamports));
+        dispatcher.dispatch(accountSub, accountInfo(ACCOUNT_B, lamports * 10));
+      }
+      assertEquals(3, dispatcher.queueDepth());
+      assertEquals(12, dispatcher.numCoalesced());
+
+      // Notifications without a key are never coalesced, once full the oldest is dropped.
+      dispatcher.dispatch(logsSub, "a");
+      dispatcher.dispatch(logsSub, "b");
+      assertEquals(4, dispatcher.queueDepth());
+      assertEquals(1, dispatcher.numDropped());
+
+      // The dropped slot notification no longer absorbs newer ones.
+      dispatcher.dispatch(slotSub, 11L);
+      assertEquals(2, dispatcher.numDropped());
+      assertEquals(12, dispatcher.numCoalesced());
+
+      gate.release.countDown();
+      await(() -> dispatcher.numDispatched() == 5, "Expected 5 dispatched notifications.");
+      assertEquals(List.of(1L, 11L), gate.received);
+      assertEquals(List.of(ACCOUNT_B), accounts.stream().map(AccountInfo::pubKey).toList());
+      assertEquals(30, accounts.getFirst().lamports());
+      assertEquals(List.of("a", "b"), logs);
+    }
+  }
+
+  @Test
+  void boundedIsolatesTheListenerFromASlowConsumer() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(8, DROP_OLDEST)) {
+      final var gate = new Gate<Long>();
+      final var sub = subscription(Channel.slot, gate);
+      dispatcher.dispatch(sub, 0L);
+      gate.awaitEntered();
+
+      final var listener = Thread.ofVirtual().start(() -> {
+        for (long slot = 1; slot <= 1_000; ++slot) {
+          dispatcher.dispatch(sub, slot);
+        }
+      });
+      assertTrue(listener.join(Duration.ofSeconds(5)), "Dispatch blocked on a slow consumer.");
+      assertEquals(8, dispatcher.queueDepth());
+      assertEquals(1_000 - 8, dispatcher.numDropped());
+
+      gate.release.countDown();
+      gate.awaitReceived(9);
+      final var expected = LongStream.concat(LongStream.of(0), LongStream.rangeClosed(993, 1_000)).boxed().toList();
+      assertEquals(expected, gate.received);
+    }
+  }
+
+  @Test
+  void executorIsolatesSubscriptionsFromASlowConsumer() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.virtualThreadPerMessage()) {
+      final var gate = new Gate<Long>();
+      final var slowSub = subscription(Channel.slot, gate);
+      final var received = new ConcurrentHashMap<Long, Boolean>();
+      final Subscription<Long> fastSub = subscription(Channel.logs, slot -> received.put(slot, true));
+
+      dispatcher.dispatch(slowSub, 0L);
+      gate.awaitEntered();
+      for (long i = 0; i < 100; ++i) {
+        dispatcher.dispatch(fastSub, i);
+      }
+      await(() -> received.size() == 100, "The fast consumer waited on the slow one.");
+      await(() -> dispatcher.queueDepth() == 1, "Only the slow notification should be outstanding.");
+      gate.release.countDown();
+      await(() -> dispatcher.numDispatched() == 101, "Expected 101 dispatched notifications.");
+      assertEquals(0, dispatcher.queueDepth());
+    }
+  }
+
+  @Test
+  void consumerFailuresDoNotStopDelivery() throws InterruptedException {
+    try (final var dispatcher = SubscriptionDispatcher.bounded(4, BLOCK)) {
+      final var received = new CopyOnWriteArrayList<Long>();
+      final Subscription<Long> sub = subscription(Channel.slot, slot -> {
+        received.add(slot);
+        if (slot == 1) {
+          throw new IllegalStateException("Consumer failure.");
+        }
+      });
+      dispatcher.dispatch(sub, 1L);
+      dispatcher.dispatch(sub, 2L);
+      await(() -> received.size() == 2, "Delivery stopped after a consumer failure.");
+    }
+  }
+
+  @Test
+  void closeDeliversQueuedAndDropsNewNotifications() throws InterruptedException {
+    final var dispatcher = SubscriptionDispatcher.bounded(4, BLOCK);
+    final var gate = new Gate<Long>();
+    final var sub = subscription(Channel.slot, gate);
+    dispatcher.dispatch(sub, 1L);
+    gate.awaitEntered();
+    dispatcher.dispatch(sub, 2L);
+    dispatcher.close();
+    dispatcher.dispatch(sub, 3L);
+    assertEquals(1, dispatcher.numDropped());
+
+    gate.release.countDown();
+    gate.awaitReceived(2);
+    assertEquals(List.of(1L, 2L), gate.received);
+  }
+
+  @Test
+  void executorRejectionsAreDropped() {
+    final Map<Long, Boolean> received = new ConcurrentHashMap<>();
+    try (final var dispatcher = SubscriptionDispatcher.executor(runnable -> {
+      throw new RejectedExecutionException();
+    })) {
+      final Subscription<Long> sub = subscription(Channel.slot, slot -> received.put(slot, true));
+      dispatcher.dispatch(sub, 1L);
+      assertEquals(1, dispatcher.numDropped());
+      assertEquals(0, dispatcher.queueDepth());
+      assertTrue(received.isEmpty());
+    }
+  }
+}
@@ -2,6 +2,7 @@ package software.sava.vanity;
 
 import software.sava.core.accounts.vanity.PrivateKeyEncoding;
 import software.sava.core.accounts.vanity.Result;
+import software.sava.core.accounts.vanity.SecureRandomFactory;
 import software.sava.core.accounts.vanity.Subsequence;
 import software.sava.core.accounts.vanity.VanityAddressGenerator;
 
@@ -89,11 +90,17 @@ public final class Entrypoint {
       final int findNumKeys = intProp(moduleName, "numKeys", 1);
       final int checkFound = intProp(moduleName, "checkFound", 131_072);
       final boolean sigVerify = boolProp(moduleName, "sigVerify", false);
-      final var privateKeyEncoding = PrivateKeyEncoding.valueOf(System.getProperty(moduleName + ".keyFormat", "base64KeyPair"));
+      final boolean incremental = boolProp(moduleName, "incremental", false);
+      final var keyFormat = System.getProperty(moduleName + ".keyFormat");
+      final var privateKeyEncoding = keyFormat == null || keyFormat.isBlank()
+          ? incremental ? PrivateKeyEncoding.base64ExpandedKey : PrivateKeyEncoding.base64KeyPair
+          : PrivateKeyEncoding.valueOf(keyFormat);
       final var generator = VanityAddressGenerator.createGenerator(
           keyPath,
+          SecureRandomFactory.DEFAULT,
           privateKeyEncoding,
           sigVerify,
+          incremental,
           executor,
           numThreads,
           beginsWith,